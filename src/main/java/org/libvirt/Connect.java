@@ -1,8 +1,7 @@
 package org.libvirt;
 
 import java.net.URI;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.UUID;
 
 import org.libvirt.event.*;
@@ -19,6 +18,9 @@ import org.libvirt.jna.StoragePoolPointer;
 import org.libvirt.jna.StorageVolPointer;
 import org.libvirt.jna.StreamPointer;
 import org.libvirt.jna.virConnectAuth;
+import org.libvirt.jna.virDomainEventGraphicsAddress;
+import org.libvirt.jna.virDomainEventGraphicsSubject;
+import org.libvirt.jna.virDomainEventGraphicsSubjectIdentity;
 import org.libvirt.jna.virNodeInfo;
 import org.libvirt.event.*;
 
@@ -31,7 +33,9 @@ import static org.libvirt.BitFlagsHelper.OR;
 import com.sun.jna.Memory;
 import com.sun.jna.NativeLong;
 import com.sun.jna.Pointer;
+import com.sun.jna.Structure;
 import com.sun.jna.ptr.LongByReference;
+import com.sun.jna.ptr.PointerByReference;
 
 /**
  * The Connect object represents a connection to a local or remote
@@ -41,25 +45,18 @@ import com.sun.jna.ptr.LongByReference;
  */
 public class Connect {
 
-    // registered event listeners by DomainEventID
-    private Map<EventListener, RegisteredEventListener>[] eventListeners = makeHashMapArray(DomainEventID.LAST);
-
-    private static final class RegisteredEventListener {
-        public final int callbackId;
+    // the callback types by DomainEventID
+    private static final EventLoopStats.CallbackType[] CALLBACK_TYPES = EventLoopStats.CallbackType.values();
 
-        // We need to keep a reference to the callback to prevent it from being GCed
-        @SuppressWarnings("unused")
-        public final Libvirt.VirDomainEventCallback callback;
+    // registered event listeners by DomainEventID
+    private final DomainEventTable[] eventTables = makeEventTables(DomainEventID.LAST);
 
-        public RegisteredEventListener(Libvirt.VirDomainEventCallback callback, int callbackId) {
-            this.callback = callback;
-            this.callbackId = callbackId;
+    private static DomainEventTable[] makeEventTables(int size) {
+        final DomainEventTable[] tables = new DomainEventTable[size];
+        for (int i = 0; i < size; i++) {
+            tables[i] = new DomainEventTable();
         }
-    }
-
-    @SuppressWarnings("unchecked")
-    private static <K, V> HashMap<K, V>[] makeHashMapArray(int size) {
-        return new HashMap[size];
+        return tables;
     }
 
     private class CloseFunc implements Libvirt.VirConnectCloseFunc {
@@ -78,10 +75,17 @@ public class Connect {
 
     private CloseFunc registeredCloseFunc = null;
 
+    private volatile DomainInterner interner;
+
+    private volatile EventDispatcher dispatcher;
+
+    // the innermost handle scope opened by each thread
+    private final ThreadLocal<HandleScope> scope = new ThreadLocal<HandleScope>();
+
     /**
      * Event IDs.
      */
-    private interface DomainEventID {
+    interface DomainEventID {
         static final int LIFECYCLE = 0;
         static final int REBOOT = 1;
         static final int RTC_CHANGE = 2;
@@ -95,7 +99,11 @@ public class Connect {
         static final int TRAY_CHANGE = 10;
         static final int PMWAKEUP = 11;
         static final int PMSUSPEND = 12;
-        static final int LAST = 13;
+        static final int BALLOON_CHANGE = 13;
+        static final int PMSUSPEND_DISK = 14;
+        static final int DEVICE_REMOVED = 15;
+        static final int BLOCK_JOB_2 = 16;
+        static final int LAST = 17;
     }
 
     public enum OpenFlags implements BitFlags {
@@ -116,6 +124,256 @@ public class Connect {
         private final int value;
     }
 
+    /**
+     * Flags used to filter the domains returned by
+     * {@link Connect#listAllDomains}.
+     * <p>
+     * Flags of the same group (e.g. {@code ACTIVE} and {@code INACTIVE})
+     * are alternatives, flags of different groups narrow down the
+     * result. When no flag of a group is given, that group is not
+     * used for filtering.
+     */
+    public enum ListAllDomainsFlags implements BitFlags {
+        /** active domains */
+        ACTIVE(1 << 0),
+
+        /** inactive domains */
+        INACTIVE(1 << 1),
+
+        /** domains with a persistent configuration */
+        PERSISTENT(1 << 2),
+
+        /** transient domains */
+        TRANSIENT(1 << 3),
+
+        /** running domains */
+        RUNNING(1 << 4),
+
+        /** paused domains */
+        PAUSED(1 << 5),
+
+        /** shut off domains */
+        SHUTOFF(1 << 6),
+
+        /** domains in any other state */
+        OTHER(1 << 7),
+
+        /** domains with a managed save image */
+        MANAGEDSAVE(1 << 8),
+
+        /** domains without a managed save image */
+        NO_MANAGEDSAVE(1 << 9),
+
+        /** domains marked for autostart */
+        AUTOSTART(1 << 10),
+
+        /** domains not marked for autostart */
+        NO_AUTOSTART(1 << 11),
+
+        /** domains with snapshots */
+        HAS_SNAPSHOT(1 << 12),
+
+        /** domains without snapshots */
+        NO_SNAPSHOT(1 << 13);
+
+        ListAllDomainsFlags(int v) {
+            this.value = v;
+        }
+
+        @Override
+        public int getBit() {
+            return value;
+        }
+        private final int value;
+    }
+
+    /**
+     * Flags used to filter the interfaces returned by
+     * {@link Connect#listAllInterfaces}.
+     */
+    public enum ListAllInterfacesFlags implements BitFlags {
+        /** inactive interfaces */
+        INACTIVE(1 << 0),
+
+        /** active interfaces */
+        ACTIVE(1 << 1);
+
+        ListAllInterfacesFlags(int v) {
+            this.value = v;
+        }
+
+        @Override
+        public int getBit() {
+            return value;
+        }
+        private final int value;
+    }
+
+    /**
+     * Flags used to filter the networks returned by
+     * {@link Connect#listAllNetworks}.
+     */
+    public enum ListAllNetworksFlags implements BitFlags {
+        /** inactive networks */
+        INACTIVE(1 << 0),
+
+        /** active networks */
+        ACTIVE(1 << 1),
+
+        /** networks with a persistent configuration */
+        PERSISTENT(1 << 2),
+
+        /** transient networks */
+        TRANSIENT(1 << 3),
+
+        /** networks marked for autostart */
+        AUTOSTART(1 << 4),
+
+        /** networks not marked for autostart */
+        NO_AUTOSTART(1 << 5);
+
+        ListAllNetworksFlags(int v) {
+            this.value = v;
+        }
+
+        @Override
+        public int getBit() {
+            return value;
+        }
+        private final int value;
+    }
+
+    /**
+     * Flags used to filter the secrets returned by
+     * {@link Connect#listAllSecrets}.
+     */
+    public enum ListAllSecretsFlags implements BitFlags {
+        /** secrets which are only kept in memory */
+        EPHEMERAL(1 << 0),
+
+        /** secrets which are stored persistently */
+        NO_EPHEMERAL(1 << 1),
+
+        /** secrets which are not revealed to any caller */
+        PRIVATE(1 << 2),
+
+        /** secrets which can be revealed */
+        NO_PRIVATE(1 << 3);
+
+        ListAllSecretsFlags(int v) {
+            this.value = v;
+        }
+
+        @Override
+        public int getBit() {
+            return value;
+        }
+        private final int value;
+    }
+
+    /**
+     * Flags used to filter the devices returned by
+     * {@link Connect#listAllDevices}. A device is returned
+     * when it has any of the given capabilities.
+     */
+    public enum ListAllDevicesFlags implements BitFlags {
+        /** system capability */
+        CAP_SYSTEM(1 << 0),
+
+        /** PCI device */
+        CAP_PCI_DEV(1 << 1),
+
+        /** USB device */
+        CAP_USB_DEV(1 << 2),
+
+        /** USB interface */
+        CAP_USB_INTERFACE(1 << 3),
+
+        /** network device */
+        CAP_NET(1 << 4),
+
+        /** SCSI host bus adapter */
+        CAP_SCSI_HOST(1 << 5),
+
+        /** SCSI target */
+        CAP_SCSI_TARGET(1 << 6),
+
+        /** SCSI device */
+        CAP_SCSI(1 << 7),
+
+        /** storage device */
+        CAP_STORAGE(1 << 8),
+
+        /** FC host bus adapter */
+        CAP_FC_HOST(1 << 9),
+
+        /** capable of vport */
+        CAP_VPORTS(1 << 10),
+
+        /** SCSI generic device */
+        CAP_SCSI_GENERIC(1 << 11);
+
+        ListAllDevicesFlags(int v) {
+            this.value = v;
+        }
+
+        @Override
+        public int getBit() {
+            return value;
+        }
+        private final int value;
+    }
+
+    /**
+     * Flags for {@link Connect#getAllDomainStats} and
+     * {@link Connect#getDomainStats}.
+     * <p>
+     * The filter flags work like the corresponding
+     * {@link ListAllDomainsFlags} and are not supported by
+     * {@code getDomainStats}.
+     */
+    public enum GetAllDomainStatsFlags implements BitFlags {
+        /** active domains */
+        ACTIVE(1 << 0),
+
+        /** inactive domains */
+        INACTIVE(1 << 1),
+
+        /** domains with a persistent configuration */
+        PERSISTENT(1 << 2),
+
+        /** transient domains */
+        TRANSIENT(1 << 3),
+
+        /** running domains */
+        RUNNING(1 << 4),
+
+        /** paused domains */
+        PAUSED(1 << 5),
+
+        /** shut off domains */
+        SHUTOFF(1 << 6),
+
+        /** domains in any other state */
+        OTHER(1 << 7),
+
+        /** include statistics of the backing chain of block devices */
+        BACKING(1 << 30),
+
+        /** fail if a requested statistics group is not supported */
+        ENFORCE_STATS(1 << 31);
+
+        GetAllDomainStatsFlags(int v) {
+            this.value = v;
+        }
+
+        @Override
+        public int getBit() {
+            return value;
+        }
+        private final int value;
+    }
+
     /**
      * Get the version of a connection.
      *
@@ -159,6 +417,55 @@ public class Connect {
         return bytes;
     }
 
+    /**
+     * Converts the raw bytes of a UUID as used by libvirt into a java UUID.
+     */
+    static UUID toUUID(byte[] bytes) {
+        return new UUID(uuidBits(bytes, 0), uuidBits(bytes, 8));
+    }
+
+    /**
+     * Returns the most (offset 0) or least (offset 8) significant bits of
+     * the raw bytes of a UUID.
+     */
+    static long uuidBits(byte[] bytes, int offset) {
+        long bits = 0;
+        for (int x = offset; x < offset + 8; x++) {
+            bits = (bits << 8) | (bytes[x] & 0xff);
+        }
+        return bits;
+    }
+
+    private static final ThreadLocal<byte[]> uuidBuffer = new ThreadLocal<byte[]>() {
+            @Override
+            protected byte[] initialValue() {
+                return new byte[Libvirt.VIR_UUID_BUFLEN];
+            }
+        };
+
+    /**
+     * Returns a per thread buffer for reading the raw bytes of a UUID.
+     */
+    static byte[] uuidBuffer() {
+        return uuidBuffer.get();
+    }
+
+    /**
+     * Converts a java UUID into the raw bytes used by libvirt.
+     */
+    static byte[] toUUIDBytes(UUID uuid) {
+        byte[] bytes = new byte[Libvirt.VIR_UUID_BUFLEN];
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        for (int x = 7; x >= 0; x--) {
+            bytes[x] = (byte) msb;
+            bytes[x + 8] = (byte) lsb;
+            msb >>>= 8;
+            lsb >>>= 8;
+        }
+        return bytes;
+    }
+
     /**
      * Get the libvirt library version of this connection.
      *
@@ -190,6 +497,33 @@ public class Connect {
      */
     protected ConnectionPointer VCP;
 
+    /**
+     * Closes the native virConnectPtr of unreachable Connect objects
+     */
+    private static final HandleRegistry.Release<ConnectionPointer> CLOSE =
+        new HandleRegistry.Release<ConnectionPointer>(HandleStats.Type.CONNECT) {
+            @Override
+            public void release(ConnectionPointer ptr) {
+                libvirt.virConnectClose(ptr);
+            }
+        };
+
+    private HandleRegistry.Registration<ConnectionPointer> registration;
+
+    /**
+     * The canonical URI of this connection, which is used as its identity
+     */
+    private String uri;
+
+    /**
+     * Returns the URI of this connection, or {@code null} if it is not
+     * known and this connection has been closed.
+     */
+    private String cachedURI() throws LibvirtException {
+        if (uri == null && VCP != null) uri = getURI();
+        return uri;
+    }
+
     /* (non-Javadoc)
      * @see java.lang.Object#hashCode()
      */
@@ -198,7 +532,8 @@ public class Connect {
         final int prime = 31;
         int result = 1;
         try {
-            result = prime * result + ((VCP == null) ? 0 : this.getURI().hashCode());
+            final String u = cachedURI();
+            result = prime * result + ((u == null) ? 0 : u.hashCode());
         } catch (LibvirtException e) {
             throw new RuntimeException("libvirt error testing connection equality", e);
         }
@@ -217,13 +552,12 @@ public class Connect {
         if (!(obj instanceof Connect))
             return false;
         Connect other = (Connect) obj;
-        if (VCP == null)
-            return (other.VCP == null);
-        else if (VCP.equals(other.VCP))
+        if (VCP != null && VCP.equals(other.VCP))
             return true;
 
         try {
-            return getURI().equals(other.getURI());
+            final String u = cachedURI();
+            return (u == null) ? other.cachedURI() == null : u.equals(other.cachedURI());
         } catch (LibvirtException e) {
             throw new RuntimeException("libvirt error testing connect equality", e);
         }
@@ -234,6 +568,7 @@ public class Connect {
      */
     Connect(ConnectionPointer ptr) {
         VCP = ptr;
+        registration = HandleRegistry.register(this, VCP, CLOSE);
     }
 
     /**
@@ -322,6 +657,8 @@ public class Connect {
         VCP = libvirt.virConnectOpenAuth(uri, vAuth, flags);
         // Check for an error
         processError(VCP);
+        registration = HandleRegistry.register(this, VCP, CLOSE);
+        this.uri = getURI();
     }
 
     /**
@@ -379,6 +716,7 @@ public class Connect {
     public int close() throws LibvirtException {
         int success = 0;
         if (VCP != null) {
+            registration.cancel();
             success = libvirt.virConnectClose(VCP);
 
             // if the connection has been closed (i.e. the reference count is
@@ -536,122 +874,289 @@ public class Connect {
         if (l == null)
             return;
 
-        Map<EventListener, RegisteredEventListener> handlers = eventListeners[eventID];
+        final DomainEventTable t = eventTables[eventID];
 
-        if (handlers == null) return;
-
-        RegisteredEventListener listener = handlers.remove(l);
+        synchronized (t) {
+            if (t.isOnly(l)) {
+                // the listener and the callback are kept if this fails,
+                // as libvirt still references the callback
+                processError(libvirt.virConnectDomainEventDeregisterAny(VCP, t.callbackId));
+                t.callback = null;
+            }
+            t.remove(l);
+        }
+    }
 
-        if (listener != null)
-            processError(libvirt.virConnectDomainEventDeregisterAny(VCP, listener.callbackId));
+    /**
+     * Opens a scope which tracks all handles (domains, networks, storage
+     * volumes, ...) subsequently created by the current thread for this
+     * connection, and frees them when it is closed.
+     *
+     * @return the new scope, to be closed by the current thread
+     * @see HandleScope
+     */
+    public HandleScope openScope() {
+        return new HandleScope(scope);
     }
 
-    private void domainEventRegister(Domain domain, int eventID, Libvirt.VirDomainEventCallback cb, EventListener l)
-        throws LibvirtException
-    {
-        Map<EventListener, RegisteredEventListener> handlers = eventListeners[eventID];
+    /**
+     * Adds a newly created handle to the innermost scope opened by the
+     * current thread, if any.
+     */
+    void track(HandleScope.Handle handle) {
+        final HandleScope s = scope.get();
+        if (s != null) s.add(handle);
+    }
 
-        if (handlers == null) {
-            handlers = new HashMap<EventListener, RegisteredEventListener>();
-            eventListeners[eventID] = handlers;
-        } else if (handlers.containsKey(l)) {
-            return;
+    /**
+     * Enables or disables the interning of the Domain objects passed to
+     * domain event listeners.
+     * <p>
+     * By default, every event passes a new Domain object to its
+     * listeners. When interning is enabled, all events concerning the
+     * same domain pass the same Domain object for as long as it is
+     * referenced by the application, which avoids a native reference
+     * and an object per event during event storms.
+     * <p>
+     * Note that listeners must not {@link Domain#free free} the Domain
+     * objects passed to them when interning is enabled, as they are
+     * shared.
+     *
+     * @param enabled whether to intern the domains passed to listeners
+     */
+    public synchronized void setDomainInterning(boolean enabled) {
+        if (enabled) {
+            if (interner == null) interner = new DomainInterner(this);
+        } else {
+            interner = null;
         }
-
-        DomainPointer ptr = domain == null ? null : domain.VDP;
-        int ret = processError(libvirt.virConnectDomainEventRegisterAny(VCP, ptr, eventID, cb, null, null));
-
-        // track the handler
-        // Note: it is important that the callback does not get GCed
-        handlers.put(l, new RegisteredEventListener(cb, ret));
     }
 
-    void domainEventRegister(Domain domain, final IOErrorListener cb) throws LibvirtException {
-        if (cb == null)
-            throw new IllegalArgumentException("IOError callback cannot be null");
+    /**
+     * Returns whether the Domain objects passed to domain event
+     * listeners are interned.
+     *
+     * @see #setDomainInterning
+     */
+    public boolean isDomainInterning() {
+        return interner != null;
+    }
 
-        Libvirt.VirConnectDomainEventIOErrorCallback virCB = new Libvirt.VirConnectDomainEventIOErrorCallback() {
-                @Override
-                public void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
-                                          String srcPath,
-                                          String devAlias,
-                                          int action,
-                                          Pointer opaque) {
-                    assert VCP.equals(virConnectPtr);
+    /**
+     * Sets the dispatcher delivering domain events to the listeners of
+     * this connection.
+     * <p>
+     * By default, or when {@code d} is {@code null}, listeners are called
+     * directly on the thread running the event loop, see
+     * {@link Library#runEventLoop}. A slow listener then delays all other
+     * events and the keepalive processing of all connections. With a
+     * dispatcher, listeners are called by its executor while the events
+     * of each domain are still delivered in order.
+     *
+     * @param d the event dispatcher, or {@code null}
+     */
+    public void setEventDispatcher(EventDispatcher d) {
+        this.dispatcher = d;
+    }
 
-                    try {
-                        Domain d = Domain.constructIncRef(Connect.this, virDomainPointer);
-                        cb.onIOError(d,
-                                     srcPath,
-                                     devAlias,
-                                     getConstant(IOErrorAction.class, action));
-                    } catch (LibvirtException e) {
-                        throw new RuntimeException("libvirt error in IOError callback", e);
-                    }
-                }
-            };
+    /**
+     * Returns the dispatcher delivering domain events to the listeners
+     * of this connection, or {@code null} if the listeners are called
+     * directly.
+     */
+    public EventDispatcher getEventDispatcher() {
+        return dispatcher;
+    }
 
-        domainEventRegister(domain, DomainEventID.IO_ERROR, virCB, cb);
+    /**
+     * Delivers an event about the given domain, either directly or
+     * using the event dispatcher.
+     */
+    private void dispatch(Domain domain, Runnable event) throws LibvirtException {
+        final EventDispatcher d = dispatcher;
+        if (d == null) {
+            event.run();
+        } else {
+            d.dispatch(domain.uuid(), event);
+        }
     }
 
     /**
-     * Adds the specified I/O error listener to receive I/O error events
-     * for domains of this connection.
-     *
-     * @see <a
-     *      href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny">Libvirt
-     *      Documentation</a>
-     * @param l
-     *            the I/O error listener
-     * @throws LibvirtException on failure
+     * Returns the Domain object to pass to event listeners for the given
+     * pointer, which is only valid for the duration of the callback.
      */
-    public void addIOErrorListener(final IOErrorListener l) throws LibvirtException {
-        domainEventRegister(null, l);
+    private Domain eventDomain(DomainPointer ptr, UUID uuid) throws LibvirtException {
+        final DomainInterner i = interner;
+        return i == null ? Domain.constructIncRef(this, ptr, uuid) : i.intern(ptr, uuid);
     }
 
-    void domainEventRegister(Domain domain, final RebootListener cb) throws LibvirtException {
-        if (cb == null)
-            throw new IllegalArgumentException("RebootCallback cannot be null");
+    /**
+     * Adds a listener for the events of the given domain, or of all
+     * domains if {@code domain} is null.
+     * <p>
+     * The first listener for an event ID registers a native callback for
+     * all domains, which routes the events to all listeners for that ID.
+     */
+    void addDomainEventListener(int eventID, Domain domain, EventListener l)
+        throws LibvirtException
+    {
+        if (l == null)
+            throw new IllegalArgumentException("listener cannot be null");
 
-        Libvirt.VirConnectDomainEventGenericCallback virCB = new Libvirt.VirConnectDomainEventGenericCallback() {
-                @Override
-                public void eventCallback(ConnectionPointer virConnectPtr,
-                                          DomainPointer virDomainPointer,
-                                          Pointer opaque) {
-                    assert VCP.equals(virConnectPtr);
+        final UUID uuid = domain == null ? null : domain.uuid();
+        final DomainEventTable t = eventTables[eventID];
 
-                    try {
-                        Domain d = Domain.constructIncRef(Connect.this, virDomainPointer);
-                        cb.onReboot(d);
-                    } catch (LibvirtException e) {
-                        throw new RuntimeException("libvirt error in reboot callback", e);
-                    }
-                }
-            };
+        synchronized (t) {
+            if (t.isEmpty()) {
+                final Libvirt.VirDomainEventCallback cb = eventCallback(eventID);
+                t.callbackId = processError(libvirt.virConnectDomainEventRegisterAny(VCP, null, eventID, cb, null, null));
+                t.callback = cb;
+            }
+            t.add(uuid, l);
+        }
+    }
 
-        domainEventRegister(domain, DomainEventID.REBOOT, virCB, cb);
+    /**
+     * Passes a single event to a listener.
+     */
+    private abstract static class EventDelivery {
+        abstract void deliver(EventListener l, Domain d);
     }
 
-    void domainEventRegister(Domain domain, final LifecycleListener cb) throws LibvirtException {
-        if (cb == null)
-            throw new IllegalArgumentException("LifecycleCallback cannot be null");
+    /**
+     * Whether a listener takes the raw event codes rather than a Domain
+     * object and event details.
+     */
+    private static boolean isRaw(EventListener l) {
+        return l instanceof DomainEventRing || l instanceof DomainEventJournal;
+    }
 
-        Libvirt.VirConnectDomainEventCallback virCB = new Libvirt.VirConnectDomainEventCallback() {
-                @Override
-                public int eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
-                                         final int eventCode,
+    /**
+     * Passes an event about the domain {@code ptr} to the ring buffers and
+     * journals for all domains and to those for that domain, on the thread
+     * running the event loop.
+     * <p>
+     * This does not allocate any objects unless there are listeners for
+     * single domains, whose lookup needs a UUID object, or other
+     * listeners.
+     *
+     * @param type the event type code
+     * @param detail the event detail code
+     * @param timestamp the time the event was received
+     * @return the UUID of the domain if there are other listeners, which
+     *         are passed the event by {@link #deliver}, {@code null}
+     *         otherwise
+     */
+    private UUID publish(int eventID, DomainPointer ptr, int type, long detail, long timestamp) {
+        final DomainEventTable t = eventTables[eventID];
+        final byte[] bytes = uuidBuffer();
+        try {
+            processError(libvirt.virDomainGetUUID(ptr, bytes));
+        } catch (LibvirtException e) {
+            throw new RuntimeException("libvirt error in domain event callback", e);
+        }
+        final long msb = uuidBits(bytes, 0);
+        final long lsb = uuidBits(bytes, 8);
+
+        UUID uuid = null;
+        boolean typed = publish(t.forAll(), eventID, msb, lsb, type, detail, timestamp);
+        if (t.hasDomainListeners()) {
+            uuid = new UUID(msb, lsb);
+            typed |= publish(t.forDomain(uuid), eventID, msb, lsb, type, detail, timestamp);
+        }
+        if (!typed) return null;
+        return uuid != null ? uuid : new UUID(msb, lsb);
+    }
+
+    private static boolean publish(EventListener[] listeners, int eventID, long msb, long lsb,
+                                   int type, long detail, long timestamp) {
+        boolean typed = false;
+        for (EventListener l : listeners) {
+            if (l instanceof DomainEventRing) {
+                ((DomainEventRing) l).publish(msb, lsb, eventID, type, (int) detail, timestamp);
+            } else if (l instanceof DomainEventJournal) {
+                ((DomainEventJournal) l).append(msb, lsb, eventID, type, detail);
+            } else {
+                typed = true;
+            }
+        }
+        return typed;
+    }
+
+    /**
+     * Delivers an event about the domain {@code ptr} to the listeners for
+     * all domains and to those for that domain, except for ring buffers
+     * and journals, see {@link #publish}. Every listener is passed a
+     * Domain object of its own unless domain interning is enabled.
+     *
+     * @param uuid the UUID of the domain, as returned by {@link #publish}
+     */
+    private void deliver(int eventID, DomainPointer ptr, UUID uuid, EventDelivery delivery) {
+        final DomainEventTable t = eventTables[eventID];
+        try {
+            deliver(t.forAll(), ptr, uuid, delivery);
+            if (t.hasDomainListeners()) {
+                deliver(t.forDomain(uuid), ptr, uuid, delivery);
+            }
+        } catch (LibvirtException e) {
+            throw new RuntimeException("libvirt error in domain event callback", e);
+        }
+    }
+
+    private void deliver(EventListener[] listeners, DomainPointer ptr, UUID uuid,
+                         final EventDelivery delivery)
+        throws LibvirtException
+    {
+        for (final EventListener l : listeners) {
+            if (isRaw(l)) continue;
+
+            final Domain d = eventDomain(ptr, uuid);
+            dispatch(d, new Runnable() {
+                    @Override
+                    public void run() {
+                        delivery.deliver(l, d);
+                    }
+                });
+        }
+    }
+
+    /**
+     * Creates the native callback for the given event ID, which is
+     * registered once and routes the events to the listeners.
+     * <p>
+     * The callbacks pass the raw event codes to the ring buffers and
+     * journals first, and only convert them into objects if there are
+     * other listeners.
+     */
+    private Libvirt.VirDomainEventCallback eventCallback(final int eventID) {
+        final EventLoopStats stats = EventLoopStats.getInstance();
+        final EventLoopStats.CallbackType callbackType = CALLBACK_TYPES[eventID];
+
+        switch (eventID) {
+        case DomainEventID.LIFECYCLE:
+            return new Libvirt.VirConnectDomainEventCallback() {
+                @Override
+                public int eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
+                                         final int eventCode,
                                          final int detailCode,
                                          Pointer opaque) {
                     assert VCP.equals(virConnectPtr);
 
+                    final long start = stats.beginCallback();
                     try {
-                        Domain dom = Domain.constructIncRef(Connect.this, virDomainPointer);
-                        DomainEventType type = getConstant(DomainEventType.class, eventCode);
-                        DomainEvent event = new DomainEvent(type, detailCode);
-
-                        cb.onLifecycleChange(dom, event);
-                    } catch (LibvirtException e) {
-                        throw new RuntimeException("libvirt error in lifecycle callback", e);
+                        final UUID uuid = publish(eventID, virDomainPointer, eventCode, detailCode, start);
+                        if (uuid != null) {
+                            final DomainEvent event =
+                                new DomainEvent(getConstant(DomainEventType.class, eventCode), detailCode);
+                            deliver(eventID, virDomainPointer, uuid, new EventDelivery() {
+                                    @Override
+                                    void deliver(EventListener l, Domain d) {
+                                        ((LifecycleListener) l).onLifecycleChange(d, event);
+                                    }
+                                });
+                        }
+                    } finally {
+                        stats.endCallback(callbackType, start);
                     }
 
                     // always return 0, regardless of what the
@@ -661,8 +1166,476 @@ public class Connect {
                     return 0;
                 }
             };
+        case DomainEventID.REBOOT:
+            return new Libvirt.VirConnectDomainEventGenericCallback() {
+                @Override
+                public void eventCallback(ConnectionPointer virConnectPtr,
+                                          DomainPointer virDomainPointer,
+                                          Pointer opaque) {
+                    assert VCP.equals(virConnectPtr);
 
-        domainEventRegister(domain, DomainEventID.LIFECYCLE, virCB, cb);
+                    final long start = stats.beginCallback();
+                    try {
+                        final UUID uuid = publish(eventID, virDomainPointer, 0, 0, start);
+                        if (uuid != null) {
+                            deliver(eventID, virDomainPointer, uuid, new EventDelivery() {
+                                    @Override
+                                    void deliver(EventListener l, Domain d) {
+                                        ((RebootListener) l).onReboot(d);
+                                    }
+                                });
+                        }
+                    } finally {
+                        stats.endCallback(callbackType, start);
+                    }
+                }
+            };
+        case DomainEventID.RTC_CHANGE:
+            return new Libvirt.VirConnectDomainEventRTCChangeCallback() {
+                @Override
+                public void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
+                                          final long utcoffset, Pointer opaque) {
+                    assert VCP.equals(virConnectPtr);
+
+                    final long start = stats.beginCallback();
+                    try {
+                        final UUID uuid = publish(eventID, virDomainPointer, 0, utcoffset, start);
+                        if (uuid != null) {
+                            deliver(eventID, virDomainPointer, uuid, new EventDelivery() {
+                                    @Override
+                                    void deliver(EventListener l, Domain d) {
+                                        ((RTCChangeListener) l).onRTCChange(d, utcoffset);
+                                    }
+                                });
+                        }
+                    } finally {
+                        stats.endCallback(callbackType, start);
+                    }
+                }
+            };
+        case DomainEventID.WATCHDOG:
+            return new Libvirt.VirConnectDomainEventWatchdogCallback() {
+                @Override
+                public void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
+                                          int action, Pointer opaque) {
+                    assert VCP.equals(virConnectPtr);
+
+                    final long start = stats.beginCallback();
+                    try {
+                        final UUID uuid = publish(eventID, virDomainPointer, action, 0, start);
+                        if (uuid != null) {
+                            final WatchdogAction a = getConstant(WatchdogAction.class, action);
+                            deliver(eventID, virDomainPointer, uuid, new EventDelivery() {
+                                    @Override
+                                    void deliver(EventListener l, Domain d) {
+                                        ((WatchdogListener) l).onWatchdog(d, a);
+                                    }
+                                });
+                        }
+                    } finally {
+                        stats.endCallback(callbackType, start);
+                    }
+                }
+            };
+        case DomainEventID.IO_ERROR:
+            return new Libvirt.VirConnectDomainEventIOErrorCallback() {
+                @Override
+                public void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
+                                          final String srcPath,
+                                          final String devAlias,
+                                          int action,
+                                          Pointer opaque) {
+                    assert VCP.equals(virConnectPtr);
+
+                    final long start = stats.beginCallback();
+                    try {
+                        final UUID uuid = publish(eventID, virDomainPointer, action, 0, start);
+                        if (uuid != null) {
+                            final IOErrorAction a = getConstant(IOErrorAction.class, action);
+                            deliver(eventID, virDomainPointer, uuid, new EventDelivery() {
+                                    @Override
+                                    void deliver(EventListener l, Domain d) {
+                                        ((IOErrorListener) l).onIOError(d, srcPath, devAlias, a);
+                                    }
+                                });
+                        }
+                    } finally {
+                        stats.endCallback(callbackType, start);
+                    }
+                }
+            };
+        case DomainEventID.GRAPHICS:
+            return new Libvirt.VirConnectDomainEventGraphicsCallback() {
+                @Override
+                public void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
+                                          int phase,
+                                          virDomainEventGraphicsAddress.ByReference local,
+                                          virDomainEventGraphicsAddress.ByReference remote,
+                                          final String authScheme,
+                                          virDomainEventGraphicsSubject.ByReference subject,
+                                          Pointer opaque) {
+                    assert VCP.equals(virConnectPtr);
+
+                    final long start = stats.beginCallback();
+                    try {
+                        final UUID uuid = publish(eventID, virDomainPointer, phase, 0, start);
+                        if (uuid != null) {
+                            final GraphicsPhase p = getConstant(GraphicsPhase.class, phase);
+                            final GraphicsAddress la = toGraphicsAddress(local);
+                            final GraphicsAddress ra = toGraphicsAddress(remote);
+                            final GraphicsSubjectIdentity[] s = toGraphicsSubject(subject);
+                            deliver(eventID, virDomainPointer, uuid, new EventDelivery() {
+                                    @Override
+                                    void deliver(EventListener l, Domain d) {
+                                        ((GraphicsListener) l).onGraphics(d, p, la, ra, authScheme, s);
+                                    }
+                                });
+                        }
+                    } finally {
+                        stats.endCallback(callbackType, start);
+                    }
+                }
+            };
+        case DomainEventID.IO_ERROR_REASON:
+            return new Libvirt.VirConnectDomainEventIOErrorReasonCallback() {
+                @Override
+                public void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
+                                          final String srcPath,
+                                          final String devAlias,
+                                          int action,
+                                          final String reason,
+                                          Pointer opaque) {
+                    assert VCP.equals(virConnectPtr);
+
+                    final long start = stats.beginCallback();
+                    try {
+                        final UUID uuid = publish(eventID, virDomainPointer, action, 0, start);
+                        if (uuid != null) {
+                            final IOErrorAction a = getConstant(IOErrorAction.class, action);
+                            deliver(eventID, virDomainPointer, uuid, new EventDelivery() {
+                                    @Override
+                                    void deliver(EventListener l, Domain d) {
+                                        ((IOErrorReasonListener) l).onIOError(d, srcPath, devAlias, a, reason);
+                                    }
+                                });
+                        }
+                    } finally {
+                        stats.endCallback(callbackType, start);
+                    }
+                }
+            };
+        case DomainEventID.CONTROL_ERROR:
+            return new Libvirt.VirConnectDomainEventGenericCallback() {
+                @Override
+                public void eventCallback(ConnectionPointer virConnectPtr,
+                                          DomainPointer virDomainPointer,
+                                          Pointer opaque) {
+                    assert VCP.equals(virConnectPtr);
+
+                    final long start = stats.beginCallback();
+                    try {
+                        final UUID uuid = publish(eventID, virDomainPointer, 0, 0, start);
+                        if (uuid != null) {
+                            deliver(eventID, virDomainPointer, uuid, new EventDelivery() {
+                                    @Override
+                                    void deliver(EventListener l, Domain d) {
+                                        ((ControlErrorListener) l).onControlError(d);
+                                    }
+                                });
+                        }
+                    } finally {
+                        stats.endCallback(callbackType, start);
+                    }
+                }
+            };
+        case DomainEventID.BLOCK_JOB:
+        case DomainEventID.BLOCK_JOB_2:
+            return new Libvirt.VirConnectDomainEventBlockJobCallback() {
+                @Override
+                public void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
+                                          final String disk,
+                                          int type,
+                                          int status,
+                                          Pointer opaque) {
+                    assert VCP.equals(virConnectPtr);
+
+                    final long start = stats.beginCallback();
+                    try {
+                        final UUID uuid = publish(eventID, virDomainPointer, type, status, start);
+                        if (uuid != null) {
+                            final BlockJobType t = getConstant(BlockJobType.class, type);
+                            final BlockJobStatus st = getConstant(BlockJobStatus.class, status);
+                            deliver(eventID, virDomainPointer, uuid, new EventDelivery() {
+                                    @Override
+                                    void deliver(EventListener l, Domain d) {
+                                        ((BlockJobListener) l).onBlockJob(d, disk, t, st);
+                                    }
+                                });
+                        }
+                    } finally {
+                        stats.endCallback(callbackType, start);
+                    }
+                }
+            };
+        case DomainEventID.DISK_CHANGE:
+            return new Libvirt.VirConnectDomainEventDiskChangeCallback() {
+                @Override
+                public void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
+                                          final String oldSrcPath,
+                                          final String newSrcPath,
+                                          final String devAlias,
+                                          int reason,
+                                          Pointer opaque) {
+                    assert VCP.equals(virConnectPtr);
+
+                    final long start = stats.beginCallback();
+                    try {
+                        final UUID uuid = publish(eventID, virDomainPointer, reason, 0, start);
+                        if (uuid != null) {
+                            final DiskChangeReason r = getConstant(DiskChangeReason.class, reason);
+                            deliver(eventID, virDomainPointer, uuid, new EventDelivery() {
+                                    @Override
+                                    void deliver(EventListener l, Domain d) {
+                                        ((DiskChangeListener) l).onDiskChange(d, oldSrcPath, newSrcPath, devAlias, r);
+                                    }
+                                });
+                        }
+                    } finally {
+                        stats.endCallback(callbackType, start);
+                    }
+                }
+            };
+        case DomainEventID.TRAY_CHANGE:
+            return new Libvirt.VirConnectDomainEventTrayChangeCallback() {
+                @Override
+                public void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
+                                          final String devAlias,
+                                          int reason,
+                                          Pointer opaque) {
+                    assert VCP.equals(virConnectPtr);
+
+                    final long start = stats.beginCallback();
+                    try {
+                        final UUID uuid = publish(eventID, virDomainPointer, reason, 0, start);
+                        if (uuid != null) {
+                            final TrayChangeReason r = getConstant(TrayChangeReason.class, reason);
+                            deliver(eventID, virDomainPointer, uuid, new EventDelivery() {
+                                    @Override
+                                    void deliver(EventListener l, Domain d) {
+                                        ((TrayChangeListener) l).onTrayChange(d, devAlias, r);
+                                    }
+                                });
+                        }
+                    } finally {
+                        stats.endCallback(callbackType, start);
+                    }
+                }
+            };
+        case DomainEventID.PMWAKEUP:
+            return new Libvirt.VirConnectDomainEventPMChangeCallback() {
+                @Override
+                public void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
+                                          int reason, Pointer opaque) {
+                    assert VCP.equals(virConnectPtr);
+
+                    final long start = stats.beginCallback();
+                    try {
+                        final UUID uuid = publish(eventID, virDomainPointer, reason, 0, start);
+                        if (uuid != null) {
+                            final PMWakeupReason r = getConstant(PMWakeupReason.class, reason);
+                            deliver(eventID, virDomainPointer, uuid, new EventDelivery() {
+                                    @Override
+                                    void deliver(EventListener l, Domain d) {
+                                        ((PMWakeupListener) l).onPMWakeup(d, r);
+                                    }
+                                });
+                        }
+                    } finally {
+                        stats.endCallback(callbackType, start);
+                    }
+                }
+            };
+        case DomainEventID.PMSUSPEND:
+            return new Libvirt.VirConnectDomainEventPMChangeCallback() {
+                @Override
+                public void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
+                                          int reason, Pointer opaque) {
+                    assert VCP.equals(virConnectPtr);
+
+                    final long start = stats.beginCallback();
+                    try {
+                        final UUID uuid = publish(eventID, virDomainPointer, reason, 0, start);
+                        if (uuid != null) {
+                            final PMSuspendReason r = getConstant(PMSuspendReason.class, reason);
+                            deliver(eventID, virDomainPointer, uuid, new EventDelivery() {
+                                    @Override
+                                    void deliver(EventListener l, Domain d) {
+                                        ((PMSuspendListener) l).onPMSuspend(d, r);
+                                    }
+                                });
+                        }
+                    } finally {
+                        stats.endCallback(callbackType, start);
+                    }
+                }
+            };
+        default:
+            throw new IllegalArgumentException("unsupported event ID: " + eventID);
+        }
+    }
+
+    void domainEventRegister(Domain domain, final IOErrorListener cb) throws LibvirtException {
+        if (cb == null)
+            throw new IllegalArgumentException("IOError callback cannot be null");
+
+        addDomainEventListener(DomainEventID.IO_ERROR, domain, cb);
+    }
+
+    /**
+     * Adds the specified I/O error listener to receive I/O error events
+     * for domains of this connection.
+     *
+     * @see <a
+     *      href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny">Libvirt
+     *      Documentation</a>
+     * @param l
+     *            the I/O error listener
+     * @throws LibvirtException on failure
+     */
+    public void addIOErrorListener(final IOErrorListener l) throws LibvirtException {
+        domainEventRegister(null, l);
+    }
+
+    void domainEventRegister(Domain domain, final RebootListener cb) throws LibvirtException {
+        if (cb == null)
+            throw new IllegalArgumentException("RebootCallback cannot be null");
+
+        addDomainEventListener(DomainEventID.REBOOT, domain, cb);
+    }
+
+    void domainEventRegister(Domain domain, final LifecycleListener cb) throws LibvirtException {
+        if (cb == null)
+            throw new IllegalArgumentException("LifecycleCallback cannot be null");
+
+        addDomainEventListener(DomainEventID.LIFECYCLE, domain, cb);
+    }
+
+    /**
+     * Publishes the lifecycle events of all domains of this connection
+     * to the given ring buffer, see {@link DomainEventRing#LIFECYCLE}.
+     * <p>
+     * Unlike listeners, this does not create a Domain or DomainEvent
+     * object per event.
+     *
+     * @param ring the ring buffer
+     * @throws LibvirtException on failure
+     *
+     * @see #removeLifecycleEventRing
+     */
+    public void addLifecycleEventRing(final DomainEventRing ring) throws LibvirtException {
+        if (ring == null)
+            throw new IllegalArgumentException("ring cannot be null");
+
+        addDomainEventListener(DomainEventID.LIFECYCLE, null, ring);
+    }
+
+    /**
+     * Stops publishing lifecycle events to the given ring buffer.
+     *
+     * @param ring the ring buffer
+     * @throws LibvirtException
+     *
+     * @see #addLifecycleEventRing
+     */
+    public void removeLifecycleEventRing(DomainEventRing ring) throws LibvirtException {
+        domainEventDeregister(DomainEventID.LIFECYCLE, ring);
+    }
+
+    /**
+     * Publishes the block job events of all domains of this connection
+     * to the given ring buffer, see {@link DomainEventRing#BLOCK_JOB}.
+     * The disk concerned is not recorded.
+     * <p>
+     * Unlike listeners, this does not create a Domain object or look up
+     * enum constants per event.
+     *
+     * @param ring the ring buffer
+     * @throws LibvirtException on failure
+     *
+     * @see #removeBlockJobEventRing
+     */
+    public void addBlockJobEventRing(final DomainEventRing ring) throws LibvirtException {
+        if (ring == null)
+            throw new IllegalArgumentException("ring cannot be null");
+
+        addDomainEventListener(DomainEventID.BLOCK_JOB, null, ring);
+    }
+
+    /**
+     * Stops publishing block job events to the given ring buffer.
+     *
+     * @param ring the ring buffer
+     * @throws LibvirtException
+     *
+     * @see #addBlockJobEventRing
+     */
+    public void removeBlockJobEventRing(DomainEventRing ring) throws LibvirtException {
+        domainEventDeregister(DomainEventID.BLOCK_JOB, ring);
+    }
+
+    /**
+     * The event IDs recorded by a journal. BLOCK_JOB_2 is left out as it
+     * repeats the BLOCK_JOB events.
+     */
+    private static final int[] JOURNAL_EVENT_IDS = {
+        DomainEventID.LIFECYCLE, DomainEventID.REBOOT, DomainEventID.RTC_CHANGE,
+        DomainEventID.WATCHDOG, DomainEventID.IO_ERROR, DomainEventID.GRAPHICS,
+        DomainEventID.IO_ERROR_REASON, DomainEventID.CONTROL_ERROR, DomainEventID.BLOCK_JOB,
+        DomainEventID.DISK_CHANGE, DomainEventID.TRAY_CHANGE, DomainEventID.PMWAKEUP,
+        DomainEventID.PMSUSPEND
+    };
+
+    /**
+     * Appends the events of all domains of this connection to the given
+     * journal, see {@link DomainEventJournal} for the recorded event IDs.
+     * <p>
+     * Events are appended on the thread running the event loop, even if
+     * an {@link #setEventDispatcher event dispatcher} is used.
+     *
+     * @param journal the journal
+     * @throws LibvirtException on failure
+     *
+     * @see #removeEventJournal
+     */
+    public void addEventJournal(DomainEventJournal journal) throws LibvirtException {
+        if (journal == null)
+            throw new IllegalArgumentException("journal cannot be null");
+
+        int i = 0;
+        try {
+            for (; i < JOURNAL_EVENT_IDS.length; i++) {
+                addDomainEventListener(JOURNAL_EVENT_IDS[i], null, journal);
+            }
+        } catch (LibvirtException e) {
+            while (--i >= 0) {
+                domainEventDeregister(JOURNAL_EVENT_IDS[i], journal);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stops appending events to the given journal.
+     *
+     * @param journal the journal
+     * @throws LibvirtException on failure
+     *
+     * @see #addEventJournal
+     */
+    public void removeEventJournal(DomainEventJournal journal) throws LibvirtException {
+        for (int id : JOURNAL_EVENT_IDS) {
+            domainEventDeregister(id, journal);
+        }
     }
 
     /**
@@ -687,148 +1660,409 @@ public class Connect {
         if (cb == null)
             throw new IllegalArgumentException("PMWakeupCallback cannot be null");
 
-        Libvirt.VirDomainEventCallback virCB =
-            new Libvirt.VirConnectDomainEventPMChangeCallback() {
-                @Override
-                public void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
-                                          int reason, Pointer opaque) {
-                    assert VCP.equals(virConnectPtr);
-
-                    try {
-                        Domain d = Domain.constructIncRef(Connect.this, virDomainPointer);
-                        cb.onPMWakeup(d, getConstant(PMWakeupReason.class, reason));
-                    } catch (LibvirtException e) {
-                        throw new RuntimeException("libvirt error handling PMWakeup callback", e);
-                    }
-                }
-            };
-
-        domainEventRegister(domain, DomainEventID.PMWAKEUP, virCB, cb);
+        addDomainEventListener(DomainEventID.PMWAKEUP, domain, cb);
     }
 
     void domainEventRegister(Domain domain, final PMSuspendListener cb) throws LibvirtException {
         if (cb == null)
             throw new IllegalArgumentException("PMSuspendCallback cannot be null");
 
-        Libvirt.VirDomainEventCallback virCB =
-            new Libvirt.VirConnectDomainEventPMChangeCallback() {
-                @Override
-                public void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
-                                          int reason, Pointer opaque) {
-                    assert VCP.equals(virConnectPtr);
+        addDomainEventListener(DomainEventID.PMSUSPEND, domain, cb);
+    }
+
+    /**
+     * Adds the specified listener to receive PMSuspend events for
+     * domains of this connection.
+     *
+     * @param  l   the PMSuspend listener
+     * @throws     LibvirtException on failure
+     *
+     * @see #removePMSuspendListener
+     * @see Domain#addPMSuspendListener
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
+     *      >virConnectDomainEventRegisterAny</a>
+     *
+     * @since 1.5.2
+     */
+    public void addPMSuspendListener(final PMSuspendListener l) throws LibvirtException {
+        domainEventRegister(null, l);
+    }
+
+    /**
+     * Removes the specified PMSuspend listener so that it no longer
+     * receives PMSuspend events.
+     *
+     * @param l    the PMSuspend listener
+     * @throws     LibvirtException
+     *
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventDeregisterAny"
+     *      >virConnectDomainEventDeregisterAny</a>
+     *
+     * @since 1.5.2
+     */
+    public void removePMSuspendListener(final PMSuspendListener l) throws LibvirtException {
+        domainEventDeregister(DomainEventID.PMSUSPEND, l);
+    }
+
+    /**
+     * Adds the specified listener to receive PMWakeup events for
+     * domains of this connection.
+     *
+     * @param  l   the PMWakeup listener
+     * @throws     LibvirtException on failure
+     *
+     * @see #removePMWakeupListener
+     * @see Domain#addPMWakeupListener
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
+     *      >virConnectDomainEventRegisterAny</a>
+     *
+     * @since 1.5.2
+     */
+    public void addPMWakeupListener(final PMWakeupListener l) throws LibvirtException {
+        domainEventRegister(null, l);
+    }
+
+    /**
+     * Removes the specified PMWakeup listener so that it no longer
+     * receives PMWakeup events.
+     *
+     * @param l    the PMWakeup listener
+     * @throws     LibvirtException
+     *
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventDeregisterAny"
+     *      >virConnectDomainEventDeregisterAny</a>
+     */
+    public void removePMWakeupListener(final PMWakeupListener l) throws LibvirtException {
+        domainEventDeregister(DomainEventID.PMWAKEUP, l);
+    }
+
+    /**
+     * Removes the specified lifecycle event listener so that it no longer
+     * receives lifecycle events.
+     *
+     * @param l    the lifecycle event listener
+     * @throws     LibvirtException
+     *
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventDeregisterAny"
+     *      >virConnectDomainEventDeregisterAny</a>
+     */
+    public void removeLifecycleListener(LifecycleListener l) throws LibvirtException {
+        domainEventDeregister(DomainEventID.LIFECYCLE, l);
+    }
+
+    /**
+     * Adds the specified reboot listener to receive reboot events for
+     * domains of this connection.
+     *
+     * @param l   the reboot listener
+     * @throws    LibvirtException on failure
+     *
+     * @see Domain#addRebootListener
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
+     *      >virConnectDomainEventRegisterAny</a>
+     * @since 1.5.2
+     */
+    public void addRebootListener(final RebootListener l) throws LibvirtException {
+        domainEventRegister(null, l);
+    }
+
+    /**
+     * Removes the specified reboot listener so that it no longer
+     * receives reboot events.
+     *
+     * @param l    the reboot listener
+     * @throws     LibvirtException
+     *
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventDeregisterAny"
+     *      >virConnectDomainEventDeregisterAny</a>
+     */
+    public void removeRebootListener(RebootListener l) throws LibvirtException {
+        domainEventDeregister(DomainEventID.REBOOT, l);
+    }
+
+    /**
+     * Removes the specified I/O error listener so that it no longer
+     * receives I/O error events.
+     *
+     * @param l    the I/O error listener
+     * @throws     LibvirtException
+     *
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventDeregisterAny"
+     *      >virConnectDomainEventDeregisterAny</a>
+     */
+    public void removeIOErrorListener(IOErrorListener l) throws LibvirtException {
+        domainEventDeregister(DomainEventID.IO_ERROR, l);
+    }
+
+    /**
+     * Adds the specified listener to receive block job events for
+     * domains of this connection, identifying disks by their source
+     * path.
+     *
+     * @param l   the block job listener
+     * @throws    LibvirtException on failure
+     *
+     * @see #addBlockJob2Listener
+     * @see #removeBlockJobListener
+     * @see Domain#addBlockJobListener
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
+     *      >virConnectDomainEventRegisterAny</a>
+     */
+    public void addBlockJobListener(final BlockJobListener l) throws LibvirtException {
+        addDomainEventListener(DomainEventID.BLOCK_JOB, null, l);
+    }
+
+    /**
+     * Adds the specified listener to receive block job events for
+     * domains of this connection, identifying disks by their target
+     * name, e.g. "vda". This requires libvirt 1.2.6 or later.
+     *
+     * @param l   the block job listener
+     * @throws    LibvirtException on failure
+     *
+     * @see #addBlockJobListener
+     * @see #removeBlockJobListener
+     * @see Domain#addBlockJob2Listener
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
+     *      >virConnectDomainEventRegisterAny</a>
+     */
+    public void addBlockJob2Listener(final BlockJobListener l) throws LibvirtException {
+        addDomainEventListener(DomainEventID.BLOCK_JOB_2, null, l);
+    }
+
+    /**
+     * Removes the specified block job listener so that it no longer
+     * receives block job events.
+     *
+     * @param l    the block job listener
+     * @throws     LibvirtException
+     *
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventDeregisterAny"
+     *      >virConnectDomainEventDeregisterAny</a>
+     */
+    public void removeBlockJobListener(BlockJobListener l) throws LibvirtException {
+        domainEventDeregister(DomainEventID.BLOCK_JOB, l);
+        domainEventDeregister(DomainEventID.BLOCK_JOB_2, l);
+    }
+
+    /**
+     * Adds the specified listener to receive disk change events for
+     * domains of this connection.
+     *
+     * @param l   the disk change listener
+     * @throws    LibvirtException on failure
+     *
+     * @see #removeDiskChangeListener
+     * @see Domain#addDiskChangeListener
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
+     *      >virConnectDomainEventRegisterAny</a>
+     */
+    public void addDiskChangeListener(final DiskChangeListener l) throws LibvirtException {
+        addDomainEventListener(DomainEventID.DISK_CHANGE, null, l);
+    }
+
+    /**
+     * Removes the specified disk change listener so that it no longer
+     * receives disk change events.
+     *
+     * @param l    the disk change listener
+     * @throws     LibvirtException
+     *
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventDeregisterAny"
+     *      >virConnectDomainEventDeregisterAny</a>
+     */
+    public void removeDiskChangeListener(DiskChangeListener l) throws LibvirtException {
+        domainEventDeregister(DomainEventID.DISK_CHANGE, l);
+    }
+
+    /**
+     * Adds the specified listener to receive tray change events for
+     * domains of this connection.
+     *
+     * @param l   the tray change listener
+     * @throws    LibvirtException on failure
+     *
+     * @see #removeTrayChangeListener
+     * @see Domain#addTrayChangeListener
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
+     *      >virConnectDomainEventRegisterAny</a>
+     */
+    public void addTrayChangeListener(final TrayChangeListener l) throws LibvirtException {
+        addDomainEventListener(DomainEventID.TRAY_CHANGE, null, l);
+    }
+
+    /**
+     * Removes the specified tray change listener so that it no longer
+     * receives tray change events.
+     *
+     * @param l    the tray change listener
+     * @throws     LibvirtException
+     *
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventDeregisterAny"
+     *      >virConnectDomainEventDeregisterAny</a>
+     */
+    public void removeTrayChangeListener(TrayChangeListener l) throws LibvirtException {
+        domainEventDeregister(DomainEventID.TRAY_CHANGE, l);
+    }
 
-                    try {
-                        Domain d = Domain.constructIncRef(Connect.this, virDomainPointer);
-                        cb.onPMSuspend(d, getConstant(PMSuspendReason.class, reason));
-                    } catch (LibvirtException e) {
-                        throw new RuntimeException("libvirt error in PMSuspend callback", e);
-                    }
-                }
-            };
+    /**
+     * Adds the specified listener to receive watchdog events for
+     * domains of this connection.
+     *
+     * @param l   the watchdog listener
+     * @throws    LibvirtException on failure
+     *
+     * @see #removeWatchdogListener
+     * @see Domain#addWatchdogListener
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
+     *      >virConnectDomainEventRegisterAny</a>
+     */
+    public void addWatchdogListener(final WatchdogListener l) throws LibvirtException {
+        addDomainEventListener(DomainEventID.WATCHDOG, null, l);
+    }
 
-        domainEventRegister(domain, DomainEventID.PMSUSPEND, virCB, cb);
+    /**
+     * Removes the specified watchdog listener so that it no longer
+     * receives watchdog events.
+     *
+     * @param l    the watchdog listener
+     * @throws     LibvirtException
+     *
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventDeregisterAny"
+     *      >virConnectDomainEventDeregisterAny</a>
+     */
+    public void removeWatchdogListener(WatchdogListener l) throws LibvirtException {
+        domainEventDeregister(DomainEventID.WATCHDOG, l);
     }
 
     /**
-     * Adds the specified listener to receive PMSuspend events for
+     * Adds the specified listener to receive RTC change events for
      * domains of this connection.
      *
-     * @param  l   the PMSuspend listener
-     * @throws     LibvirtException on failure
+     * @param l   the RTC change listener
+     * @throws    LibvirtException on failure
      *
-     * @see #removePMSuspendListener
-     * @see Domain#addPMSuspendListener
+     * @see #removeRTCChangeListener
+     * @see Domain#addRTCChangeListener
      * @see <a
      *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
      *      >virConnectDomainEventRegisterAny</a>
-     *
-     * @since 1.5.2
      */
-    public void addPMSuspendListener(final PMSuspendListener l) throws LibvirtException {
-        domainEventRegister(null, l);
+    public void addRTCChangeListener(final RTCChangeListener l) throws LibvirtException {
+        addDomainEventListener(DomainEventID.RTC_CHANGE, null, l);
     }
 
     /**
-     * Removes the specified PMSuspend listener so that it no longer
-     * receives PMSuspend events.
+     * Removes the specified RTC change listener so that it no longer
+     * receives RTC change events.
      *
-     * @param l    the PMSuspend listener
+     * @param l    the RTC change listener
      * @throws     LibvirtException
      *
      * @see <a
      *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventDeregisterAny"
      *      >virConnectDomainEventDeregisterAny</a>
-     *
-     * @since 1.5.2
      */
-    public void removePMSuspendListener(final PMSuspendListener l) throws LibvirtException {
-        domainEventDeregister(DomainEventID.PMWAKEUP, l);
+    public void removeRTCChangeListener(RTCChangeListener l) throws LibvirtException {
+        domainEventDeregister(DomainEventID.RTC_CHANGE, l);
     }
 
     /**
-     * Adds the specified listener to receive PMWakeup events for
+     * Adds the specified listener to receive graphics events for
      * domains of this connection.
      *
-     * @param  l   the PMWakeup listener
-     * @throws     LibvirtException on failure
+     * @param l   the graphics listener
+     * @throws    LibvirtException on failure
      *
-     * @see #removePMWakeupListener
-     * @see Domain#addPMWakeupListener
+     * @see #removeGraphicsListener
+     * @see Domain#addGraphicsListener
      * @see <a
      *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
      *      >virConnectDomainEventRegisterAny</a>
-     *
-     * @since 1.5.2
      */
-    public void addPMWakeupListener(final PMWakeupListener l) throws LibvirtException {
-        domainEventRegister(null, l);
+    public void addGraphicsListener(final GraphicsListener l) throws LibvirtException {
+        addDomainEventListener(DomainEventID.GRAPHICS, null, l);
     }
 
     /**
-     * Removes the specified PMWakeup listener so that it no longer
-     * receives PMWakeup events.
+     * Removes the specified graphics listener so that it no longer
+     * receives graphics events.
      *
-     * @param l    the PMWakeup listener
+     * @param l    the graphics listener
      * @throws     LibvirtException
      *
      * @see <a
      *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventDeregisterAny"
      *      >virConnectDomainEventDeregisterAny</a>
      */
-    public void removePMWakeupListener(final PMWakeupListener l) throws LibvirtException {
-        domainEventDeregister(DomainEventID.PMWAKEUP, l);
+    public void removeGraphicsListener(GraphicsListener l) throws LibvirtException {
+        domainEventDeregister(DomainEventID.GRAPHICS, l);
     }
 
     /**
-     * Removes the specified lifecycle event listener so that it no longer
-     * receives lifecycle events.
+     * Adds the specified listener to receive control error events for
+     * domains of this connection.
      *
-     * @param l    the lifecycle event listener
+     * @param l   the control error listener
+     * @throws    LibvirtException on failure
+     *
+     * @see #removeControlErrorListener
+     * @see Domain#addControlErrorListener
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
+     *      >virConnectDomainEventRegisterAny</a>
+     */
+    public void addControlErrorListener(final ControlErrorListener l) throws LibvirtException {
+        addDomainEventListener(DomainEventID.CONTROL_ERROR, null, l);
+    }
+
+    /**
+     * Removes the specified control error listener so that it no longer
+     * receives control error events.
+     *
+     * @param l    the control error listener
      * @throws     LibvirtException
      *
      * @see <a
      *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventDeregisterAny"
      *      >virConnectDomainEventDeregisterAny</a>
      */
-    public void removeLifecycleListener(LifecycleListener l) throws LibvirtException {
-        domainEventDeregister(DomainEventID.LIFECYCLE, l);
+    public void removeControlErrorListener(ControlErrorListener l) throws LibvirtException {
+        domainEventDeregister(DomainEventID.CONTROL_ERROR, l);
     }
 
     /**
-     * Adds the specified reboot listener to receive reboot events for
+     * Adds the specified listener to receive I/O error events for
      * domains of this connection.
      *
-     * @param l   the reboot listener
+     * @param l   the I/O error listener
      * @throws    LibvirtException on failure
      *
-     * @see Domain#addRebootListener
+     * @see #removeIOErrorReasonListener
+     * @see Domain#addIOErrorReasonListener
      * @see <a
      *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
      *      >virConnectDomainEventRegisterAny</a>
-     * @since 1.5.2
      */
-    public void addRebootListener(final RebootListener l) throws LibvirtException {
-        domainEventRegister(null, l);
+    public void addIOErrorReasonListener(final IOErrorReasonListener l) throws LibvirtException {
+        addDomainEventListener(DomainEventID.IO_ERROR_REASON, null, l);
     }
 
     /**
@@ -842,8 +2076,202 @@ public class Connect {
      *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventDeregisterAny"
      *      >virConnectDomainEventDeregisterAny</a>
      */
-    public void removeIOErrorListener(IOErrorListener l) throws LibvirtException {
-        domainEventDeregister(DomainEventID.IO_ERROR, l);
+    public void removeIOErrorReasonListener(IOErrorReasonListener l) throws LibvirtException {
+        domainEventDeregister(DomainEventID.IO_ERROR_REASON, l);
+    }
+
+    /**
+     * Returns a publisher of the lifecycle events of all domains of this
+     * connection. The listener is added once the first subscriber
+     * subscribes.
+     *
+     * @param strategy  what to do when the buffer of a subscriber is full
+     * @param capacity  the number of events buffered per subscriber
+     *
+     * @see Domain#lifecyclePublisher
+     */
+    public DomainEventPublisher<DomainEvent> lifecyclePublisher(OverflowStrategy strategy, int capacity) {
+        return lifecyclePublisher(null, strategy, capacity);
+    }
+
+    DomainEventPublisher<DomainEvent> lifecyclePublisher(final Domain domain, OverflowStrategy strategy, int capacity) {
+        return new DomainEventPublisher<DomainEvent>(strategy, capacity) {
+                private final LifecycleListener listener = new LifecycleListener() {
+                        @Override
+                        public int onLifecycleChange(Domain d, DomainEvent e) {
+                            publish(d, e);
+                            return 0;
+                        }
+                    };
+
+                @Override
+                protected void register() throws LibvirtException {
+                    domainEventRegister(domain, listener);
+                }
+
+                @Override
+                protected void deregister() throws LibvirtException {
+                    removeLifecycleListener(listener);
+                }
+            };
+    }
+
+    /**
+     * Returns a publisher of the reboot events of all domains of this
+     * connection. The listener is added once the first subscriber
+     * subscribes.
+     *
+     * @param strategy  what to do when the buffer of a subscriber is full
+     * @param capacity  the number of events buffered per subscriber
+     *
+     * @see Domain#rebootPublisher
+     */
+    public DomainEventPublisher<Void> rebootPublisher(OverflowStrategy strategy, int capacity) {
+        return rebootPublisher(null, strategy, capacity);
+    }
+
+    DomainEventPublisher<Void> rebootPublisher(final Domain domain, OverflowStrategy strategy, int capacity) {
+        return new DomainEventPublisher<Void>(strategy, capacity) {
+                private final RebootListener listener = new RebootListener() {
+                        @Override
+                        public void onReboot(Domain d) {
+                            publish(d, null);
+                        }
+                    };
+
+                @Override
+                protected void register() throws LibvirtException {
+                    domainEventRegister(domain, listener);
+                }
+
+                @Override
+                protected void deregister() throws LibvirtException {
+                    removeRebootListener(listener);
+                }
+            };
+    }
+
+    /**
+     * Returns a publisher of the I/O error events of all domains of this
+     * connection. The listener is added once the first subscriber
+     * subscribes.
+     *
+     * @param strategy  what to do when the buffer of a subscriber is full
+     * @param capacity  the number of events buffered per subscriber
+     *
+     * @see Domain#ioErrorPublisher
+     */
+    public DomainEventPublisher<IOErrorEvent> ioErrorPublisher(OverflowStrategy strategy, int capacity) {
+        return ioErrorPublisher(null, strategy, capacity);
+    }
+
+    DomainEventPublisher<IOErrorEvent> ioErrorPublisher(final Domain domain, OverflowStrategy strategy, int capacity) {
+        return new DomainEventPublisher<IOErrorEvent>(strategy, capacity) {
+                private final IOErrorListener listener = new IOErrorListener() {
+                        @Override
+                        public void onIOError(Domain d, String srcPath, String devAlias, IOErrorAction action) {
+                            publish(d, new IOErrorEvent(srcPath, devAlias, action));
+                        }
+                    };
+
+                @Override
+                protected void register() throws LibvirtException {
+                    domainEventRegister(domain, listener);
+                }
+
+                @Override
+                protected void deregister() throws LibvirtException {
+                    removeIOErrorListener(listener);
+                }
+            };
+    }
+
+    /**
+     * Returns a publisher of the PM wakeup events of all domains of this
+     * connection. The listener is added once the first subscriber
+     * subscribes.
+     *
+     * @param strategy  what to do when the buffer of a subscriber is full
+     * @param capacity  the number of events buffered per subscriber
+     *
+     * @see Domain#pmWakeupPublisher
+     */
+    public DomainEventPublisher<PMWakeupReason> pmWakeupPublisher(OverflowStrategy strategy, int capacity) {
+        return pmWakeupPublisher(null, strategy, capacity);
+    }
+
+    DomainEventPublisher<PMWakeupReason> pmWakeupPublisher(final Domain domain, OverflowStrategy strategy, int capacity) {
+        return new DomainEventPublisher<PMWakeupReason>(strategy, capacity) {
+                private final PMWakeupListener listener = new PMWakeupListener() {
+                        @Override
+                        public void onPMWakeup(Domain d, PMWakeupReason reason) {
+                            publish(d, reason);
+                        }
+                    };
+
+                @Override
+                protected void register() throws LibvirtException {
+                    domainEventRegister(domain, listener);
+                }
+
+                @Override
+                protected void deregister() throws LibvirtException {
+                    removePMWakeupListener(listener);
+                }
+            };
+    }
+
+    /**
+     * Returns a publisher of the PM suspend events of all domains of this
+     * connection. The listener is added once the first subscriber
+     * subscribes.
+     *
+     * @param strategy  what to do when the buffer of a subscriber is full
+     * @param capacity  the number of events buffered per subscriber
+     *
+     * @see Domain#pmSuspendPublisher
+     */
+    public DomainEventPublisher<PMSuspendReason> pmSuspendPublisher(OverflowStrategy strategy, int capacity) {
+        return pmSuspendPublisher(null, strategy, capacity);
+    }
+
+    DomainEventPublisher<PMSuspendReason> pmSuspendPublisher(final Domain domain, OverflowStrategy strategy, int capacity) {
+        return new DomainEventPublisher<PMSuspendReason>(strategy, capacity) {
+                private final PMSuspendListener listener = new PMSuspendListener() {
+                        @Override
+                        public void onPMSuspend(Domain d, PMSuspendReason reason) {
+                            publish(d, reason);
+                        }
+                    };
+
+                @Override
+                protected void register() throws LibvirtException {
+                    domainEventRegister(domain, listener);
+                }
+
+                @Override
+                protected void deregister() throws LibvirtException {
+                    removePMSuspendListener(listener);
+                }
+            };
+    }
+
+    private static GraphicsAddress toGraphicsAddress(virDomainEventGraphicsAddress a) {
+        if (a == null) return null;
+        return new GraphicsAddress(getConstant(GraphicsAddress.Family.class, a.family), a.node, a.service);
+    }
+
+    private static GraphicsSubjectIdentity[] toGraphicsSubject(virDomainEventGraphicsSubject s) {
+        if (s == null || s.nidentity == 0 || s.identities == null)
+            return new GraphicsSubjectIdentity[0];
+
+        Structure[] ids = s.identities.toArray(s.nidentity);
+        GraphicsSubjectIdentity[] result = new GraphicsSubjectIdentity[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            virDomainEventGraphicsSubjectIdentity id = (virDomainEventGraphicsSubjectIdentity) ids[i];
+            result[i] = new GraphicsSubjectIdentity(id.type, id.name);
+        }
+        return result;
     }
 
     /**
@@ -885,7 +2313,7 @@ public class Connect {
     public Domain domainLookupByUUID(int[] UUID) throws LibvirtException {
         byte[] uuidBytes = Connect.createUUIDBytes(UUID);
         DomainPointer ptr = processError(libvirt.virDomainLookupByUUID(VCP, uuidBytes));
-        return new Domain(this, ptr);
+        return new Domain(this, ptr, toUUID(uuidBytes));
     }
 
     /**
@@ -897,7 +2325,8 @@ public class Connect {
      * @throws LibvirtException
      */
     public Domain domainLookupByUUID(UUID uuid) throws LibvirtException {
-        return domainLookupByUUIDString(uuid.toString());
+        DomainPointer ptr = processError(libvirt.virDomainLookupByUUID(VCP, toUUIDBytes(uuid)));
+        return new Domain(this, ptr, uuid);
     }
 
     /**
@@ -939,11 +2368,6 @@ public class Connect {
         return processError(returnValue).toString();
     }
 
-    @Override
-    protected void finalize() throws LibvirtException {
-        close();
-    }
-
     /**
      * Talks to a storage backend and attempts to auto-discover the set of
      * available storage pool sources. e.g. For iSCSI this would be a set of
@@ -993,6 +2417,63 @@ public class Connect {
         return returnValue.getValue();
     }
 
+    /**
+     * Collects statistics of all domains on this connection using a single
+     * call.
+     *
+     * @see <a
+     *      href="http://www.libvirt.org/html/libvirt-libvirt-domain.html#virConnectGetAllDomainStats">Libvirt
+     *      Documentation</a>
+     * @param stats
+     *            the statistics groups to collect, an empty array selects
+     *            all groups supported by the hypervisor
+     * @param flags
+     *            optional domain filters and flags
+     * @return the statistics of each matching domain
+     * @throws LibvirtException
+     */
+    public DomainStats[] getAllDomainStats(DomainStats.Type[] stats,
+                                           GetAllDomainStatsFlags... flags) throws LibvirtException {
+        PointerByReference records = new PointerByReference();
+        final int n = processError(libvirt.virConnectGetAllDomainStats(VCP, OR(stats), records, OR(flags)));
+        return toDomainStats(records.getValue(), n);
+    }
+
+    /**
+     * Collects statistics of the given domains using a single call.
+     *
+     * @see <a
+     *      href="http://www.libvirt.org/html/libvirt-libvirt-domain.html#virDomainListGetStats">Libvirt
+     *      Documentation</a>
+     * @param domains
+     *            the domains, all of which must belong to this connection
+     * @param stats
+     *            the statistics groups to collect, an empty array selects
+     *            all groups supported by the hypervisor
+     * @param flags
+     *            optional flags
+     * @return the statistics of each domain
+     * @throws LibvirtException
+     */
+    public DomainStats[] getDomainStats(Domain[] domains, DomainStats.Type[] stats,
+                                        GetAllDomainStatsFlags... flags) throws LibvirtException {
+        Pointer[] doms = new Pointer[domains.length];
+        for (int i = 0; i < domains.length; i++) {
+            doms[i] = domains[i].VDP.getPointer();
+        }
+        PointerByReference records = new PointerByReference();
+        final int n = processError(libvirt.virDomainListGetStats(doms, OR(stats), records, OR(flags)));
+        return toDomainStats(records.getValue(), n);
+    }
+
+    private DomainStats[] toDomainStats(Pointer records, int n) throws LibvirtException {
+        try {
+            return DomainStats.fromRecordList(this, records, n);
+        } finally {
+            if (records != null) libvirt.virDomainStatsRecordListFree(records);
+        }
+    }
+
     /**
      * Returns the free memory for the connection
      */
@@ -1198,7 +2679,7 @@ public class Connect {
     public String[] listDefinedDomains() throws LibvirtException {
         int maxnames = numOfDefinedDomains();
         if (maxnames > 0) {
-            final CString[] names = new CString[maxnames];
+            final Pointer names = Library.pointerBuffer(maxnames);
             final int n = processError(libvirt.virConnectListDefinedDomains(VCP, names, maxnames));
             return Library.toStringArray(names, n);
         } else {
@@ -1216,7 +2697,7 @@ public class Connect {
     public String[] listDefinedInterfaces() throws LibvirtException {
         final int max = numOfDefinedInterfaces();
         if (max > 0) {
-            final CString[] ifs = new CString[max];
+            final Pointer ifs = Library.pointerBuffer(max);
             final int n = processError(libvirt.virConnectListDefinedInterfaces(VCP, ifs, max));
             return Library.toStringArray(ifs, n);
         } else {
@@ -1234,7 +2715,7 @@ public class Connect {
     public String[] listDefinedNetworks() throws LibvirtException {
         int maxnames = numOfDefinedNetworks();
         if (maxnames > 0) {
-            final CString[] names = new CString[maxnames];
+            final Pointer names = Library.pointerBuffer(maxnames);
             final int n = processError(libvirt.virConnectListDefinedNetworks(VCP, names, maxnames));
             return Library.toStringArray(names, n);
         } else {
@@ -1252,7 +2733,7 @@ public class Connect {
     public String[] listDefinedStoragePools() throws LibvirtException {
         int num = numOfDefinedStoragePools();
         if (num > 0) {
-            CString[] pools = new CString[num];
+            Pointer pools = Library.pointerBuffer(num);
             final int n = processError(libvirt.virConnectListDefinedStoragePools(VCP, pools, num));
             return Library.toStringArray(pools, n);
         } else {
@@ -1269,7 +2750,7 @@ public class Connect {
     public String[] listDevices(String capabilityName) throws LibvirtException {
         int maxDevices = numOfDevices(capabilityName);
         if (maxDevices > 0) {
-            CString[] names = new CString[maxDevices];
+            Pointer names = Library.pointerBuffer(maxDevices);
             final int n = processError(libvirt.virNodeListDevices(VCP, capabilityName, names, maxDevices, 0));
             return Library.toStringArray(names, n);
         } else {
@@ -1293,6 +2774,153 @@ public class Connect {
         return ids;
     }
 
+    /**
+     * Collects all domains on this connection, both active and inactive,
+     * using a single call.
+     * <p>
+     * Unlike combining {@link #listDomains} and {@link #listDefinedDomains}
+     * with the respective lookup methods, this does not race with domains
+     * being started or stopped concurrently.
+     *
+     * @see <a
+     *      href="http://www.libvirt.org/html/libvirt-libvirt-domain.html#virConnectListAllDomains">Libvirt
+     *      Documentation</a>
+     * @param flags
+     *            optional filters, no flags selects all domains
+     * @return an array of the matching domains
+     * @throws LibvirtException
+     */
+    public Domain[] listAllDomains(ListAllDomainsFlags... flags) throws LibvirtException {
+        PointerByReference domains = new PointerByReference();
+        final int n = processError(libvirt.virConnectListAllDomains(VCP, domains, OR(flags)));
+        final Pointer[] ptrs = Library.toPointerArray(domains.getValue(), n);
+        final Domain[] result = new Domain[n];
+        for (int i = 0; i < n; i++) {
+            DomainPointer ptr = new DomainPointer();
+            ptr.setPointer(ptrs[i]);
+            result[i] = new Domain(this, ptr);
+        }
+        return result;
+    }
+
+    /**
+     * Collects all network interfaces on this host using a single call.
+     *
+     * @see <a
+     *      href="http://www.libvirt.org/html/libvirt-libvirt-interface.html#virConnectListAllInterfaces">Libvirt
+     *      Documentation</a>
+     * @param flags
+     *            optional filters, no flags selects all interfaces
+     * @return an array of the matching interfaces
+     * @throws LibvirtException
+     */
+    public Interface[] listAllInterfaces(ListAllInterfacesFlags... flags) throws LibvirtException {
+        PointerByReference ifaces = new PointerByReference();
+        final int n = processError(libvirt.virConnectListAllInterfaces(VCP, ifaces, OR(flags)));
+        final Pointer[] ptrs = Library.toPointerArray(ifaces.getValue(), n);
+        final Interface[] result = new Interface[n];
+        for (int i = 0; i < n; i++) {
+            InterfacePointer ptr = new InterfacePointer();
+            ptr.setPointer(ptrs[i]);
+            result[i] = new Interface(this, ptr);
+        }
+        return result;
+    }
+
+    /**
+     * Collects all networks on this connection using a single call.
+     *
+     * @see <a
+     *      href="http://www.libvirt.org/html/libvirt-libvirt-network.html#virConnectListAllNetworks">Libvirt
+     *      Documentation</a>
+     * @param flags
+     *            optional filters, no flags selects all networks
+     * @return an array of the matching networks
+     * @throws LibvirtException
+     */
+    public Network[] listAllNetworks(ListAllNetworksFlags... flags) throws LibvirtException {
+        PointerByReference nets = new PointerByReference();
+        final int n = processError(libvirt.virConnectListAllNetworks(VCP, nets, OR(flags)));
+        final Pointer[] ptrs = Library.toPointerArray(nets.getValue(), n);
+        final Network[] result = new Network[n];
+        for (int i = 0; i < n; i++) {
+            NetworkPointer ptr = new NetworkPointer();
+            ptr.setPointer(ptrs[i]);
+            result[i] = new Network(this, ptr);
+        }
+        return result;
+    }
+
+    /**
+     * Collects all network filters on this connection using a single call.
+     *
+     * @see <a
+     *      href="http://www.libvirt.org/html/libvirt-libvirt-nwfilter.html#virConnectListAllNWFilters">Libvirt
+     *      Documentation</a>
+     * @return an array of the network filters
+     * @throws LibvirtException
+     */
+    public NetworkFilter[] listAllNetworkFilters() throws LibvirtException {
+        PointerByReference filters = new PointerByReference();
+        final int n = processError(libvirt.virConnectListAllNWFilters(VCP, filters, 0));
+        final Pointer[] ptrs = Library.toPointerArray(filters.getValue(), n);
+        final NetworkFilter[] result = new NetworkFilter[n];
+        for (int i = 0; i < n; i++) {
+            NetworkFilterPointer ptr = new NetworkFilterPointer();
+            ptr.setPointer(ptrs[i]);
+            result[i] = new NetworkFilter(this, ptr);
+        }
+        return result;
+    }
+
+    /**
+     * Collects all node devices on this host using a single call.
+     *
+     * @see <a
+     *      href="http://www.libvirt.org/html/libvirt-libvirt-nodedev.html#virConnectListAllNodeDevices">Libvirt
+     *      Documentation</a>
+     * @param flags
+     *            optional capability filters, no flags selects all devices
+     * @return an array of the matching devices
+     * @throws LibvirtException
+     */
+    public Device[] listAllDevices(ListAllDevicesFlags... flags) throws LibvirtException {
+        PointerByReference devices = new PointerByReference();
+        final int n = processError(libvirt.virConnectListAllNodeDevices(VCP, devices, OR(flags)));
+        final Pointer[] ptrs = Library.toPointerArray(devices.getValue(), n);
+        final Device[] result = new Device[n];
+        for (int i = 0; i < n; i++) {
+            DevicePointer ptr = new DevicePointer();
+            ptr.setPointer(ptrs[i]);
+            result[i] = new Device(this, ptr);
+        }
+        return result;
+    }
+
+    /**
+     * Collects all secrets on this connection using a single call.
+     *
+     * @see <a
+     *      href="http://www.libvirt.org/html/libvirt-libvirt-secret.html#virConnectListAllSecrets">Libvirt
+     *      Documentation</a>
+     * @param flags
+     *            optional filters, no flags selects all secrets
+     * @return an array of the matching secrets
+     * @throws LibvirtException
+     */
+    public Secret[] listAllSecrets(ListAllSecretsFlags... flags) throws LibvirtException {
+        PointerByReference secrets = new PointerByReference();
+        final int n = processError(libvirt.virConnectListAllSecrets(VCP, secrets, OR(flags)));
+        final Pointer[] ptrs = Library.toPointerArray(secrets.getValue(), n);
+        final Secret[] result = new Secret[n];
+        for (int i = 0; i < n; i++) {
+            SecretPointer ptr = new SecretPointer();
+            ptr.setPointer(ptrs[i]);
+            result[i] = new Secret(this, ptr);
+        }
+        return result;
+    }
+
     /**
      * Provides the list of names of interfaces on this host
      *
@@ -1303,7 +2931,7 @@ public class Connect {
     public String[] listInterfaces() throws LibvirtException {
         int num = numOfInterfaces();
         if (num > 0) {
-            CString[] ifs = new CString[num];
+            Pointer ifs = Library.pointerBuffer(num);
             final int n = processError(libvirt.virConnectListInterfaces(VCP, ifs, num));
             return Library.toStringArray(ifs, n);
         } else {
@@ -1320,7 +2948,7 @@ public class Connect {
     public String[] listNetworkFilters() throws LibvirtException {
         int maxnames = numOfNetworkFilters();
         if (maxnames > 0) {
-            CString[] names = new CString[maxnames];
+            Pointer names = Library.pointerBuffer(maxnames);
             final int n = processError(libvirt.virConnectListNWFilters(VCP, names, maxnames));
             return Library.toStringArray(names, n);
         } else {
@@ -1338,7 +2966,7 @@ public class Connect {
     public String[] listNetworks() throws LibvirtException {
         int maxnames = numOfNetworks();
         if (maxnames > 0) {
-            CString[] names = new CString[maxnames];
+            Pointer names = Library.pointerBuffer(maxnames);
             final int n = processError(libvirt.virConnectListNetworks(VCP, names, maxnames));
             return Library.toStringArray(names, n);
         } else {
@@ -1355,7 +2983,7 @@ public class Connect {
     public String[] listSecrets() throws LibvirtException {
         int num = numOfSecrets();
         if (num > 0) {
-            CString[] returnValue = new CString[num];
+            Pointer returnValue = Library.pointerBuffer(num);
             final int n = processError(libvirt.virConnectListSecrets(VCP, returnValue, num));
             return Library.toStringArray(returnValue, n);
         } else {
@@ -1373,7 +3001,7 @@ public class Connect {
     public String[] listStoragePools() throws LibvirtException {
         int num = numOfStoragePools();
         if (num > 0) {
-            CString[] returnValue = new CString[num];
+            Pointer returnValue = Library.pointerBuffer(num);
             final int n = processError(libvirt.virConnectListStoragePools(VCP, returnValue, num));
             return Library.toStringArray(returnValue, n);
         } else {
@@ -1926,8 +3554,14 @@ public class Connect {
      *                  message is sent
      * @param count     number of messages that can be sent in a row
      * @return {@code true} when successful, {@code false} otherwise.
+     * @see EventLoopStats#addLagListener
      */
     public boolean setKeepAlive(int interval, int count) throws LibvirtException {
-        return (0 == processError(libvirt.virConnectSetKeepAlive(VCP, interval, count)));
+        if (0 != processError(libvirt.virConnectSetKeepAlive(VCP, interval, count)))
+            return false;
+
+        // the event loop has to run at least once per interval
+        EventLoopStats.getInstance().keepAlive(interval);
+        return true;
     }
 }
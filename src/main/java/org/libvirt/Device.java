@@ -1,6 +1,5 @@
 package org.libvirt;
 
-import org.libvirt.jna.CString;
 import org.libvirt.jna.DevicePointer;
 import static org.libvirt.Library.libvirt;
 import static org.libvirt.ErrorHandler.processError;
@@ -12,13 +11,26 @@ import com.sun.jna.Pointer;
 /**
  * A device which is attached to a node
  */
-public class Device {
+public class Device implements AutoCloseable, HandleScope.Handle {
 
     /**
      * the native virDomainPtr.
      */
     DevicePointer VDP;
 
+    /**
+     * Releases the native virNodeDevicePtr of unreachable Device objects
+     */
+    private static final HandleRegistry.Release<DevicePointer> FREE =
+        new HandleRegistry.Release<DevicePointer>(HandleStats.Type.DEVICE) {
+            @Override
+            public void release(DevicePointer ptr) {
+                libvirt.virNodeDeviceFree(ptr);
+            }
+        };
+
+    private final HandleRegistry.Registration<DevicePointer> registration;
+
     /**
      * The Connect Object that represents the Hypervisor of this Domain
      */
@@ -35,6 +47,8 @@ public class Device {
     Device(Connect virConnect, DevicePointer VDP) {
         this.virConnect = virConnect;
         this.VDP = VDP;
+        this.registration = HandleRegistry.register(this, VDP, FREE);
+        virConnect.track(this);
     }
 
     /**
@@ -64,11 +78,6 @@ public class Device {
         return processError(libvirt.virNodeDeviceDettach(VDP));
     }
 
-    @Override
-    protected void finalize() throws LibvirtException {
-        free();
-    }
-
     /**
      * Frees this device object. The running instance is kept alive. The data
      * structure is freed and should not be used thereafter.
@@ -79,6 +88,7 @@ public class Device {
     public int free() throws LibvirtException {
         int success = 0;
         if (VDP != null) {
+            registration.cancel();
             success = processError(libvirt.virNodeDeviceFree(VDP));
             VDP = null;
         }
@@ -86,6 +96,16 @@ public class Device {
         return success;
     }
 
+    /**
+     * Frees this device object, see {@link #free}.
+     *
+     * @throws LibvirtException
+     */
+    @Override
+    public void close() throws LibvirtException {
+        free();
+    }
+
     /**
      * Returns the name of the device
      *
@@ -131,7 +151,7 @@ public class Device {
         int maxCaps = getNumberOfCapabilities();
 
         if (maxCaps > 0) {
-            CString[] strings = new CString[maxCaps];
+            Pointer strings = Library.pointerBuffer(maxCaps);
             int got = processError(libvirt.virNodeDeviceListCaps(VDP, strings, maxCaps));
 
             return Library.toStringArray(strings, got);
@@ -0,0 +1,147 @@
+package org.libvirt;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of direct byte buffers of a fixed size, for transferring data
+ * through a {@link Stream} without copying it.
+ * <p>
+ * Native libvirt functions are passed the address of a direct buffer,
+ * while the contents of a heap buffer are copied to temporary native
+ * memory and back on every call. {@link Stream#read} and
+ * {@link Stream#write} therefore stage heap buffers through a direct
+ * buffer of the {@link #getDefault default pool}; applications
+ * transferring large amounts of data should read into and write from
+ * direct buffers themselves.
+ * <p>
+ * Allocating direct buffers is expensive and their memory is only
+ * released when they are garbage collected, so buffers are reused. A
+ * buffer released while the pool is full is left to the garbage
+ * collector.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * DirectBufferPool pool = DirectBufferPool.getDefault();
+ * ByteBuffer buf = pool.acquire();
+ * try {
+ *     while (stream.read(buf) != -1) {
+ *         buf.flip();
+ *         out.write(buf);
+ *         buf.compact();
+ *     }
+ * } finally {
+ *     pool.release(buf);
+ * }
+ * }</pre>
+ */
+public final class DirectBufferPool {
+    /**
+     * The size of the buffers of the default pool, which is the largest
+     * amount of data libvirt transfers in a single stream message.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    private static final DirectBufferPool DEFAULT = new DirectBufferPool(DEFAULT_BUFFER_SIZE, 16);
+
+    /**
+     * Returns the pool used by {@link Stream} to stage heap buffers.
+     */
+    public static DirectBufferPool getDefault() {
+        return DEFAULT;
+    }
+
+    private final int bufferSize;
+    // the pooled buffers, guarded by this
+    private final ByteBuffer[] free;
+    private int count;
+
+    private final AtomicLong allocated = new AtomicLong();
+    private final AtomicLong acquired = new AtomicLong();
+
+    /**
+     * Creates a pool.
+     *
+     * @param bufferSize
+     *            the capacity of the buffers
+     * @param maxPooled
+     *            the maximum number of buffers kept for reuse
+     */
+    public DirectBufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0)
+            throw new IllegalArgumentException("bufferSize must be positive");
+        if (maxPooled < 0)
+            throw new IllegalArgumentException("maxPooled must not be negative");
+
+        this.bufferSize = bufferSize;
+        this.free = new ByteBuffer[maxPooled];
+    }
+
+    /**
+     * Returns a cleared direct buffer, allocating one if the pool is
+     * empty. The buffer should be passed to {@link #release} when it is
+     * no longer used.
+     */
+    public ByteBuffer acquire() {
+        acquired.incrementAndGet();
+        synchronized (this) {
+            if (count > 0) {
+                final ByteBuffer b = free[--count];
+                free[count] = null;
+                return b;
+            }
+        }
+        allocated.incrementAndGet();
+        return ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer must not be used
+     * afterwards.
+     *
+     * @param b
+     *            a buffer returned by {@link #acquire}
+     * @throws IllegalArgumentException if {@code b} has not been
+     *             acquired from a pool of this size
+     */
+    public void release(ByteBuffer b) {
+        if (b == null)
+            return;
+        if (!b.isDirect() || b.capacity() != bufferSize)
+            throw new IllegalArgumentException("not a buffer of this pool");
+
+        b.clear();
+        synchronized (this) {
+            if (count < free.length) free[count++] = b;
+        }
+    }
+
+    /**
+     * Returns the capacity of the buffers.
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Returns the number of buffers currently kept for reuse.
+     */
+    public synchronized int getPooled() {
+        return count;
+    }
+
+    /**
+     * Returns the number of buffers acquired from this pool.
+     */
+    public long getAcquired() {
+        return acquired.get();
+    }
+
+    /**
+     * Returns the number of buffers allocated by this pool, which
+     * {@link #getAcquired} exceeds by the number of reused buffers.
+     */
+    public long getAllocated() {
+        return allocated.get();
+    }
+}
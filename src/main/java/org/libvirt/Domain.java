@@ -3,26 +3,41 @@ package org.libvirt;
 import java.nio.ByteBuffer;
 import java.util.concurrent.TimeUnit;
 
+import org.libvirt.event.BlockJobListener;
+import org.libvirt.event.ControlErrorListener;
+import org.libvirt.event.DiskChangeListener;
+import org.libvirt.event.DomainEvent;
+import org.libvirt.event.DomainEventPublisher;
+import org.libvirt.event.GraphicsListener;
+import org.libvirt.event.IOErrorEvent;
 import org.libvirt.event.IOErrorListener;
+import org.libvirt.event.IOErrorReasonListener;
+import org.libvirt.event.OverflowStrategy;
+import org.libvirt.event.RTCChangeListener;
+import org.libvirt.event.TrayChangeListener;
+import org.libvirt.event.WatchdogListener;
 import org.libvirt.jna.*;
 import org.libvirt.event.RebootListener;
 import org.libvirt.event.LifecycleListener;
 import org.libvirt.event.PMWakeupListener;
 import org.libvirt.event.PMSuspendListener;
+import org.libvirt.event.PMSuspendReason;
+import org.libvirt.event.PMWakeupReason;
 import static org.libvirt.Library.libvirt;
 import static org.libvirt.ErrorHandler.processError;
 import static org.libvirt.ErrorHandler.processErrorIfZero;
 
-import com.sun.jna.Native;
+import com.sun.jna.Memory;
 import com.sun.jna.NativeLong;
+import com.sun.jna.Pointer;
 import com.sun.jna.ptr.IntByReference;
 
-import java.util.Arrays;
+import java.util.UUID;
 
 /**
  * A virtual machine defined within libvirt.
  */
-public class Domain {
+public class Domain implements AutoCloseable, HandleScope.Handle {
 
     public static final class BlockResizeFlags {
         /**
@@ -31,6 +46,15 @@ public class Domain {
         public static final int BYTES = 1;
     }
 
+    public static final class ModificationImpact {
+        /** Affect the current domain state */
+        public static final int CURRENT = 0;
+        /** Affect the running domain */
+        public static final int LIVE    = (1 << 0);
+        /** Affect the persistent domain configuration */
+        public static final int CONFIG  = (1 << 1);
+    }
+
     public static final class CreateFlags {
         public static final int VIR_DOMAIN_NONE = 0;
         /** Restore or alter metadata */
@@ -182,6 +206,36 @@ public class Domain {
      */
     DomainPointer VDP;
 
+    /**
+     * Releases the native virDomainPtr of unreachable Domain objects
+     */
+    private static final HandleRegistry.Release<DomainPointer> FREE =
+        new HandleRegistry.Release<DomainPointer>(HandleStats.Type.DOMAIN) {
+            @Override
+            public void release(DomainPointer ptr) {
+                libvirt.virDomainFree(ptr);
+            }
+        };
+
+    private final HandleRegistry.Registration<DomainPointer> registration;
+
+    private static final SizeT BLOCK_STATS_SIZE = new SizeT(virDomainBlockStats.SIZE);
+    private static final SizeT INTERFACE_STATS_SIZE = new SizeT(virDomainInterfaceStats.SIZE);
+
+    /**
+     * Per-thread native memory large enough to hold any of the
+     * structures filled by the getInfo, blockStats and interfaceStats
+     * overloads which take a result object.
+     */
+    private static final ThreadLocal<Memory> scratch = new ThreadLocal<Memory>() {
+            @Override
+            protected Memory initialValue() {
+                return new Memory(Math.max(virDomainInfo.SIZE,
+                                           Math.max(virDomainBlockStats.SIZE,
+                                                    virDomainInterfaceStats.SIZE)));
+            }
+        };
+
     /* (non-Javadoc)
      * @see java.lang.Object#hashCode()
      */
@@ -192,7 +246,8 @@ public class Domain {
         result = prime * result
             + ((virConnect == null) ? 0 : virConnect.hashCode());
         try {
-            result = prime * result + ((VDP == null) ? 0 : Arrays.hashCode(this.getUUID()));
+            final UUID u = cachedUUID();
+            result = prime * result + ((u == null) ? 0 : u.hashCode());
         } catch (LibvirtException e) {
             throw new RuntimeException("libvirt error testing domain equality", e);
         }
@@ -217,12 +272,11 @@ public class Domain {
         if (!this.virConnect.equals(other.virConnect))
             return false;
 
-        if (VDP == null) return (other.VDP == null);
-
-        if (VDP.equals(other.VDP)) return true;
+        if (VDP != null && VDP.equals(other.VDP)) return true;
 
         try {
-            return Arrays.equals(getUUID(), other.getUUID());
+            final UUID u = cachedUUID();
+            return (u == null) ? other.cachedUUID() == null : u.equals(other.cachedUUID());
         } catch (LibvirtException e) {
             throw new RuntimeException("libvirt error testing domain equality", e);
         }
@@ -233,6 +287,11 @@ public class Domain {
      */
     private final Connect virConnect;
 
+    /**
+     * The UUID of this domain, fetched at most once since it never changes
+     */
+    private UUID uuid;
+
     /**
      * Constructs a Domain object from a known native DomainPointer, and a
      * Connect object.
@@ -247,6 +306,16 @@ public class Domain {
 
         this.virConnect = virConnect;
         this.VDP = VDP;
+        this.registration = HandleRegistry.register(this, VDP, FREE);
+        virConnect.track(this);
+    }
+
+    /**
+     * Constructs a Domain object whose UUID is already known.
+     */
+    Domain(Connect virConnect, DomainPointer VDP, UUID uuid) {
+        this(virConnect, VDP);
+        this.uuid = uuid;
     }
 
     /**
@@ -263,6 +332,16 @@ public class Domain {
         return new Domain(virConnect, VDP);
     }
 
+    /**
+     * Constructs a new Domain object with a known UUID increasing the
+     * reference count on the DomainPointer.
+     */
+    static Domain constructIncRef(Connect virConnect, DomainPointer VDP, UUID uuid) throws LibvirtException {
+        processError(libvirt.virDomainRef(VDP));
+
+        return new Domain(virConnect, VDP, uuid);
+    }
+
     /**
      * Requests that the current background job be aborted at the soonest
      * opportunity. This will block until the job has either completed, or
@@ -454,6 +533,28 @@ public class Domain {
         return new DomainBlockStats(stats);
     }
 
+    /**
+     * Returns block device (disk) stats for block devices attached to this
+     * domain, storing them in the given object.
+     * <p>
+     * Unlike {@link #blockStats(String)}, this method does not allocate
+     * any objects apart from the native copy of {@code path}, so it is
+     * suited for polling a large number of domains repeatedly.
+     *
+     * @param path
+     *            path to the block device
+     * @param into
+     *            the object to fill with the statistics
+     * @return {@code into}
+     * @throws LibvirtException
+     * @see #blockStats(String)
+     */
+    public DomainBlockStats blockStats(String path, DomainBlockStats into) throws LibvirtException {
+        Memory stats = scratch.get();
+        processError(libvirt.virDomainBlockStats(VDP, path, stats, BLOCK_STATS_SIZE));
+        return into.read(stats);
+    }
+
     /**
      * Resize a block device of domain while the domain is running.
      *
@@ -555,11 +656,6 @@ public class Domain {
         processError(libvirt.virDomainDetachDeviceFlags(VDP, xmlDesc, flags));
     }
 
-    @Override
-    protected void finalize() throws LibvirtException {
-        free();
-    }
-
     /**
      * Frees this domain object. The running instance is kept alive. The data
      * structure is freed and should not be used thereafter.
@@ -570,6 +666,7 @@ public class Domain {
     public int free() throws LibvirtException {
         int success = 0;
         if (VDP != null) {
+            registration.cancel();
             success = processError(libvirt.virDomainFree(VDP));
             VDP = null;
         }
@@ -577,6 +674,16 @@ public class Domain {
         return success;
     }
 
+    /**
+     * Frees this domain object, see {@link #free}.
+     *
+     * @throws LibvirtException
+     */
+    @Override
+    public void close() throws LibvirtException {
+        free();
+    }
+
     /**
      * Provides a boolean value indicating whether the domain is configured to
      * be automatically started when the host machine boots.
@@ -627,6 +734,27 @@ public class Domain {
         return new DomainInfo(vInfo);
     }
 
+    /**
+     * Extract information about a domain, storing it in the given object.
+     * <p>
+     * Unlike {@link #getInfo()}, this method does not allocate any
+     * objects, so it is suited for polling a large number of domains
+     * repeatedly.
+     *
+     * @see <a
+     *      href="http://www.libvirt.org/html/libvirt-libvirt.html#virDomainGetInfo">Libvirt
+     *      Documentation</a>
+     *
+     * @param into the object to fill
+     * @return {@code into}
+     * @throws LibvirtException
+     */
+    public DomainInfo getInfo(DomainInfo into) throws LibvirtException {
+        Memory vInfo = scratch.get();
+        processError(libvirt.virDomainGetInfo(VDP, vInfo));
+        return into.read(vInfo);
+    }
+
     /**
      * Extract information about progress of a background job on a domain. Will
      * return an error if the domain is not active.
@@ -757,9 +885,30 @@ public class Domain {
      * @see <a href="http://www.ietf.org/rfc/rfc4122.txt">rfc4122</a>
      */
     public int[] getUUID() throws LibvirtException {
-        byte[] bytes = new byte[Libvirt.VIR_UUID_BUFLEN];
-        processError(libvirt.virDomainGetUUID(VDP, bytes));
-        return Connect.convertUUIDBytes(bytes);
+        return Connect.convertUUIDBytes(Connect.toUUIDBytes(uuid()));
+    }
+
+    /**
+     * Returns the UUID of this domain, only calling into libvirt the
+     * first time.
+     */
+    UUID uuid() throws LibvirtException {
+        UUID u = uuid;
+        if (u == null) {
+            byte[] bytes = new byte[Libvirt.VIR_UUID_BUFLEN];
+            processError(libvirt.virDomainGetUUID(VDP, bytes));
+            // UUID is immutable, hence safe to publish without synchronization
+            uuid = u = Connect.toUUID(bytes);
+        }
+        return u;
+    }
+
+    /**
+     * Returns the UUID of this domain, or {@code null} if it is not
+     * known and this domain has been freed.
+     */
+    private UUID cachedUUID() throws LibvirtException {
+        return (uuid == null && VDP == null) ? null : uuid();
     }
 
     /**
@@ -770,9 +919,7 @@ public class Domain {
      * @see <a href="http://www.ietf.org/rfc/rfc4122.txt">rfc4122</a>
      */
     public String getUUIDString() throws LibvirtException {
-        byte[] bytes = new byte[Libvirt.VIR_UUID_STRING_BUFLEN];
-        processError(libvirt.virDomainGetUUIDString(VDP, bytes));
-        return Native.toString(bytes);
+        return uuid().toString();
     }
 
     /**
@@ -876,6 +1023,28 @@ public class Domain {
         return new DomainInterfaceStats(stats);
     }
 
+    /**
+     * Returns network interface stats for interfaces attached to this domain,
+     * storing them in the given object.
+     * <p>
+     * Unlike {@link #interfaceStats(String)}, this method does not
+     * allocate any objects apart from the native copy of {@code path},
+     * so it is suited for polling a large number of domains repeatedly.
+     *
+     * @param path
+     *            path to the interface
+     * @param into
+     *            the object to fill with the statistics
+     * @return {@code into}
+     * @throws LibvirtException
+     * @see #interfaceStats(String)
+     */
+    public DomainInterfaceStats interfaceStats(String path, DomainInterfaceStats into) throws LibvirtException {
+        Memory stats = scratch.get();
+        processError(libvirt.virDomainInterfaceStats(VDP, path, stats, INTERFACE_STATS_SIZE));
+        return into.read(stats);
+    }
+
     /**
      * Determine if the domain is currently running
      *
@@ -1352,6 +1521,212 @@ public class Domain {
         virConnect.domainEventRegister(this, l);
     }
 
+    /**
+     * Returns a publisher of the lifecycle events of this domain.
+     *
+     * @param strategy  what to do when the buffer of a subscriber is full
+     * @param capacity  the number of events buffered per subscriber
+     *
+     * @see Connect#lifecyclePublisher
+     */
+    public DomainEventPublisher<DomainEvent> lifecyclePublisher(OverflowStrategy strategy, int capacity) {
+        return virConnect.lifecyclePublisher(this, strategy, capacity);
+    }
+
+    /**
+     * Returns a publisher of the reboot events of this domain.
+     *
+     * @param strategy  what to do when the buffer of a subscriber is full
+     * @param capacity  the number of events buffered per subscriber
+     *
+     * @see Connect#rebootPublisher
+     */
+    public DomainEventPublisher<Void> rebootPublisher(OverflowStrategy strategy, int capacity) {
+        return virConnect.rebootPublisher(this, strategy, capacity);
+    }
+
+    /**
+     * Returns a publisher of the I/O error events of this domain.
+     *
+     * @param strategy  what to do when the buffer of a subscriber is full
+     * @param capacity  the number of events buffered per subscriber
+     *
+     * @see Connect#ioErrorPublisher
+     */
+    public DomainEventPublisher<IOErrorEvent> ioErrorPublisher(OverflowStrategy strategy, int capacity) {
+        return virConnect.ioErrorPublisher(this, strategy, capacity);
+    }
+
+    /**
+     * Returns a publisher of the PM wakeup events of this domain.
+     *
+     * @param strategy  what to do when the buffer of a subscriber is full
+     * @param capacity  the number of events buffered per subscriber
+     *
+     * @see Connect#pmWakeupPublisher
+     */
+    public DomainEventPublisher<PMWakeupReason> pmWakeupPublisher(OverflowStrategy strategy, int capacity) {
+        return virConnect.pmWakeupPublisher(this, strategy, capacity);
+    }
+
+    /**
+     * Returns a publisher of the PM suspend events of this domain.
+     *
+     * @param strategy  what to do when the buffer of a subscriber is full
+     * @param capacity  the number of events buffered per subscriber
+     *
+     * @see Connect#pmSuspendPublisher
+     */
+    public DomainEventPublisher<PMSuspendReason> pmSuspendPublisher(OverflowStrategy strategy, int capacity) {
+        return virConnect.pmSuspendPublisher(this, strategy, capacity);
+    }
+
+    /**
+     * Adds the specified listener to receive block job events for this
+     * domain, identifying disks by their source path.
+     *
+     * @param  l   the block job listener
+     * @throws     LibvirtException on failure
+     *
+     * @see Connect#addBlockJobListener
+     * @see Connect#removeBlockJobListener
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
+     *      >virConnectDomainEventRegisterAny</a>
+     */
+    public void addBlockJobListener(final BlockJobListener l) throws LibvirtException {
+        virConnect.addDomainEventListener(Connect.DomainEventID.BLOCK_JOB, this, l);
+    }
+
+    /**
+     * Adds the specified listener to receive block job events for this
+     * domain, identifying disks by their target name.
+     *
+     * @param  l   the block job listener
+     * @throws     LibvirtException on failure
+     *
+     * @see Connect#addBlockJob2Listener
+     * @see Connect#removeBlockJobListener
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
+     *      >virConnectDomainEventRegisterAny</a>
+     */
+    public void addBlockJob2Listener(final BlockJobListener l) throws LibvirtException {
+        virConnect.addDomainEventListener(Connect.DomainEventID.BLOCK_JOB_2, this, l);
+    }
+
+    /**
+     * Adds the specified listener to receive disk change events for this domain.
+     *
+     * @param  l   the disk change listener
+     * @throws     LibvirtException on failure
+     *
+     * @see Connect#addDiskChangeListener
+     * @see Connect#removeDiskChangeListener
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
+     *      >virConnectDomainEventRegisterAny</a>
+     */
+    public void addDiskChangeListener(final DiskChangeListener l) throws LibvirtException {
+        virConnect.addDomainEventListener(Connect.DomainEventID.DISK_CHANGE, this, l);
+    }
+
+    /**
+     * Adds the specified listener to receive tray change events for this domain.
+     *
+     * @param  l   the tray change listener
+     * @throws     LibvirtException on failure
+     *
+     * @see Connect#addTrayChangeListener
+     * @see Connect#removeTrayChangeListener
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
+     *      >virConnectDomainEventRegisterAny</a>
+     */
+    public void addTrayChangeListener(final TrayChangeListener l) throws LibvirtException {
+        virConnect.addDomainEventListener(Connect.DomainEventID.TRAY_CHANGE, this, l);
+    }
+
+    /**
+     * Adds the specified listener to receive watchdog events for this domain.
+     *
+     * @param  l   the watchdog listener
+     * @throws     LibvirtException on failure
+     *
+     * @see Connect#addWatchdogListener
+     * @see Connect#removeWatchdogListener
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
+     *      >virConnectDomainEventRegisterAny</a>
+     */
+    public void addWatchdogListener(final WatchdogListener l) throws LibvirtException {
+        virConnect.addDomainEventListener(Connect.DomainEventID.WATCHDOG, this, l);
+    }
+
+    /**
+     * Adds the specified listener to receive RTC change events for this domain.
+     *
+     * @param  l   the RTC change listener
+     * @throws     LibvirtException on failure
+     *
+     * @see Connect#addRTCChangeListener
+     * @see Connect#removeRTCChangeListener
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
+     *      >virConnectDomainEventRegisterAny</a>
+     */
+    public void addRTCChangeListener(final RTCChangeListener l) throws LibvirtException {
+        virConnect.addDomainEventListener(Connect.DomainEventID.RTC_CHANGE, this, l);
+    }
+
+    /**
+     * Adds the specified listener to receive graphics events for this domain.
+     *
+     * @param  l   the graphics listener
+     * @throws     LibvirtException on failure
+     *
+     * @see Connect#addGraphicsListener
+     * @see Connect#removeGraphicsListener
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
+     *      >virConnectDomainEventRegisterAny</a>
+     */
+    public void addGraphicsListener(final GraphicsListener l) throws LibvirtException {
+        virConnect.addDomainEventListener(Connect.DomainEventID.GRAPHICS, this, l);
+    }
+
+    /**
+     * Adds the specified listener to receive control error events for this domain.
+     *
+     * @param  l   the control error listener
+     * @throws     LibvirtException on failure
+     *
+     * @see Connect#addControlErrorListener
+     * @see Connect#removeControlErrorListener
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
+     *      >virConnectDomainEventRegisterAny</a>
+     */
+    public void addControlErrorListener(final ControlErrorListener l) throws LibvirtException {
+        virConnect.addDomainEventListener(Connect.DomainEventID.CONTROL_ERROR, this, l);
+    }
+
+    /**
+     * Adds the specified listener to receive I/O error events for this domain.
+     *
+     * @param  l   the I/O error listener
+     * @throws     LibvirtException on failure
+     *
+     * @see Connect#addIOErrorReasonListener
+     * @see Connect#removeIOErrorReasonListener
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt.html#virConnectDomainEventRegisterAny"
+     *      >virConnectDomainEventRegisterAny</a>
+     */
+    public void addIOErrorReasonListener(final IOErrorReasonListener l) throws LibvirtException {
+        virConnect.addDomainEventListener(Connect.DomainEventID.IO_ERROR_REASON, this, l);
+    }
+
     /**
      * Reset a domain immediately without any guest OS shutdown.
      */
@@ -1432,6 +1807,73 @@ public class Domain {
         processError(libvirt.virDomainSetMemory(VDP, new NativeLong(memory)));
     }
 
+    /**
+     * Changes the memory tunables of this domain, such as
+     * {@code hard_limit} or {@code soft_limit}.
+     * <p>
+     * Usage:
+     * <pre>{@code
+     * TypedParameters.Builder params = new TypedParameters.Builder()
+     *         .addULong("hard_limit", 4L << 20);
+     * dom.setMemoryParameters(params, Domain.ModificationImpact.LIVE);
+     * }</pre>
+     *
+     * @param params
+     *            the tunables to change
+     * @param flags
+     *            bitwise-OR of {@link ModificationImpact} values
+     * @throws LibvirtException
+     * @see <a
+     *      href="http://www.libvirt.org/html/libvirt-libvirt-domain.html#virDomainSetMemoryParameters">Libvirt
+     *      Documentation</a>
+     */
+    public void setMemoryParameters(TypedParameters.Builder params, int flags) throws LibvirtException {
+        processError(libvirt.virDomainSetMemoryParameters(VDP, params.getPointer(), params.size(), flags));
+    }
+
+    /**
+     * Reads the memory tunables of this domain into {@code params}.
+     *
+     * @param params
+     *            the list to fill, replacing its contents
+     * @param flags
+     *            one of the {@link ModificationImpact} values
+     * @return {@code params}
+     * @throws LibvirtException
+     * @see <a
+     *      href="http://www.libvirt.org/html/libvirt-libvirt-domain.html#virDomainGetMemoryParameters">Libvirt
+     *      Documentation</a>
+     */
+    public TypedParameters getMemoryParameters(TypedParameters params, int flags) throws LibvirtException {
+        IntByReference nParams = new IntByReference();
+        processError(libvirt.virDomainGetMemoryParameters(VDP, null, nParams, flags));
+
+        final int n = nParams.getValue();
+        if (n == 0) return params.read(null, 0);
+
+        // memory tunables are all numeric, so there are no strings to free
+        Memory nativeParams = new Memory((long) n * virTypedParameter.SIZE);
+        processError(libvirt.virDomainGetMemoryParameters(VDP, nativeParams, nParams, flags));
+        return params.read(nativeParams, nParams.getValue());
+    }
+
+    /**
+     * Changes the block I/O tunables of this domain, such as
+     * {@code weight}.
+     *
+     * @param params
+     *            the tunables to change
+     * @param flags
+     *            bitwise-OR of {@link ModificationImpact} values
+     * @throws LibvirtException
+     * @see <a
+     *      href="http://www.libvirt.org/html/libvirt-libvirt-domain.html#virDomainSetBlkioParameters">Libvirt
+     *      Documentation</a>
+     */
+    public void setBlkioParameters(TypedParameters.Builder params, int flags) throws LibvirtException {
+        processError(libvirt.virDomainSetBlkioParameters(VDP, params.getPointer(), params.size(), flags));
+    }
+
     /**
      * Changes the scheduler parameters
      *
@@ -1550,7 +1992,7 @@ public class Domain {
     public String[] snapshotListNames(int flags) throws LibvirtException {
         int num = snapshotNum();
         if (num > 0) {
-            CString[] names = new CString[num];
+            Pointer names = Library.pointerBuffer(num);
             int got = processError(libvirt.virDomainSnapshotListNames(VDP, names, num, flags));
 
             return Library.toStringArray(names, got);
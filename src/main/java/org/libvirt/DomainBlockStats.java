@@ -2,6 +2,8 @@ package org.libvirt;
 
 import org.libvirt.jna.virDomainBlockStats;
 
+import com.sun.jna.Pointer;
+
 /**
  * This class holds the counters for block device statistics.
  *
@@ -25,4 +27,16 @@ public class DomainBlockStats {
         wr_bytes = vStats.wr_bytes;
         errs = vStats.errs;
     }
+
+    /**
+     * Fills this object from a native virDomainBlockStats structure.
+     */
+    DomainBlockStats read(Pointer vStats) {
+        rd_req = vStats.getLong(0);
+        rd_bytes = vStats.getLong(8);
+        wr_req = vStats.getLong(16);
+        wr_bytes = vStats.getLong(24);
+        errs = vStats.getLong(32);
+        return this;
+    }
 }
@@ -0,0 +1,156 @@
+package org.libvirt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.libvirt.event.EventListener;
+import org.libvirt.jna.Libvirt;
+
+/**
+ * The listeners for a single domain event ID of a connection.
+ * <p>
+ * Only one native callback is registered per event ID, receiving the
+ * events of all domains. When an event arrives, the listeners for all
+ * domains and those for the domain concerned are looked up by its UUID,
+ * without locking. The listeners are kept in arrays which are replaced
+ * rather than modified, so iterating them does not allocate.
+ * <p>
+ * Listeners are added and removed while holding the lock of the table,
+ * which also guards the native registration.
+ */
+final class DomainEventTable {
+    // the key of the listeners for all domains
+    private static final Object ALL = new Object();
+
+    private static final EventListener[] NONE = new EventListener[0];
+
+    private final ConcurrentHashMap<Object, EventListener[]> listeners =
+        new ConcurrentHashMap<Object, EventListener[]>();
+
+    // the number of domains with listeners of their own
+    private volatile int domains;
+
+    // the keys every listener has been added with
+    private final Map<EventListener, List<Object>> keys = new HashMap<EventListener, List<Object>>();
+
+    /**
+     * The native callback while registered. It is important that the
+     * callback does not get GCed.
+     */
+    Libvirt.VirDomainEventCallback callback;
+
+    /**
+     * The ID of the native registration.
+     */
+    int callbackId;
+
+    /**
+     * Whether there are no listeners.
+     */
+    boolean isEmpty() {
+        return keys.isEmpty();
+    }
+
+    /**
+     * Whether {@code l} is the only listener, so removing it leaves the
+     * table empty.
+     */
+    boolean isOnly(EventListener l) {
+        return keys.size() == 1 && keys.containsKey(l);
+    }
+
+    /**
+     * Adds a listener for the domain with the given UUID, or for all
+     * domains if {@code uuid} is null.
+     * <p>
+     * A listener for all domains is not added again for a single domain,
+     * and adding it for all domains replaces the domains it has been
+     * added for before, so every event is delivered at most once to it.
+     *
+     * @return {@code false} if the listener had already been added
+     */
+    boolean add(UUID uuid, EventListener l) {
+        List<Object> k = keys.get(l);
+        if (k == null) {
+            k = new ArrayList<Object>(1);
+            keys.put(l, k);
+        } else if (k.contains(ALL) || k.contains(uuid)) {
+            return false;
+        } else if (uuid == null) {
+            remove(l);
+            k = new ArrayList<Object>(1);
+            keys.put(l, k);
+        }
+
+        final Object key = uuid == null ? ALL : uuid;
+        k.add(key);
+
+        EventListener[] list = listeners.get(key);
+        if (list == null) {
+            list = NONE;
+            if (key != ALL) domains++;
+        }
+        list = Arrays.copyOf(list, list.length + 1);
+        list[list.length - 1] = l;
+        listeners.put(key, list);
+        return true;
+    }
+
+    /**
+     * Removes a listener for all domains it has been added for.
+     *
+     * @return {@code false} if the listener had not been added
+     */
+    boolean remove(EventListener l) {
+        final List<Object> k = keys.remove(l);
+        if (k == null) return false;
+
+        for (Object key : k) {
+            final EventListener[] list = listeners.get(key);
+            if (list.length == 1) {
+                listeners.remove(key);
+                if (key != ALL) domains--;
+                continue;
+            }
+
+            final EventListener[] rest = new EventListener[list.length - 1];
+            int i = 0;
+            for (EventListener e : list) {
+                if (e != l) rest[i++] = e;
+            }
+            listeners.put(key, rest);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the listeners for all domains. The array must not be
+     * modified.
+     */
+    EventListener[] forAll() {
+        final EventListener[] list = listeners.get(ALL);
+        return list == null ? NONE : list;
+    }
+
+    /**
+     * Whether there are listeners for single domains, which need the
+     * UUID of a domain to be looked up.
+     */
+    boolean hasDomainListeners() {
+        return domains > 0;
+    }
+
+    /**
+     * Returns the listeners for the domain with the given UUID only. The
+     * array must not be modified.
+     */
+    EventListener[] forDomain(UUID uuid) {
+        final EventListener[] list = listeners.get(uuid);
+        return list == null ? NONE : list;
+    }
+}
@@ -2,6 +2,9 @@ package org.libvirt;
 
 import org.libvirt.jna.virDomainInfo;
 
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+
 /**
  * This object is returned by Domain.getInfo()
  *
@@ -44,6 +47,8 @@ public class DomainInfo {
         VIR_DOMAIN_CRASHED
     }
 
+    private static final DomainState[] STATES = DomainState.values();
+
     /**
      * the running state, one of virDomainFlag
      */
@@ -75,7 +80,23 @@ public class DomainInfo {
         maxMem = info.maxMem.longValue();
         memory = info.memory.longValue();
         nrVirtCpu = info.nrVirtCpu;
-        state = DomainState.values()[info.state];
+        state = STATES[info.state];
+    }
+
+    /**
+     * Fills this object from a native virDomainInfo structure.
+     */
+    DomainInfo read(Pointer info) {
+        cpuTime = info.getLong(virDomainInfo.CPUTIME_OFFSET);
+        maxMem = readNativeLong(info, virDomainInfo.MAXMEM_OFFSET);
+        memory = readNativeLong(info, virDomainInfo.MEMORY_OFFSET);
+        nrVirtCpu = info.getShort(virDomainInfo.NRVIRTCPU_OFFSET);
+        state = STATES[info.getInt(virDomainInfo.STATE_OFFSET)];
+        return this;
+    }
+
+    private static long readNativeLong(Pointer p, int offset) {
+        return Native.LONG_SIZE == 8 ? p.getLong(offset) : p.getInt(offset);
     }
 
     @Override
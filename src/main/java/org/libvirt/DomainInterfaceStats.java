@@ -2,6 +2,8 @@ package org.libvirt;
 
 import org.libvirt.jna.virDomainInterfaceStats;
 
+import com.sun.jna.Pointer;
+
 /**
  * The Domain.interfaceStats method returns the network counters in this object.
  *
@@ -33,6 +35,21 @@ public class DomainInterfaceStats {
         tx_drop = vStats.tx_drop;
     }
 
+    /**
+     * Fills this object from a native virDomainInterfaceStats structure.
+     */
+    DomainInterfaceStats read(Pointer vStats) {
+        rx_bytes = vStats.getLong(0);
+        rx_packets = vStats.getLong(8);
+        rx_errs = vStats.getLong(16);
+        rx_drop = vStats.getLong(24);
+        tx_bytes = vStats.getLong(32);
+        tx_packets = vStats.getLong(40);
+        tx_errs = vStats.getLong(48);
+        tx_drop = vStats.getLong(56);
+        return this;
+    }
+
     @Override
     public String toString() {
         return String.format("rx_bytes:%d%nrx_packets:%d%nrx_errs:%d%nrx_drop:%d%ntx_bytes:%d%ntx_packets:%d%ntx_errs:%d%ntx_drop:%d%n", rx_bytes, rx_packets, rx_errs, rx_drop, tx_bytes, tx_packets, tx_errs, tx_drop);
@@ -0,0 +1,102 @@
+package org.libvirt;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.libvirt.jna.DomainPointer;
+import static org.libvirt.Library.libvirt;
+import static org.libvirt.ErrorHandler.processError;
+
+/**
+ * Maps the domain pointers passed to event callbacks to a canonical
+ * Domain object per UUID.
+ * <p>
+ * The Domain objects are only weakly referenced, so a domain is kept
+ * in the table as long as the application holds on to it. Looking up
+ * a known domain neither increases the reference count of the native
+ * domain nor allocates a new Domain object.
+ *
+ * @see Connect#setDomainInterning
+ */
+final class DomainInterner {
+
+    private static final class Entry extends WeakReference<Domain> {
+        final UUID uuid;
+
+        Entry(Domain domain, UUID uuid, ReferenceQueue<Domain> queue) {
+            super(domain, queue);
+            this.uuid = uuid;
+        }
+    }
+
+    private final Connect connect;
+    private final ConcurrentHashMap<UUID, Entry> domains = new ConcurrentHashMap<UUID, Entry>();
+    private final ReferenceQueue<Domain> queue = new ReferenceQueue<Domain>();
+
+    DomainInterner(Connect connect) {
+        this.connect = connect;
+    }
+
+    /**
+     * Returns the canonical Domain object for the given pointer, which
+     * is only valid for the duration of the calling callback.
+     */
+    Domain intern(DomainPointer ptr) throws LibvirtException {
+        final byte[] bytes = Connect.uuidBuffer();
+        processError(libvirt.virDomainGetUUID(ptr, bytes));
+        return intern(ptr, Connect.toUUID(bytes));
+    }
+
+    /**
+     * Like {@link #intern(DomainPointer)}, for a pointer whose UUID is
+     * already known.
+     */
+    Domain intern(DomainPointer ptr, UUID uuid) throws LibvirtException {
+        expunge();
+
+        final Entry e = domains.get(uuid);
+        final Domain d = e == null ? null : e.get();
+        if (d != null && isCurrent(d, ptr)) return d;
+
+        synchronized (this) {
+            final Entry e2 = domains.get(uuid);
+            final Domain d2 = e2 == null ? null : e2.get();
+            if (d2 != null && isCurrent(d2, ptr)) return d2;
+
+            final Domain created = Domain.constructIncRef(connect, ptr, uuid);
+            domains.put(uuid, new Entry(created, uuid, queue));
+            return created;
+        }
+    }
+
+    /**
+     * Whether {@code d} still describes the same domain instance as
+     * {@code ptr}. The ID of a domain changes whenever it is (re)started,
+     * and a freed Domain object must not be handed out again.
+     */
+    private static boolean isCurrent(Domain d, DomainPointer ptr) {
+        final DomainPointer current = d.VDP;
+        return current != null
+            && (current.equals(ptr) || libvirt.virDomainGetID(current) == libvirt.virDomainGetID(ptr));
+    }
+
+    /**
+     * Removes the entries of domains which have been garbage collected.
+     */
+    private void expunge() {
+        Entry e;
+        while ((e = (Entry) queue.poll()) != null) {
+            domains.remove(e.uuid, e);
+        }
+    }
+
+    /**
+     * Returns the number of domains currently in the table.
+     */
+    int size() {
+        expunge();
+        return domains.size();
+    }
+}
@@ -6,13 +6,26 @@ import static org.libvirt.ErrorHandler.processError;
 
 import com.sun.jna.Pointer;
 
-public class DomainSnapshot {
+public class DomainSnapshot implements AutoCloseable, HandleScope.Handle {
 
     /**
      * the native virDomainSnapshotPtr.
      */
     DomainSnapshotPointer VDSP;
 
+    /**
+     * Releases the native virDomainSnapshotPtr of unreachable DomainSnapshot objects
+     */
+    private static final HandleRegistry.Release<DomainSnapshotPointer> FREE =
+        new HandleRegistry.Release<DomainSnapshotPointer>(HandleStats.Type.DOMAIN_SNAPSHOT) {
+            @Override
+            public void release(DomainSnapshotPointer ptr) {
+                libvirt.virDomainSnapshotFree(ptr);
+            }
+        };
+
+    private final HandleRegistry.Registration<DomainSnapshotPointer> registration;
+
     /**
      * The Connect Object that represents the Hypervisor of this Domain Snapshot
      */
@@ -20,6 +33,8 @@ public class DomainSnapshot {
 
     public DomainSnapshot(Connect virConnect, DomainSnapshotPointer VDSP) {
         this.VDSP = VDSP;
+        this.registration = HandleRegistry.register(this, VDSP, FREE);
+        virConnect.track(this);
         this.virConnect = virConnect;
     }
 
@@ -44,11 +59,6 @@ public class DomainSnapshot {
         return success;
     }
 
-    @Override
-    protected void finalize() throws LibvirtException {
-        free();
-    }
-
     /**
      * Release the domain snapshot handle. The underlying snapshot continues to
      * exist.
@@ -59,6 +69,7 @@ public class DomainSnapshot {
     public int free() throws LibvirtException {
         int success = 0;
         if (VDSP != null) {
+            registration.cancel();
             success = processError(libvirt.virDomainSnapshotFree(VDSP));
             VDSP = null;
         }
@@ -66,6 +77,16 @@ public class DomainSnapshot {
         return success;
     }
 
+    /**
+     * Frees this snapshot object, see {@link #free}.
+     *
+     * @throws LibvirtException
+     */
+    @Override
+    public void close() throws LibvirtException {
+        free();
+    }
+
     /**
      * Fetches an XML document describing attributes of the snapshot.
      *
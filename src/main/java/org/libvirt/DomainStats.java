@@ -0,0 +1,299 @@
+package org.libvirt;
+
+import java.util.Arrays;
+
+import org.libvirt.jna.DomainPointer;
+import org.libvirt.jna.virDomainStatsRecord;
+
+import com.sun.jna.Pointer;
+
+/**
+ * The statistics of a single domain as returned by
+ * {@link Connect#getAllDomainStats} and {@link Connect#getDomainStats}.
+ * <p>
+ * Only the statistics of the requested groups are filled in.
+ * Numeric values which were not reported by the hypervisor are -1,
+ * missing strings are {@code null}.
+ *
+ * @see <a
+ *      href="http://www.libvirt.org/html/libvirt-libvirt-domain.html#virConnectGetAllDomainStats">Libvirt
+ *      Documentation</a>
+ */
+public final class DomainStats {
+    /**
+     * The statistics groups which can be requested.
+     */
+    public enum Type implements BitFlags {
+        /** the domain state and the reason for it */
+        STATE(1 << 0),
+
+        /** the total CPU time used by the domain */
+        CPU_TOTAL(1 << 1),
+
+        /** the balloon memory statistics */
+        BALLOON(1 << 2),
+
+        /** the per virtual CPU statistics */
+        VCPU(1 << 3),
+
+        /** the per network interface statistics */
+        INTERFACE(1 << 4),
+
+        /** the per block device statistics */
+        BLOCK(1 << 5);
+
+        Type(int v) {
+            this.value = v;
+        }
+
+        @Override
+        public int getBit() {
+            return value;
+        }
+        private final int value;
+    }
+
+    /**
+     * The statistics of a single virtual CPU.
+     */
+    public static final class Vcpu {
+        /** the state of the virtual CPU, see {@link VcpuInfo.VcpuState} */
+        public int state = -1;
+        /** the CPU time used in nanoseconds */
+        public long time = -1;
+    }
+
+    /**
+     * The statistics of a single network interface.
+     */
+    public static final class Net {
+        /** the name of the interface */
+        public String name;
+        public long rx_bytes = -1;
+        public long rx_pkts = -1;
+        public long rx_errs = -1;
+        public long rx_drop = -1;
+        public long tx_bytes = -1;
+        public long tx_pkts = -1;
+        public long tx_errs = -1;
+        public long tx_drop = -1;
+    }
+
+    /**
+     * The statistics of a single block device.
+     */
+    public static final class Block {
+        /** the name of the block device, e.g. "vda" */
+        public String name;
+        /** the source path of the block device */
+        public String path;
+        public long rd_reqs = -1;
+        public long rd_bytes = -1;
+        public long rd_times = -1;
+        public long wr_reqs = -1;
+        public long wr_bytes = -1;
+        public long wr_times = -1;
+        public long fl_reqs = -1;
+        public long fl_times = -1;
+        public long errors = -1;
+        /** the highest offset written to, in bytes */
+        public long allocation = -1;
+        /** the logical size of the block device in bytes */
+        public long capacity = -1;
+        /** the physical size of the backing storage in bytes */
+        public long physical = -1;
+    }
+
+    private static final Vcpu[] NO_VCPUS = {};
+    private static final Net[] NO_NETS = {};
+    private static final Block[] NO_BLOCKS = {};
+
+    /** the domain these statistics belong to */
+    public final Domain domain;
+
+    /** the domain state, see {@link DomainInfo.DomainState} */
+    public int state = -1;
+    /** the reason for entering the current state */
+    public int stateReason = -1;
+
+    /** the total CPU time used in nanoseconds */
+    public long cpuTime = -1;
+    /** the user CPU time used in nanoseconds */
+    public long cpuUser = -1;
+    /** the system CPU time used in nanoseconds */
+    public long cpuSystem = -1;
+
+    /** the current balloon size in KiB */
+    public long balloonCurrent = -1;
+    /** the maximum balloon size in KiB */
+    public long balloonMaximum = -1;
+
+    /** the current number of online virtual CPUs */
+    public int vcpuCurrent = -1;
+    /** the maximum number of online virtual CPUs */
+    public int vcpuMaximum = -1;
+
+    /** the per virtual CPU statistics, indexed by virtual CPU number */
+    public Vcpu[] vcpus = NO_VCPUS;
+    /** the per network interface statistics */
+    public Net[] nets = NO_NETS;
+    /** the per block device statistics */
+    public Block[] blocks = NO_BLOCKS;
+
+    DomainStats(Domain domain) {
+        this.domain = domain;
+    }
+
+    /**
+     * Converts a NULL terminated list of virDomainStatsRecord pointers.
+     * <p>
+     * The list itself is not freed.
+     */
+    static DomainStats[] fromRecordList(Connect connect, Pointer list, int n) throws LibvirtException {
+        DomainStats[] result = new DomainStats[n];
+        TypedParameters params = new TypedParameters();
+        for (int i = 0; i < n; i++) {
+            Pointer record = list.getPointer((long) i * Pointer.SIZE);
+            DomainPointer dom = new DomainPointer();
+            dom.setPointer(record.getPointer(virDomainStatsRecord.DOM_OFFSET));
+            DomainStats stats = new DomainStats(Domain.constructIncRef(connect, dom));
+            params.read(record.getPointer(virDomainStatsRecord.PARAMS_OFFSET),
+                        record.getInt(virDomainStatsRecord.NPARAMS_OFFSET));
+            for (int j = 0; j < params.size(); j++) {
+                stats.set(params, j);
+            }
+            result[i] = stats;
+        }
+        return result;
+    }
+
+    /**
+     * Stores a single typed parameter. Unknown fields are ignored.
+     */
+    private void set(TypedParameters params, int i) {
+        final String field = params.name(i);
+        final int dot = field.indexOf('.');
+        if (dot < 0) return;
+        final String group = field.substring(0, dot);
+        String key = field.substring(dot + 1);
+
+        // per device entries are of the form "group.<index>.key"
+        int index = -1;
+        final int dot2 = key.indexOf('.');
+        if (dot2 > 0 && Character.isDigit(key.charAt(0))) {
+            try {
+                index = Integer.parseInt(key.substring(0, dot2));
+            } catch (NumberFormatException e) {
+                return;
+            }
+            key = key.substring(dot2 + 1);
+        }
+
+        if (params.type(i) == TypedParameters.Type.STRING) {
+            final String value = params.getString(i);
+            if ("net".equals(group) && index >= 0) {
+                if ("name".equals(key)) net(index).name = value;
+            } else if ("block".equals(group) && index >= 0) {
+                if ("name".equals(key)) block(index).name = value;
+                else if ("path".equals(key)) block(index).path = value;
+            }
+            return;
+        }
+
+        final long value = params.getLong(i);
+        if ("state".equals(group)) {
+            if ("state".equals(key)) state = (int) value;
+            else if ("reason".equals(key)) stateReason = (int) value;
+        } else if ("cpu".equals(group)) {
+            if ("time".equals(key)) cpuTime = value;
+            else if ("user".equals(key)) cpuUser = value;
+            else if ("system".equals(key)) cpuSystem = value;
+        } else if ("balloon".equals(group)) {
+            if ("current".equals(key)) balloonCurrent = value;
+            else if ("maximum".equals(key)) balloonMaximum = value;
+        } else if ("vcpu".equals(group)) {
+            if (index < 0) {
+                if ("current".equals(key)) vcpuCurrent = (int) value;
+                else if ("maximum".equals(key)) vcpuMaximum = (int) value;
+            } else {
+                setVcpu(vcpu(index), key, value);
+            }
+        } else if ("net".equals(group)) {
+            if (index < 0) {
+                if ("count".equals(key)) nets = resize(nets, (int) value);
+            } else {
+                setNet(net(index), key, value);
+            }
+        } else if ("block".equals(group)) {
+            if (index < 0) {
+                if ("count".equals(key)) blocks = resize(blocks, (int) value);
+            } else {
+                setBlock(block(index), key, value);
+            }
+        }
+    }
+
+    private static void setVcpu(Vcpu v, String key, long value) {
+        if ("state".equals(key)) v.state = (int) value;
+        else if ("time".equals(key)) v.time = value;
+    }
+
+    private static void setNet(Net n, String key, long value) {
+        if ("rx.bytes".equals(key)) n.rx_bytes = value;
+        else if ("rx.pkts".equals(key)) n.rx_pkts = value;
+        else if ("rx.errs".equals(key)) n.rx_errs = value;
+        else if ("rx.drop".equals(key)) n.rx_drop = value;
+        else if ("tx.bytes".equals(key)) n.tx_bytes = value;
+        else if ("tx.pkts".equals(key)) n.tx_pkts = value;
+        else if ("tx.errs".equals(key)) n.tx_errs = value;
+        else if ("tx.drop".equals(key)) n.tx_drop = value;
+    }
+
+    private static void setBlock(Block b, String key, long value) {
+        if ("rd.reqs".equals(key)) b.rd_reqs = value;
+        else if ("rd.bytes".equals(key)) b.rd_bytes = value;
+        else if ("rd.times".equals(key)) b.rd_times = value;
+        else if ("wr.reqs".equals(key)) b.wr_reqs = value;
+        else if ("wr.bytes".equals(key)) b.wr_bytes = value;
+        else if ("wr.times".equals(key)) b.wr_times = value;
+        else if ("fl.reqs".equals(key)) b.fl_reqs = value;
+        else if ("fl.times".equals(key)) b.fl_times = value;
+        else if ("errors".equals(key)) b.errors = value;
+        else if ("allocation".equals(key)) b.allocation = value;
+        else if ("capacity".equals(key)) b.capacity = value;
+        else if ("physical".equals(key)) b.physical = value;
+    }
+
+    private Vcpu vcpu(int index) {
+        if (index >= vcpus.length) vcpus = resize(vcpus, index + 1);
+        return vcpus[index];
+    }
+
+    private Net net(int index) {
+        if (index >= nets.length) nets = resize(nets, index + 1);
+        return nets[index];
+    }
+
+    private Block block(int index) {
+        if (index >= blocks.length) blocks = resize(blocks, index + 1);
+        return blocks[index];
+    }
+
+    private static Vcpu[] resize(Vcpu[] a, int n) {
+        Vcpu[] result = Arrays.copyOf(a, n);
+        for (int i = a.length; i < n; i++) result[i] = new Vcpu();
+        return result;
+    }
+
+    private static Net[] resize(Net[] a, int n) {
+        Net[] result = Arrays.copyOf(a, n);
+        for (int i = a.length; i < n; i++) result[i] = new Net();
+        return result;
+    }
+
+    private static Block[] resize(Block[] a, int n) {
+        Block[] result = Arrays.copyOf(a, n);
+        for (int i = a.length; i < n; i++) result[i] = new Block();
+        return result;
+    }
+}
@@ -1,12 +1,17 @@
 package org.libvirt;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.charset.Charset;
 
 import org.libvirt.jna.ConnectionPointer;
 import org.libvirt.jna.DomainPointer;
 import org.libvirt.jna.NetworkPointer;
 import org.libvirt.jna.virError;
 
+import com.sun.jna.Pointer;
+
 /**
  * An error which is returned from libvirt,
  */
@@ -127,8 +132,10 @@ public class Error implements Serializable {
         /** unknown error domain */
         VIR_FROM_UNKNOWN; // must be the last entry!
 
+        private static final ErrorDomain[] VALUES = values();
+
         protected static final ErrorDomain wrap(int value) {
-            return safeElementAt(value, values());
+            return safeElementAt(value, VALUES);
         }
     }
 
@@ -145,8 +152,10 @@ public class Error implements Serializable {
 
         VIR_ERR_UNKNOWN; /* must be the last entry! */
 
+        private static final ErrorLevel[] VALUES = values();
+
         protected static final ErrorLevel wrap(int value) {
-            return safeElementAt(value, values());
+            return safeElementAt(value, VALUES);
         }
     }
 
@@ -316,8 +325,10 @@ public class Error implements Serializable {
         /** unknown error */
         VIR_ERR_UNKNOWN; // must be the last entry!
 
+        private static final ErrorNumber[] VALUES = values();
+
         protected static final ErrorNumber wrap(int value) {
-            return safeElementAt(value, values());
+            return safeElementAt(value, VALUES);
         }
     }
 
@@ -339,6 +350,51 @@ public class Error implements Serializable {
     private int int2;
     private NetworkPointer VNP; /* Deprecated */
 
+    // all strings in libvirt are UTF-8 encoded
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    // the raw bytes of the strings which have not been decoded yet
+    private transient byte[] rawMessage;
+    private transient byte[] rawStr1;
+    private transient byte[] rawStr2;
+    private transient byte[] rawStr3;
+
+    /**
+     * Captures the given native virError.
+     * <p>
+     * The strings are copied since libvirt reuses the error object,
+     * but they are only decoded when requested.
+     */
+    Error(Pointer vError) {
+        code = ErrorNumber.wrap(vError.getInt(virError.CODE_OFFSET));
+        domain = ErrorDomain.wrap(vError.getInt(virError.DOMAIN_OFFSET));
+        level = ErrorLevel.wrap(vError.getInt(virError.LEVEL_OFFSET));
+        rawMessage = copyString(vError, virError.MESSAGE_OFFSET);
+        rawStr1 = copyString(vError, virError.STR1_OFFSET);
+        rawStr2 = copyString(vError, virError.STR2_OFFSET);
+        rawStr3 = copyString(vError, virError.STR3_OFFSET);
+        int1 = vError.getInt(virError.INT1_OFFSET);
+        int2 = vError.getInt(virError.INT2_OFFSET);
+    }
+
+    private static byte[] copyString(Pointer p, long offset) {
+        final Pointer s = p.getPointer(offset);
+        return s == null ? null : s.getByteArray(0, (int) s.indexOf(0, (byte) 0));
+    }
+
+    private static String decode(byte[] raw) {
+        return raw == null ? null : new String(raw, UTF8);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // make sure every string has been decoded
+        getMessage();
+        getStr1();
+        getStr2();
+        getStr3();
+        out.defaultWriteObject();
+    }
+
     public Error(virError vError) {
         code = ErrorNumber.wrap(vError.code);
         domain = ErrorDomain.wrap(vError.domain);
@@ -426,6 +482,7 @@ public class Error implements Serializable {
      * @return error message
      */
     public String getMessage() {
+        if (message == null) message = decode(rawMessage);
         return message;
     }
 
@@ -445,6 +502,7 @@ public class Error implements Serializable {
      * @return extra string information
      */
     public String getStr1() {
+        if (str1 == null) str1 = decode(rawStr1);
         return str1;
     }
 
@@ -452,6 +510,7 @@ public class Error implements Serializable {
      * @return extra string information
      */
     public String getStr2() {
+        if (str2 == null) str2 = decode(rawStr2);
         return str2;
     }
 
@@ -459,6 +518,7 @@ public class Error implements Serializable {
      * @return extra string information
      */
     public String getStr3() {
+        if (str3 == null) str3 = decode(rawStr3);
         return str3;
     }
 
@@ -494,6 +554,6 @@ public class Error implements Serializable {
 
     @Override
     public String toString() {
-        return String.format("level:%s%ncode:%s%ndomain:%s%nhasConn:%b%nhasDom:%b%nhasNet:%b%nmessage:%s%nstr1:%s%nstr2:%s%nstr3:%s%nint1:%d%nint2:%d%n", level, code, domain, hasConn(), hasDom(), hasNet(), message, str1, str2, str3, int1, int2);
+        return String.format("level:%s%ncode:%s%ndomain:%s%nhasConn:%b%nhasDom:%b%nhasNet:%b%nmessage:%s%nstr1:%s%nstr2:%s%nstr3:%s%nint1:%d%nint2:%d%n", level, code, domain, hasConn(), hasDom(), hasNet(), getMessage(), getStr1(), getStr2(), getStr3(), int1, int2);
     }
 }
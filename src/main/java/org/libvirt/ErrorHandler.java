@@ -3,8 +3,8 @@ package org.libvirt;
 import org.libvirt.jna.Libvirt;
 import org.libvirt.jna.virError;
 
-import static org.libvirt.Library.libvirt;
-
+import com.sun.jna.Function;
+import com.sun.jna.NativeLibrary;
 import com.sun.jna.Pointer;
 import com.sun.jna.PointerType;
 
@@ -16,16 +16,23 @@ import com.sun.jna.PointerType;
  */
 public class ErrorHandler {
 
+    /*
+     * virGetLastError is called as a plain function returning a pointer,
+     * so that only the fields actually needed are read from the
+     * virError structure.
+     */
+    private static final Function virGetLastError =
+        NativeLibrary.getInstance(Libvirt.LIBRARY_NAME).getFunction("virGetLastError");
+    private static final Object[] NO_ARGS = {};
+    private static final int VIR_ERR_ERROR = Error.ErrorLevel.VIR_ERR_ERROR.ordinal();
+
     private static final void processError() throws LibvirtException {
-        virError vError = libvirt.virGetLastError();
-        if (vError != null) {
-            Error error = new Error(vError);
-            /*
-             * Don't throw exceptions for VIR_ERR_WARNING level errors
-             */
-            if (error.getLevel() == Error.ErrorLevel.VIR_ERR_ERROR) {
-                throw new LibvirtException(error);
-            }
+        Pointer vError = virGetLastError.invokePointer(NO_ARGS);
+        /*
+         * Don't throw exceptions for VIR_ERR_WARNING level errors
+         */
+        if (vError != null && vError.getInt(virError.LEVEL_OFFSET) == VIR_ERR_ERROR) {
+            throw LibvirtException.create(new Error(vError));
         }
     }
 
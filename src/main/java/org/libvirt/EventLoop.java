@@ -0,0 +1,474 @@
+package org.libvirt;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.libvirt.jna.CLibrary;
+import org.libvirt.jna.Libvirt;
+import org.libvirt.jna.SizeT;
+
+import com.sun.jna.Memory;
+import com.sun.jna.NativeLong;
+import com.sun.jna.Pointer;
+
+/**
+ * An event loop implemented in Java, to be used by libvirt instead of
+ * its default implementation.
+ * <p>
+ * The loop watches the file descriptors of libvirt using the poll()
+ * system call and keeps the timeouts of libvirt in a {@link TimerWheel}.
+ * Unlike the default implementation, it does not need a thread of its
+ * own: {@link #runOnce} runs a single iteration and may be called from
+ * any thread, e.g. periodically by an existing I/O thread, while
+ * {@link #run} dedicates the calling thread to the loop until
+ * {@link #stop} is called.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * EventLoop loop = new EventLoop();
+ * Library.initEventLoop(loop);
+ * executor.execute(loop);
+ * }</pre>
+ * Only one thread may run iterations at a time. Listeners are called
+ * on that thread.
+ *
+ * @see Library#initEventLoop(EventLoop)
+ * @see <a
+ *       href="http://www.libvirt.org/html/libvirt-libvirt-event.html#virEventRegisterImpl"
+ *      >virEventRegisterImpl</a>
+ */
+public final class EventLoop implements Runnable {
+    // the span of the timer wheel in milliseconds
+    private static final int WHEEL_SPAN = 4096;
+
+    private static final class Handle {
+        final int watch;
+        final int fd;
+        int events;
+        final Libvirt.VirEventHandleCallback cb;
+        final Pointer opaque;
+        final Libvirt.VirFreeCallback ff;
+        boolean deleted;
+
+        Handle(int watch, int fd, int events,
+               Libvirt.VirEventHandleCallback cb, Pointer opaque, Libvirt.VirFreeCallback ff) {
+            this.watch = watch;
+            this.fd = fd;
+            this.events = events;
+            this.cb = cb;
+            this.opaque = opaque;
+            this.ff = ff;
+        }
+    }
+
+    private static final class Timeout extends TimerWheel.Timer {
+        final int id;
+        int interval;
+        final Libvirt.VirEventTimeoutCallback cb;
+        final Pointer opaque;
+        final Libvirt.VirFreeCallback ff;
+        boolean deleted;
+
+        Timeout(int id, int interval,
+                Libvirt.VirEventTimeoutCallback cb, Pointer opaque, Libvirt.VirFreeCallback ff) {
+            this.id = id;
+            this.interval = interval;
+            this.cb = cb;
+            this.opaque = opaque;
+            this.ff = ff;
+        }
+    }
+
+    // guards the handles and timeouts
+    private final Object lock = new Object();
+    private final Map<Integer, Handle> handles = new LinkedHashMap<Integer, Handle>();
+    private final Map<Integer, Timeout> timeouts = new LinkedHashMap<Integer, Timeout>();
+    // timeouts with an interval of 0, expiring on every iteration
+    private final List<Timeout> immediate = new ArrayList<Timeout>();
+    private final TimerWheel wheel = new TimerWheel(WHEEL_SPAN, now());
+    // removed handles and timeouts whose free callbacks are pending
+    private final List<Object> removed = new ArrayList<Object>();
+    private int nextWatch = 1;
+    private int nextTimer = 1;
+
+    // the pipe used to interrupt poll()
+    private final int[] wakeup = new int[2];
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private final byte[] wakeupBuffer = new byte[64];
+
+    private final EventLoopStats stats = EventLoopStats.getInstance();
+    private final AtomicBoolean iterating = new AtomicBoolean();
+    private volatile Thread thread;
+    private volatile boolean running;
+
+    // used by the iterating thread only
+    private Memory pollfds = new Memory(16 * CLibrary.POLLFD_SIZE);
+    private int[] polled = new int[16];
+    private final List<Timeout> expired = new ArrayList<Timeout>();
+    private final List<Object> free = new ArrayList<Object>();
+
+    // the callbacks registered with libvirt, which must not be GCed
+    final Libvirt.VirEventAddHandleFunc addHandle = new Libvirt.VirEventAddHandleFunc() {
+            @Override
+            public int addHandle(int fd, int events, Libvirt.VirEventHandleCallback cb,
+                                 Pointer opaque, Libvirt.VirFreeCallback ff) {
+                return EventLoop.this.addHandle(fd, events, cb, opaque, ff);
+            }
+        };
+    final Libvirt.VirEventUpdateHandleFunc updateHandle = new Libvirt.VirEventUpdateHandleFunc() {
+            @Override
+            public void updateHandle(int watch, int events) {
+                EventLoop.this.updateHandle(watch, events);
+            }
+        };
+    final Libvirt.VirEventRemoveHandleFunc removeHandle = new Libvirt.VirEventRemoveHandleFunc() {
+            @Override
+            public int removeHandle(int watch) {
+                return EventLoop.this.removeHandle(watch);
+            }
+        };
+    final Libvirt.VirEventAddTimeoutFunc addTimeout = new Libvirt.VirEventAddTimeoutFunc() {
+            @Override
+            public int addTimeout(int timeout, Libvirt.VirEventTimeoutCallback cb,
+                                  Pointer opaque, Libvirt.VirFreeCallback ff) {
+                return EventLoop.this.addTimeout(timeout, cb, opaque, ff);
+            }
+        };
+    final Libvirt.VirEventUpdateTimeoutFunc updateTimeout = new Libvirt.VirEventUpdateTimeoutFunc() {
+            @Override
+            public void updateTimeout(int timer, int timeout) {
+                EventLoop.this.updateTimeout(timer, timeout);
+            }
+        };
+    final Libvirt.VirEventRemoveTimeoutFunc removeTimeout = new Libvirt.VirEventRemoveTimeoutFunc() {
+            @Override
+            public int removeTimeout(int timer) {
+                return EventLoop.this.removeTimeout(timer);
+            }
+        };
+
+    /**
+     * Creates an event loop.
+     *
+     * @throws IllegalStateException if the wakeup pipe cannot be created
+     */
+    public EventLoop() {
+        if (CLibrary.INSTANCE.pipe(wakeup) != 0)
+            throw new IllegalStateException("cannot create wakeup pipe");
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1000000;
+    }
+
+    int addHandle(int fd, int events, Libvirt.VirEventHandleCallback cb,
+                  Pointer opaque, Libvirt.VirFreeCallback ff) {
+        synchronized (lock) {
+            final int watch = nextWatch++;
+            handles.put(watch, new Handle(watch, fd, events, cb, opaque, ff));
+            wakeup();
+            return watch;
+        }
+    }
+
+    void updateHandle(int watch, int events) {
+        synchronized (lock) {
+            final Handle h = handles.get(watch);
+            if (h == null || h.deleted) return;
+            h.events = events;
+            wakeup();
+        }
+    }
+
+    int removeHandle(int watch) {
+        synchronized (lock) {
+            final Handle h = handles.remove(watch);
+            if (h == null || h.deleted) return -1;
+            // the free callback must not be called from here, as the
+            // caller may hold locks which it acquires itself
+            h.deleted = true;
+            removed.add(h);
+            wakeup();
+            return 0;
+        }
+    }
+
+    int addTimeout(int timeout, Libvirt.VirEventTimeoutCallback cb,
+                   Pointer opaque, Libvirt.VirFreeCallback ff) {
+        synchronized (lock) {
+            final int id = nextTimer++;
+            final Timeout t = new Timeout(id, timeout, cb, opaque, ff);
+            timeouts.put(id, t);
+            arm(t, now());
+            wakeup();
+            return id;
+        }
+    }
+
+    void updateTimeout(int timer, int timeout) {
+        synchronized (lock) {
+            final Timeout t = timeouts.get(timer);
+            if (t == null || t.deleted) return;
+            t.interval = timeout;
+            arm(t, now());
+            wakeup();
+        }
+    }
+
+    int removeTimeout(int timer) {
+        synchronized (lock) {
+            final Timeout t = timeouts.remove(timer);
+            if (t == null || t.deleted) return -1;
+            t.deleted = true;
+            wheel.cancel(t);
+            immediate.remove(t);
+            removed.add(t);
+            wakeup();
+            return 0;
+        }
+    }
+
+    /**
+     * Schedules a timeout according to its interval, see
+     * virEventAddTimeoutFunc. Called holding the lock.
+     */
+    private void arm(Timeout t, long now) {
+        immediate.remove(t);
+        wheel.cancel(t);
+        if (t.interval == 0) {
+            immediate.add(t);
+        } else if (t.interval > 0) {
+            wheel.schedule(t, now + t.interval);
+        }
+    }
+
+    /**
+     * Interrupts a poll() in progress on another thread.
+     */
+    private void wakeup() {
+        if (Thread.currentThread() != thread && wakeupPending.compareAndSet(false, true)) {
+            CLibrary.INSTANCE.write(wakeup[1], wakeupBuffer, new SizeT(1));
+        }
+    }
+
+    /**
+     * Runs the loop on the calling thread until {@link #stop} is called
+     * or the thread is interrupted.
+     */
+    @Override
+    public void run() {
+        running = true;
+        try {
+            while (running && !Thread.currentThread().isInterrupted()) {
+                runOnce(-1);
+            }
+        } finally {
+            stats.stopped();
+        }
+    }
+
+    /**
+     * Stops {@link #run}, and interrupts the current iteration.
+     */
+    public void stop() {
+        running = false;
+        synchronized (lock) {
+            wakeup();
+        }
+    }
+
+    /**
+     * Runs one iteration of the loop: waits for any of the file
+     * descriptors to become ready or for the next timeout to expire and
+     * calls the corresponding callbacks.
+     *
+     * @param timeout
+     *            the maximum time to wait in milliseconds; 0 does not
+     *            wait, -1 waits until the next event
+     * @return the number of callbacks called
+     * @throws IllegalStateException
+     *             if another thread is running an iteration
+     */
+    public int runOnce(long timeout) {
+        if (!iterating.compareAndSet(false, true))
+            throw new IllegalStateException("the event loop is already running on another thread");
+
+        thread = Thread.currentThread();
+        final long start = stats.beginIteration();
+        try {
+            return iterate(timeout);
+        } finally {
+            stats.endIteration(start);
+            thread = null;
+            iterating.set(false);
+        }
+    }
+
+    private int iterate(long timeout) {
+        final int n;
+        synchronized (lock) {
+            n = preparePoll();
+            final long next = immediate.isEmpty() ? wheel.nextTimeout(now()) : 0;
+            if (next >= 0 && (timeout < 0 || next < timeout)) timeout = next;
+        }
+
+        stats.waiting();
+        final int ready = CLibrary.INSTANCE.poll(pollfds, new NativeLong(n), (int) Math.min(timeout, Integer.MAX_VALUE));
+        stats.woken();
+        if (ready > 0 && pollfds.getShort(6) != 0) {
+            drainWakeup();
+        }
+
+        int dispatched = dispatchTimeouts();
+        if (ready > 0) {
+            dispatched += dispatchHandles(n);
+        }
+        freeRemoved();
+        return dispatched;
+    }
+
+    /**
+     * Fills the pollfd array with the wakeup pipe and the handles.
+     * Called holding the lock.
+     *
+     * @return the number of file descriptors to poll
+     */
+    private int preparePoll() {
+        final int n = handles.size() + 1;
+        if (polled.length < n) {
+            polled = new int[Math.max(n, polled.length * 2)];
+            pollfds = new Memory(polled.length * CLibrary.POLLFD_SIZE);
+        }
+
+        setPollFd(0, wakeup[0], CLibrary.POLLIN);
+        int i = 1;
+        for (Handle h : handles.values()) {
+            polled[i] = h.watch;
+            setPollFd(i++, h.fd, toPollEvents(h.events));
+        }
+        return n;
+    }
+
+    private void setPollFd(int i, int fd, short events) {
+        final long offset = (long) i * CLibrary.POLLFD_SIZE;
+        pollfds.setInt(offset, fd);
+        pollfds.setShort(offset + 4, events);
+        pollfds.setShort(offset + 6, (short) 0);
+    }
+
+    private void drainWakeup() {
+        // clears the flag only after reading, or a wakeup written in
+        // between would be consumed with the flag left set, suppressing
+        // all further wakeups; a change made in between is seen by the
+        // next preparePoll()
+        CLibrary.INSTANCE.read(wakeup[0], wakeupBuffer, new SizeT(wakeupBuffer.length));
+        wakeupPending.set(false);
+    }
+
+    private int dispatchTimeouts() {
+        final long now = now();
+        synchronized (lock) {
+            expired.addAll(immediate);
+            wheel.expire(now, expired);
+        }
+
+        int dispatched = 0;
+        for (Timeout t : expired) {
+            synchronized (lock) {
+                // removed or updated by an earlier callback
+                if (t.deleted || t.isScheduled() || t.interval < 0) continue;
+                if (t.interval > 0) wheel.schedule(t, now + t.interval);
+            }
+            final long start = stats.beginCallback();
+            try {
+                t.cb.tick(t.id, t.opaque);
+            } finally {
+                stats.endCallback(EventLoopStats.CallbackType.TIMEOUT, start);
+            }
+            dispatched++;
+        }
+        expired.clear();
+        return dispatched;
+    }
+
+    private int dispatchHandles(int n) {
+        int dispatched = 0;
+        for (int i = 1; i < n; i++) {
+            final short revents = pollfds.getShort((long) i * CLibrary.POLLFD_SIZE + 6);
+            if (revents == 0) continue;
+
+            final Handle h;
+            synchronized (lock) {
+                h = handles.get(polled[i]);
+            }
+            if (h == null || h.deleted) continue;
+
+            final long start = stats.beginCallback();
+            try {
+                h.cb.eventCallback(h.watch, h.fd, fromPollEvents(revents), h.opaque);
+            } finally {
+                stats.endCallback(EventLoopStats.CallbackType.HANDLE, start);
+            }
+            dispatched++;
+        }
+        return dispatched;
+    }
+
+    private void freeRemoved() {
+        synchronized (lock) {
+            if (removed.isEmpty()) return;
+            free.addAll(removed);
+            removed.clear();
+        }
+
+        for (Iterator<Object> i = free.iterator(); i.hasNext();) {
+            final Object o = i.next();
+            i.remove();
+            if (o instanceof Handle) {
+                final Handle h = (Handle) o;
+                if (h.ff != null) h.ff.freeCallback(h.opaque);
+            } else {
+                final Timeout t = (Timeout) o;
+                if (t.ff != null) t.ff.freeCallback(t.opaque);
+            }
+        }
+    }
+
+    static short toPollEvents(int events) {
+        int e = 0;
+        if ((events & Libvirt.VIR_EVENT_HANDLE_READABLE) != 0) e |= CLibrary.POLLIN;
+        if ((events & Libvirt.VIR_EVENT_HANDLE_WRITABLE) != 0) e |= CLibrary.POLLOUT;
+        return (short) e;
+    }
+
+    static int fromPollEvents(short revents) {
+        int e = 0;
+        if ((revents & CLibrary.POLLIN) != 0) e |= Libvirt.VIR_EVENT_HANDLE_READABLE;
+        if ((revents & CLibrary.POLLOUT) != 0) e |= Libvirt.VIR_EVENT_HANDLE_WRITABLE;
+        if ((revents & (CLibrary.POLLERR | CLibrary.POLLNVAL)) != 0) e |= Libvirt.VIR_EVENT_HANDLE_ERROR;
+        if ((revents & CLibrary.POLLHUP) != 0) e |= Libvirt.VIR_EVENT_HANDLE_HANGUP;
+        return e;
+    }
+
+    /**
+     * Returns the number of file descriptors watched.
+     */
+    public int getHandleCount() {
+        synchronized (lock) {
+            return handles.size();
+        }
+    }
+
+    /**
+     * Returns the number of timeouts, including disabled ones.
+     */
+    public int getTimeoutCount() {
+        synchronized (lock) {
+            return timeouts.size();
+        }
+    }
+}
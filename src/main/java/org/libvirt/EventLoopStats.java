@@ -0,0 +1,386 @@
+package org.libvirt;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Instrumentation of the event loop, which has to run regularly for
+ * keepalive messages to be exchanged. A stalled event loop results in
+ * connections being closed.
+ * <p>
+ * Both the default event loop run by {@link Library#processEvent} and
+ * {@link EventLoop} record the duration of each iteration, the time
+ * between iterations and the execution time of the callbacks per type.
+ * <p>
+ * The lag is the time the event loop has been kept from waiting for
+ * events, by callbacks or because it has not been run at all. When it
+ * exceeds the budget, which defaults to the shortest interval passed to
+ * {@link Connect#setKeepAlive}, the lag listeners are notified once per
+ * stall. The lag is checked after every iteration and every callback;
+ * in order to notice an event loop which is stuck, call
+ * {@link #checkLag} periodically from another thread:
+ * <pre>{@code
+ * scheduler.scheduleAtFixedRate(new Runnable() {
+ *         public void run() {
+ *             EventLoopStats.getInstance().checkLag();
+ *         }
+ *     }, 1, 1, TimeUnit.SECONDS);
+ * }</pre>
+ * All of this is available through JMX after calling
+ * {@link #registerMBean}.
+ */
+public final class EventLoopStats implements EventLoopStatsMXBean {
+    /**
+     * The JMX object name this MBean is registered as.
+     */
+    public static final String OBJECT_NAME = "org.libvirt:type=EventLoopStats";
+
+    /**
+     * The callback types, the domain events in the order of their
+     * libvirt event IDs followed by the callbacks of {@link EventLoop}.
+     */
+    public enum CallbackType {
+        LIFECYCLE,
+        REBOOT,
+        RTC_CHANGE,
+        WATCHDOG,
+        IO_ERROR,
+        GRAPHICS,
+        IO_ERROR_REASON,
+        CONTROL_ERROR,
+        BLOCK_JOB,
+        DISK_CHANGE,
+        TRAY_CHANGE,
+        PMWAKEUP,
+        PMSUSPEND,
+        BALLOON_CHANGE,
+        PMSUSPEND_DISK,
+        DEVICE_REMOVED,
+        BLOCK_JOB_2,
+        /** a file descriptor watched by {@link EventLoop} */
+        HANDLE,
+        /** a timeout of {@link EventLoop} */
+        TIMEOUT
+    }
+
+    /**
+     * Notified when the lag of the event loop exceeds the budget.
+     */
+    public interface LagListener {
+        /**
+         * Called on the thread which noticed the lag, which is the event
+         * loop thread unless {@link #checkLag} has been called by
+         * another thread.
+         *
+         * @param lag    the lag in nanoseconds
+         * @param budget the budget in nanoseconds
+         */
+        void onLag(long lag, long budget);
+    }
+
+    private static final CallbackType[] TYPES = CallbackType.values();
+
+    private static final EventLoopStats INSTANCE = new EventLoopStats();
+
+    private static final long NO_BUDGET = Long.MAX_VALUE;
+
+    private final LatencyHistogram iterationTime = new LatencyHistogram();
+    private final LatencyHistogram gapTime = new LatencyHistogram();
+    private final LatencyHistogram[] callbackTime = new LatencyHistogram[TYPES.length];
+
+    // written by the event loop thread only
+    private long lastIterationEnd;
+    private boolean callbackBusy;
+
+    // when the event loop stopped waiting for events, 0 while waiting
+    private volatile long busySince;
+    // the value of busySince last reported to the lag listeners
+    private final AtomicLong reported = new AtomicLong();
+    private volatile long lagBudget = NO_BUDGET;
+    private final LongAdder lagExceeded = new LongAdder();
+    private final CopyOnWriteArrayList<LagListener> lagListeners = new CopyOnWriteArrayList<LagListener>();
+
+    private EventLoopStats() {
+        for (int i = 0; i < callbackTime.length; i++) {
+            callbackTime[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Returns the event loop statistics.
+     */
+    public static EventLoopStats getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers the event loop statistics with the platform MBean
+     * server, unless already done.
+     *
+     * @throws JMException
+     */
+    public static synchronized void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (!server.isRegistered(name)) server.registerMBean(INSTANCE, name);
+    }
+
+    /**
+     * Called by the event loop thread when an iteration starts.
+     *
+     * @return the start time
+     */
+    long beginIteration() {
+        final long now = System.nanoTime();
+        if (lastIterationEnd != 0) gapTime.record(now - lastIterationEnd);
+        return now;
+    }
+
+    /**
+     * Called by the event loop thread before waiting for events.
+     */
+    void waiting() {
+        busySince = 0;
+    }
+
+    /**
+     * Called by the event loop thread after waiting for events.
+     */
+    void woken() {
+        busySince = System.nanoTime();
+    }
+
+    /**
+     * Called by the event loop thread when an iteration ends.
+     */
+    void endIteration(long start) {
+        final long now = System.nanoTime();
+        iterationTime.record(now - start);
+        checkLag();
+        lastIterationEnd = now;
+        // the event loop is not waiting until the next iteration
+        if (busySince == 0) busySince = now;
+    }
+
+    /**
+     * Called by the event loop thread when the loop is stopped on
+     * purpose, which must not be reported as lag.
+     */
+    void stopped() {
+        busySince = 0;
+        lastIterationEnd = 0;
+    }
+
+    /**
+     * Called by the event loop thread before calling a callback.
+     *
+     * @return the start time
+     */
+    long beginCallback() {
+        final long now = System.nanoTime();
+        if (busySince == 0 && !callbackBusy) {
+            // called from within the default event loop
+            busySince = now;
+            callbackBusy = true;
+        }
+        return now;
+    }
+
+    /**
+     * Called by the event loop thread after calling a callback.
+     */
+    void endCallback(CallbackType type, long start) {
+        callbackTime[type.ordinal()].record(System.nanoTime() - start);
+        checkLag();
+        if (callbackBusy) {
+            callbackBusy = false;
+            busySince = 0;
+        }
+    }
+
+    /**
+     * Returns the current lag and notifies the lag listeners if it
+     * exceeds the budget for the first time since the event loop
+     * stopped waiting for events. May be called by any thread.
+     *
+     * @return the lag in nanoseconds
+     */
+    public long checkLag() {
+        final long since = busySince;
+        if (since == 0) return 0;
+
+        final long lag = System.nanoTime() - since;
+        final long budget = lagBudget;
+        if (lag > budget) {
+            final long r = reported.get();
+            if (r != since && reported.compareAndSet(r, since)) {
+                lagExceeded.increment();
+                for (LagListener l : lagListeners) {
+                    try {
+                        l.onLag(lag, budget);
+                    } catch (RuntimeException e) {
+                        final Thread t = Thread.currentThread();
+                        t.getUncaughtExceptionHandler().uncaughtException(t, e);
+                    }
+                }
+            }
+        }
+        return lag;
+    }
+
+    /**
+     * Returns how long the event loop has been kept from waiting for
+     * events, in nanoseconds. This is cheap and does not notify the lag
+     * listeners.
+     */
+    public long getLag() {
+        final long since = busySince;
+        return since == 0 ? 0 : System.nanoTime() - since;
+    }
+
+    /**
+     * Adds a listener to be notified when the lag exceeds the budget.
+     */
+    public void addLagListener(LagListener l) {
+        if (l == null)
+            throw new IllegalArgumentException("LagListener cannot be null");
+        lagListeners.addIfAbsent(l);
+    }
+
+    public void removeLagListener(LagListener l) {
+        lagListeners.remove(l);
+    }
+
+    /**
+     * Sets the lag above which the lag listeners are notified.
+     *
+     * @param budget the budget, or a negative value for none
+     * @param unit   the unit of {@code budget}
+     */
+    public void setLagBudget(long budget, TimeUnit unit) {
+        lagBudget = budget < 0 ? NO_BUDGET : unit.toNanos(budget);
+    }
+
+    /**
+     * Returns the lag budget in nanoseconds, or -1 if there is none.
+     */
+    public long getLagBudget() {
+        final long b = lagBudget;
+        return b == NO_BUDGET ? -1 : b;
+    }
+
+    /**
+     * Lowers the lag budget to a keepalive interval, see
+     * {@link Connect#setKeepAlive}.
+     */
+    void keepAlive(int interval) {
+        if (interval <= 0) return;
+
+        final long b = TimeUnit.SECONDS.toNanos(interval);
+        if (b < lagBudget) lagBudget = b;
+    }
+
+    /**
+     * Returns the durations of the iterations of the event loop.
+     */
+    public LatencyHistogram iterationTime() {
+        return iterationTime;
+    }
+
+    /**
+     * Returns the times between the end of an iteration and the start
+     * of the next one.
+     */
+    public LatencyHistogram gapTime() {
+        return gapTime;
+    }
+
+    /**
+     * Returns the execution times of the callbacks of the given type.
+     */
+    public LatencyHistogram callbackTime(CallbackType type) {
+        return callbackTime[type.ordinal()];
+    }
+
+    @Override
+    public long getLagMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(getLag());
+    }
+
+    @Override
+    public long getLagBudgetMillis() {
+        final long b = getLagBudget();
+        return b < 0 ? b : TimeUnit.NANOSECONDS.toMillis(b);
+    }
+
+    @Override
+    public void setLagBudgetMillis(long budget) {
+        setLagBudget(budget, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long getLagExceededCount() {
+        return lagExceeded.sum();
+    }
+
+    @Override
+    public long getIterations() {
+        return iterationTime.getCount();
+    }
+
+    @Override
+    public Map<String, Long> getIterationTime() {
+        return toMap(iterationTime);
+    }
+
+    @Override
+    public Map<String, Long> getGapTime() {
+        return toMap(gapTime);
+    }
+
+    @Override
+    public Map<String, Long> getCallbackTime99thPercentile() {
+        Map<String, Long> result = new LinkedHashMap<String, Long>();
+        for (CallbackType t : TYPES) {
+            result.put(t.name(), TimeUnit.NANOSECONDS.toMicros(callbackTime(t).getPercentile(99)));
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getCallbackCount() {
+        Map<String, Long> result = new LinkedHashMap<String, Long>();
+        for (CallbackType t : TYPES) {
+            result.put(t.name(), callbackTime(t).getCount());
+        }
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        iterationTime.reset();
+        gapTime.reset();
+        for (LatencyHistogram h : callbackTime) {
+            h.reset();
+        }
+        lagExceeded.reset();
+    }
+
+    private static Map<String, Long> toMap(LatencyHistogram h) {
+        Map<String, Long> result = new LinkedHashMap<String, Long>();
+        result.put("p50", TimeUnit.NANOSECONDS.toMicros(h.getPercentile(50)));
+        result.put("p90", TimeUnit.NANOSECONDS.toMicros(h.getPercentile(90)));
+        result.put("p99", TimeUnit.NANOSECONDS.toMicros(h.getPercentile(99)));
+        result.put("max", TimeUnit.NANOSECONDS.toMicros(h.getMax()));
+        return result;
+    }
+}
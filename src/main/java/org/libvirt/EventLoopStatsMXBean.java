@@ -0,0 +1,59 @@
+package org.libvirt;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link EventLoopStats}, registered as
+ * {@value EventLoopStats#OBJECT_NAME}.
+ */
+public interface EventLoopStatsMXBean {
+    /**
+     * How long the event loop has been kept from waiting for events,
+     * in milliseconds.
+     */
+    long getLagMillis();
+
+    /**
+     * The lag above which the lag listeners are notified, in
+     * milliseconds, or -1 if there is no budget.
+     */
+    long getLagBudgetMillis();
+
+    void setLagBudgetMillis(long budget);
+
+    /**
+     * The number of times the lag exceeded the budget.
+     */
+    long getLagExceededCount();
+
+    /**
+     * The number of iterations of the event loop.
+     */
+    long getIterations();
+
+    /**
+     * Percentiles of the duration of the iterations, in microseconds.
+     */
+    Map<String, Long> getIterationTime();
+
+    /**
+     * Percentiles of the time between iterations, in microseconds.
+     */
+    Map<String, Long> getGapTime();
+
+    /**
+     * The 99th percentile of the callback execution time per callback
+     * type, in microseconds.
+     */
+    Map<String, Long> getCallbackTime99thPercentile();
+
+    /**
+     * The number of callbacks per callback type.
+     */
+    Map<String, Long> getCallbackCount();
+
+    /**
+     * Discards all recorded durations.
+     */
+    void reset();
+}
@@ -0,0 +1,161 @@
+package org.libvirt;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sun.jna.PointerType;
+
+/**
+ * Releases the native references of handle objects (Connect, Domain,
+ * Network, ...) which become unreachable without being freed
+ * explicitly.
+ * <p>
+ * Handles are tracked using phantom references which are processed by
+ * a single daemon thread, instead of overriding finalize(). The release
+ * action of a handle only has access to its native pointer, never to
+ * the handle object itself.
+ * <p>
+ * The registry also keeps track of the live handles for
+ * {@link HandleStats}.
+ */
+final class HandleRegistry {
+
+    /**
+     * Releases a native reference of the given type of handle.
+     */
+    abstract static class Release<T extends PointerType> {
+        final HandleStats.Type type;
+
+        Release(HandleStats.Type type) {
+            this.type = type;
+        }
+
+        abstract void release(T ptr);
+    }
+
+    /**
+     * A handle object tracked by the registry.
+     */
+    static final class Registration<T extends PointerType> extends PhantomReference<Object> {
+        private final T ptr;
+        private final Release<T> release;
+        // where the handle was created, if captured
+        private final Throwable site;
+
+        // doubly linked list of the live registrations, guarded by lock
+        private Registration<?> prev;
+        private Registration<?> next;
+
+        private Registration(Object owner, T ptr, Release<T> release) {
+            super(owner, queue);
+            this.ptr = ptr;
+            this.release = release;
+            this.site = HandleStats.captureSites ? new Throwable("allocation site") : null;
+        }
+
+        /**
+         * Stops tracking the handle without releasing its native
+         * reference, e.g. because it has been freed explicitly.
+         */
+        void cancel() {
+            if (remove(this)) {
+                clear();
+                HandleStats.onFree(release.type);
+            }
+        }
+
+        private void clean() {
+            if (remove(this)) {
+                HandleStats.onCollect(release.type);
+                if (ptr != null) release.release(ptr);
+            }
+        }
+    }
+
+    private static final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+    private static final Object lock = new Object();
+    // keeps the registrations themselves reachable
+    private static Registration<?> first;
+    // the number of live registrations per handle type
+    private static final int[] live = new int[HandleStats.Type.values().length];
+
+    static {
+        final Thread cleaner = new Thread("libvirt handle cleaner") {
+                @Override
+                public void run() {
+                    while (true) {
+                        try {
+                            ((Registration<?>) queue.remove()).clean();
+                        } catch (InterruptedException e) {
+                            // keep going
+                        } catch (RuntimeException e) {
+                            // ignored, just like exceptions thrown by finalize()
+                        }
+                    }
+                }
+            };
+        cleaner.setDaemon(true);
+        cleaner.start();
+    }
+
+    private HandleRegistry() {}
+
+    /**
+     * Tracks the given handle object, releasing {@code ptr} once the
+     * object becomes unreachable unless the registration has been
+     * cancelled before.
+     */
+    static <T extends PointerType> Registration<T> register(Object owner, T ptr, Release<T> release) {
+        final Registration<T> r = new Registration<T>(owner, ptr, release);
+        synchronized (lock) {
+            if (first != null) {
+                r.next = first;
+                first.prev = r;
+            }
+            first = r;
+            live[release.type.ordinal()]++;
+        }
+        HandleStats.onCreate(release.type);
+        return r;
+    }
+
+    private static boolean remove(Registration<?> r) {
+        synchronized (lock) {
+            if (r.next == r) return false; // already removed
+
+            if (first == r) first = r.next;
+            if (r.next != null) r.next.prev = r.prev;
+            if (r.prev != null) r.prev.next = r.next;
+            // mark as removed
+            r.prev = r;
+            r.next = r;
+            live[r.release.type.ordinal()]--;
+            return true;
+        }
+    }
+
+    /**
+     * Returns the number of live handles of the given type.
+     */
+    static int live(HandleStats.Type type) {
+        synchronized (lock) {
+            return live[type.ordinal()];
+        }
+    }
+
+    /**
+     * Returns the captured allocation sites of the live handles of the
+     * given type.
+     */
+    static List<Throwable> liveSites(HandleStats.Type type) {
+        final List<Throwable> result = new ArrayList<Throwable>();
+        synchronized (lock) {
+            for (Registration<?> r = first; r != null; r = r.next) {
+                if (r.release.type == type && r.site != null) result.add(r.site);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,97 @@
+package org.libvirt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks the handles (Domain, Network, StorageVol, ...) created by the
+ * current thread for a connection, and frees all of them at once when
+ * closed.
+ * <p>
+ * This is meant for bulk operations which look up many handles, so
+ * their native references are released deterministically instead of
+ * whenever the garbage collector gets to them:
+ * <pre>
+ * try (HandleScope scope = conn.openScope()) {
+ *     for (Domain d : conn.listAllDomains()) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ * Handles freed explicitly inside the scope are skipped. Handles must
+ * not be used after their scope has been closed.
+ * <p>
+ * Scopes are bound to the thread which opened them and may be nested,
+ * in which case new handles are tracked by the innermost scope only.
+ *
+ * @see Connect#openScope
+ */
+public final class HandleScope implements AutoCloseable {
+
+    /**
+     * A handle which can be tracked by a scope.
+     */
+    interface Handle {
+        int free() throws LibvirtException;
+    }
+
+    private final ThreadLocal<HandleScope> current;
+    private final HandleScope outer;
+    private final Thread thread;
+    private List<Handle> handles = new ArrayList<Handle>();
+
+    HandleScope(ThreadLocal<HandleScope> current) {
+        this.current = current;
+        this.outer = current.get();
+        this.thread = Thread.currentThread();
+        current.set(this);
+    }
+
+    void add(Handle handle) {
+        handles.add(handle);
+    }
+
+    /**
+     * Returns the number of handles tracked by this scope.
+     */
+    public int size() {
+        return handles == null ? 0 : handles.size();
+    }
+
+    /**
+     * Frees all handles created in this scope, in reverse order of
+     * creation.
+     * <p>
+     * All handles are freed even if freeing some of them fails, in
+     * which case the first error is thrown afterwards.
+     *
+     * @throws LibvirtException
+     * @throws IllegalStateException
+     *             if called by a thread other than the one which opened
+     *             this scope, or if an inner scope is still open
+     */
+    @Override
+    public void close() throws LibvirtException {
+        if (handles == null) return;
+        if (Thread.currentThread() != thread)
+            throw new IllegalStateException("scope must be closed by the thread which opened it");
+        if (current.get() != this)
+            throw new IllegalStateException("an inner scope is still open");
+
+        if (outer == null) current.remove();
+        else current.set(outer);
+
+        final List<Handle> h = handles;
+        handles = null;
+
+        LibvirtException error = null;
+        for (int i = h.size() - 1; i >= 0; i--) {
+            try {
+                h.get(i).free();
+            } catch (LibvirtException e) {
+                if (error == null) error = e;
+            }
+        }
+        if (error != null) throw error;
+    }
+}
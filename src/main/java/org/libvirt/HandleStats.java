@@ -0,0 +1,262 @@
+package org.libvirt;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Accounting of the native handles (connections, domains, storage
+ * volumes, ...) created by these bindings, in order to find handle
+ * leaks.
+ * <p>
+ * The number of live handles per type is always available. Counting
+ * created, freed and collected handles is disabled by default and can
+ * be enabled at runtime or by setting the {@code org.libvirt.handleStats}
+ * system property to true. A handle is collected when it was not freed
+ * explicitly but released after becoming unreachable.
+ * <p>
+ * Optionally, the allocation site of each handle can be recorded in
+ * order to find the code which leaks handles. This is expensive and
+ * should only be enabled while hunting down a leak, at runtime or by
+ * setting the {@code org.libvirt.handleStats.allocationSites} system
+ * property to true.
+ * <p>
+ * All of this is available through JMX after calling
+ * {@link #registerMBean}.
+ */
+public final class HandleStats implements HandleStatsMXBean {
+    /**
+     * The JMX object name this MBean is registered as.
+     */
+    public static final String OBJECT_NAME = "org.libvirt:type=HandleStats";
+
+    /**
+     * The handle types.
+     */
+    public enum Type {
+        CONNECT,
+        DOMAIN,
+        DOMAIN_SNAPSHOT,
+        NETWORK,
+        NETWORK_FILTER,
+        INTERFACE,
+        DEVICE,
+        SECRET,
+        STORAGE_POOL,
+        STORAGE_VOL,
+        STREAM
+    }
+
+    private static final Type[] TYPES = Type.values();
+
+    private static final HandleStats INSTANCE = new HandleStats();
+
+    static volatile boolean enabled = Boolean.getBoolean("org.libvirt.handleStats");
+    static volatile boolean captureSites = Boolean.getBoolean("org.libvirt.handleStats.allocationSites");
+
+    private final LongAdder[] created = newCounters();
+    private final LongAdder[] freed = newCounters();
+    private final LongAdder[] collected = newCounters();
+
+    private HandleStats() {}
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[TYPES.length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    /**
+     * Returns the handle statistics.
+     */
+    public static HandleStats getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers the handle statistics with the platform MBean server,
+     * unless already done.
+     *
+     * @throws JMException
+     */
+    public static synchronized void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (!server.isRegistered(name)) server.registerMBean(INSTANCE, name);
+    }
+
+    static void onCreate(Type type) {
+        if (enabled) INSTANCE.created[type.ordinal()].increment();
+    }
+
+    static void onFree(Type type) {
+        if (enabled) INSTANCE.freed[type.ordinal()].increment();
+    }
+
+    static void onCollect(Type type) {
+        if (enabled) INSTANCE.collected[type.ordinal()].increment();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        HandleStats.enabled = enabled;
+    }
+
+    @Override
+    public boolean isAllocationSiteCapture() {
+        return captureSites;
+    }
+
+    /**
+     * Enables or disables recording the allocation sites of new
+     * handles. Handles created while disabled have no allocation site.
+     */
+    @Override
+    public void setAllocationSiteCapture(boolean enabled) {
+        captureSites = enabled;
+    }
+
+    /**
+     * Returns the number of handles of the given type created while
+     * counting was enabled.
+     */
+    public long getCreated(Type type) {
+        return created[type.ordinal()].sum();
+    }
+
+    /**
+     * Returns the number of handles of the given type freed explicitly
+     * while counting was enabled.
+     */
+    public long getFreed(Type type) {
+        return freed[type.ordinal()].sum();
+    }
+
+    /**
+     * Returns the number of handles of the given type which were only
+     * released after becoming unreachable, while counting was enabled.
+     */
+    public long getCollected(Type type) {
+        return collected[type.ordinal()].sum();
+    }
+
+    /**
+     * Returns the number of handles of the given type which have not
+     * been released yet.
+     */
+    public long getLive(Type type) {
+        return HandleRegistry.live(type);
+    }
+
+    @Override
+    public Map<String, Long> getCreated() {
+        return toMap(created);
+    }
+
+    @Override
+    public Map<String, Long> getFreed() {
+        return toMap(freed);
+    }
+
+    @Override
+    public Map<String, Long> getCollected() {
+        return toMap(collected);
+    }
+
+    @Override
+    public Map<String, Long> getLive() {
+        Map<String, Long> result = new LinkedHashMap<String, Long>();
+        for (Type t : TYPES) {
+            result.put(t.name(), getLive(t));
+        }
+        return result;
+    }
+
+    @Override
+    public long getTotalLive() {
+        long total = 0;
+        for (Type t : TYPES) {
+            total += getLive(t);
+        }
+        return total;
+    }
+
+    @Override
+    public List<String> liveAllocationSites(String type, int limit) {
+        return liveAllocationSites(Type.valueOf(type), limit);
+    }
+
+    /**
+     * Returns the most common allocation sites of the live handles of
+     * the given type, each prefixed with the number of handles allocated
+     * there.
+     */
+    public List<String> liveAllocationSites(Type type, int limit) {
+        final Map<String, Integer> counts = new HashMap<String, Integer>();
+        for (Throwable site : HandleRegistry.liveSites(type)) {
+            final String s = format(site);
+            final Integer n = counts.get(s);
+            counts.put(s, n == null ? 1 : n + 1);
+        }
+
+        final List<Map.Entry<String, Integer>> sorted =
+            new ArrayList<Map.Entry<String, Integer>>(counts.entrySet());
+        Collections.sort(sorted, new Comparator<Map.Entry<String, Integer>>() {
+                @Override
+                public int compare(Map.Entry<String, Integer> a, Map.Entry<String, Integer> b) {
+                    return b.getValue().compareTo(a.getValue());
+                }
+            });
+
+        final List<String> result = new ArrayList<String>();
+        for (Map.Entry<String, Integer> e : sorted) {
+            if (result.size() >= limit) break;
+            result.add(e.getValue() + " " + e.getKey());
+        }
+        return result;
+    }
+
+    private static String format(Throwable site) {
+        final StringBuilder b = new StringBuilder();
+        for (StackTraceElement e : site.getStackTrace()) {
+            // skip the frames of the registry itself
+            if (e.getClassName().equals(HandleRegistry.class.getName())) continue;
+            b.append(String.format("%n\tat ")).append(e);
+        }
+        return b.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < TYPES.length; i++) {
+            created[i].reset();
+            freed[i].reset();
+            collected[i].reset();
+        }
+    }
+
+    private static Map<String, Long> toMap(LongAdder[] counters) {
+        Map<String, Long> result = new LinkedHashMap<String, Long>();
+        for (Type t : TYPES) {
+            result.put(t.name(), counters[t.ordinal()].sum());
+        }
+        return result;
+    }
+}
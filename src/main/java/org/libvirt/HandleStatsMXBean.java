@@ -0,0 +1,62 @@
+package org.libvirt;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Management interface of {@link HandleStats}, registered as
+ * {@value HandleStats#OBJECT_NAME}.
+ */
+public interface HandleStatsMXBean {
+    /**
+     * Whether handles are being counted.
+     */
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * Whether the allocation site of every new handle is recorded.
+     */
+    boolean isAllocationSiteCapture();
+
+    void setAllocationSiteCapture(boolean enabled);
+
+    /**
+     * The number of handles created per type.
+     */
+    Map<String, Long> getCreated();
+
+    /**
+     * The number of handles freed explicitly per type.
+     */
+    Map<String, Long> getFreed();
+
+    /**
+     * The number of handles per type which were released only after
+     * becoming unreachable, i.e. which the application leaked.
+     */
+    Map<String, Long> getCollected();
+
+    /**
+     * The number of handles per type which have not been released yet.
+     */
+    Map<String, Long> getLive();
+
+    /**
+     * The total number of handles which have not been released yet.
+     */
+    long getTotalLive();
+
+    /**
+     * Returns the most common allocation sites of the live handles of
+     * the given type, e.g. "DOMAIN", each prefixed with the number of
+     * handles allocated there.
+     */
+    List<String> liveAllocationSites(String type, int limit);
+
+    /**
+     * Resets all counters.
+     */
+    void reset();
+}
@@ -9,7 +9,7 @@ import com.sun.jna.Pointer;
 /**
  * A device which is attached to a node
  */
-public class Interface {
+public class Interface implements AutoCloseable, HandleScope.Handle {
 
     /**
      * Get XML Flag: dump inactive interface information
@@ -21,6 +21,19 @@ public class Interface {
      */
     InterfacePointer VIP;
 
+    /**
+     * Releases the native virInterfacePtr of unreachable Interface objects
+     */
+    private static final HandleRegistry.Release<InterfacePointer> FREE =
+        new HandleRegistry.Release<InterfacePointer>(HandleStats.Type.INTERFACE) {
+            @Override
+            public void release(InterfacePointer ptr) {
+                libvirt.virInterfaceFree(ptr);
+            }
+        };
+
+    private final HandleRegistry.Registration<InterfacePointer> registration;
+
     /**
      * The Connect Object that represents the Hypervisor of this Interface
      */
@@ -38,6 +51,8 @@ public class Interface {
     Interface(Connect virConnect, InterfacePointer VIP) {
         this.virConnect = virConnect;
         this.VIP = VIP;
+        this.registration = HandleRegistry.register(this, VIP, FREE);
+        virConnect.track(this);
     }
 
     /**
@@ -74,11 +89,6 @@ public class Interface {
         return processError(libvirt.virInterfaceDestroy(VIP, 0));
     }
 
-    @Override
-    protected void finalize() throws LibvirtException {
-        free();
-    }
-
     /**
      * Frees this interface object. The running instance is kept alive. The data
      * structure is freed and should not be used thereafter.
@@ -89,6 +99,7 @@ public class Interface {
     public int free() throws LibvirtException {
         int success = 0;
         if (VIP != null) {
+            registration.cancel();
             success = processError(libvirt.virInterfaceFree(VIP));
             VIP = null;
         }
@@ -96,6 +107,16 @@ public class Interface {
         return success;
     }
 
+    /**
+     * Frees this interface object, see {@link #free}.
+     *
+     * @throws LibvirtException
+     */
+    @Override
+    public void close() throws LibvirtException {
+        free();
+    }
+
     /**
      * Returns the mac string of the interface
      *
@@ -0,0 +1,112 @@
+package org.libvirt;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in nanoseconds, which can be updated
+ * concurrently without locking.
+ * <p>
+ * Durations are counted in buckets with four buckets per power of two,
+ * so percentiles are reported with a relative error of at most 25%.
+ * Recording a duration costs two atomic updates.
+ *
+ * @see EventLoopStats
+ */
+public final class LatencyHistogram {
+    // four buckets per power of two from 4 to 2^63
+    private static final int BUCKETS = 4 * 62;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    LatencyHistogram() {}
+
+    static int bucket(long nanos) {
+        if (nanos < 4) return (int) Math.max(nanos, 0);
+
+        final int msb = 63 - Long.numberOfLeadingZeros(nanos);
+        final int sub = (int) (nanos >>> (msb - 2)) & 3;
+        return 4 * (msb - 1) + sub;
+    }
+
+    /**
+     * Returns the largest duration counted in the given bucket.
+     */
+    static long upperBound(int bucket) {
+        if (bucket < 4) return bucket;
+
+        final int shift = bucket / 4 - 1;
+        final long lower = (long) (4 + bucket % 4) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    /**
+     * Records a duration.
+     */
+    void record(long nanos) {
+        counts.incrementAndGet(bucket(nanos));
+
+        long m;
+        while (nanos > (m = max.get()) && !max.compareAndSet(m, nanos)) {
+            // retry
+        }
+    }
+
+    /**
+     * Returns the number of durations recorded.
+     */
+    public long getCount() {
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            n += counts.get(i);
+        }
+        return n;
+    }
+
+    /**
+     * Returns the longest duration recorded, in nanoseconds.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the duration in nanoseconds which the given percentage of
+     * the recorded durations do not exceed, or 0 if none have been
+     * recorded.
+     *
+     * @param percentile
+     *            between 0 and 100, e.g. 99 for the 99th percentile
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+
+        final long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) return 0;
+
+        final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return Math.min(upperBound(i), getMax());
+        }
+        return getMax();
+    }
+
+    /**
+     * Discards all recorded durations.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        max.set(0);
+    }
+}
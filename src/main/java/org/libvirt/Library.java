@@ -1,10 +1,12 @@
 package org.libvirt;
 
+import org.libvirt.jna.DirectLibvirt;
 import org.libvirt.jna.Libvirt;
 import org.libvirt.jna.Libvirt.VirEventTimeoutCallback;
 import org.libvirt.jna.CString;
 import static org.libvirt.ErrorHandler.processError;
 
+import com.sun.jna.Memory;
 import com.sun.jna.Native;
 import com.sun.jna.Pointer;
 import com.sun.jna.ptr.LongByReference;
@@ -12,12 +14,17 @@ import com.sun.jna.ptr.PointerByReference;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * This class represents an instance of the JNA mapped libvirt
  * library.
  *
  * The library will get loaded when first accessing this class.
+ * <p>
+ * When the system property {@code org.libvirt.jna.direct} is set to
+ * {@code true}, the most frequently used domain functions are called
+ * using JNA direct mapping, see {@link DirectLibvirt}.
  *
  * Additionally, this class contains internal methods to ease
  * implementing the public API.
@@ -25,6 +32,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 public final class Library {
     private static AtomicBoolean runLoop = new AtomicBoolean();
     private static AtomicInteger timerID = new AtomicInteger(-1);
+    // the event loop implemented in Java, if registered
+    private static final AtomicReference<EventLoop> eventLoop = new AtomicReference<EventLoop>();
     private static VirEventTimeoutCallback timer = new VirEventTimeoutCallback() {
             @Override
             public void tick(int id, Pointer p) {
@@ -41,7 +50,9 @@ public final class Library {
 
     // Load the native part
     static {
-        libvirt = Libvirt.INSTANCE;
+        libvirt = Boolean.getBoolean("org.libvirt.jna.direct")
+                  ? new DirectLibvirt(Libvirt.INSTANCE)
+                  : Libvirt.INSTANCE;
         try {
             processError(libvirt.virInitialize());
         } catch (Exception e) {
@@ -71,6 +82,39 @@ public final class Library {
         Pointer.nativeValue(ptr, 0L);
     }
 
+    /**
+     * Convert an array of native pointers, as returned by the
+     * virConnectListAll* functions, to a Java array.
+     *
+     * \note The memory used by the native array is freed.
+     */
+    static Pointer[] toPointerArray(Pointer array, final int size) {
+        if (array == null) return new Pointer[0];
+        try {
+            return array.getPointerArray(0, size);
+        } finally {
+            free(array);
+        }
+    }
+
+    /**
+     * Returns per-thread native memory with room for {@code size}
+     * pointers, e.g. for the name arrays filled by the list functions.
+     * <p>
+     * The memory is reused by the next call on the same thread.
+     */
+    static Pointer pointerBuffer(final int size) {
+        final long needed = (long) size * Pointer.SIZE;
+        Memory m = pointerBuffer.get();
+        if (m == null || m.size() < needed) {
+            m = new Memory(Math.max(needed, 64 * Pointer.SIZE));
+            pointerBuffer.set(m);
+        }
+        return m;
+    }
+
+    private static final ThreadLocal<Memory> pointerBuffer = new ThreadLocal<Memory>();
+
     /**
      * Convert the given array of UTF-8 encoded C-Strings to an array
      * of Strings.
@@ -78,20 +122,8 @@ public final class Library {
      * \note The memory used by the elements of the original array
      *       is freed.
      */
-    static String[] toStringArray(CString[] cstrarr, final int size) {
-        int i = 0;
-        try {
-            final String[] result = new String[size];
-            for (; i < size; ++i) {
-                result[i] = cstrarr[i].toString();
-            }
-            return result;
-        } catch (RuntimeException e) {
-            for (; i < size; ++i) {
-                if (cstrarr[i] != null) cstrarr[i].free();
-            }
-            throw e;
-        }
+    static String[] toStringArray(Pointer cstrarr, final int size) {
+        return CString.toStringArray(cstrarr, size);
     }
 
     /**
@@ -113,6 +145,9 @@ public final class Library {
      * @see #runLoop
      */
     public static void initEventLoop() throws LibvirtException {
+        if (eventLoop.get() != null)
+            throw new IllegalStateException("an event loop has already been registered");
+
         if (timerID.get() == -1) {
             processError(libvirt.virEventRegisterDefaultImpl());
 
@@ -127,6 +162,39 @@ public final class Library {
         }
     }
 
+    /**
+     * Initialize the event loop using an implementation in Java.
+     *
+     * Registers the given event loop with libvirt instead of the
+     * default implementation based on the poll() system call. The
+     * application has to run the loop, see {@link EventLoop#run} and
+     * {@link EventLoop#runOnce}; {@link #processEvent},
+     * {@link #runEventLoop} and {@link #stopEventLoop} cannot be used
+     * with it.
+     * <p>
+     * Note: You must call this function <em>before</em> connecting to
+     *       the hypervisor. libvirt does not support replacing an event
+     *       loop, so this can only be called once, and not after
+     *       {@link #initEventLoop()}.
+     *
+     * @param loop the event loop
+     * @throws IllegalStateException if an event loop has already been
+     *                               registered
+     *
+     * @see <a
+     *       href="http://www.libvirt.org/html/libvirt-libvirt-event.html#virEventRegisterImpl"
+     *      >virEventRegisterImpl</a>
+     */
+    public static void initEventLoop(EventLoop loop) {
+        if (loop == null)
+            throw new IllegalArgumentException("loop cannot be null");
+        if (timerID.get() != -1 || !eventLoop.compareAndSet(null, loop))
+            throw new IllegalStateException("an event loop has already been registered");
+
+        libvirt.virEventRegisterImpl(loop.addHandle, loop.updateHandle, loop.removeHandle,
+                                     loop.addTimeout, loop.updateTimeout, loop.removeTimeout);
+    }
+
     /**
      * Run one iteration of the event loop.
      * <p>
@@ -144,7 +212,15 @@ public final class Library {
      * @see #initEventLoop()
      */
     public static void processEvent() throws LibvirtException {
-        processError(libvirt.virEventRunDefaultImpl());
+        final EventLoopStats stats = EventLoopStats.getInstance();
+        final long start = stats.beginIteration();
+        stats.waiting();
+        try {
+            processError(libvirt.virEventRunDefaultImpl());
+        } finally {
+            stats.woken();
+            stats.endIteration(start);
+        }
     }
 
     /**
@@ -162,11 +238,15 @@ public final class Library {
      */
     public static void runEventLoop() throws LibvirtException, InterruptedException {
         runLoop.set(true);
-        do {
-            processEvent();
-            if (Thread.interrupted())
-                throw new InterruptedException();
-        } while (runLoop.get());
+        try {
+            do {
+                processEvent();
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+            } while (runLoop.get());
+        } finally {
+            EventLoopStats.getInstance().stopped();
+        }
     }
 
     /**
@@ -3,6 +3,11 @@ package org.libvirt;
 /**
  * This exception is thrown by all classes and methods of libvirt when the
  * underlying libvirt library indicates an error
+ * <p>
+ * Errors which are expected in normal operation, e.g.
+ * {@link Error.ErrorNumber#VIR_ERR_NO_DOMAIN VIR_ERR_NO_DOMAIN} for
+ * lookups, can be configured to be thrown without a stack trace using
+ * {@link #setStackless}, which makes throwing them considerably cheaper.
  *
  * @author stoty
  * @see Error
@@ -11,13 +16,52 @@ public class LibvirtException extends Exception {
 
     private static final long serialVersionUID = 5566904363426773529L;
 
+    // indexed by ErrorNumber.ordinal(), replaced as a whole on update
+    private static volatile boolean[] stackless = new boolean[Error.ErrorNumber.values().length];
+
     private Error virError;
 
     LibvirtException(Error virError) {
-        super(virError.getMessage());
+        this(virError, true);
+    }
+
+    private LibvirtException(Error virError, boolean writableStackTrace) {
+        // the message is decoded lazily, see getMessage()
+        super(null, null, true, writableStackTrace);
         this.virError = virError;
     }
 
+    /**
+     * Creates an exception for the given error, omitting the stack
+     * trace if that was requested for its error code.
+     */
+    static LibvirtException create(Error virError) {
+        return new LibvirtException(virError, !stackless[virError.getCode().ordinal()]);
+    }
+
+    /**
+     * Sets whether exceptions for the given error code are thrown
+     * without filling in a stack trace.
+     *
+     * @param code the error code
+     * @param enabled {@code true} to omit the stack trace
+     */
+    public static synchronized void setStackless(Error.ErrorNumber code, boolean enabled) {
+        final boolean[] copy = stackless.clone();
+        copy[code.ordinal()] = enabled;
+        stackless = copy;
+    }
+
+    /**
+     * Returns whether exceptions for the given error code are thrown
+     * without a stack trace.
+     *
+     * @see #setStackless
+     */
+    public static boolean isStackless(Error.ErrorNumber code) {
+        return stackless[code.ordinal()];
+    }
+
     /**
      * Returns the underlying Error objects that contains details about the
      * cause of the exception
@@ -28,4 +72,8 @@ public class LibvirtException extends Exception {
         return virError;
     }
 
+    @Override
+    public String getMessage() {
+        return virError.getMessage();
+    }
 }
@@ -12,13 +12,26 @@ import com.sun.jna.ptr.IntByReference;
 /**
  * A network object defined by libvirt.
  */
-public class Network {
+public class Network implements AutoCloseable, HandleScope.Handle {
 
     /**
      * The native virNetworkPtr
      */
     NetworkPointer VNP;
 
+    /**
+     * Releases the native virNetworkPtr of unreachable Network objects
+     */
+    private static final HandleRegistry.Release<NetworkPointer> FREE =
+        new HandleRegistry.Release<NetworkPointer>(HandleStats.Type.NETWORK) {
+            @Override
+            public void release(NetworkPointer ptr) {
+                libvirt.virNetworkFree(ptr);
+            }
+        };
+
+    private final HandleRegistry.Registration<NetworkPointer> registration;
+
     /**
      * The Connect Object that represents the Hypervisor of this Network
      */
@@ -35,6 +48,8 @@ public class Network {
     Network(Connect virConnect, NetworkPointer VNP) {
         this.virConnect = virConnect;
         this.VNP = VNP;
+        this.registration = HandleRegistry.register(this, VNP, FREE);
+        virConnect.track(this);
     }
 
     /**
@@ -59,11 +74,6 @@ public class Network {
         processError(libvirt.virNetworkDestroy(VNP));
     }
 
-    @Override
-    protected void finalize() throws LibvirtException {
-        free();
-    }
-
     /**
      * Frees this network object. The running instance is kept alive. The object
      * becomes invalid and should not be used thereafter if the call does not
@@ -75,6 +85,7 @@ public class Network {
     public int free() throws LibvirtException {
         int success = 0;
         if (VNP != null) {
+            registration.cancel();
             success = processError(libvirt.virNetworkFree(VNP));
             VNP = null;
         }
@@ -82,6 +93,16 @@ public class Network {
         return success;
     }
 
+    /**
+     * Frees this network object, see {@link #free}.
+     *
+     * @throws LibvirtException
+     */
+    @Override
+    public void close() throws LibvirtException {
+        free();
+    }
+
     /**
      * Provides a boolean value indicating whether this network is configured to
      * be automatically started when the host machine boots.
@@ -7,12 +7,25 @@ import static org.libvirt.ErrorHandler.processError;
 
 import com.sun.jna.Native;
 
-public class NetworkFilter {
+public class NetworkFilter implements AutoCloseable, HandleScope.Handle {
     /**
      * the native virNWFilterPtr.
      */
     NetworkFilterPointer NFP;
 
+    /**
+     * Releases the native virNWFilterPtr of unreachable NetworkFilter objects
+     */
+    private static final HandleRegistry.Release<NetworkFilterPointer> FREE =
+        new HandleRegistry.Release<NetworkFilterPointer>(HandleStats.Type.NETWORK_FILTER) {
+            @Override
+            public void release(NetworkFilterPointer ptr) {
+                libvirt.virNWFilterFree(ptr);
+            }
+        };
+
+    private final HandleRegistry.Registration<NetworkFilterPointer> registration;
+
     /**
      * The Connect Object that represents the Hypervisor of this Filter
      */
@@ -20,14 +33,11 @@ public class NetworkFilter {
 
     public NetworkFilter(Connect virConnect, NetworkFilterPointer NFP) {
         this.NFP = NFP;
+        this.registration = HandleRegistry.register(this, NFP, FREE);
+        virConnect.track(this);
         this.virConnect = virConnect;
     }
 
-    @Override
-    protected void finalize() throws LibvirtException {
-        free();
-    }
-
     /**
      * Release the network filter handle. The underlying snapshot continues to
      * exist.
@@ -38,6 +48,7 @@ public class NetworkFilter {
     public int free() throws LibvirtException {
         int success = 0;
         if (NFP != null) {
+            registration.cancel();
             success = processError(libvirt.virNWFilterFree(NFP));
             NFP = null;
         }
@@ -45,6 +56,16 @@ public class NetworkFilter {
         return success;
     }
 
+    /**
+     * Frees this network filter object, see {@link #free}.
+     *
+     * @throws LibvirtException
+     */
+    @Override
+    public void close() throws LibvirtException {
+        free();
+    }
+
     /**
      * Gets the public name for this network filter
      *
@@ -14,13 +14,26 @@ import java.nio.ByteBuffer;
 /**
  * A secret defined by libvirt
  */
-public class Secret {
+public class Secret implements AutoCloseable, HandleScope.Handle {
 
     /**
      * the native virSecretPtr.
      */
     SecretPointer VSP;
 
+    /**
+     * Releases the native virSecretPtr of unreachable Secret objects
+     */
+    private static final HandleRegistry.Release<SecretPointer> FREE =
+        new HandleRegistry.Release<SecretPointer>(HandleStats.Type.SECRET) {
+            @Override
+            public void release(SecretPointer ptr) {
+                libvirt.virSecretFree(ptr);
+            }
+        };
+
+    private final HandleRegistry.Registration<SecretPointer> registration;
+
     /**
      * The Connect Object that represents the Hypervisor of this Domain
      */
@@ -29,11 +42,8 @@ public class Secret {
     Secret(Connect virConnect, SecretPointer VSP) {
         this.virConnect = virConnect;
         this.VSP = VSP;
-    }
-
-    @Override
-    protected void finalize() throws LibvirtException {
-        free();
+        this.registration = HandleRegistry.register(this, VSP, FREE);
+        virConnect.track(this);
     }
 
     /**
@@ -45,6 +55,7 @@ public class Secret {
     public int free() throws LibvirtException {
         int success = 0;
         if (VSP != null) {
+            registration.cancel();
             success = processError(libvirt.virSecretFree(VSP));
             VSP = null;
         }
@@ -52,6 +63,16 @@ public class Secret {
         return success;
     }
 
+    /**
+     * Frees this secret object, see {@link #free}.
+     *
+     * @throws LibvirtException
+     */
+    @Override
+    public void close() throws LibvirtException {
+        free();
+    }
+
     /**
      * Get the unique identifier of the object with which this secret is to be
      * used.
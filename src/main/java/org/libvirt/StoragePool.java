@@ -1,21 +1,22 @@
 package org.libvirt;
 
-import org.libvirt.jna.CString;
 import org.libvirt.jna.Libvirt;
 import org.libvirt.jna.StoragePoolPointer;
 import org.libvirt.jna.StorageVolPointer;
 import org.libvirt.jna.virStoragePoolInfo;
+import org.libvirt.jna.virStorageVolInfo;
 import static org.libvirt.Library.libvirt;
 import static org.libvirt.ErrorHandler.processError;
 
 import com.sun.jna.Native;
 import com.sun.jna.Pointer;
 import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.PointerByReference;
 
 /**
  * A collection of storage
  */
-public class StoragePool {
+public class StoragePool implements AutoCloseable, HandleScope.Handle {
 
     static final class BuildFlags {
         /**
@@ -48,6 +49,19 @@ public class StoragePool {
      */
     protected StoragePoolPointer VSPP;
 
+    /**
+     * Releases the native virStoragePoolPtr of unreachable StoragePool objects
+     */
+    private static final HandleRegistry.Release<StoragePoolPointer> FREE =
+        new HandleRegistry.Release<StoragePoolPointer>(HandleStats.Type.STORAGE_POOL) {
+            @Override
+            public void release(StoragePoolPointer ptr) {
+                libvirt.virStoragePoolFree(ptr);
+            }
+        };
+
+    private final HandleRegistry.Registration<StoragePoolPointer> registration;
+
     /**
      * The VirConnect Object that represents the Hypervisor of this Domain
      */
@@ -66,6 +80,8 @@ public class StoragePool {
     StoragePool(Connect virConnect, StoragePoolPointer VSPP) {
         this.virConnect = virConnect;
         this.VSPP = VSPP;
+        this.registration = HandleRegistry.register(this, VSPP, FREE);
+        virConnect.track(this);
     }
 
     /**
@@ -109,11 +125,6 @@ public class StoragePool {
         processError(libvirt.virStoragePoolDestroy(VSPP));
     }
 
-    @Override
-    protected void finalize() throws LibvirtException {
-        free();
-    }
-
     /**
      * Free a storage pool object, releasing all memory associated with it. Does
      * not change the state of the pool on the host.
@@ -124,12 +135,23 @@ public class StoragePool {
     public int free() throws LibvirtException {
         int success = 0;
         if (VSPP != null) {
+            registration.cancel();
             success = processError(libvirt.virStoragePoolFree(VSPP));
             VSPP = null;
         }
         return success;
     }
 
+    /**
+     * Frees this storage pool object, see {@link #free}.
+     *
+     * @throws LibvirtException
+     */
+    @Override
+    public void close() throws LibvirtException {
+        free();
+    }
+
     /**
      * Fetches the value of the autostart flag, which determines whether the
      * pool is automatically started at boot time
@@ -238,6 +260,51 @@ public class StoragePool {
         return processError(libvirt.virStoragePoolIsPersistent(VSPP));
     }
 
+    /**
+     * Collects all storage volumes of this pool using a single call.
+     *
+     * @see <a
+     *      href="http://www.libvirt.org/html/libvirt-libvirt-storage.html#virStoragePoolListAllVolumes">Libvirt
+     *      Documentation</a>
+     * @return an array of the storage volumes
+     * @throws LibvirtException
+     */
+    public StorageVol[] listAllVolumes() throws LibvirtException {
+        PointerByReference vols = new PointerByReference();
+        final int n = processError(libvirt.virStoragePoolListAllVolumes(VSPP, vols, 0));
+        final Pointer[] ptrs = Library.toPointerArray(vols.getValue(), n);
+        final StorageVol[] result = new StorageVol[n];
+        for (int i = 0; i < n; i++) {
+            StorageVolPointer ptr = new StorageVolPointer();
+            ptr.setPointer(ptrs[i]);
+            result[i] = new StorageVol(virConnect, ptr);
+        }
+        return result;
+    }
+
+    /**
+     * Collects all storage volumes of this pool together with their
+     * info and path.
+     * <p>
+     * The volumes are enumerated with a single call, avoiding a
+     * lookup by name for each volume.
+     *
+     * @return an array of the storage volumes with their info and path
+     * @throws LibvirtException
+     * @see #listAllVolumes()
+     */
+    public StorageVolEntry[] listAllVolumesWithInfo() throws LibvirtException {
+        final StorageVol[] vols = listAllVolumes();
+        final StorageVolEntry[] result = new StorageVolEntry[vols.length];
+        final virStorageVolInfo vInfo = new virStorageVolInfo();
+        for (int i = 0; i < vols.length; i++) {
+            final StorageVol vol = vols[i];
+            processError(libvirt.virStorageVolGetInfo(vol.VSVP, vInfo));
+            result[i] = new StorageVolEntry(vol, new StorageVolInfo(vInfo), vol.getPath());
+        }
+        return result;
+    }
+
     /**
      * Fetch list of storage volume names
      *
@@ -248,7 +315,7 @@ public class StoragePool {
     public String[] listVolumes() throws LibvirtException {
         int num = numOfVolumes();
         if (num > 0) {
-            CString[] names = new CString[num];
+            Pointer names = Library.pointerBuffer(num);
 
             int got = processError(libvirt.virStoragePoolListVolumes(VSPP, names, num));
 
@@ -11,7 +11,7 @@ import com.sun.jna.Pointer;
 /**
  * An acutal storage bucket.
  */
-public class StorageVol {
+public class StorageVol implements AutoCloseable, HandleScope.Handle {
 
     static final class DeleteFlags {
         /**
@@ -57,6 +57,19 @@ public class StorageVol {
      */
     StorageVolPointer VSVP;
 
+    /**
+     * Releases the native virStorageVolPtr of unreachable StorageVol objects
+     */
+    private static final HandleRegistry.Release<StorageVolPointer> FREE =
+        new HandleRegistry.Release<StorageVolPointer>(HandleStats.Type.STORAGE_VOL) {
+            @Override
+            public void release(StorageVolPointer ptr) {
+                libvirt.virStorageVolFree(ptr);
+            }
+        };
+
+    private final HandleRegistry.Registration<StorageVolPointer> registration;
+
     /**
      * The VirConnect Object that represents the Hypervisor of this Domain
      */
@@ -75,6 +88,8 @@ public class StorageVol {
     StorageVol(Connect virConnect, StorageVolPointer VSVP) {
         this.virConnect = virConnect;
         this.VSVP = VSVP;
+        this.registration = HandleRegistry.register(this, VSVP, FREE);
+        virConnect.track(this);
     }
 
     /**
@@ -88,11 +103,6 @@ public class StorageVol {
         processError(libvirt.virStorageVolDelete(VSVP, flags));
     }
 
-    @Override
-    protected void finalize() throws LibvirtException {
-        free();
-    }
-
     /**
      * Release the storage volume handle. The underlying storage volume contains
      * to exist
@@ -103,12 +113,23 @@ public class StorageVol {
     public int free() throws LibvirtException {
         int success = 0;
         if (VSVP != null) {
+            registration.cancel();
             success = processError(libvirt.virStorageVolFree(VSVP));
             VSVP = null;
         }
         return success;
     }
 
+    /**
+     * Frees this storage volume object, see {@link #free}.
+     *
+     * @throws LibvirtException
+     */
+    @Override
+    public void close() throws LibvirtException {
+        free();
+    }
+
     /**
      * Provides the connection object associated with a storage volume. The
      * reference counter on the connection is not increased by this call.
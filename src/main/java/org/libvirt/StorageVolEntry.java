@@ -0,0 +1,33 @@
+package org.libvirt;
+
+/**
+ * A storage volume together with its info and path, as returned by
+ * {@link StoragePool#listAllVolumesWithInfo()}.
+ */
+public final class StorageVolEntry {
+    /**
+     * The storage volume
+     */
+    public final StorageVol volume;
+
+    /**
+     * The info of the volume at the time of listing
+     */
+    public final StorageVolInfo info;
+
+    /**
+     * The path of the volume
+     */
+    public final String path;
+
+    StorageVolEntry(StorageVol volume, StorageVolInfo info, String path) {
+        this.volume = volume;
+        this.info = info;
+        this.path = path;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("path:%s%n%s", path, info);
+    }
+}
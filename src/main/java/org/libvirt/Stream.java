@@ -24,7 +24,7 @@ import static org.libvirt.ErrorHandler.processError;
  *
  * <pre>
  * {@code
- * ByteBuffer buf = ByteBuffer.allocate(1024);
+ * ByteBuffer buf = ByteBuffer.allocateDirect(256 * 1024);
  * Stream str = conn.streamNew(0);
  *
  * ... // open the stream e.g. calling Domain.screenshot
@@ -35,12 +35,15 @@ import static org.libvirt.ErrorHandler.processError;
  *     buf.compact();
  * }}</pre>
  * <p>
+ * Direct buffers are passed to libvirt without copying their contents,
+ * see {@link DirectBufferPool}.
+ * <p>
  * If you want to use this class as an InputStream or OutputStream,
  * convert it using the {@link java.nio.channels.Channels#newInputStream
  *  Channels.newInputStream} and {@link java.nio.channels.Channels#newOutputStream
  *  Channels.newOutputStream} respectively.
  */
-public class Stream implements ByteChannel {
+public class Stream implements ByteChannel, HandleScope.Handle {
 
     public static int VIR_STREAM_NONBLOCK = (1 << 0);
 
@@ -49,6 +52,21 @@ public class Stream implements ByteChannel {
      */
     private StreamPointer VSP;
 
+    /**
+     * Releases the native virStreamPtr of unreachable Stream objects, aborting
+     * any data transfer still in progress
+     */
+    private static final HandleRegistry.Release<StreamPointer> FREE =
+        new HandleRegistry.Release<StreamPointer>(HandleStats.Type.STREAM) {
+            @Override
+            public void release(StreamPointer ptr) {
+                libvirt.virStreamAbort(ptr);
+                libvirt.virStreamFree(ptr);
+            }
+        };
+
+    private final HandleRegistry.Registration<StreamPointer> registration;
+
     /**
      * The Connect Object that represents the Hypervisor of this Domain
      */
@@ -107,6 +125,8 @@ public class Stream implements ByteChannel {
     Stream(Connect virConnect, StreamPointer VSP) {
         this.virConnect = virConnect;
         this.VSP = VSP;
+        this.registration = HandleRegistry.register(this, VSP, FREE);
+        virConnect.track(this);
     }
 
     /**
@@ -139,11 +159,6 @@ public class Stream implements ByteChannel {
         return processError(libvirt.virStreamEventAddCallback(VSP, events, cb, null, null));
     }
 
-    @Override
-    protected void finalize() throws LibvirtException {
-        free();
-    }
-
     /**
      * Indicate that there is no further data is to be transmitted on the
      * stream.
@@ -167,6 +182,7 @@ public class Stream implements ByteChannel {
     public int free() throws LibvirtException {
         int success = 0;
         if (VSP != null) {
+            registration.cancel();
             closeStream();
             success = processError(libvirt.virStreamFree(VSP));
             VSP = null;
@@ -191,9 +207,41 @@ public class Stream implements ByteChannel {
         return receive(ByteBuffer.wrap(data));
     }
 
+    /**
+     * Receives data from the stream into the buffer provided.
+     * <p>
+     * A direct buffer is passed to libvirt as is. The data for a heap
+     * buffer is received into a direct buffer of the
+     * {@link DirectBufferPool#getDefault default pool} first, so at most
+     * {@link DirectBufferPool#DEFAULT_BUFFER_SIZE} bytes are received.
+     *
+     * @param buffer
+     *            buffer to put the data into
+     * @return the number of bytes read, 0 at the end of the stream, -2 if
+     *         no data is available for a non-blocking stream
+     * @throws LibvirtException
+     */
     protected int receive(ByteBuffer buffer) throws LibvirtException {
+        if (buffer.isDirect()) return receiveDirect(buffer);
+
+        final DirectBufferPool pool = DirectBufferPool.getDefault();
+        final ByteBuffer direct = pool.acquire();
+        try {
+            direct.limit(Math.min(buffer.remaining(), direct.capacity()));
+            final int returnValue = receiveDirect(direct);
+            if (returnValue > 0) {
+                direct.flip();
+                buffer.put(direct);
+            }
+            return returnValue;
+        } finally {
+            pool.release(direct);
+        }
+    }
+
+    private int receiveDirect(ByteBuffer buffer) throws LibvirtException {
         int returnValue = processError(libvirt.virStreamRecv(VSP, buffer, new SizeT(buffer.remaining())));
-        buffer.position(buffer.position() + returnValue);
+        if (returnValue > 0) buffer.position(buffer.position() + returnValue);
         return returnValue;
     }
 
@@ -301,10 +349,48 @@ public class Stream implements ByteChannel {
         return send(ByteBuffer.wrap(data));
     }
 
+    /**
+     * Writes the remaining bytes of the buffer to the stream, or a part
+     * of them.
+     * <p>
+     * A direct buffer is passed to libvirt as is. The data of a heap
+     * buffer is copied to a direct buffer of the
+     * {@link DirectBufferPool#getDefault default pool} first, so at most
+     * {@link DirectBufferPool#DEFAULT_BUFFER_SIZE} bytes are written.
+     *
+     * @param buffer
+     *            the data to write
+     * @return the number of bytes written, -2 if the stream is
+     *         non-blocking and cannot take any data
+     * @throws LibvirtException
+     */
     protected int send(ByteBuffer buffer) throws LibvirtException {
+        if (buffer.isDirect()) return sendDirect(buffer);
+
+        final DirectBufferPool pool = DirectBufferPool.getDefault();
+        final ByteBuffer direct = pool.acquire();
+        try {
+            final int pos = buffer.position();
+            final int limit = buffer.limit();
+            buffer.limit(pos + Math.min(buffer.remaining(), direct.capacity()));
+            direct.put(buffer);
+            direct.flip();
+            // only advanced by what has actually been sent below
+            buffer.limit(limit);
+            buffer.position(pos);
+
+            final int returnValue = sendDirect(direct);
+            if (returnValue > 0) buffer.position(pos + returnValue);
+            return returnValue;
+        } finally {
+            pool.release(direct);
+        }
+    }
+
+    private int sendDirect(ByteBuffer buffer) throws LibvirtException {
         SizeT size = new SizeT(buffer.remaining());
         int returnValue = processError(libvirt.virStreamSend(VSP, buffer, size));
-        buffer.position(buffer.position() + returnValue);
+        if (returnValue > 0) buffer.position(buffer.position() + returnValue);
         return returnValue;
     }
 
@@ -0,0 +1,144 @@
+package org.libvirt;
+
+import java.util.List;
+
+/**
+ * A hashed timer wheel with a resolution of one millisecond.
+ * <p>
+ * Timers are kept in doubly linked lists, one per slot of the wheel,
+ * so scheduling and cancelling a timer takes constant time. Timers
+ * further in the future than the span of the wheel wait in their slot
+ * for as many rounds as needed.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @see EventLoop
+ */
+final class TimerWheel {
+
+    /**
+     * A timer, which is in at most one wheel at a time.
+     */
+    static class Timer {
+        // the time to expire at, in milliseconds
+        long deadline;
+
+        private Timer prev;
+        private Timer next;
+        private int slot = -1;
+
+        /**
+         * Whether this timer is scheduled.
+         */
+        final boolean isScheduled() {
+            return slot >= 0;
+        }
+    }
+
+    private final Timer[] slots;
+    private final int mask;
+    // the last millisecond expired
+    private long current;
+    private int size;
+
+    /**
+     * Creates a wheel.
+     *
+     * @param span
+     *            the number of slots, rounded up to a power of two
+     * @param now
+     *            the current time in milliseconds
+     */
+    TimerWheel(int span, long now) {
+        if (span <= 0 || span > 1 << 30)
+            throw new IllegalArgumentException("invalid span: " + span);
+
+        final int n = span == 1 ? 1 : Integer.highestOneBit(span - 1) << 1;
+        slots = new Timer[n];
+        mask = n - 1;
+        current = now;
+    }
+
+    /**
+     * Returns the number of scheduled timers.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Schedules a timer to expire at the given time, rescheduling it if
+     * it has already been scheduled.
+     */
+    void schedule(Timer t, long deadline) {
+        cancel(t);
+
+        t.deadline = deadline;
+        // overdue timers expire with the next call to expire()
+        final int s = (int) Math.max(deadline, current + 1) & mask;
+        t.slot = s;
+        t.next = slots[s];
+        if (t.next != null) t.next.prev = t;
+        slots[s] = t;
+        size++;
+    }
+
+    /**
+     * Cancels a timer, if it is scheduled.
+     */
+    void cancel(Timer t) {
+        if (t.slot < 0) return;
+
+        if (t.prev != null) {
+            t.prev.next = t.next;
+        } else {
+            slots[t.slot] = t.next;
+        }
+        if (t.next != null) t.next.prev = t.prev;
+        t.prev = t.next = null;
+        t.slot = -1;
+        size--;
+    }
+
+    /**
+     * Removes the timers which have expired at the given time from the
+     * wheel and adds them to {@code expired}.
+     */
+    <T extends Timer> void expire(long now, List<T> expired) {
+        if (now <= current) return;
+
+        // visit every slot at most once
+        final long last = Math.min(now, current + slots.length);
+        for (long tick = current + 1; tick <= last; tick++) {
+            Timer t = slots[(int) tick & mask];
+            while (t != null) {
+                final Timer next = t.next;
+                if (t.deadline <= now) {
+                    cancel(t);
+                    @SuppressWarnings("unchecked")
+                    final T e = (T) t;
+                    expired.add(e);
+                }
+                t = next;
+            }
+        }
+        current = now;
+    }
+
+    /**
+     * Returns the number of milliseconds from {@code now} until the next
+     * timer expires, at most the span of the wheel, or -1 if there are
+     * no timers.
+     */
+    long nextTimeout(long now) {
+        if (size == 0) return -1;
+
+        for (long tick = current + 1; tick <= current + slots.length; tick++) {
+            for (Timer t = slots[(int) tick & mask]; t != null; t = t.next) {
+                if (t.deadline <= tick) return Math.max(0, tick - now);
+            }
+        }
+        // all timers are more than one round away
+        return slots.length;
+    }
+}
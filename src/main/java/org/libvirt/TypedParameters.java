@@ -0,0 +1,396 @@
+package org.libvirt;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.libvirt.jna.Libvirt;
+import org.libvirt.jna.virTypedParameter;
+
+import static org.libvirt.jna.virTypedParameter.*;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+
+/**
+ * A list of typed parameters, as used by many of the libvirt APIs
+ * which query or tune domain settings and statistics.
+ * <p>
+ * The values are kept in primitive arrays indexed by position,
+ * which avoids creating an object per parameter. An instance can
+ * be reused for reading parameter lists repeatedly.
+ *
+ * @see <a
+ *      href="http://www.libvirt.org/html/libvirt-libvirt-common.html#virTypedParameter">Libvirt
+ *      Documentation</a>
+ */
+public final class TypedParameters {
+    /**
+     * The types a parameter value can have.
+     */
+    public enum Type {
+        /** a signed int */
+        INT,
+        /** an unsigned int */
+        UINT,
+        /** a signed long long */
+        LLONG,
+        /** an unsigned long long */
+        ULLONG,
+        /** a double */
+        DOUBLE,
+        /** a boolean */
+        BOOLEAN,
+        /** a string */
+        STRING
+    }
+
+    private static final Type[] TYPES = Type.values();
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private int size;
+    private String[] names;
+    private int[] types;
+    // integer values; doubles are stored as their raw long bits
+    private long[] values;
+    private String[] strings;
+
+    /**
+     * Creates an empty parameter list.
+     */
+    public TypedParameters() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty parameter list with room for {@code capacity}
+     * parameters.
+     */
+    public TypedParameters(int capacity) {
+        names = new String[capacity];
+        types = new int[capacity];
+        values = new long[capacity];
+        strings = new String[capacity];
+    }
+
+    /**
+     * Replaces the contents of this list with a native
+     * virTypedParameter array.
+     * <p>
+     * The native array is not freed.
+     *
+     * @return this
+     */
+    TypedParameters read(Pointer params, int nparams) {
+        if (nparams > names.length) {
+            names = Arrays.copyOf(names, nparams);
+            types = Arrays.copyOf(types, nparams);
+            values = Arrays.copyOf(values, nparams);
+            strings = Arrays.copyOf(strings, nparams);
+        }
+        for (int i = 0; i < nparams; i++) {
+            final long offset = (long) i * virTypedParameter.SIZE;
+            final int type = params.getInt(offset + TYPE_OFFSET);
+            final long value = offset + VALUE_OFFSET;
+            names[i] = params.getString(offset, "UTF-8");
+            types[i] = type;
+            strings[i] = null;
+            switch (type) {
+            case VIR_TYPED_PARAM_INT:
+                values[i] = params.getInt(value);
+                break;
+            case VIR_TYPED_PARAM_UINT:
+                values[i] = params.getInt(value) & 0xffffffffL;
+                break;
+            case VIR_TYPED_PARAM_LLONG:
+            case VIR_TYPED_PARAM_ULLONG:
+            case VIR_TYPED_PARAM_DOUBLE:
+                values[i] = params.getLong(value);
+                break;
+            case VIR_TYPED_PARAM_BOOLEAN:
+                values[i] = params.getByte(value) != 0 ? 1 : 0;
+                break;
+            case VIR_TYPED_PARAM_STRING:
+                final Pointer s = params.getPointer(value);
+                strings[i] = s == null ? null : s.getString(0, "UTF-8");
+                values[i] = 0;
+                break;
+            default:
+                values[i] = 0;
+            }
+        }
+        // drop references to the strings of a previous, longer list
+        Arrays.fill(names, nparams, Math.max(size, nparams), null);
+        Arrays.fill(strings, nparams, Math.max(size, nparams), null);
+        size = nparams;
+        return this;
+    }
+
+    /**
+     * Returns the number of parameters in this list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the name of the parameter at the given index.
+     */
+    public String name(int index) {
+        checkIndex(index);
+        return names[index];
+    }
+
+    /**
+     * Returns the type of the parameter at the given index, or
+     * {@code null} if the type is not known to these bindings.
+     */
+    public Type type(int index) {
+        checkIndex(index);
+        final int type = types[index];
+        return type > 0 && type <= TYPES.length ? TYPES[type - 1] : null;
+    }
+
+    /**
+     * Returns the index of the parameter with the given name, or -1
+     * when there is no such parameter.
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value of the parameter at the given index as a long.
+     * <p>
+     * Unsigned int values are zero extended, booleans are returned as
+     * 0 or 1 and doubles are truncated. Unsigned long long values
+     * greater than {@link Long#MAX_VALUE} are returned as negative
+     * numbers.
+     *
+     * @throws IllegalStateException if the parameter is a string
+     */
+    public long getLong(int index) {
+        checkIndex(index);
+        switch (types[index]) {
+        case VIR_TYPED_PARAM_DOUBLE:
+            return (long) Double.longBitsToDouble(values[index]);
+        case VIR_TYPED_PARAM_STRING:
+            throw new IllegalStateException(names[index] + " is not a numeric parameter");
+        default:
+            return values[index];
+        }
+    }
+
+    /**
+     * Returns the value of the parameter with the given name as a long,
+     * or {@code defaultValue} when there is no such parameter.
+     *
+     * @see #getLong(int)
+     */
+    public long getLong(String name, long defaultValue) {
+        final int i = indexOf(name);
+        return i < 0 ? defaultValue : getLong(i);
+    }
+
+    /**
+     * Returns the value of the parameter at the given index as a double.
+     *
+     * @throws IllegalStateException if the parameter is a string
+     */
+    public double getDouble(int index) {
+        checkIndex(index);
+        switch (types[index]) {
+        case VIR_TYPED_PARAM_DOUBLE:
+            return Double.longBitsToDouble(values[index]);
+        case VIR_TYPED_PARAM_ULLONG:
+            final long v = values[index];
+            return v >= 0 ? v : (double) (v >>> 1) * 2.0 + (v & 1);
+        case VIR_TYPED_PARAM_STRING:
+            throw new IllegalStateException(names[index] + " is not a numeric parameter");
+        default:
+            return values[index];
+        }
+    }
+
+    /**
+     * Returns the value of the parameter at the given index as a boolean,
+     * that is whether its numeric value is not zero.
+     *
+     * @throws IllegalStateException if the parameter is a string
+     */
+    public boolean getBoolean(int index) {
+        return getLong(index) != 0;
+    }
+
+    /**
+     * Returns the value of the parameter at the given index if it is a
+     * string parameter, {@code null} otherwise.
+     */
+    public String getString(int index) {
+        checkIndex(index);
+        return strings[index];
+    }
+
+    /**
+     * Returns the value of the parameter with the given name if it is a
+     * string parameter, {@code null} otherwise.
+     */
+    public String getString(String name) {
+        final int i = indexOf(name);
+        return i < 0 ? null : strings[i];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            b.append(names[i]).append(':');
+            switch (types[i]) {
+            case VIR_TYPED_PARAM_STRING:
+                b.append(strings[i]);
+                break;
+            case VIR_TYPED_PARAM_DOUBLE:
+                b.append(Double.longBitsToDouble(values[i]));
+                break;
+            case VIR_TYPED_PARAM_BOOLEAN:
+                b.append(values[i] != 0);
+                break;
+            case VIR_TYPED_PARAM_ULLONG:
+                b.append(Long.toUnsignedString(values[i]));
+                break;
+            default:
+                b.append(values[i]);
+            }
+            b.append(String.format("%n"));
+        }
+        return b.toString();
+    }
+
+    /**
+     * Builds a native virTypedParameter array for passing settings to
+     * libvirt, e.g. to {@link Domain#setMemoryParameters}.
+     * <p>
+     * A builder can be reused by calling {@link #clear}, in which
+     * case the native memory allocated before is reused as well.
+     */
+    public static final class Builder {
+        private Memory memory;
+        private int size;
+        // native copies of the string values, kept alive with the array
+        private final List<Memory> strings = new ArrayList<Memory>();
+
+        /**
+         * Creates an empty builder.
+         */
+        public Builder() {
+            this(8);
+        }
+
+        /**
+         * Creates an empty builder with room for {@code capacity}
+         * parameters.
+         */
+        public Builder(int capacity) {
+            memory = new Memory((long) Math.max(capacity, 1) * virTypedParameter.SIZE);
+        }
+
+        /**
+         * Removes all parameters.
+         *
+         * @return this
+         */
+        public Builder clear() {
+            size = 0;
+            strings.clear();
+            return this;
+        }
+
+        /**
+         * Returns the number of parameters added so far.
+         */
+        public int size() {
+            return size;
+        }
+
+        public Builder addInt(String name, int value) {
+            add(name, VIR_TYPED_PARAM_INT).setInt(0, value);
+            return this;
+        }
+
+        public Builder addUInt(String name, int value) {
+            add(name, VIR_TYPED_PARAM_UINT).setInt(0, value);
+            return this;
+        }
+
+        public Builder addLong(String name, long value) {
+            add(name, VIR_TYPED_PARAM_LLONG).setLong(0, value);
+            return this;
+        }
+
+        public Builder addULong(String name, long value) {
+            add(name, VIR_TYPED_PARAM_ULLONG).setLong(0, value);
+            return this;
+        }
+
+        public Builder addDouble(String name, double value) {
+            add(name, VIR_TYPED_PARAM_DOUBLE).setDouble(0, value);
+            return this;
+        }
+
+        public Builder addBoolean(String name, boolean value) {
+            add(name, VIR_TYPED_PARAM_BOOLEAN).setByte(0, (byte) (value ? 1 : 0));
+            return this;
+        }
+
+        public Builder addString(String name, String value) {
+            final byte[] bytes = value.getBytes(UTF8);
+            final Memory s = new Memory(bytes.length + 1);
+            s.write(0, bytes, 0, bytes.length);
+            s.setByte(bytes.length, (byte) 0);
+            strings.add(s);
+            add(name, VIR_TYPED_PARAM_STRING).setPointer(0, s);
+            return this;
+        }
+
+        /**
+         * Appends a parameter and returns a pointer to its zeroed value.
+         */
+        private Pointer add(String name, int type) {
+            final byte[] field = name.getBytes(UTF8);
+            if (field.length >= Libvirt.VIR_TYPED_PARAM_FIELD_LENGTH)
+                throw new IllegalArgumentException("parameter name too long: " + name);
+
+            final long needed = (long) (size + 1) * virTypedParameter.SIZE;
+            if (needed > memory.size()) {
+                Memory m = new Memory(Math.max(needed, memory.size() * 2));
+                m.write(0, memory.getByteArray(0, size * virTypedParameter.SIZE),
+                        0, size * virTypedParameter.SIZE);
+                memory = m;
+            }
+
+            final Pointer p = memory.share((long) size * virTypedParameter.SIZE, virTypedParameter.SIZE);
+            p.setMemory(0, virTypedParameter.SIZE, (byte) 0);
+            p.write(0, field, 0, field.length);
+            p.setInt(TYPE_OFFSET, type);
+            size++;
+            return p.share(VALUE_OFFSET);
+        }
+
+        /**
+         * Returns the native array built so far. It stays valid until
+         * the next call to any method of this builder.
+         */
+        Pointer getPointer() {
+            return memory;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.libvirt.event;
+
+import org.libvirt.Domain;
+
+/**
+ * Interface for receiving block job events.
+ */
+public interface BlockJobListener extends EventListener {
+
+    /**
+     * This method gets called when a block job of a domain completed,
+     * failed, was canceled or became ready.
+     *
+     * @param domain  the domain running the job
+     * @param disk    the disk of the job, either its source path or its
+     *                target name, depending on how the listener was added
+     * @param type    the type of the job
+     * @param status  the status of the job
+     */
+    void onBlockJob(Domain domain, String disk, BlockJobType type, BlockJobStatus status);
+}
@@ -0,0 +1,48 @@
+package org.libvirt.event;
+
+/**
+ * The status of a block job reported by a block job event.
+ */
+public enum BlockJobStatus {
+    /**
+     * The job has completed.
+     */
+    COMPLETED,
+
+    /**
+     * The job has failed.
+     */
+    FAILED,
+
+    /**
+     * The job has been canceled.
+     */
+    CANCELED,
+
+    /**
+     * The job is ready to be pivoted or canceled, e.g. mirroring is in sync.
+     */
+    READY,
+
+    /**
+     * An unknown status.
+     */
+    UNKNOWN;
+
+    private static final BlockJobStatus vals[] = BlockJobStatus.values();
+
+    static {
+        // make sure that the enum constants have the correct
+        // ordinal number assigned in correspondence to the
+        // values of the virConnectDomainEventBlockJobStatus enum
+        // members
+
+        assert COMPLETED.ordinal() == 0;
+        assert FAILED.ordinal() == 1;
+        assert CANCELED.ordinal() == 2;
+        assert READY.ordinal() == 3;
+
+        // must be the last constant
+        assert UNKNOWN.ordinal() == vals.length - 1;
+    }
+}
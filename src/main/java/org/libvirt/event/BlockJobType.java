@@ -0,0 +1,54 @@
+package org.libvirt.event;
+
+/**
+ * The type of a block job.
+ */
+public enum BlockJobType {
+    /**
+     * Placeholder, not used for actual jobs.
+     */
+    UNSPECIFIED,
+
+    /**
+     * Block pull, the job ends on completion.
+     */
+    PULL,
+
+    /**
+     * Block copy, the job exists as long as mirroring is active.
+     */
+    COPY,
+
+    /**
+     * Block commit, the job ends on completion.
+     */
+    COMMIT,
+
+    /**
+     * Active block commit, the job exists as long as sync is active.
+     */
+    ACTIVE_COMMIT,
+
+    /**
+     * An unknown block job type.
+     */
+    UNKNOWN;
+
+    private static final BlockJobType vals[] = BlockJobType.values();
+
+    static {
+        // make sure that the enum constants have the correct
+        // ordinal number assigned in correspondence to the
+        // values of the virDomainBlockJobType enum
+        // members
+
+        assert UNSPECIFIED.ordinal() == 0;
+        assert PULL.ordinal() == 1;
+        assert COPY.ordinal() == 2;
+        assert COMMIT.ordinal() == 3;
+        assert ACTIVE_COMMIT.ordinal() == 4;
+
+        // must be the last constant
+        assert UNKNOWN.ordinal() == vals.length - 1;
+    }
+}
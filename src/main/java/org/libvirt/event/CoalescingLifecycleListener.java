@@ -0,0 +1,139 @@
+package org.libvirt.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.libvirt.Domain;
+
+/**
+ * A lifecycle listener merging the events of each domain which occur
+ * within a time window into a single {@link LifecycleSummary}.
+ * <p>
+ * The first event of a domain opens its window. All events of that
+ * domain until the window closes are merged, and the summary is passed
+ * to the target listener when it closes. This is useful when only the
+ * final state of a domain matters, e.g. during migrations, which
+ * produce rapid sequences of events.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * conn.addLifecycleListener(new CoalescingLifecycleListener(scheduler,
+ *                                                         500, TimeUnit.MILLISECONDS,
+ *                                                         summaryListener));
+ * }</pre>
+ * The summaries are delivered on the threads of the given scheduler.
+ */
+public final class CoalescingLifecycleListener implements LifecycleListener {
+    private final ScheduledExecutorService scheduler;
+    private final long window;
+    private final TimeUnit unit;
+    private final LifecycleSummaryListener target;
+
+    private static final class Pending {
+        Domain domain;
+        final LifecycleSummary summary;
+        // closes the window
+        ScheduledFuture<?> task;
+
+        Pending(Domain domain, LifecycleSummary summary) {
+            this.domain = domain;
+            this.summary = summary;
+        }
+    }
+
+    private final Map<Domain, Pending> pending = new HashMap<Domain, Pending>();
+
+    /**
+     * Creates a coalescing listener.
+     *
+     * @param scheduler
+     *            closes the windows and delivers the summaries
+     * @param window
+     *            the length of a window
+     * @param unit
+     *            the unit of {@code window}
+     * @param target
+     *            receives the summaries
+     */
+    public CoalescingLifecycleListener(ScheduledExecutorService scheduler,
+                                       long window, TimeUnit unit,
+                                       LifecycleSummaryListener target) {
+        if (scheduler == null || unit == null || target == null)
+            throw new IllegalArgumentException("scheduler, unit and target cannot be null");
+        if (window < 0)
+            throw new IllegalArgumentException("window cannot be negative");
+
+        this.scheduler = scheduler;
+        this.window = window;
+        this.unit = unit;
+        this.target = target;
+    }
+
+    @Override
+    public int onLifecycleChange(final Domain domain, DomainEvent event) {
+        final long now = System.currentTimeMillis();
+        synchronized (pending) {
+            final Pending p = pending.get(domain);
+            if (p != null) {
+                // keep the most recent Domain object
+                p.domain = domain;
+                p.summary.add(event, now);
+                return 0;
+            }
+            final Pending opened = new Pending(domain, new LifecycleSummary(event, now));
+            pending.put(domain, opened);
+            opened.task = scheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        // the window may have been closed by flush() and
+                        // another one opened since
+                        final boolean open;
+                        synchronized (pending) {
+                            open = pending.remove(domain, opened);
+                        }
+                        if (open) deliver(opened);
+                    }
+                }, window, unit);
+        }
+        return 0;
+    }
+
+    /**
+     * Closes all open windows, delivering their summaries on the
+     * calling thread.
+     */
+    public void flush() {
+        final List<Pending> all;
+        synchronized (pending) {
+            all = new ArrayList<Pending>(pending.values());
+            pending.clear();
+        }
+        for (Pending p : all) {
+            p.task.cancel(false);
+            deliver(p);
+        }
+    }
+
+    /**
+     * Returns the number of domains with an open window.
+     */
+    public int getPendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    private void deliver(Pending p) {
+        try {
+            target.onLifecycleSummary(p.domain, p.summary);
+        } catch (RuntimeException e) {
+            final Thread t = Thread.currentThread();
+            t.getUncaughtExceptionHandler().uncaughtException(t, e);
+        }
+    }
+}
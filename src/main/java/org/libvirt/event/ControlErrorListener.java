@@ -0,0 +1,17 @@
+package org.libvirt.event;
+
+import org.libvirt.Domain;
+
+/**
+ * Interface for receiving control error events.
+ */
+public interface ControlErrorListener extends EventListener {
+
+    /**
+     * This method gets called when libvirt lost control over a domain,
+     * e.g. because the connection to its monitor broke.
+     *
+     * @param domain  the domain concerned
+     */
+    void onControlError(Domain domain);
+}
@@ -0,0 +1,22 @@
+package org.libvirt.event;
+
+import org.libvirt.Domain;
+
+/**
+ * Interface for receiving disk change events.
+ */
+public interface DiskChangeListener extends EventListener {
+
+    /**
+     * This method gets called when the source of a disk of a domain
+     * changed.
+     *
+     * @param domain      the domain whose disk changed
+     * @param oldSrcPath  the old source path, or {@code null}
+     * @param newSrcPath  the new source path, or {@code null}
+     * @param devAlias    the device alias of the disk
+     * @param reason      the reason for the change
+     */
+    void onDiskChange(Domain domain, String oldSrcPath, String newSrcPath,
+                      String devAlias, DiskChangeReason reason);
+}
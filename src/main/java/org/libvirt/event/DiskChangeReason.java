@@ -0,0 +1,36 @@
+package org.libvirt.event;
+
+/**
+ * The reason for a disk change event.
+ */
+public enum DiskChangeReason {
+    /**
+     * The source of a removable disk was missing when the domain was started.
+     */
+    MISSING_ON_START,
+
+    /**
+     * The source of a disk was missing and the disk has been dropped.
+     */
+    DROP_MISSING_ON_START,
+
+    /**
+     * An unknown reason.
+     */
+    UNKNOWN;
+
+    private static final DiskChangeReason vals[] = DiskChangeReason.values();
+
+    static {
+        // make sure that the enum constants have the correct
+        // ordinal number assigned in correspondence to the
+        // values of the virConnectDomainEventDiskChangeReason enum
+        // members
+
+        assert MISSING_ON_START.ordinal() == 0;
+        assert DROP_MISSING_ON_START.ordinal() == 1;
+
+        // must be the last constant
+        assert UNKNOWN.ordinal() == vals.length - 1;
+    }
+}
@@ -0,0 +1,436 @@
+package org.libvirt.event;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.UUID;
+
+/**
+ * A memory-mapped journal of domain events, allowing consumers to
+ * catch up on the events they missed, e.g. while restarting, instead of
+ * fetching the state of every domain again.
+ * <p>
+ * Every event is appended as a fixed-size record holding a sequence
+ * number, the time the event was received, the UUID of the domain, the
+ * libvirt event ID, the event type and detail codes, see
+ * {@link Record}, and a checksum used to detect incomplete records. Sequence numbers start at 0 and increase by one with
+ * every event. The file holds the last {@code capacity} records; older
+ * records are overwritten. Appending an event neither allocates objects
+ * nor performs any system call.
+ * <p>
+ * A consumer remembers the sequence number following the last event it
+ * has processed and passes it to {@link #read} when resuming. The file
+ * may be read by another process opening it with {@link #openReadOnly}
+ * while it is being written. Records are only written to disk by the
+ * operating system, or when {@link #force} is called.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * DomainEventJournal journal = DomainEventJournal.open(new File("events.journal"), 65536);
+ * conn.addEventJournal(journal);
+ *
+ * // in the consumer
+ * next = journal.read(next, new DomainEventJournal.RecordHandler() {
+ *     public void onRecord(DomainEventJournal.Record r) {
+ *         if (r.eventId() == DomainEventJournal.LIFECYCLE) ...
+ *     }
+ * }, 1024);
+ * }</pre>
+ *
+ * @see org.libvirt.Connect#addEventJournal
+ */
+public final class DomainEventJournal implements EventListener, Closeable {
+    /** The event ID of lifecycle events. Type and detail are the event type and detail codes. */
+    public static final int LIFECYCLE = 0;
+    /** The event ID of reboot events. */
+    public static final int REBOOT = 1;
+    /** The event ID of RTC change events. The detail is the UTC offset in seconds. */
+    public static final int RTC_CHANGE = 2;
+    /** The event ID of watchdog events. The type is the {@link WatchdogAction} ordinal. */
+    public static final int WATCHDOG = 3;
+    /** The event ID of I/O error events. The type is the {@link IOErrorAction} ordinal. */
+    public static final int IO_ERROR = 4;
+    /** The event ID of graphics events. The type is the {@link GraphicsPhase} ordinal. */
+    public static final int GRAPHICS = 5;
+    /** The event ID of I/O error events with a reason. The type is the {@link IOErrorAction} ordinal. */
+    public static final int IO_ERROR_REASON = 6;
+    /** The event ID of control error events. */
+    public static final int CONTROL_ERROR = 7;
+    /** The event ID of block job events. Type and detail are the {@link BlockJobType} and {@link BlockJobStatus} ordinals. */
+    public static final int BLOCK_JOB = 8;
+    /** The event ID of disk change events. The type is the {@link DiskChangeReason} ordinal. */
+    public static final int DISK_CHANGE = 9;
+    /** The event ID of tray change events. The type is the {@link TrayChangeReason} ordinal. */
+    public static final int TRAY_CHANGE = 10;
+    /** The event ID of PM wakeup events. The type is the {@link PMWakeupReason} ordinal. */
+    public static final int PMWAKEUP = 11;
+    /** The event ID of PM suspend events. The type is the {@link PMSuspendReason} ordinal. */
+    public static final int PMSUSPEND = 12;
+
+    /**
+     * The size of a record in bytes.
+     */
+    public static final int RECORD_SIZE = 56;
+
+    static final int HEADER_SIZE = 64;
+    // "LVEJ"
+    private static final int MAGIC = 0x4c56454a;
+    private static final int VERSION = 2;
+
+    // header layout
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_RECORD_SIZE = 8;
+    private static final int H_CAPACITY = 12;
+    private static final int H_NEXT = 16;
+
+    // record layout; the sequence number is stored plus one, 0 marking
+    // a record being written or never written
+    private static final int R_SEQUENCE = 0;
+    private static final int R_TIMESTAMP = 8;
+    private static final int R_UUID_MSB = 16;
+    private static final int R_UUID_LSB = 24;
+    private static final int R_EVENT_ID = 32;
+    private static final int R_TYPE = 36;
+    private static final int R_DETAIL = 40;
+    // checksum of the sequence number and the contents, see checksum()
+    private static final int R_CHECKSUM = 48;
+
+    /**
+     * Receives the records read from the journal.
+     */
+    public interface RecordHandler {
+        /**
+         * Handles a record. The record is only valid for the duration
+         * of this call.
+         */
+        void onRecord(Record record);
+    }
+
+    /**
+     * A record read from the journal.
+     */
+    public static final class Record {
+        private long sequence;
+        private long timestamp;
+        private long msb;
+        private long lsb;
+        private int eventId;
+        private int type;
+        private long detail;
+
+        private Record() {}
+
+        /**
+         * Returns the sequence number of the event.
+         */
+        public long sequence() {
+            return sequence;
+        }
+
+        /**
+         * Returns the time the event was received, in milliseconds since
+         * the epoch.
+         */
+        public long timestamp() {
+            return timestamp;
+        }
+
+        /**
+         * Returns the most significant bits of the domain's UUID.
+         */
+        public long uuidMostSignificantBits() {
+            return msb;
+        }
+
+        /**
+         * Returns the least significant bits of the domain's UUID.
+         */
+        public long uuidLeastSignificantBits() {
+            return lsb;
+        }
+
+        /**
+         * Returns the UUID of the domain. Note that this allocates a UUID
+         * object.
+         */
+        public UUID uuid() {
+            return new UUID(msb, lsb);
+        }
+
+        /**
+         * Returns the libvirt event ID, e.g. {@link #LIFECYCLE}.
+         */
+        public int eventId() {
+            return eventId;
+        }
+
+        /**
+         * Returns the event type code, see the event IDs.
+         */
+        public int type() {
+            return type;
+        }
+
+        /**
+         * Returns the event detail code, see the event IDs.
+         */
+        public long detail() {
+            return detail;
+        }
+    }
+
+    private final RandomAccessFile file;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final boolean readOnly;
+    private final Record record = new Record();
+    // guarded by this
+    private long next;
+    private boolean closed;
+
+    private DomainEventJournal(RandomAccessFile file, MappedByteBuffer buffer, int capacity, boolean readOnly) {
+        this.file = file;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.readOnly = readOnly;
+        this.next = buffer.getLong(H_NEXT);
+    }
+
+    /**
+     * Opens a journal for appending events, creating the file if it
+     * does not exist. An existing journal is continued with the next
+     * sequence number.
+     *
+     * @param f
+     *            the journal file
+     * @param capacity
+     *            the number of records kept, which must match the
+     *            capacity of an existing journal
+     * @throws IOException if the file cannot be mapped or is not a
+     *             journal of the given capacity
+     */
+    public static DomainEventJournal open(File f, int capacity) throws IOException {
+        if (capacity <= 0 || capacity > (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE)
+            throw new IllegalArgumentException("invalid capacity: " + capacity);
+
+        final RandomAccessFile raf = new RandomAccessFile(f, "rw");
+        try {
+            final boolean created = raf.length() == 0;
+            final long size = HEADER_SIZE + (long) capacity * RECORD_SIZE;
+            if (!created && raf.length() != size)
+                throw new IOException(f + ": journal size does not match capacity " + capacity);
+
+            final MappedByteBuffer b = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            b.order(ByteOrder.LITTLE_ENDIAN);
+            if (created) {
+                b.putInt(H_VERSION, VERSION);
+                b.putInt(H_RECORD_SIZE, RECORD_SIZE);
+                b.putInt(H_CAPACITY, capacity);
+                b.putLong(H_NEXT, 0);
+                b.putInt(H_MAGIC, MAGIC);
+            } else {
+                checkHeader(f, b);
+            }
+            return new DomainEventJournal(raf, b, capacity, false);
+        } catch (IOException e) {
+            raf.close();
+            throw e;
+        } catch (RuntimeException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an existing journal for reading only, e.g. one being
+     * written by another process.
+     *
+     * @param f
+     *            the journal file
+     * @throws IOException if the file cannot be mapped or is not a
+     *             journal
+     */
+    public static DomainEventJournal openReadOnly(File f) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(f, "r");
+        try {
+            if (raf.length() < HEADER_SIZE)
+                throw new IOException(f + ": not a journal");
+
+            final MappedByteBuffer h = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            h.order(ByteOrder.LITTLE_ENDIAN);
+            checkHeader(f, h);
+            final int capacity = h.getInt(H_CAPACITY);
+            final long size = HEADER_SIZE + (long) capacity * RECORD_SIZE;
+            if (raf.length() != size)
+                throw new IOException(f + ": journal size does not match capacity " + capacity);
+
+            final MappedByteBuffer b = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, size);
+            b.order(ByteOrder.LITTLE_ENDIAN);
+            return new DomainEventJournal(raf, b, capacity, true);
+        } catch (IOException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    private static void checkHeader(File f, MappedByteBuffer b) throws IOException {
+        if (b.getInt(H_MAGIC) != MAGIC)
+            throw new IOException(f + ": not a journal");
+        if (b.getInt(H_VERSION) != VERSION || b.getInt(H_RECORD_SIZE) != RECORD_SIZE)
+            throw new IOException(f + ": unsupported journal version " + b.getInt(H_VERSION));
+        if (b.getInt(H_CAPACITY) <= 0)
+            throw new IOException(f + ": invalid journal capacity " + b.getInt(H_CAPACITY));
+    }
+
+    private int offset(long seq) {
+        return HEADER_SIZE + (int) (seq % capacity) * RECORD_SIZE;
+    }
+
+    private static long mix(long h, long v) {
+        h = (h ^ v) * 0x9e3779b97f4a7c15L;
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * Returns the checksum of a record. It covers the stored sequence
+     * number, so the checksum left by the previous record in the same
+     * slot does not match.
+     */
+    private static long checksum(long stored, long timestamp, long msb, long lsb,
+                                 int eventId, int type, long detail) {
+        long h = mix(MAGIC, stored);
+        h = mix(h, timestamp);
+        h = mix(h, msb);
+        h = mix(h, lsb);
+        h = mix(h, ((long) eventId << 32) | (type & 0xffffffffL));
+        return mix(h, detail);
+    }
+
+    /**
+     * Appends an event.
+     *
+     * @return the sequence number of the event, or -1 if the journal
+     *         is closed
+     * @throws IllegalStateException if the journal is read-only
+     */
+    public synchronized long append(long uuidMsb, long uuidLsb, int eventId, int type, long detail) {
+        if (readOnly)
+            throw new IllegalStateException("journal is read-only");
+        if (closed) return -1;
+
+        final long seq = next++;
+        final int off = offset(seq);
+        final long timestamp = System.currentTimeMillis();
+        // the record is invalidated before and validated after writing
+        // its contents, and the checksum is written last. Stores to the
+        // mapping are not ordered for readers in other processes, so
+        // they rely on the checksum to detect a torn record.
+        buffer.putLong(off + R_SEQUENCE, 0);
+        buffer.putLong(off + R_TIMESTAMP, timestamp);
+        buffer.putLong(off + R_UUID_MSB, uuidMsb);
+        buffer.putLong(off + R_UUID_LSB, uuidLsb);
+        buffer.putInt(off + R_EVENT_ID, eventId);
+        buffer.putInt(off + R_TYPE, type);
+        buffer.putLong(off + R_DETAIL, detail);
+        buffer.putLong(off + R_SEQUENCE, seq + 1);
+        buffer.putLong(off + R_CHECKSUM,
+                       checksum(seq + 1, timestamp, uuidMsb, uuidLsb, eventId, type, detail));
+        buffer.putLong(H_NEXT, next);
+        return seq;
+    }
+
+    /**
+     * Passes the records starting at sequence number {@code from}, up to
+     * {@code max} records, to the handler. Records which have been
+     * overwritten already are skipped, which the handler notices by a
+     * gap in the sequence numbers.
+     * <p>
+     * When reading a journal written by another process, the newest
+     * record may still be incomplete. Reading then stops before it, and
+     * it is returned by the next call once it is complete. An
+     * incomplete older record, e.g. left by a writer that crashed, is
+     * skipped.
+     *
+     * @return the sequence number to pass to the next call
+     * @throws IllegalStateException if the journal is closed
+     */
+    public synchronized long read(long from, RecordHandler handler, int max) {
+        if (closed)
+            throw new IllegalStateException("journal is closed");
+
+        final long end = readOnly ? buffer.getLong(H_NEXT) : next;
+        long seq = Math.max(from, Math.max(0, end - capacity));
+        int n = 0;
+        for (; seq < end && n < max; seq++) {
+            final int off = offset(seq);
+            final long stored = buffer.getLong(off + R_SEQUENCE);
+            record.sequence = seq;
+            record.timestamp = buffer.getLong(off + R_TIMESTAMP);
+            record.msb = buffer.getLong(off + R_UUID_MSB);
+            record.lsb = buffer.getLong(off + R_UUID_LSB);
+            record.eventId = buffer.getInt(off + R_EVENT_ID);
+            record.type = buffer.getInt(off + R_TYPE);
+            record.detail = buffer.getLong(off + R_DETAIL);
+            final long sum = buffer.getLong(off + R_CHECKSUM);
+
+            // being written or overwritten by another process while
+            // reading, see append()
+            if (stored != seq + 1 || buffer.getLong(off + R_SEQUENCE) != stored
+                || sum != checksum(stored, record.timestamp, record.msb, record.lsb,
+                                   record.eventId, record.type, record.detail)) {
+                if (seq == end - 1 && stored <= seq + 1) break;
+                continue;
+            }
+
+            handler.onRecord(record);
+            n++;
+        }
+        return seq;
+    }
+
+    /**
+     * Returns the sequence number of the next event to be appended.
+     */
+    public synchronized long getNextSequence() {
+        return readOnly ? buffer.getLong(H_NEXT) : next;
+    }
+
+    /**
+     * Returns the sequence number of the oldest record kept.
+     */
+    public long getFirstSequence() {
+        return Math.max(0, getNextSequence() - capacity);
+    }
+
+    /**
+     * Returns the number of records kept.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Writes the appended records to disk.
+     *
+     * @throws IOException
+     */
+    public synchronized void force() throws IOException {
+        if (!readOnly && !closed) buffer.force();
+    }
+
+    /**
+     * Closes the journal file. The mapping is released once the journal
+     * has been garbage collected.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        file.close();
+    }
+}
@@ -0,0 +1,173 @@
+package org.libvirt.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.libvirt.Domain;
+import org.libvirt.LibvirtException;
+
+/**
+ * Publishes domain events of one kind to any number of subscribers,
+ * honoring their demand.
+ * <p>
+ * Every subscriber has a buffer of its own, holding the events it has
+ * not requested yet. When the buffer is full, new events are handled
+ * according to the {@link OverflowStrategy} of the publisher. A slow
+ * subscriber does not hold up the others, except with
+ * {@link OverflowStrategy#BLOCK}.
+ * <p>
+ * The underlying listener is added when the first subscriber subscribes
+ * and removed when the last one cancels.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * DomainEventPublisher<DomainEvent> p =
+ *     conn.lifecyclePublisher(OverflowStrategy.COALESCE, 1024);
+ * p.subscribe(subscriber);
+ * }</pre>
+ *
+ * @see org.libvirt.Connect#lifecyclePublisher
+ * @see org.libvirt.Domain#lifecyclePublisher
+ */
+public abstract class DomainEventPublisher<T> implements EventFlow.Publisher<DomainNotification<T>> {
+    private final OverflowStrategy strategy;
+    private final int capacity;
+    private final CopyOnWriteArrayList<DomainEventSubscription<T>> subscriptions =
+        new CopyOnWriteArrayList<DomainEventSubscription<T>>();
+    // guarded by this
+    private boolean registered;
+    private volatile boolean closed;
+
+    /**
+     * Creates a publisher.
+     *
+     * @param strategy
+     *            what to do when the buffer of a subscriber is full
+     * @param capacity
+     *            the number of events buffered per subscriber
+     */
+    protected DomainEventPublisher(OverflowStrategy strategy, int capacity) {
+        if (strategy == null)
+            throw new IllegalArgumentException("strategy cannot be null");
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive");
+
+        this.strategy = strategy;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds the listener calling {@link #publish}.
+     */
+    protected abstract void register() throws LibvirtException;
+
+    /**
+     * Removes the listener added by {@link #register}.
+     */
+    protected abstract void deregister() throws LibvirtException;
+
+    @Override
+    public void subscribe(EventFlow.Subscriber<? super DomainNotification<T>> subscriber) {
+        if (subscriber == null)
+            throw new NullPointerException("subscriber cannot be null");
+
+        final DomainEventSubscription<T> s =
+            new DomainEventSubscription<T>(this, subscriber, strategy, capacity);
+        subscriber.onSubscribe(s);
+
+        synchronized (this) {
+            if (closed) {
+                s.complete();
+                return;
+            }
+            // cancelled or failed by the subscriber in onSubscribe
+            if (s.isTerminated()) return;
+
+            subscriptions.add(s);
+            if (!registered) {
+                try {
+                    register();
+                    registered = true;
+                } catch (LibvirtException e) {
+                    subscriptions.remove(s);
+                    s.error(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes an event to all subscribers.
+     */
+    protected final void publish(Domain domain, T detail) {
+        final DomainNotification<T> n = new DomainNotification<T>(domain, detail, System.nanoTime(), 1);
+        for (DomainEventSubscription<T> s : subscriptions) {
+            s.offer(n);
+        }
+    }
+
+    /**
+     * Removes a subscription, and the listener with the last one.
+     */
+    void remove(DomainEventSubscription<T> s) {
+        synchronized (this) {
+            if (!subscriptions.remove(s) || !subscriptions.isEmpty() || !registered) return;
+
+            registered = false;
+            try {
+                deregister();
+            } catch (LibvirtException e) {
+                final Thread t = Thread.currentThread();
+                t.getUncaughtExceptionHandler().uncaughtException(t, e);
+            }
+        }
+    }
+
+    /**
+     * Completes all subscriptions once they have received their
+     * buffered events, and removes the listener. Subscribers
+     * subscribing later are completed immediately.
+     *
+     * @throws LibvirtException if removing the listener failed
+     */
+    public void close() throws LibvirtException {
+        final List<DomainEventSubscription<T>> all;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            all = new ArrayList<DomainEventSubscription<T>>(subscriptions);
+            subscriptions.clear();
+            if (registered) {
+                registered = false;
+                deregister();
+            }
+        }
+        for (DomainEventSubscription<T> s : all) {
+            s.complete();
+        }
+    }
+
+    /**
+     * Returns the current subscriptions, e.g. in order to monitor how
+     * far each subscriber lags behind.
+     */
+    public List<DomainEventSubscription<T>> getSubscriptions() {
+        return new ArrayList<DomainEventSubscription<T>>(subscriptions);
+    }
+
+    /**
+     * Returns the strategy applied when the buffer of a subscriber is
+     * full.
+     */
+    public OverflowStrategy getOverflowStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Returns the number of events buffered per subscriber.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,298 @@
+package org.libvirt.event;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A preallocated ring buffer passing domain events from the libvirt
+ * event loop to a consumer thread in batches.
+ * <p>
+ * Every event occupies a slot holding the UUID of the domain, the
+ * libvirt event ID, the event type and detail codes and the time the
+ * event was received. Publishing an event does not allocate any
+ * objects, nor does it look up Domain objects or enum constants; the
+ * consumer decides what it needs. A Domain object for an event can be
+ * looked up using {@link org.libvirt.Connect#domainLookupByUUID(UUID)}.
+ * <p>
+ * Events are published lock-free by any number of threads. Events
+ * published while the ring is full are dropped and counted. Events are
+ * consumed by a single thread at a time calling one of the
+ * {@code drain} methods.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * DomainEventRing ring = new DomainEventRing(4096);
+ * conn.addLifecycleEventRing(ring);
+ *
+ * // on the consumer thread
+ * while (running) {
+ *     ring.drain(new DomainEventRing.BatchHandler() {
+ *         public void onBatch(DomainEventRing.Batch b) {
+ *             for (int i = 0; i < b.size(); i++) {
+ *                 if (b.type(i) == DomainEventType.STARTED.ordinal()) ...
+ *             }
+ *         }
+ *     }, 256, 1, TimeUnit.SECONDS);
+ * }
+ * }</pre>
+ *
+ * @see org.libvirt.Connect#addLifecycleEventRing
+ * @see org.libvirt.Connect#addBlockJobEventRing
+ */
+public final class DomainEventRing implements EventListener {
+    /**
+     * The event ID of lifecycle events, type and detail being the
+     * lifecycle event type and detail codes.
+     */
+    public static final int LIFECYCLE = 0;
+
+    /**
+     * The event ID of block job events, type and detail being the
+     * {@link BlockJobType} and {@link BlockJobStatus} ordinals.
+     */
+    public static final int BLOCK_JOB = 8;
+
+    /**
+     * Receives the events consumed from the ring.
+     */
+    public interface BatchHandler {
+        /**
+         * Handles a batch of events. The batch is only valid for the
+         * duration of this call.
+         */
+        void onBatch(Batch batch);
+    }
+
+    /**
+     * A view of consecutive events in the ring.
+     */
+    public final class Batch {
+        private long start;
+        private int size;
+
+        private Batch() {}
+
+        /**
+         * Returns the number of events in this batch.
+         */
+        public int size() {
+            return size;
+        }
+
+        private int slot(int i) {
+            if (i < 0 || i >= size)
+                throw new IndexOutOfBoundsException("index: " + i + ", size: " + size);
+            return (int) (start + i) & mask;
+        }
+
+        /**
+         * Returns the most significant bits of the domain's UUID.
+         */
+        public long uuidMostSignificantBits(int i) {
+            return msb[slot(i)];
+        }
+
+        /**
+         * Returns the least significant bits of the domain's UUID.
+         */
+        public long uuidLeastSignificantBits(int i) {
+            return lsb[slot(i)];
+        }
+
+        /**
+         * Returns the UUID of the domain. Note that this allocates a UUID
+         * object.
+         */
+        public UUID uuid(int i) {
+            final int s = slot(i);
+            return new UUID(msb[s], lsb[s]);
+        }
+
+        /**
+         * Returns the libvirt event ID, {@link #LIFECYCLE} or
+         * {@link #BLOCK_JOB}.
+         */
+        public int eventId(int i) {
+            return ids[slot(i)];
+        }
+
+        /**
+         * Returns the event type code, e.g. a
+         * {@link DomainEventType} ordinal for lifecycle events.
+         */
+        public int type(int i) {
+            return types[slot(i)];
+        }
+
+        /**
+         * Returns the event detail code.
+         */
+        public int detail(int i) {
+            return details[slot(i)];
+        }
+
+        /**
+         * Returns the time the event was received, as returned by
+         * {@link System#nanoTime}.
+         */
+        public long timestamp(int i) {
+            return timestamps[slot(i)];
+        }
+    }
+
+    private final int mask;
+    private final long[] msb;
+    private final long[] lsb;
+    private final int[] ids;
+    private final int[] types;
+    private final int[] details;
+    private final long[] timestamps;
+    // the sequence number of the event last published in each slot
+    private final AtomicLongArray published;
+
+    // the next sequence number to be claimed by a producer
+    private final AtomicLong claimed = new AtomicLong();
+    // the next sequence number to be consumed
+    private final AtomicLong consumed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Batch batch = new Batch();
+    private volatile Thread waiter;
+
+    /**
+     * Creates a ring buffer.
+     *
+     * @param capacity
+     *            the number of slots, rounded up to a power of two
+     */
+    public DomainEventRing(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30)
+            throw new IllegalArgumentException("invalid capacity: " + capacity);
+
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        mask = size - 1;
+        msb = new long[size];
+        lsb = new long[size];
+        ids = new int[size];
+        types = new int[size];
+        details = new int[size];
+        timestamps = new long[size];
+        published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Returns the number of slots.
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Publishes an event.
+     *
+     * @return {@code false} if the ring was full and the event has been
+     *         dropped
+     */
+    public boolean publish(long uuidMsb, long uuidLsb, int eventId, int type, int detail, long timestamp) {
+        long seq;
+        do {
+            seq = claimed.get();
+            if (seq - consumed.get() > mask) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!claimed.compareAndSet(seq, seq + 1));
+
+        final int s = (int) seq & mask;
+        msb[s] = uuidMsb;
+        lsb[s] = uuidLsb;
+        ids[s] = eventId;
+        types[s] = type;
+        details[s] = detail;
+        timestamps[s] = timestamp;
+        // makes the slot visible to the consumer after the writes above;
+        // a full volatile write so a waiting consumer is not missed below
+        published.set(s, seq);
+
+        final Thread w = waiter;
+        if (w != null) LockSupport.unpark(w);
+        return true;
+    }
+
+    /**
+     * Passes the events published so far, up to {@code max} events, to
+     * the handler in a single batch.
+     *
+     * @return the number of events consumed
+     */
+    public int drain(BatchHandler handler, int max) {
+        final long next = consumed.get();
+        int n = 0;
+        while (n < max && published.get((int) (next + n) & mask) == next + n) {
+            n++;
+        }
+        if (n == 0) return 0;
+
+        batch.start = next;
+        batch.size = n;
+        try {
+            handler.onBatch(batch);
+        } finally {
+            batch.size = 0;
+            // releases the slots to the producers
+            consumed.lazySet(next + n);
+        }
+        return n;
+    }
+
+    /**
+     * Like {@link #drain(BatchHandler, int)}, but waits up to the given
+     * time for events to be published if there are none.
+     *
+     * @return the number of events consumed
+     */
+    public int drain(BatchHandler handler, int max, long timeout, TimeUnit unit) {
+        int n = drain(handler, max);
+        if (n > 0) return n;
+
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        waiter = Thread.currentThread();
+        try {
+            long remaining;
+            while (!isAvailable() && (remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } finally {
+            waiter = null;
+        }
+        return drain(handler, max);
+    }
+
+    private boolean isAvailable() {
+        final long next = consumed.get();
+        return published.get((int) next & mask) == next;
+    }
+
+    /**
+     * Returns the number of events waiting to be consumed.
+     */
+    public int size() {
+        return (int) Math.max(0, claimed.get() - consumed.get());
+    }
+
+    /**
+     * Returns the number of events dropped because the ring was full.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+}
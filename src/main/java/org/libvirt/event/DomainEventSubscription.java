@@ -0,0 +1,313 @@
+package org.libvirt.event;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.libvirt.Domain;
+
+/**
+ * The subscription of a subscriber to a {@link DomainEventPublisher},
+ * buffering the events until the subscriber requests them.
+ * <p>
+ * Events are delivered on the thread publishing them or on the thread
+ * requesting more of them, one at a time. The buffer is bounded and
+ * handled according to the {@link OverflowStrategy} of the publisher.
+ * <p>
+ * The getters report how far the subscriber lags behind and may be
+ * called by any thread.
+ */
+public final class DomainEventSubscription<T> implements EventFlow.Subscription {
+    private final DomainEventPublisher<T> publisher;
+    private final EventFlow.Subscriber<? super DomainNotification<T>> subscriber;
+    private final OverflowStrategy strategy;
+    private final int capacity;
+
+    // the buffered events, guarded by this
+    private final ArrayDeque<DomainNotification<T>> queue;
+    // the buffered events per domain for the COALESCE strategy, guarded by this
+    private final LinkedHashMap<Domain, DomainNotification<T>> latest;
+
+    private final AtomicLong demand = new AtomicLong();
+    // the number of drain() calls in progress or missed
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean cancelled;
+    private volatile boolean done;
+    private volatile Throwable error;
+    private boolean terminated;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong merged = new AtomicLong();
+
+    DomainEventSubscription(DomainEventPublisher<T> publisher,
+                            EventFlow.Subscriber<? super DomainNotification<T>> subscriber,
+                            OverflowStrategy strategy, int capacity) {
+        this.publisher = publisher;
+        this.subscriber = subscriber;
+        this.strategy = strategy;
+        this.capacity = capacity;
+        if (strategy == OverflowStrategy.COALESCE) {
+            queue = null;
+            latest = new LinkedHashMap<Domain, DomainNotification<T>>();
+        } else {
+            queue = new ArrayDeque<DomainNotification<T>>();
+            latest = null;
+        }
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            // Reactive Streams rule 3.9
+            publisher.remove(this);
+            error(new IllegalArgumentException("non-positive request: " + n));
+            return;
+        }
+
+        long r, u;
+        do {
+            r = demand.get();
+            u = r + n < 0 ? Long.MAX_VALUE : r + n;
+        } while (!demand.compareAndSet(r, u));
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        synchronized (this) {
+            clear();
+            notifyAll();
+        }
+        publisher.remove(this);
+    }
+
+    /**
+     * Buffers an event and delivers the buffered events the subscriber
+     * has requested.
+     */
+    void offer(DomainNotification<T> n) {
+        if (strategy == OverflowStrategy.BLOCK) {
+            if (!offerBlocking(n)) return;
+        } else {
+            synchronized (this) {
+                if (cancelled || done) return;
+                if (strategy == OverflowStrategy.COALESCE) {
+                    offerCoalescing(n);
+                } else {
+                    if (queue.size() >= capacity) {
+                        queue.poll();
+                        dropped.incrementAndGet();
+                    }
+                    queue.add(n);
+                }
+            }
+        }
+        drain();
+    }
+
+    // called holding the lock
+    private void offerCoalescing(DomainNotification<T> n) {
+        final DomainNotification<T> previous = latest.get(n.getDomain());
+        if (previous != null) {
+            // keeps the position of the previous event
+            latest.put(n.getDomain(), previous.merge(n));
+            merged.incrementAndGet();
+            return;
+        }
+        if (latest.size() >= capacity) {
+            final Iterator<DomainNotification<T>> i = latest.values().iterator();
+            i.next();
+            i.remove();
+            dropped.incrementAndGet();
+        }
+        latest.put(n.getDomain(), n);
+    }
+
+    /**
+     * Waits for room in the buffer.
+     *
+     * @return {@code false} if the event was not buffered
+     */
+    private boolean offerBlocking(DomainNotification<T> n) {
+        for (;;) {
+            synchronized (this) {
+                if (cancelled || done) return false;
+                if (queue.size() < capacity) {
+                    queue.add(n);
+                    return true;
+                }
+            }
+
+            // deliver what has been requested before waiting
+            drain();
+
+            synchronized (this) {
+                while (!cancelled && !done && queue.size() >= capacity) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        dropped.incrementAndGet();
+                        return false;
+                    }
+                }
+            }
+        }
+    }
+
+    private synchronized DomainNotification<T> poll() {
+        final DomainNotification<T> n;
+        if (latest != null) {
+            final Iterator<DomainNotification<T>> i = latest.values().iterator();
+            if (!i.hasNext()) return null;
+            n = i.next();
+            i.remove();
+        } else {
+            n = queue.poll();
+            if (n != null && strategy == OverflowStrategy.BLOCK) notifyAll();
+        }
+        return n;
+    }
+
+    // called holding the lock
+    private void clear() {
+        if (latest != null) {
+            latest.clear();
+        } else {
+            queue.clear();
+        }
+    }
+
+    /**
+     * Completes the subscription once all buffered events have been
+     * requested.
+     */
+    void complete() {
+        done = true;
+        synchronized (this) {
+            notifyAll();
+        }
+        drain();
+    }
+
+    /**
+     * Fails the subscription, dropping the buffered events.
+     */
+    void error(Throwable t) {
+        error = t;
+        done = true;
+        synchronized (this) {
+            clear();
+            notifyAll();
+        }
+        drain();
+    }
+
+    /**
+     * Delivers the buffered events as far as requested. Only one thread
+     * delivers at a time; a call while another thread is delivering
+     * makes that thread check for further events.
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) return;
+
+        int missed = 1;
+        do {
+            while (!cancelled && !terminated && error == null && demand.get() > 0) {
+                final DomainNotification<T> n = poll();
+                if (n == null) break;
+
+                if (demand.get() != Long.MAX_VALUE) demand.decrementAndGet();
+                delivered.incrementAndGet();
+                try {
+                    subscriber.onNext(n);
+                } catch (RuntimeException e) {
+                    // Reactive Streams rule 2.13
+                    cancel();
+                    final Thread t = Thread.currentThread();
+                    t.getUncaughtExceptionHandler().uncaughtException(t, e);
+                }
+            }
+
+            if (!cancelled && !terminated && done && (error != null || getPending() == 0)) {
+                terminated = true;
+                if (error != null) {
+                    subscriber.onError(error);
+                } else {
+                    subscriber.onComplete();
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Returns the number of buffered events.
+     */
+    public synchronized int getPending() {
+        return latest != null ? latest.size() : queue.size();
+    }
+
+    /**
+     * Returns how long the oldest buffered event has been waiting, in
+     * nanoseconds, or 0 if there is none.
+     */
+    public synchronized long getLag() {
+        final DomainNotification<T> oldest;
+        if (latest != null) {
+            oldest = latest.isEmpty() ? null : latest.values().iterator().next();
+        } else {
+            oldest = queue.peek();
+        }
+        return oldest == null ? 0 : System.nanoTime() - oldest.getTimestamp();
+    }
+
+    /**
+     * Returns the number of events requested but not delivered yet.
+     */
+    public long getDemand() {
+        return demand.get();
+    }
+
+    /**
+     * Returns the number of events delivered.
+     */
+    public long getDelivered() {
+        return delivered.get();
+    }
+
+    /**
+     * Returns the number of events dropped because the buffer was full.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns the number of events merged into buffered events by the
+     * {@link OverflowStrategy#COALESCE} strategy.
+     */
+    public long getMerged() {
+        return merged.get();
+    }
+
+    /**
+     * Whether the subscription has been cancelled, completed or failed,
+     * e.g. by an invalid request from within
+     * {@link EventFlow.Subscriber#onSubscribe}.
+     */
+    boolean isTerminated() {
+        return cancelled || done;
+    }
+
+    /**
+     * Whether the subscription has been cancelled by the subscriber.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
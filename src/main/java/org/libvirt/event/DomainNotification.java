@@ -0,0 +1,67 @@
+package org.libvirt.event;
+
+import org.libvirt.Domain;
+
+/**
+ * A domain event published by a {@link DomainEventPublisher}.
+ *
+ * @param <T> the type of the event details, e.g. {@link DomainEvent}
+ *            for lifecycle events
+ */
+public final class DomainNotification<T> {
+    private final Domain domain;
+    private final T detail;
+    private final long timestamp;
+    private final int count;
+
+    DomainNotification(Domain domain, T detail, long timestamp, int count) {
+        this.domain = domain;
+        this.detail = detail;
+        this.timestamp = timestamp;
+        this.count = count;
+    }
+
+    /**
+     * Returns the domain the event occurred for.
+     */
+    public Domain getDomain() {
+        return domain;
+    }
+
+    /**
+     * Returns the details of the event, or of the most recent event if
+     * several events have been merged. This is {@code null} for events
+     * without details, e.g. reboot events.
+     */
+    public T getDetail() {
+        return detail;
+    }
+
+    /**
+     * Returns the time the (first) event was received, as returned by
+     * {@link System#nanoTime}.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the number of events merged into this one by the
+     * {@link OverflowStrategy#COALESCE} strategy, 1 otherwise.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Merges a later event of the same domain into this one.
+     */
+    DomainNotification<T> merge(DomainNotification<T> later) {
+        return new DomainNotification<T>(later.domain, later.detail, timestamp, count + later.count);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s (%d)", domain, detail, count);
+    }
+}
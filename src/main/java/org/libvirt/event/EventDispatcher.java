@@ -0,0 +1,172 @@
+package org.libvirt.event;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers domain events to their listeners using an executor,
+ * instead of calling the listeners on the thread running the libvirt
+ * event loop.
+ * <p>
+ * Events concerning the same domain are delivered one at a time in the
+ * order they occurred, while events of different domains may be
+ * delivered concurrently. Any executor can be used, e.g. a fixed thread
+ * pool or one creating a virtual thread per task.
+ * <p>
+ * The number of pending events is bounded. Events occurring while the
+ * dispatcher is full, or which the executor rejects, are dropped and
+ * counted.
+ *
+ * @see org.libvirt.Connect#setEventDispatcher
+ */
+public final class EventDispatcher {
+    // deliver at most this many events of a domain in a row before
+    // giving other domains a chance
+    private static final int BATCH = 64;
+
+    private final Executor executor;
+    private final int capacity;
+    private final Map<Object, Lane> lanes = new HashMap<Object, Lane>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * The pending events of a single domain.
+     */
+    private final class Lane implements Runnable {
+        final Object key;
+        final ArrayDeque<Runnable> events = new ArrayDeque<Runnable>();
+
+        Lane(Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < BATCH; i++) {
+                final Runnable event;
+                synchronized (lanes) {
+                    event = events.poll();
+                    if (event == null) {
+                        lanes.remove(key);
+                        return;
+                    }
+                }
+                depth.decrementAndGet();
+                deliver(event);
+            }
+            // more events pending, continue with a new task
+            schedule(this);
+        }
+    }
+
+    /**
+     * Creates a dispatcher.
+     *
+     * @param executor
+     *            the executor running the listeners
+     * @param capacity
+     *            the maximum number of pending events
+     */
+    public EventDispatcher(Executor executor, int capacity) {
+        if (executor == null)
+            throw new IllegalArgumentException("executor cannot be null");
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive");
+
+        this.executor = executor;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Queues an event for delivery after all pending events with the
+     * same key.
+     *
+     * @param key
+     *            identifies the domain the event is about
+     * @param event
+     *            calls the listener
+     * @return {@code false} if the event has been dropped
+     */
+    public boolean dispatch(Object key, Runnable event) {
+        if (depth.incrementAndGet() > capacity) {
+            depth.decrementAndGet();
+            dropped.incrementAndGet();
+            return false;
+        }
+        dispatched.incrementAndGet();
+
+        final Lane lane;
+        synchronized (lanes) {
+            final Lane existing = lanes.get(key);
+            if (existing != null) {
+                // already scheduled
+                existing.events.add(event);
+                return true;
+            }
+            lane = new Lane(key);
+            lane.events.add(event);
+            lanes.put(key, lane);
+        }
+        schedule(lane);
+        return true;
+    }
+
+    private void schedule(Lane lane) {
+        try {
+            executor.execute(lane);
+        } catch (RejectedExecutionException e) {
+            final int n;
+            synchronized (lanes) {
+                n = lane.events.size();
+                lane.events.clear();
+                lanes.remove(lane.key);
+            }
+            depth.addAndGet(-n);
+            dropped.addAndGet(n);
+        }
+    }
+
+    private static void deliver(Runnable event) {
+        try {
+            event.run();
+        } catch (RuntimeException e) {
+            final Thread t = Thread.currentThread();
+            t.getUncaughtExceptionHandler().uncaughtException(t, e);
+        }
+    }
+
+    /**
+     * Returns the number of events waiting to be delivered.
+     */
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    /**
+     * Returns the maximum number of events waiting to be delivered.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of events accepted for delivery so far.
+     */
+    public long getDispatched() {
+        return dispatched.get();
+    }
+
+    /**
+     * Returns the number of events dropped so far.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+}
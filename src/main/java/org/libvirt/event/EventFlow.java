@@ -0,0 +1,81 @@
+package org.libvirt.event;
+
+/**
+ * Interfaces for publishing events with backpressure, mirroring
+ * {@code java.util.concurrent.Flow} of Java 9 and the Reactive Streams
+ * specification, while these bindings still support Java 8.
+ * <p>
+ * The methods have the same names and semantics as their counterparts
+ * in {@code Flow}, so adapting them is a matter of delegation:
+ * <pre>{@code
+ * publisher.subscribe(new EventFlow.Subscriber<T>() {
+ *     public void onSubscribe(final EventFlow.Subscription s) {
+ *         flowSubscriber.onSubscribe(new Flow.Subscription() {
+ *             public void request(long n) { s.request(n); }
+ *             public void cancel() { s.cancel(); }
+ *         });
+ *     }
+ *     ...
+ * });
+ * }</pre>
+ *
+ * @see DomainEventPublisher
+ */
+public final class EventFlow {
+    private EventFlow() {}
+
+    /**
+     * A producer of items received by subscribers, see
+     * {@code Flow.Publisher}.
+     */
+    public interface Publisher<T> {
+        /**
+         * Adds a subscriber, which is passed a new subscription by
+         * {@link Subscriber#onSubscribe}.
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * A receiver of items, see {@code Flow.Subscriber}.
+     */
+    public interface Subscriber<T> {
+        /**
+         * Called before any other method, receiving the subscription
+         * used to request items.
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Called with the next item, at most as many times as items
+         * have been requested.
+         */
+        void onNext(T item);
+
+        /**
+         * Called when the subscription failed. No further methods are
+         * called.
+         */
+        void onError(Throwable throwable);
+
+        /**
+         * Called when no further items will be published.
+         */
+        void onComplete();
+    }
+
+    /**
+     * Links a publisher and a subscriber, see {@code Flow.Subscription}.
+     */
+    public interface Subscription {
+        /**
+         * Adds {@code n} items to the demand of the subscriber.
+         */
+        void request(long n);
+
+        /**
+         * Stops the delivery of items.
+         */
+        void cancel();
+    }
+}
@@ -0,0 +1,61 @@
+package org.libvirt.event;
+
+/**
+ * The address of one end of a graphics client connection.
+ *
+ * @see GraphicsListener
+ */
+public final class GraphicsAddress {
+    /**
+     * The address family.
+     */
+    public enum Family {
+        /** an IPv4 address */
+        IPV4,
+
+        /** an IPv6 address */
+        IPV6,
+
+        /** a UNIX socket path */
+        UNIX,
+
+        /** an unknown address family */
+        UNKNOWN
+    }
+
+    private final Family family;
+    private final String node;
+    private final String service;
+
+    public GraphicsAddress(Family family, String node, String service) {
+        this.family = family;
+        this.node = node;
+        this.service = service;
+    }
+
+    /**
+     * Returns the address family.
+     */
+    public Family getFamily() {
+        return family;
+    }
+
+    /**
+     * Returns the host address or, for UNIX sockets, the socket path.
+     */
+    public String getNode() {
+        return node;
+    }
+
+    /**
+     * Returns the port number, or {@code null} for UNIX sockets.
+     */
+    public String getService() {
+        return service;
+    }
+
+    @Override
+    public String toString() {
+        return family == Family.UNIX ? node : node + ":" + service;
+    }
+}
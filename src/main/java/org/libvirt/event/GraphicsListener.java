@@ -0,0 +1,24 @@
+package org.libvirt.event;
+
+import org.libvirt.Domain;
+
+/**
+ * Interface for receiving graphics client connection events.
+ */
+public interface GraphicsListener extends EventListener {
+
+    /**
+     * This method gets called when a client connects to, authenticates
+     * with or disconnects from the graphics display of a domain.
+     *
+     * @param domain      the domain whose display is concerned
+     * @param phase       the phase of the connection
+     * @param local       the local address of the connection
+     * @param remote      the address of the client
+     * @param authScheme  the authentication scheme in use
+     * @param subject     the identities of the client
+     */
+    void onGraphics(Domain domain, GraphicsPhase phase,
+                    GraphicsAddress local, GraphicsAddress remote,
+                    String authScheme, GraphicsSubjectIdentity[] subject);
+}
@@ -0,0 +1,42 @@
+package org.libvirt.event;
+
+/**
+ * The phase of a graphics client connection.
+ */
+public enum GraphicsPhase {
+    /**
+     * The initial socket connection has been established.
+     */
+    CONNECT,
+
+    /**
+     * The client has been authenticated.
+     */
+    INITIALIZE,
+
+    /**
+     * The connection has been closed.
+     */
+    DISCONNECT,
+
+    /**
+     * An unknown phase.
+     */
+    UNKNOWN;
+
+    private static final GraphicsPhase vals[] = GraphicsPhase.values();
+
+    static {
+        // make sure that the enum constants have the correct
+        // ordinal number assigned in correspondence to the
+        // values of the virDomainEventGraphicsPhase enum
+        // members
+
+        assert CONNECT.ordinal() == 0;
+        assert INITIALIZE.ordinal() == 1;
+        assert DISCONNECT.ordinal() == 2;
+
+        // must be the last constant
+        assert UNKNOWN.ordinal() == vals.length - 1;
+    }
+}
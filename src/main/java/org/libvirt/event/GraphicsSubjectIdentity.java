@@ -0,0 +1,36 @@
+package org.libvirt.event;
+
+/**
+ * An identity of the client of a graphics connection, e.g. its x509
+ * distinguished name or SASL username.
+ *
+ * @see GraphicsListener
+ */
+public final class GraphicsSubjectIdentity {
+    private final String type;
+    private final String name;
+
+    public GraphicsSubjectIdentity(String type, String name) {
+        this.type = type;
+        this.name = name;
+    }
+
+    /**
+     * Returns the type of the identity, e.g. "x509dname" or "saslUsername".
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Returns the identity itself.
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return type + "=" + name;
+    }
+}
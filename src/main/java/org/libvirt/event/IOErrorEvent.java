@@ -0,0 +1,43 @@
+package org.libvirt.event;
+
+/**
+ * The details of a domain I/O error event, as passed to an
+ * {@link IOErrorListener}.
+ */
+public final class IOErrorEvent {
+    private final String srcPath;
+    private final String devAlias;
+    private final IOErrorAction action;
+
+    public IOErrorEvent(String srcPath, String devAlias, IOErrorAction action) {
+        this.srcPath = srcPath;
+        this.devAlias = devAlias;
+        this.action = action;
+    }
+
+    /**
+     * Returns the source of the block device with errors.
+     */
+    public String getSrcPath() {
+        return srcPath;
+    }
+
+    /**
+     * Returns the device alias of the block device with errors.
+     */
+    public String getDevAlias() {
+        return devAlias;
+    }
+
+    /**
+     * Returns the action that is to be taken due to the I/O error.
+     */
+    public IOErrorAction getAction() {
+        return action;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s): %s", devAlias, srcPath, action);
+    }
+}
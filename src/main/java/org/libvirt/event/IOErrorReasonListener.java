@@ -0,0 +1,24 @@
+package org.libvirt.event;
+
+import org.libvirt.Domain;
+
+/**
+ * Interface for receiving domain I/O error events including the reason
+ * of the error.
+ */
+public interface IOErrorReasonListener extends EventListener {
+    /**
+     * This method gets called upon a domain I/O error event.
+     *
+     * @param domain   the domain which got an I/O error
+     * @param srcPath  the src of the block device with errors
+     * @param devAlias the device alias of the block device with errors
+     * @param action   the action that is to be taken due to the I/O error
+     * @param reason   the cause of the error, e.g. "enospc"
+     */
+    void onIOError(Domain domain,
+                   String srcPath,
+                   String devAlias,
+                   IOErrorAction action,
+                   String reason);
+}
@@ -0,0 +1,72 @@
+package org.libvirt.event;
+
+/**
+ * Summarizes the lifecycle events of a domain which occurred within a
+ * coalescing window.
+ *
+ * @see CoalescingLifecycleListener
+ */
+public final class LifecycleSummary {
+    private final DomainEvent first;
+    private final long firstTime;
+    private DomainEvent last;
+    private long lastTime;
+    private int count;
+
+    LifecycleSummary(DomainEvent first, long time) {
+        this.first = first;
+        this.firstTime = time;
+        this.last = first;
+        this.lastTime = time;
+        this.count = 1;
+    }
+
+    void add(DomainEvent event, long time) {
+        this.last = event;
+        this.lastTime = time;
+        this.count++;
+    }
+
+    /**
+     * Returns the first event within the window.
+     */
+    public DomainEvent getFirst() {
+        return first;
+    }
+
+    /**
+     * Returns the last event within the window, which reflects the
+     * current state of the domain.
+     */
+    public DomainEvent getLast() {
+        return last;
+    }
+
+    /**
+     * Returns the number of events within the window.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the time the first event occurred, in milliseconds since
+     * the epoch.
+     */
+    public long getFirstTime() {
+        return firstTime;
+    }
+
+    /**
+     * Returns the time the last event occurred, in milliseconds since
+     * the epoch.
+     */
+    public long getLastTime() {
+        return lastTime;
+    }
+
+    @Override
+    public String toString() {
+        return first + " .. " + last + " (" + count + " events)";
+    }
+}
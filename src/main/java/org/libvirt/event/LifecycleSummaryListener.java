@@ -0,0 +1,20 @@
+package org.libvirt.event;
+
+import org.libvirt.Domain;
+
+/**
+ * Interface for receiving coalesced lifecycle events of a domain.
+ *
+ * @see CoalescingLifecycleListener
+ */
+public interface LifecycleSummaryListener extends EventListener {
+
+    /**
+     * This method gets called at the end of a coalescing window with
+     * the lifecycle events of a domain which occurred within the window.
+     *
+     * @param domain   the domain on which the events occurred
+     * @param summary  the first and last event and the number of events
+     */
+    void onLifecycleSummary(Domain domain, LifecycleSummary summary);
+}
@@ -0,0 +1,29 @@
+package org.libvirt.event;
+
+/**
+ * What a {@link DomainEventPublisher} does with an event when the
+ * buffer of a subscriber is full.
+ */
+public enum OverflowStrategy {
+    /**
+     * Drop the oldest buffered event.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Buffer at most one event per domain, merging a new event into the
+     * buffered event of the same domain, see
+     * {@link DomainNotification#getCount}. When there are more domains
+     * than the buffer can hold, the oldest event is dropped.
+     */
+    COALESCE,
+
+    /**
+     * Block the thread publishing the event until the subscriber
+     * requests more events. This is the thread running the event loop
+     * unless an {@link EventDispatcher} is used, and blocking the event
+     * loop results in connections being closed by the keepalive
+     * mechanism.
+     */
+    BLOCK
+}
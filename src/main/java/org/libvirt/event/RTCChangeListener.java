@@ -0,0 +1,18 @@
+package org.libvirt.event;
+
+import org.libvirt.Domain;
+
+/**
+ * Interface for receiving RTC change events.
+ */
+public interface RTCChangeListener extends EventListener {
+
+    /**
+     * This method gets called when the guest changed the real time clock
+     * of a domain.
+     *
+     * @param domain     the domain whose clock changed
+     * @param utcOffset  the new offset from UTC in seconds
+     */
+    void onRTCChange(Domain domain, long utcOffset);
+}
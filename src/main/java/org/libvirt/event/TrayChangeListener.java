@@ -0,0 +1,19 @@
+package org.libvirt.event;
+
+import org.libvirt.Domain;
+
+/**
+ * Interface for receiving tray change events of removable disks.
+ */
+public interface TrayChangeListener extends EventListener {
+
+    /**
+     * This method gets called when the tray of a removable disk of a
+     * domain is opened or closed.
+     *
+     * @param domain    the domain whose disk tray changed
+     * @param devAlias  the device alias of the disk
+     * @param reason    whether the tray was opened or closed
+     */
+    void onTrayChange(Domain domain, String devAlias, TrayChangeReason reason);
+}
@@ -0,0 +1,36 @@
+package org.libvirt.event;
+
+/**
+ * The reason for a tray change event.
+ */
+public enum TrayChangeReason {
+    /**
+     * The tray has been opened.
+     */
+    OPEN,
+
+    /**
+     * The tray has been closed.
+     */
+    CLOSE,
+
+    /**
+     * An unknown reason.
+     */
+    UNKNOWN;
+
+    private static final TrayChangeReason vals[] = TrayChangeReason.values();
+
+    static {
+        // make sure that the enum constants have the correct
+        // ordinal number assigned in correspondence to the
+        // values of the virDomainEventTrayChangeReason enum
+        // members
+
+        assert OPEN.ordinal() == 0;
+        assert CLOSE.ordinal() == 1;
+
+        // must be the last constant
+        assert UNKNOWN.ordinal() == vals.length - 1;
+    }
+}
@@ -0,0 +1,66 @@
+package org.libvirt.event;
+
+/**
+ * The action taken after a watchdog fired.
+ */
+public enum WatchdogAction {
+    /**
+     * No action, the watchdog is ignored.
+     */
+    NONE,
+
+    /**
+     * Guest CPUs are paused.
+     */
+    PAUSE,
+
+    /**
+     * The guest is reset.
+     */
+    RESET,
+
+    /**
+     * The guest is powered off.
+     */
+    POWEROFF,
+
+    /**
+     * The guest is requested to shut down.
+     */
+    SHUTDOWN,
+
+    /**
+     * No action, a debug message is logged.
+     */
+    DEBUG,
+
+    /**
+     * An NMI is injected into the guest.
+     */
+    INJECTNMI,
+
+    /**
+     * An unknown action was taken.
+     */
+    UNKNOWN;
+
+    private static final WatchdogAction vals[] = WatchdogAction.values();
+
+    static {
+        // make sure that the enum constants have the correct
+        // ordinal number assigned in correspondence to the
+        // values of the virDomainEventWatchdogAction enum
+        // members
+
+        assert NONE.ordinal() == 0;
+        assert PAUSE.ordinal() == 1;
+        assert RESET.ordinal() == 2;
+        assert POWEROFF.ordinal() == 3;
+        assert SHUTDOWN.ordinal() == 4;
+        assert DEBUG.ordinal() == 5;
+        assert INJECTNMI.ordinal() == 6;
+
+        // must be the last constant
+        assert UNKNOWN.ordinal() == vals.length - 1;
+    }
+}
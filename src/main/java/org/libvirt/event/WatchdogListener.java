@@ -0,0 +1,17 @@
+package org.libvirt.event;
+
+import org.libvirt.Domain;
+
+/**
+ * Interface for receiving watchdog events.
+ */
+public interface WatchdogListener extends EventListener {
+
+    /**
+     * This method gets called when the watchdog of a domain fired.
+     *
+     * @param domain  the domain whose watchdog fired
+     * @param action  the action taken
+     */
+    void onWatchdog(Domain domain, WatchdogAction action);
+}
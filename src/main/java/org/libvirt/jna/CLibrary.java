@@ -0,0 +1,35 @@
+package org.libvirt.jna;
+
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLong;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+
+/**
+ * The few functions of the C library needed to implement an event loop
+ * on the file descriptors handed out by libvirt, which cannot be
+ * wrapped into NIO channels.
+ */
+public interface CLibrary extends Library {
+    CLibrary INSTANCE = (CLibrary) Native.loadLibrary(Platform.C_LIBRARY_NAME, CLibrary.class);
+
+    // poll events
+    short POLLIN   = 0x001;
+    short POLLOUT  = 0x004;
+    short POLLERR  = 0x008;
+    short POLLHUP  = 0x010;
+    short POLLNVAL = 0x020;
+
+    /**
+     * The size of a {@code struct pollfd}: an int file descriptor
+     * followed by the short events and revents fields.
+     */
+    int POLLFD_SIZE = 8;
+
+    int poll(Pointer fds, NativeLong nfds, int timeout);
+    int pipe(int[] fds);
+    NativeLong read(int fd, byte[] buf, SizeT count);
+    NativeLong write(int fd, byte[] buf, SizeT count);
+    int close(int fd);
+}
@@ -17,9 +17,20 @@ import com.sun.jna.PointerType;
 public class CString extends PointerType {
     // all strings in libvirt are UTF-8 encoded
     private final static Charset UTF8 = Charset.forName("UTF-8");
+    // ASCII is a subset of both UTF-8 and ISO-8859-1, but decoding
+    // ISO-8859-1 is a plain copy
+    private final static Charset LATIN1 = Charset.forName("ISO-8859-1");
     private final static byte NUL = 0;
     private String string = null;
 
+    // per-thread buffer the bytes of a C-String are copied into
+    private final static ThreadLocal<byte[]> scratch = new ThreadLocal<byte[]>() {
+            @Override
+            protected byte[] initialValue() {
+                return new byte[256];
+            }
+        };
+
     public CString() {
         super();
     }
@@ -41,19 +52,7 @@ public class CString extends PointerType {
             if (ptr == null) return null;
 
             try {
-                // N.B.  could be replaced with Pointer.getString(0L, "UTF-8")
-                //       available in JNA >= 4.x
-                final long len = ptr.indexOf(0, NUL);
-                assert (len != -1): "C-Strings must be \\0 terminated.";
-                assert (len <= Integer.MAX_VALUE): "string length exceeded " + Integer.MAX_VALUE;
-
-                if (len == 0) {
-                    string = "";
-                } else {
-                    final byte[] data = ptr.getByteArray(0, (int)len);
-
-                    string = new String(data, UTF8);
-                }
+                string = decode(ptr);
             } finally {
                 free(ptr);
             }
@@ -61,6 +60,77 @@ public class CString extends PointerType {
         return string;
     }
 
+    /**
+     * Decodes the UTF-8 encoded C-String at the given address.
+     * <p>
+     * The bytes are copied into a per-thread buffer, so apart from the
+     * resulting String no memory is allocated. Pure ASCII strings skip
+     * the UTF-8 decoder.
+     * <p>
+     * The memory of the C-String is not freed.
+     */
+    public static String decode(Pointer ptr) {
+        final long len = ptr.indexOf(0, NUL);
+        assert (len != -1): "C-Strings must be \\0 terminated.";
+        assert (len <= Integer.MAX_VALUE): "string length exceeded " + Integer.MAX_VALUE;
+
+        if (len == 0) return "";
+
+        final int n = (int)len;
+        byte[] data = scratch.get();
+        if (data.length < n) {
+            data = new byte[Math.max(n, data.length * 2)];
+            scratch.set(data);
+        }
+        ptr.read(0, data, 0, n);
+
+        for (int i = 0; i < n; i++) {
+            if (data[i] < 0) return new String(data, 0, n, UTF8);
+        }
+        return new String(data, 0, n, LATIN1);
+    }
+
+    /**
+     * Decodes an array of C-String pointers, as filled by the libvirt
+     * list functions, and frees each C-String.
+     * <p>
+     * Only a single Pointer object is used for all elements of the
+     * array. The memory of the array itself is not freed.
+     *
+     * @param array the native array of C-String pointers
+     * @param size  the number of valid elements of the array
+     */
+    public static String[] toStringArray(Pointer array, final int size) {
+        final String[] result = new String[size];
+        final Pointer ptr = new Pointer(0);
+        int i = 0;
+        try {
+            for (; i < size; ++i) {
+                final long peer = peer(array, i);
+                if (peer != 0) {
+                    Pointer.nativeValue(ptr, peer);
+                    try {
+                        result[i] = decode(ptr);
+                    } finally {
+                        Native.free(peer);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            // release the remaining strings if decoding failed
+            for (++i; i < size; ++i) {
+                Native.free(peer(array, i));
+            }
+        }
+    }
+
+    // reads the i-th element of a pointer array without creating a Pointer
+    private static long peer(Pointer array, int i) {
+        final long offset = (long) i * Pointer.SIZE;
+        return Pointer.SIZE == 8 ? array.getLong(offset) : array.getInt(offset) & 0xffffffffL;
+    }
+
     @Override
     public CString fromNative(Object nativeValue, FromNativeContext context) {
         if (nativeValue == null) return null;
@@ -0,0 +1,1579 @@
+package org.libvirt.jna;
+
+import java.nio.ByteBuffer;
+
+import com.sun.jna.Native;
+import com.sun.jna.NativeLibrary;
+import com.sun.jna.NativeLong;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.LongByReference;
+import com.sun.jna.ptr.PointerByReference;
+
+/**
+ * A {@link Libvirt} implementation which binds the most frequently
+ * called domain query and statistics functions using JNA direct
+ * mapping.
+ * <p>
+ * Direct mapped functions are registered as static native methods
+ * and called without going through the reflective interface proxy
+ * which backs {@link Libvirt#INSTANCE}. All remaining functions are
+ * forwarded to the interface mapped instance given on construction.
+ * <p>
+ * This backend is used when the system property
+ * {@code org.libvirt.jna.direct} is set to {@code true} at startup.
+ */
+public final class DirectLibvirt implements Libvirt {
+
+    /**
+     * Holder for the direct mapped native methods.
+     * <p>
+     * Direct mapping does not support arrays of structures, so
+     * virDomainMemoryStats takes a plain pointer here.
+     */
+    private static final class Direct {
+        static {
+            Native.register(Direct.class, NativeLibrary.getInstance(LIBRARY_NAME));
+        }
+
+        static native int virConnectListDomains(ConnectionPointer virConnectPtr, int[] ids, int maxnames);
+        static native int virConnectNumOfDomains(ConnectionPointer virConnectPtr);
+        static native int virDomainBlockStats(DomainPointer virDomainPtr, String path, virDomainBlockStats stats, SizeT size);
+        static native int virDomainBlockStats(DomainPointer virDomainPtr, String path, Pointer stats, SizeT size);
+        static native int virDomainGetBlockJobInfo(DomainPointer virDomainPtr, String disk, virDomainBlockJobInfo info, int flags);
+        static native int virDomainFree(DomainPointer virDomainPtr);
+        static native int virDomainGetAutostart(DomainPointer virDomainPtr, IntByReference value);
+        static native int virDomainGetBlockInfo(DomainPointer virDomainPtr, String path, virDomainBlockInfo info, int flags);
+        static native int virDomainGetID(DomainPointer virDomainPtr);
+        static native int virDomainGetInfo(DomainPointer virDomainPtr, virDomainInfo vInfo);
+        static native int virDomainGetInfo(DomainPointer virDomainPtr, Pointer vInfo);
+        static native int virDomainGetJobInfo(DomainPointer virDomainPtr, virDomainJobInfo vInfo);
+        static native NativeLong virDomainGetMaxMemory(DomainPointer virDomainPtr);
+        static native int virDomainGetMaxVcpus(DomainPointer virDomainPtr);
+        static native String virDomainGetName(DomainPointer virDomainPtr);
+        static native CString virDomainGetOSType(DomainPointer virDomainPtr);
+        static native int virDomainGetUUID(DomainPointer virDomainPtr, byte[] uuidString);
+        static native int virDomainGetUUIDString(DomainPointer virDomainPtr, byte[] uuidString);
+        static native CString virDomainGetXMLDesc(DomainPointer virDomainPtr, int flags);
+        static native int virDomainInterfaceStats(DomainPointer virDomainPtr, String path, virDomainInterfaceStats stats, SizeT size);
+        static native int virDomainInterfaceStats(DomainPointer virDomainPtr, String path, Pointer stats, SizeT size);
+        static native int virDomainIsActive(DomainPointer virDomainPtr);
+        static native int virDomainIsPersistent(DomainPointer virDomainPtr);
+        static native int virDomainIsUpdated(DomainPointer virDomainPtr);
+        static native DomainPointer virDomainLookupByID(ConnectionPointer virConnectPtr, int id);
+        static native DomainPointer virDomainLookupByName(ConnectionPointer virConnectPtr, String name);
+        static native DomainPointer virDomainLookupByUUID(ConnectionPointer virConnectPtr, byte[] uuidBytes);
+        static native DomainPointer virDomainLookupByUUIDString(ConnectionPointer virConnectPtr, String uuidstr);
+        static native int virDomainRef(DomainPointer virDomainPtr);
+        static native int virDomainMemoryStats(DomainPointer virDomainPtr, Pointer stats, int nr_stats, int flags);
+
+        private Direct() {}
+    }
+
+    private final Libvirt delegate;
+
+    /**
+     * Creates a new direct mapped backend.
+     *
+     * @param delegate the interface mapped instance used for all
+     *                 functions which are not direct mapped
+     */
+    public DirectLibvirt(Libvirt delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public int virDomainMemoryStats(DomainPointer virDomainPtr, virDomainMemoryStats[] stats, int nr_stats, int flags) {
+        if (stats.length == 0) {
+            return Direct.virDomainMemoryStats(virDomainPtr, null, nr_stats, flags);
+        }
+        if (stats[0] == null) {
+            stats[0] = new virDomainMemoryStats();
+        }
+        // lay out all elements in a single contiguous block of memory
+        stats[0].toArray(stats);
+        int result = Direct.virDomainMemoryStats(virDomainPtr, stats[0].getPointer(), nr_stats, flags);
+        for (int x = 0; x < result; x++) {
+            stats[x].read();
+        }
+        return result;
+    }
+
+    @Override
+    public CString virConnectBaselineCPU(ConnectionPointer virConnectPtr, String[] xmlCPUs, int ncpus, int flags) {
+        return delegate.virConnectBaselineCPU(virConnectPtr, xmlCPUs, ncpus, flags);
+    }
+
+    @Deprecated
+    @Override
+    public int virConnCopyLastError(ConnectionPointer virConnectPtr, virError to) {
+        return delegate.virConnCopyLastError(virConnectPtr, to);
+    }
+
+    @Override
+    public int virConnectClose(ConnectionPointer virConnectPtr) {
+        return delegate.virConnectClose(virConnectPtr);
+    }
+
+    @Override
+    public int virConnectCompareCPU(ConnectionPointer virConnectPtr, String xmlDesc, int flags) {
+        return delegate.virConnectCompareCPU(virConnectPtr, xmlDesc, flags);
+    }
+
+    @Override
+    public int virConnectDomainEventRegisterAny(ConnectionPointer virConnectPtr, DomainPointer virDomainPtr, int eventID, VirDomainEventCallback cb, Pointer opaque, Libvirt.VirFreeCallback freecb) {
+        return delegate.virConnectDomainEventRegisterAny(virConnectPtr, virDomainPtr, eventID, cb, opaque, freecb);
+    }
+
+    @Override
+    public int virConnectRegisterCloseCallback(ConnectionPointer virConnectPtr, VirConnectCloseFunc cb, Pointer opaque, Pointer freeOpaque) {
+        return delegate.virConnectRegisterCloseCallback(virConnectPtr, cb, opaque, freeOpaque);
+    }
+
+    @Override
+    public int virConnectUnregisterCloseCallback(ConnectionPointer virConnectPtr, VirConnectCloseFunc cb) {
+        return delegate.virConnectUnregisterCloseCallback(virConnectPtr, cb);
+    }
+
+    @Override
+    public int virConnectDomainEventDeregisterAny(ConnectionPointer virConnectPtr, int callbackID) {
+        return delegate.virConnectDomainEventDeregisterAny(virConnectPtr, callbackID);
+    }
+
+    @Override
+    public void virConnSetErrorFunc(ConnectionPointer virConnectPtr, Pointer userData, VirErrorCallback callback) {
+        delegate.virConnSetErrorFunc(virConnectPtr, userData, callback);
+    }
+
+    @Override
+    public int virConnectIsAlive(ConnectionPointer virConnectPtr) {
+        return delegate.virConnectIsAlive(virConnectPtr);
+    }
+
+    @Override
+    public int virConnectIsEncrypted(ConnectionPointer virConnectPtr) {
+        return delegate.virConnectIsEncrypted(virConnectPtr);
+    }
+
+    @Override
+    public int virConnectIsSecure(ConnectionPointer virConnectPtr) {
+        return delegate.virConnectIsSecure(virConnectPtr);
+    }
+
+    @Override
+    public CString virConnectFindStoragePoolSources(ConnectionPointer virConnectPtr, String type, String srcSpec, int flags) {
+        return delegate.virConnectFindStoragePoolSources(virConnectPtr, type, srcSpec, flags);
+    }
+
+    @Override
+    public CString virConnectGetCapabilities(ConnectionPointer virConnectPtr) {
+        return delegate.virConnectGetCapabilities(virConnectPtr);
+    }
+
+    @Override
+    public CString virConnectGetHostname(ConnectionPointer virConnectPtr) {
+        return delegate.virConnectGetHostname(virConnectPtr);
+    }
+
+    @Override
+    public int virConnectGetLibVersion(ConnectionPointer virConnectPtr, LongByReference libVer) {
+        return delegate.virConnectGetLibVersion(virConnectPtr, libVer);
+    }
+
+    @Override
+    public int virConnectGetMaxVcpus(ConnectionPointer virConnectPtr, String type) {
+        return delegate.virConnectGetMaxVcpus(virConnectPtr, type);
+    }
+
+    @Override
+    public CString virConnectGetSysinfo(ConnectionPointer virConnectPtr, int flags) {
+        return delegate.virConnectGetSysinfo(virConnectPtr, flags);
+    }
+
+    @Override
+    public String virConnectGetType(ConnectionPointer virConnectPtr) {
+        return delegate.virConnectGetType(virConnectPtr);
+    }
+
+    @Override
+    public CString virConnectGetURI(ConnectionPointer virConnectPtr) {
+        return delegate.virConnectGetURI(virConnectPtr);
+    }
+
+    @Override
+    public int virConnectGetAllDomainStats(ConnectionPointer virConnectPtr, int stats, PointerByReference retStats, int flags) {
+        return delegate.virConnectGetAllDomainStats(virConnectPtr, stats, retStats, flags);
+    }
+
+    @Override
+    public int virConnectGetVersion(ConnectionPointer virConnectPtr, LongByReference hvVer) {
+        return delegate.virConnectGetVersion(virConnectPtr, hvVer);
+    }
+
+    @Override
+    public int virConnectListDefinedDomains(ConnectionPointer virConnectPtr, CString[] name, int maxnames) {
+        return delegate.virConnectListDefinedDomains(virConnectPtr, name, maxnames);
+    }
+
+    @Override
+    public int virConnectListDefinedDomains(ConnectionPointer virConnectPtr, Pointer name, int maxnames) {
+        return delegate.virConnectListDefinedDomains(virConnectPtr, name, maxnames);
+    }
+
+    @Override
+    public int virConnectListDefinedNetworks(ConnectionPointer virConnectPtr, CString[] name, int maxnames) {
+        return delegate.virConnectListDefinedNetworks(virConnectPtr, name, maxnames);
+    }
+
+    @Override
+    public int virConnectListDefinedNetworks(ConnectionPointer virConnectPtr, Pointer name, int maxnames) {
+        return delegate.virConnectListDefinedNetworks(virConnectPtr, name, maxnames);
+    }
+
+    @Override
+    public int virConnectListDefinedStoragePools(ConnectionPointer virConnectPtr, CString[] names, int maxnames) {
+        return delegate.virConnectListDefinedStoragePools(virConnectPtr, names, maxnames);
+    }
+
+    @Override
+    public int virConnectListDefinedStoragePools(ConnectionPointer virConnectPtr, Pointer names, int maxnames) {
+        return delegate.virConnectListDefinedStoragePools(virConnectPtr, names, maxnames);
+    }
+
+    @Override
+    public int virConnectListDefinedInterfaces(ConnectionPointer virConnectPtr, CString[] name, int maxNames) {
+        return delegate.virConnectListDefinedInterfaces(virConnectPtr, name, maxNames);
+    }
+
+    @Override
+    public int virConnectListDefinedInterfaces(ConnectionPointer virConnectPtr, Pointer name, int maxNames) {
+        return delegate.virConnectListDefinedInterfaces(virConnectPtr, name, maxNames);
+    }
+
+    @Override
+    public int virConnectListAllDomains(ConnectionPointer virConnectPtr, PointerByReference domains, int flags) {
+        return delegate.virConnectListAllDomains(virConnectPtr, domains, flags);
+    }
+
+    @Override
+    public int virConnectListAllInterfaces(ConnectionPointer virConnectPtr, PointerByReference ifaces, int flags) {
+        return delegate.virConnectListAllInterfaces(virConnectPtr, ifaces, flags);
+    }
+
+    @Override
+    public int virConnectListAllNetworks(ConnectionPointer virConnectPtr, PointerByReference nets, int flags) {
+        return delegate.virConnectListAllNetworks(virConnectPtr, nets, flags);
+    }
+
+    @Override
+    public int virConnectListAllNWFilters(ConnectionPointer virConnectPtr, PointerByReference filters, int flags) {
+        return delegate.virConnectListAllNWFilters(virConnectPtr, filters, flags);
+    }
+
+    @Override
+    public int virConnectListAllSecrets(ConnectionPointer virConnectPtr, PointerByReference secrets, int flags) {
+        return delegate.virConnectListAllSecrets(virConnectPtr, secrets, flags);
+    }
+
+    @Override
+    public int virConnectListDomains(ConnectionPointer virConnectPtr, int[] ids, int maxnames) {
+        return Direct.virConnectListDomains(virConnectPtr, ids, maxnames);
+    }
+
+    @Override
+    public int virConnectListInterfaces(ConnectionPointer virConnectPtr, CString[] name, int maxNames) {
+        return delegate.virConnectListInterfaces(virConnectPtr, name, maxNames);
+    }
+
+    @Override
+    public int virConnectListInterfaces(ConnectionPointer virConnectPtr, Pointer name, int maxNames) {
+        return delegate.virConnectListInterfaces(virConnectPtr, name, maxNames);
+    }
+
+    @Override
+    public int virConnectListNetworks(ConnectionPointer virConnectPtr, CString[] name, int maxnames) {
+        return delegate.virConnectListNetworks(virConnectPtr, name, maxnames);
+    }
+
+    @Override
+    public int virConnectListNetworks(ConnectionPointer virConnectPtr, Pointer name, int maxnames) {
+        return delegate.virConnectListNetworks(virConnectPtr, name, maxnames);
+    }
+
+    @Override
+    public int virConnectListNWFilters(ConnectionPointer virConnectPtr, CString[] name, int maxnames) {
+        return delegate.virConnectListNWFilters(virConnectPtr, name, maxnames);
+    }
+
+    @Override
+    public int virConnectListNWFilters(ConnectionPointer virConnectPtr, Pointer name, int maxnames) {
+        return delegate.virConnectListNWFilters(virConnectPtr, name, maxnames);
+    }
+
+    @Override
+    public int virConnectListSecrets(ConnectionPointer virConnectPtr, CString[] uids, int maxUids) {
+        return delegate.virConnectListSecrets(virConnectPtr, uids, maxUids);
+    }
+
+    @Override
+    public int virConnectListSecrets(ConnectionPointer virConnectPtr, Pointer uids, int maxUids) {
+        return delegate.virConnectListSecrets(virConnectPtr, uids, maxUids);
+    }
+
+    @Override
+    public int virConnectListStoragePools(ConnectionPointer virConnectPtr, CString[] names, int maxnames) {
+        return delegate.virConnectListStoragePools(virConnectPtr, names, maxnames);
+    }
+
+    @Override
+    public int virConnectListStoragePools(ConnectionPointer virConnectPtr, Pointer names, int maxnames) {
+        return delegate.virConnectListStoragePools(virConnectPtr, names, maxnames);
+    }
+
+    @Override
+    public int virConnectNumOfDefinedDomains(ConnectionPointer virConnectPtr) {
+        return delegate.virConnectNumOfDefinedDomains(virConnectPtr);
+    }
+
+    @Override
+    public int virConnectNumOfDefinedNetworks(ConnectionPointer virConnectPtr) {
+        return delegate.virConnectNumOfDefinedNetworks(virConnectPtr);
+    }
+
+    @Override
+    public int virConnectNumOfDefinedInterfaces(ConnectionPointer virConnectPtr) {
+        return delegate.virConnectNumOfDefinedInterfaces(virConnectPtr);
+    }
+
+    @Override
+    public int virConnectNumOfDefinedStoragePools(ConnectionPointer virConnectPtr) {
+        return delegate.virConnectNumOfDefinedStoragePools(virConnectPtr);
+    }
+
+    @Override
+    public int virConnectNumOfDomains(ConnectionPointer virConnectPtr) {
+        return Direct.virConnectNumOfDomains(virConnectPtr);
+    }
+
+    @Override
+    public int virConnectNumOfInterfaces(ConnectionPointer virConnectPtr) {
+        return delegate.virConnectNumOfInterfaces(virConnectPtr);
+    }
+
+    @Override
+    public int virConnectNumOfNetworks(ConnectionPointer virConnectPtr) {
+        return delegate.virConnectNumOfNetworks(virConnectPtr);
+    }
+
+    @Override
+    public int virConnectNumOfNWFilters(ConnectionPointer virConnectPtr) {
+        return delegate.virConnectNumOfNWFilters(virConnectPtr);
+    }
+
+    @Override
+    public int virConnectNumOfSecrets(ConnectionPointer virConnectPtr) {
+        return delegate.virConnectNumOfSecrets(virConnectPtr);
+    }
+
+    @Override
+    public int virConnectNumOfStoragePools(ConnectionPointer virConnectPtr) {
+        return delegate.virConnectNumOfStoragePools(virConnectPtr);
+    }
+
+    @Override
+    public ConnectionPointer virConnectOpen(String name) {
+        return delegate.virConnectOpen(name);
+    }
+
+    @Override
+    public ConnectionPointer virConnectOpenAuth(String name, virConnectAuth auth, int flags) {
+        return delegate.virConnectOpenAuth(name, auth, flags);
+    }
+
+    @Override
+    public ConnectionPointer virConnectOpenReadOnly(String name) {
+        return delegate.virConnectOpenReadOnly(name);
+    }
+
+    @Override
+    public int virConnectSetKeepAlive(ConnectionPointer virConnectPtr, int interval, int count) {
+        return delegate.virConnectSetKeepAlive(virConnectPtr, interval, count);
+    }
+
+    @Deprecated
+    @Override
+    public virError virConnGetLastError(ConnectionPointer virConnectPtr) {
+        return delegate.virConnGetLastError(virConnectPtr);
+    }
+
+    @Override
+    public void virConnResetLastError(ConnectionPointer virConnectPtr) {
+        delegate.virConnResetLastError(virConnectPtr);
+    }
+
+    @Override
+    public CString virConnectDomainXMLFromNative(ConnectionPointer virConnectPtr, String nativeFormat, String nativeConfig, int flags) {
+        return delegate.virConnectDomainXMLFromNative(virConnectPtr, nativeFormat, nativeConfig, flags);
+    }
+
+    @Override
+    public CString virConnectDomainXMLToNative(ConnectionPointer virConnectPtr, String nativeFormat, String domainXML, int flags) {
+        return delegate.virConnectDomainXMLToNative(virConnectPtr, nativeFormat, domainXML, flags);
+    }
+
+    @Override
+    public int virGetVersion(LongByReference libVer, String type, LongByReference typeVer) {
+        return delegate.virGetVersion(libVer, type, typeVer);
+    }
+
+    @Override
+    public int virInitialize() {
+        return delegate.virInitialize();
+    }
+
+    @Override
+    public int virCopyLastError(virError error) {
+        return delegate.virCopyLastError(error);
+    }
+
+    @Override
+    public virError virGetLastError() {
+        return delegate.virGetLastError();
+    }
+
+    @Override
+    public void virResetLastError() {
+        delegate.virResetLastError();
+    }
+
+    @Override
+    public void virSetErrorFunc(Pointer userData, VirErrorCallback callback) {
+        delegate.virSetErrorFunc(userData, callback);
+    }
+
+    @Override
+    public int virEventRegisterDefaultImpl() {
+        return delegate.virEventRegisterDefaultImpl();
+    }
+
+    @Override
+    public int virEventRunDefaultImpl() {
+        return delegate.virEventRunDefaultImpl();
+    }
+
+    @Override
+    public void virEventRegisterImpl(VirEventAddHandleFunc addHandle,
+                                     VirEventUpdateHandleFunc updateHandle,
+                                     VirEventRemoveHandleFunc removeHandle,
+                                     VirEventAddTimeoutFunc addTimeout,
+                                     VirEventUpdateTimeoutFunc updateTimeout,
+                                     VirEventRemoveTimeoutFunc removeTimeout) {
+        delegate.virEventRegisterImpl(addHandle, updateHandle, removeHandle,
+                                      addTimeout, updateTimeout, removeTimeout);
+    }
+
+    @Override
+    public int virDomainAbortJob(DomainPointer virDomainPtr) {
+        return delegate.virDomainAbortJob(virDomainPtr);
+    }
+
+    @Override
+    public int virDomainAttachDevice(DomainPointer virDomainPtr, String deviceXML) {
+        return delegate.virDomainAttachDevice(virDomainPtr, deviceXML);
+    }
+
+    @Override
+    public int virDomainAttachDeviceFlags(DomainPointer virDomainPtr, String deviceXML, int flags) {
+        return delegate.virDomainAttachDeviceFlags(virDomainPtr, deviceXML, flags);
+    }
+
+    @Override
+    public int virDomainBlockPeek(DomainPointer virDomainPtr, String disk, long offset, SizeT size, ByteBuffer buffer, int flags) {
+        return delegate.virDomainBlockPeek(virDomainPtr, disk, offset, size, buffer, flags);
+    }
+
+    @Override
+    public int virDomainBlockStats(DomainPointer virDomainPtr, String path, virDomainBlockStats stats, SizeT size) {
+        return Direct.virDomainBlockStats(virDomainPtr, path, stats, size);
+    }
+
+    @Override
+    public int virDomainBlockStats(DomainPointer virDomainPtr, String path, Pointer stats, SizeT size) {
+        return Direct.virDomainBlockStats(virDomainPtr, path, stats, size);
+    }
+
+    @Override
+    public int virDomainBlockResize(DomainPointer virDomainPtr, String disk, long size, int flags) {
+        return delegate.virDomainBlockResize(virDomainPtr, disk, size, flags);
+    }
+
+    @Override
+    public int virDomainBlockCopy(DomainPointer virDomainPtr, String disk, String xmlDesc, ParameterPointer params,int nparams, int flags) {
+        return delegate.virDomainBlockCopy(virDomainPtr, disk, xmlDesc, params, nparams, flags);
+    }
+
+    @Override
+    public int virDomainBlockCommit(DomainPointer virDomainPtr, String disk, String base, String top, long bandwith, int flags) {
+        return delegate.virDomainBlockCommit(virDomainPtr, disk, base, top, bandwith, flags);
+    }
+
+    @Override
+    public int virDomainGetBlockJobInfo(DomainPointer virDomainPtr, String disk, virDomainBlockJobInfo info, int flags) {
+        return Direct.virDomainGetBlockJobInfo(virDomainPtr, disk, info, flags);
+    }
+
+    @Override
+    public int virDomainBlockJobAbort(DomainPointer virDomainPtr, String disk, int flags) {
+        return delegate.virDomainBlockJobAbort(virDomainPtr, disk, flags);
+    }
+
+    @Override
+    public int virDomainCoreDump(DomainPointer virDomainPtr, String to, int flags) {
+        return delegate.virDomainCoreDump(virDomainPtr, to, flags);
+    }
+
+    @Override
+    public int virDomainCreate(DomainPointer virDomainPtr) {
+        return delegate.virDomainCreate(virDomainPtr);
+    }
+
+    @Override
+    public int virDomainCreateWithFlags(DomainPointer virDomainPtr, int flags) {
+        return delegate.virDomainCreateWithFlags(virDomainPtr, flags);
+    }
+
+    @Override
+    public DomainPointer virDomainCreateLinux(ConnectionPointer virConnectPtr, String xmlDesc, int flags) {
+        return delegate.virDomainCreateLinux(virConnectPtr, xmlDesc, flags);
+    }
+
+    @Override
+    public DomainPointer virDomainCreateXML(ConnectionPointer virConnectPtr, String xmlDesc, int flags) {
+        return delegate.virDomainCreateXML(virConnectPtr, xmlDesc, flags);
+    }
+
+    @Override
+    public DomainPointer virDomainDefineXML(ConnectionPointer virConnectPtr, String xmlDesc) {
+        return delegate.virDomainDefineXML(virConnectPtr, xmlDesc);
+    }
+
+    @Override
+    public int virDomainDestroy(DomainPointer virDomainPtr) {
+        return delegate.virDomainDestroy(virDomainPtr);
+    }
+
+    @Override
+    public int virDomainDetachDevice(DomainPointer virDomainPtr, String deviceXML) {
+        return delegate.virDomainDetachDevice(virDomainPtr, deviceXML);
+    }
+
+    @Override
+    public int virDomainDetachDeviceFlags(DomainPointer virDomainPtr, String deviceXML, int flags) {
+        return delegate.virDomainDetachDeviceFlags(virDomainPtr, deviceXML, flags);
+    }
+
+    @Override
+    public int virDomainFree(DomainPointer virDomainPtr) {
+        return Direct.virDomainFree(virDomainPtr);
+    }
+
+    @Override
+    public int virDomainGetAutostart(DomainPointer virDomainPtr, IntByReference value) {
+        return Direct.virDomainGetAutostart(virDomainPtr, value);
+    }
+
+    @Override
+    public int virDomainGetBlockInfo(DomainPointer virDomainPtr, String path, virDomainBlockInfo info, int flags) {
+        return Direct.virDomainGetBlockInfo(virDomainPtr, path, info, flags);
+    }
+
+    @Override
+    public int virDomainGetID(DomainPointer virDomainPtr) {
+        return Direct.virDomainGetID(virDomainPtr);
+    }
+
+    @Override
+    public int virDomainGetInfo(DomainPointer virDomainPtr, virDomainInfo vInfo) {
+        return Direct.virDomainGetInfo(virDomainPtr, vInfo);
+    }
+
+    @Override
+    public int virDomainGetInfo(DomainPointer virDomainPtr, Pointer vInfo) {
+        return Direct.virDomainGetInfo(virDomainPtr, vInfo);
+    }
+
+    @Override
+    public int virDomainGetJobInfo(DomainPointer virDomainPtr, virDomainJobInfo vInfo) {
+        return Direct.virDomainGetJobInfo(virDomainPtr, vInfo);
+    }
+
+    @Override
+    public NativeLong virDomainGetMaxMemory(DomainPointer virDomainPtr) {
+        return Direct.virDomainGetMaxMemory(virDomainPtr);
+    }
+
+    @Override
+    public int virDomainGetMaxVcpus(DomainPointer virDomainPtr) {
+        return Direct.virDomainGetMaxVcpus(virDomainPtr);
+    }
+
+    @Override
+    public int virDomainGetMemoryParameters(DomainPointer virDomainPtr, Pointer params, IntByReference nparams, int flags) {
+        return delegate.virDomainGetMemoryParameters(virDomainPtr, params, nparams, flags);
+    }
+
+    @Override
+    public String virDomainGetName(DomainPointer virDomainPtr) {
+        return Direct.virDomainGetName(virDomainPtr);
+    }
+
+    @Override
+    public CString virDomainGetOSType(DomainPointer virDomainPtr) {
+        return Direct.virDomainGetOSType(virDomainPtr);
+    }
+
+    @Override
+    public int virDomainGetSchedulerParameters(DomainPointer virDomainPtr, virSchedParameter[] params, IntByReference nparams) {
+        return delegate.virDomainGetSchedulerParameters(virDomainPtr, params, nparams);
+    }
+
+    @Override
+    public CString virDomainGetSchedulerType(DomainPointer virDomainPtr, IntByReference nparams) {
+        return delegate.virDomainGetSchedulerType(virDomainPtr, nparams);
+    }
+
+    @Override
+    public int virDomainGetSecurityLabel(DomainPointer virDomainPtr, SecurityLabel seclabel) {
+        return delegate.virDomainGetSecurityLabel(virDomainPtr, seclabel);
+    }
+
+    @Override
+    public int virDomainGetUUID(DomainPointer virDomainPtr, byte[] uuidString) {
+        return Direct.virDomainGetUUID(virDomainPtr, uuidString);
+    }
+
+    @Override
+    public int virDomainGetUUIDString(DomainPointer virDomainPtr, byte[] uuidString) {
+        return Direct.virDomainGetUUIDString(virDomainPtr, uuidString);
+    }
+
+    @Override
+    public int virDomainGetVcpus(DomainPointer virDomainPtr, virVcpuInfo[] info, int maxInfo, byte[] cpumaps, int maplen) {
+        return delegate.virDomainGetVcpus(virDomainPtr, info, maxInfo, cpumaps, maplen);
+    }
+
+    @Override
+    public CString virDomainGetXMLDesc(DomainPointer virDomainPtr, int flags) {
+        return Direct.virDomainGetXMLDesc(virDomainPtr, flags);
+    }
+
+    @Override
+    public int virDomainHasCurrentSnapshot(DomainPointer virDomainPtr, int flags) {
+        return delegate.virDomainHasCurrentSnapshot(virDomainPtr, flags);
+    }
+
+    @Override
+    public int virDomainHasManagedSaveImage(DomainPointer virDomainPtr, int flags) {
+        return delegate.virDomainHasManagedSaveImage(virDomainPtr, flags);
+    }
+
+    @Override
+    public int virDomainInterfaceStats(DomainPointer virDomainPtr, String path, virDomainInterfaceStats stats, SizeT size) {
+        return Direct.virDomainInterfaceStats(virDomainPtr, path, stats, size);
+    }
+
+    @Override
+    public int virDomainInterfaceStats(DomainPointer virDomainPtr, String path, Pointer stats, SizeT size) {
+        return Direct.virDomainInterfaceStats(virDomainPtr, path, stats, size);
+    }
+
+    @Override
+    public int virDomainIsActive(DomainPointer virDomainPtr) {
+        return Direct.virDomainIsActive(virDomainPtr);
+    }
+
+    @Override
+    public int virDomainIsPersistent(DomainPointer virDomainPtr) {
+        return Direct.virDomainIsPersistent(virDomainPtr);
+    }
+
+    @Override
+    public int virDomainIsUpdated(DomainPointer virDomainPtr) {
+        return Direct.virDomainIsUpdated(virDomainPtr);
+    }
+
+    @Override
+    public DomainPointer virDomainLookupByID(ConnectionPointer virConnectPtr, int id) {
+        return Direct.virDomainLookupByID(virConnectPtr, id);
+    }
+
+    @Override
+    public DomainPointer virDomainLookupByName(ConnectionPointer virConnectPtr, String name) {
+        return Direct.virDomainLookupByName(virConnectPtr, name);
+    }
+
+    @Override
+    public DomainPointer virDomainLookupByUUID(ConnectionPointer virConnectPtr, byte[] uuidBytes) {
+        return Direct.virDomainLookupByUUID(virConnectPtr, uuidBytes);
+    }
+
+    @Override
+    public DomainPointer virDomainLookupByUUIDString(ConnectionPointer virConnectPtr, String uuidstr) {
+        return Direct.virDomainLookupByUUIDString(virConnectPtr, uuidstr);
+    }
+
+    @Override
+    public int virDomainListGetStats(Pointer[] doms, int stats, PointerByReference retStats, int flags) {
+        return delegate.virDomainListGetStats(doms, stats, retStats, flags);
+    }
+
+    @Override
+    public int virDomainManagedSave(DomainPointer virDomainPtr, int flags) {
+        return delegate.virDomainManagedSave(virDomainPtr, flags);
+    }
+
+    @Override
+    public void virDomainStatsRecordListFree(Pointer stats) {
+        delegate.virDomainStatsRecordListFree(stats);
+    }
+
+    @Override
+    public int virDomainManagedSaveRemove(DomainPointer virDomainPtr, int flags) {
+        return delegate.virDomainManagedSaveRemove(virDomainPtr, flags);
+    }
+
+    @Override
+    public int virDomainMemoryPeek(DomainPointer virDomainPtr, long start, SizeT size, ByteBuffer buffer, int flags) {
+        return delegate.virDomainMemoryPeek(virDomainPtr, start, size, buffer, flags);
+    }
+
+    @Override
+    public DomainPointer virDomainMigrate(DomainPointer virDomainPtr, ConnectionPointer virConnectPtr, NativeLong flags, String dname, String uri, NativeLong bandwidth) {
+        return delegate.virDomainMigrate(virDomainPtr, virConnectPtr, flags, dname, uri, bandwidth);
+    }
+
+    @Override
+    public DomainPointer virDomainMigrate2(DomainPointer virDomainPtr, ConnectionPointer virConnectPtr, String dxml, NativeLong flags, String dname, String uri, NativeLong bandwidth) {
+        return delegate.virDomainMigrate2(virDomainPtr, virConnectPtr, dxml, flags, dname, uri, bandwidth);
+    }
+
+    @Override
+    public int virDomainMigrateSetMaxDowntime(DomainPointer virDomainPtr, long downtime, int flags) {
+        return delegate.virDomainMigrateSetMaxDowntime(virDomainPtr, downtime, flags);
+    }
+
+    @Override
+    public int virDomainMigrateToURI(DomainPointer virDomainPtr, String duri, NativeLong flags, String dname, NativeLong bandwidth) {
+        return delegate.virDomainMigrateToURI(virDomainPtr, duri, flags, dname, bandwidth);
+    }
+
+    @Override
+    public int virDomainMigrateToURI2(DomainPointer virDomainPtr, String dconnuri, String miguri, String dxml, NativeLong flags, String dname, NativeLong bandwidth) {
+        return delegate.virDomainMigrateToURI2(virDomainPtr, dconnuri, miguri, dxml, flags, dname, bandwidth);
+    }
+
+    @Override
+    public int virDomainPinVcpu(DomainPointer virDomainPtr, int vcpu, byte[] cpumap, int maplen) {
+        return delegate.virDomainPinVcpu(virDomainPtr, vcpu, cpumap, maplen);
+    }
+
+    @Override
+    public int virDomainPMSuspendForDuration(DomainPointer virDomainPtr, int target, long duration, int flags) {
+        return delegate.virDomainPMSuspendForDuration(virDomainPtr, target, duration, flags);
+    }
+
+    @Override
+    public int virDomainPMWakeup(DomainPointer virDomainPtr, int flags) {
+        return delegate.virDomainPMWakeup(virDomainPtr, flags);
+    }
+
+    @Override
+    public int virDomainReboot(DomainPointer virDomainPtr, int flags) {
+        return delegate.virDomainReboot(virDomainPtr, flags);
+    }
+
+    @Override
+    public int virDomainRef(DomainPointer virDomainPtr) {
+        return Direct.virDomainRef(virDomainPtr);
+    }
+
+    @Override
+    public int virDomainReset(DomainPointer virDomainPtr, int flags) {
+        return delegate.virDomainReset(virDomainPtr, flags);
+    }
+
+    @Override
+    public int virDomainRestore(ConnectionPointer virConnectPtr, String from) {
+        return delegate.virDomainRestore(virConnectPtr, from);
+    }
+
+    @Override
+    public int virDomainRevertToSnapshot(DomainSnapshotPointer virDomainSnapshotPtr, int flags) {
+        return delegate.virDomainRevertToSnapshot(virDomainSnapshotPtr, flags);
+    }
+
+    @Override
+    public int virDomainResume(DomainPointer virDomainPtr) {
+        return delegate.virDomainResume(virDomainPtr);
+    }
+
+    @Override
+    public int virDomainSave(DomainPointer virDomainPtr, String to) {
+        return delegate.virDomainSave(virDomainPtr, to);
+    }
+
+    @Override
+    public int virDomainSendKey(DomainPointer virDomainPtr, int codeset, int holdtime, int[] keycodes, int nkeycodes, int flags) {
+        return delegate.virDomainSendKey(virDomainPtr, codeset, holdtime, keycodes, nkeycodes, flags);
+    }
+
+    @Override
+    public CString virDomainScreenshot(DomainPointer virDomainPtr, StreamPointer virStreamPtr, int screen, int flags) {
+        return delegate.virDomainScreenshot(virDomainPtr, virStreamPtr, screen, flags);
+    }
+
+    @Override
+    public int virDomainSetAutostart(DomainPointer virDomainPtr, int autoStart) {
+        return delegate.virDomainSetAutostart(virDomainPtr, autoStart);
+    }
+
+    @Override
+    public int virDomainSetBlkioParameters(DomainPointer virDomainPtr, Pointer params, int nparams, int flags) {
+        return delegate.virDomainSetBlkioParameters(virDomainPtr, params, nparams, flags);
+    }
+
+    @Override
+    public int virDomainSetMaxMemory(DomainPointer virDomainPtr, NativeLong maxMemory) {
+        return delegate.virDomainSetMaxMemory(virDomainPtr, maxMemory);
+    }
+
+    @Override
+    public int virDomainSetMemory(DomainPointer virDomainPtr, NativeLong maxMemory) {
+        return delegate.virDomainSetMemory(virDomainPtr, maxMemory);
+    }
+
+    @Override
+    public int virDomainSetMemoryParameters(DomainPointer virDomainPtr, Pointer params, int nparams, int flags) {
+        return delegate.virDomainSetMemoryParameters(virDomainPtr, params, nparams, flags);
+    }
+
+    @Override
+    public int virDomainSetSchedulerParameters(DomainPointer virDomainPtr, virSchedParameter[] params, int nparams) {
+        return delegate.virDomainSetSchedulerParameters(virDomainPtr, params, nparams);
+    }
+
+    @Override
+    public int virDomainSetVcpus(DomainPointer virDomainPtr, int nvcpus) {
+        return delegate.virDomainSetVcpus(virDomainPtr, nvcpus);
+    }
+
+    @Override
+    public int virDomainShutdown(DomainPointer virDomainPtr) {
+        return delegate.virDomainShutdown(virDomainPtr);
+    }
+
+    @Override
+    public int virDomainSuspend(DomainPointer virDomainPtr) {
+        return delegate.virDomainSuspend(virDomainPtr);
+    }
+
+    @Override
+    public int virDomainUpdateDeviceFlags(DomainPointer virDomainPtr, String xml, int flags) {
+        return delegate.virDomainUpdateDeviceFlags(virDomainPtr, xml, flags);
+    }
+
+    @Override
+    public int virDomainUndefine(DomainPointer virDomainPtr) {
+        return delegate.virDomainUndefine(virDomainPtr);
+    }
+
+    @Override
+    public int virDomainUndefineFlags(DomainPointer virDomainPtr, int flags) {
+        return delegate.virDomainUndefineFlags(virDomainPtr, flags);
+    }
+
+    @Override
+    public int virNetworkCreate(NetworkPointer virConnectPtr) {
+        return delegate.virNetworkCreate(virConnectPtr);
+    }
+
+    @Override
+    public NetworkPointer virNetworkCreateXML(ConnectionPointer virConnectPtr, String xmlDesc) {
+        return delegate.virNetworkCreateXML(virConnectPtr, xmlDesc);
+    }
+
+    @Override
+    public NetworkPointer virNetworkDefineXML(ConnectionPointer virConnectPtr, String xmlDesc) {
+        return delegate.virNetworkDefineXML(virConnectPtr, xmlDesc);
+    }
+
+    @Override
+    public int virNetworkDestroy(NetworkPointer virConnectPtr) {
+        return delegate.virNetworkDestroy(virConnectPtr);
+    }
+
+    @Override
+    public int virNetworkFree(NetworkPointer virConnectPtr) {
+        return delegate.virNetworkFree(virConnectPtr);
+    }
+
+    @Override
+    public int virNetworkGetAutostart(NetworkPointer virNetworkPtr, IntByReference value) {
+        return delegate.virNetworkGetAutostart(virNetworkPtr, value);
+    }
+
+    @Override
+    public CString virNetworkGetBridgeName(NetworkPointer virNetworkPtr) {
+        return delegate.virNetworkGetBridgeName(virNetworkPtr);
+    }
+
+    @Override
+    public String virNetworkGetName(NetworkPointer virNetworkPtr) {
+        return delegate.virNetworkGetName(virNetworkPtr);
+    }
+
+    @Override
+    public int virNetworkGetUUID(NetworkPointer virNetworkPtr, byte[] uuidString) {
+        return delegate.virNetworkGetUUID(virNetworkPtr, uuidString);
+    }
+
+    @Override
+    public int virNetworkGetUUIDString(NetworkPointer virNetworkPtr, byte[] uuidString) {
+        return delegate.virNetworkGetUUIDString(virNetworkPtr, uuidString);
+    }
+
+    @Override
+    public CString virNetworkGetXMLDesc(NetworkPointer virNetworkPtr, int flags) {
+        return delegate.virNetworkGetXMLDesc(virNetworkPtr, flags);
+    }
+
+    @Override
+    public int virNetworkIsActive(NetworkPointer virNetworkPtr) {
+        return delegate.virNetworkIsActive(virNetworkPtr);
+    }
+
+    @Override
+    public int virNetworkIsPersistent(NetworkPointer virNetworkPtr) {
+        return delegate.virNetworkIsPersistent(virNetworkPtr);
+    }
+
+    @Override
+    public NetworkPointer virNetworkLookupByName(ConnectionPointer virConnectPtr, String name) {
+        return delegate.virNetworkLookupByName(virConnectPtr, name);
+    }
+
+    @Override
+    public NetworkPointer virNetworkLookupByUUID(ConnectionPointer virConnectPtr, byte[] uuidBytes) {
+        return delegate.virNetworkLookupByUUID(virConnectPtr, uuidBytes);
+    }
+
+    @Override
+    public NetworkPointer virNetworkLookupByUUIDString(ConnectionPointer virConnectPtr, String uuidstr) {
+        return delegate.virNetworkLookupByUUIDString(virConnectPtr, uuidstr);
+    }
+
+    @Override
+    public int virNetworkSetAutostart(NetworkPointer virConnectPtr, int autoStart) {
+        return delegate.virNetworkSetAutostart(virConnectPtr, autoStart);
+    }
+
+    @Override
+    public int virNetworkUndefine(NetworkPointer virConnectPtr) {
+        return delegate.virNetworkUndefine(virConnectPtr);
+    }
+
+    @Override
+    public int virNodeGetInfo(ConnectionPointer virConnectPtr, virNodeInfo virNodeInfo) {
+        return delegate.virNodeGetInfo(virConnectPtr, virNodeInfo);
+    }
+
+    @Override
+    public int virNodeGetCellsFreeMemory(ConnectionPointer virConnectPtr, LongByReference freeMems, int startCell, int maxCells) {
+        return delegate.virNodeGetCellsFreeMemory(virConnectPtr, freeMems, startCell, maxCells);
+    }
+
+    @Override
+    public long virNodeGetFreeMemory(ConnectionPointer virConnectPtr) {
+        return delegate.virNodeGetFreeMemory(virConnectPtr);
+    }
+
+    @Override
+    public int virNodeGetSecurityModel(ConnectionPointer virConnectPtr, SecurityModel secmodel) {
+        return delegate.virNodeGetSecurityModel(virConnectPtr, secmodel);
+    }
+
+    @Override
+    public int virNodeNumOfDevices(ConnectionPointer virConnectPtr, String capabilityName, int flags) {
+        return delegate.virNodeNumOfDevices(virConnectPtr, capabilityName, flags);
+    }
+
+    @Override
+    public int virNodeListDevices(ConnectionPointer virConnectPtr, String capabilityName, CString[] names, int maxnames, int flags) {
+        return delegate.virNodeListDevices(virConnectPtr, capabilityName, names, maxnames, flags);
+    }
+
+    @Override
+    public int virNodeListDevices(ConnectionPointer virConnectPtr, String capabilityName, Pointer names, int maxnames, int flags) {
+        return delegate.virNodeListDevices(virConnectPtr, capabilityName, names, maxnames, flags);
+    }
+
+    @Override
+    public int virConnectListAllNodeDevices(ConnectionPointer virConnectPtr, PointerByReference devices, int flags) {
+        return delegate.virConnectListAllNodeDevices(virConnectPtr, devices, flags);
+    }
+
+    @Override
+    public DevicePointer virNodeDeviceLookupByName(ConnectionPointer virConnectPtr, String name) {
+        return delegate.virNodeDeviceLookupByName(virConnectPtr, name);
+    }
+
+    @Override
+    public String virNodeDeviceGetName(DevicePointer virDevicePointer) {
+        return delegate.virNodeDeviceGetName(virDevicePointer);
+    }
+
+    @Override
+    public String virNodeDeviceGetParent(DevicePointer virDevicePointer) {
+        return delegate.virNodeDeviceGetParent(virDevicePointer);
+    }
+
+    @Override
+    public int virNodeDeviceNumOfCaps(DevicePointer virDevicePointer) {
+        return delegate.virNodeDeviceNumOfCaps(virDevicePointer);
+    }
+
+    @Override
+    public int virNodeDeviceListCaps(DevicePointer virDevicePointer, CString[] names, int maxNames) {
+        return delegate.virNodeDeviceListCaps(virDevicePointer, names, maxNames);
+    }
+
+    @Override
+    public int virNodeDeviceListCaps(DevicePointer virDevicePointer, Pointer names, int maxNames) {
+        return delegate.virNodeDeviceListCaps(virDevicePointer, names, maxNames);
+    }
+
+    @Override
+    public CString virNodeDeviceGetXMLDesc(DevicePointer virDevicePointer, int flags) {
+        return delegate.virNodeDeviceGetXMLDesc(virDevicePointer, flags);
+    }
+
+    @Override
+    public int virNodeDeviceFree(DevicePointer virDevicePointer) {
+        return delegate.virNodeDeviceFree(virDevicePointer);
+    }
+
+    @Override
+    public int virNodeDeviceDettach(DevicePointer virDevicePointer) {
+        return delegate.virNodeDeviceDettach(virDevicePointer);
+    }
+
+    @Override
+    public int virNodeDeviceReAttach(DevicePointer virDevicePointer) {
+        return delegate.virNodeDeviceReAttach(virDevicePointer);
+    }
+
+    @Override
+    public int virNodeDeviceReset(DevicePointer virDevicePointer) {
+        return delegate.virNodeDeviceReset(virDevicePointer);
+    }
+
+    @Override
+    public DevicePointer virNodeDeviceCreateXML(ConnectionPointer virConnectPtr, String xml, int flags) {
+        return delegate.virNodeDeviceCreateXML(virConnectPtr, xml, flags);
+    }
+
+    @Override
+    public int virNodeDeviceDestroy(DevicePointer virDevicePointer) {
+        return delegate.virNodeDeviceDestroy(virDevicePointer);
+    }
+
+    @Override
+    public int virStoragePoolBuild(StoragePoolPointer storagePoolPtr, int flags) {
+        return delegate.virStoragePoolBuild(storagePoolPtr, flags);
+    }
+
+    @Override
+    public int virStoragePoolCreate(StoragePoolPointer storagePoolPtr, int flags) {
+        return delegate.virStoragePoolCreate(storagePoolPtr, flags);
+    }
+
+    @Override
+    public StoragePoolPointer virStoragePoolCreateXML(ConnectionPointer virConnectPtr, String xml, int flags) {
+        return delegate.virStoragePoolCreateXML(virConnectPtr, xml, flags);
+    }
+
+    @Override
+    public StoragePoolPointer virStoragePoolDefineXML(ConnectionPointer virConnectPtr, String xml, int flags) {
+        return delegate.virStoragePoolDefineXML(virConnectPtr, xml, flags);
+    }
+
+    @Override
+    public int virStoragePoolDelete(StoragePoolPointer storagePoolPtr, int flags) {
+        return delegate.virStoragePoolDelete(storagePoolPtr, flags);
+    }
+
+    @Override
+    public int virStoragePoolDestroy(StoragePoolPointer storagePoolPtr) {
+        return delegate.virStoragePoolDestroy(storagePoolPtr);
+    }
+
+    @Override
+    public int virStoragePoolFree(StoragePoolPointer storagePoolPtr) {
+        return delegate.virStoragePoolFree(storagePoolPtr);
+    }
+
+    @Override
+    public int virStoragePoolGetAutostart(StoragePoolPointer storagePoolPtr, IntByReference value) {
+        return delegate.virStoragePoolGetAutostart(storagePoolPtr, value);
+    }
+
+    @Override
+    public int virStoragePoolGetInfo(StoragePoolPointer storagePoolPtr, virStoragePoolInfo info) {
+        return delegate.virStoragePoolGetInfo(storagePoolPtr, info);
+    }
+
+    @Override
+    public String virStoragePoolGetName(StoragePoolPointer storagePoolPtr) {
+        return delegate.virStoragePoolGetName(storagePoolPtr);
+    }
+
+    @Override
+    public int virStoragePoolGetUUID(StoragePoolPointer storagePoolPtr, byte[] uuidString) {
+        return delegate.virStoragePoolGetUUID(storagePoolPtr, uuidString);
+    }
+
+    @Override
+    public int virStoragePoolGetUUIDString(StoragePoolPointer storagePoolPtr, byte[] uuidString) {
+        return delegate.virStoragePoolGetUUIDString(storagePoolPtr, uuidString);
+    }
+
+    @Override
+    public CString virStoragePoolGetXMLDesc(StoragePoolPointer storagePoolPtr, int flags) {
+        return delegate.virStoragePoolGetXMLDesc(storagePoolPtr, flags);
+    }
+
+    @Override
+    public int virStoragePoolListAllVolumes(StoragePoolPointer storagePoolPtr, PointerByReference vols, int flags) {
+        return delegate.virStoragePoolListAllVolumes(storagePoolPtr, vols, flags);
+    }
+
+    @Override
+    public int virStoragePoolListVolumes(StoragePoolPointer storagePoolPtr, CString[] names, int maxnames) {
+        return delegate.virStoragePoolListVolumes(storagePoolPtr, names, maxnames);
+    }
+
+    @Override
+    public int virStoragePoolListVolumes(StoragePoolPointer storagePoolPtr, Pointer names, int maxnames) {
+        return delegate.virStoragePoolListVolumes(storagePoolPtr, names, maxnames);
+    }
+
+    @Override
+    public int virStoragePoolIsActive(StoragePoolPointer storagePoolPtr) {
+        return delegate.virStoragePoolIsActive(storagePoolPtr);
+    }
+
+    @Override
+    public int virStoragePoolIsPersistent(StoragePoolPointer storagePoolPtr) {
+        return delegate.virStoragePoolIsPersistent(storagePoolPtr);
+    }
+
+    @Override
+    public StoragePoolPointer virStoragePoolLookupByName(ConnectionPointer virConnectPtr, String name) {
+        return delegate.virStoragePoolLookupByName(virConnectPtr, name);
+    }
+
+    @Override
+    public StoragePoolPointer virStoragePoolLookupByUUID(ConnectionPointer virConnectPtr, byte[] uuidBytes) {
+        return delegate.virStoragePoolLookupByUUID(virConnectPtr, uuidBytes);
+    }
+
+    @Override
+    public StoragePoolPointer virStoragePoolLookupByUUIDString(ConnectionPointer virConnectPtr, String uuidstr) {
+        return delegate.virStoragePoolLookupByUUIDString(virConnectPtr, uuidstr);
+    }
+
+    @Override
+    public StoragePoolPointer virStoragePoolLookupByVolume(StorageVolPointer storageVolPtr) {
+        return delegate.virStoragePoolLookupByVolume(storageVolPtr);
+    }
+
+    @Override
+    public int virStoragePoolNumOfVolumes(StoragePoolPointer storagePoolPtr) {
+        return delegate.virStoragePoolNumOfVolumes(storagePoolPtr);
+    }
+
+    @Override
+    public int virStoragePoolRefresh(StoragePoolPointer storagePoolPtr, int flags) {
+        return delegate.virStoragePoolRefresh(storagePoolPtr, flags);
+    }
+
+    @Override
+    public int virStoragePoolSetAutostart(StoragePoolPointer storagePoolPtr, int autostart) {
+        return delegate.virStoragePoolSetAutostart(storagePoolPtr, autostart);
+    }
+
+    @Override
+    public int virStoragePoolUndefine(StoragePoolPointer storagePoolPtr) {
+        return delegate.virStoragePoolUndefine(storagePoolPtr);
+    }
+
+    @Override
+    public StorageVolPointer virStorageVolCreateXML(StoragePoolPointer storagePoolPtr, String xml, int flags) {
+        return delegate.virStorageVolCreateXML(storagePoolPtr, xml, flags);
+    }
+
+    @Override
+    public StorageVolPointer virStorageVolCreateXMLFrom(StoragePoolPointer storagePoolPtr, String xml, StorageVolPointer cloneVolume, int flags) {
+        return delegate.virStorageVolCreateXMLFrom(storagePoolPtr, xml, cloneVolume, flags);
+    }
+
+    @Override
+    public int virStorageVolDelete(StorageVolPointer storageVolPtr, int flags) {
+        return delegate.virStorageVolDelete(storageVolPtr, flags);
+    }
+
+    @Override
+    public int virStorageVolFree(StorageVolPointer storageVolPtr) {
+        return delegate.virStorageVolFree(storageVolPtr);
+    }
+
+    @Override
+    public int virStorageVolGetInfo(StorageVolPointer storageVolPtr, virStorageVolInfo info) {
+        return delegate.virStorageVolGetInfo(storageVolPtr, info);
+    }
+
+    @Override
+    public String virStorageVolGetKey(StorageVolPointer storageVolPtr) {
+        return delegate.virStorageVolGetKey(storageVolPtr);
+    }
+
+    @Override
+    public String virStorageVolGetName(StorageVolPointer storageVolPtr) {
+        return delegate.virStorageVolGetName(storageVolPtr);
+    }
+
+    @Override
+    public CString virStorageVolGetPath(StorageVolPointer storageVolPtr) {
+        return delegate.virStorageVolGetPath(storageVolPtr);
+    }
+
+    @Override
+    public CString virStorageVolGetXMLDesc(StorageVolPointer storageVolPtr, int flags) {
+        return delegate.virStorageVolGetXMLDesc(storageVolPtr, flags);
+    }
+
+    @Override
+    public StorageVolPointer virStorageVolLookupByKey(ConnectionPointer virConnectPtr, String name) {
+        return delegate.virStorageVolLookupByKey(virConnectPtr, name);
+    }
+
+    @Override
+    public StorageVolPointer virStorageVolLookupByName(StoragePoolPointer storagePoolPtr, String name) {
+        return delegate.virStorageVolLookupByName(storagePoolPtr, name);
+    }
+
+    @Override
+    public StorageVolPointer virStorageVolLookupByPath(ConnectionPointer virConnectPtr, String path) {
+        return delegate.virStorageVolLookupByPath(virConnectPtr, path);
+    }
+
+    @Override
+    public int virStorageVolWipe(StorageVolPointer storageVolPtr, int flags) {
+        return delegate.virStorageVolWipe(storageVolPtr, flags);
+    }
+
+    @Override
+    public int virStorageVolResize(StorageVolPointer storageVolPtr, long capacity, int flags) {
+        return delegate.virStorageVolResize(storageVolPtr, capacity, flags);
+    }
+
+    @Override
+    public int virInterfaceCreate(InterfacePointer virDevicePointer, int flags) {
+        return delegate.virInterfaceCreate(virDevicePointer, flags);
+    }
+
+    @Override
+    public InterfacePointer virInterfaceDefineXML(ConnectionPointer virConnectPtr, String xml, int flags) {
+        return delegate.virInterfaceDefineXML(virConnectPtr, xml, flags);
+    }
+
+    @Override
+    public int virInterfaceDestroy(InterfacePointer virDevicePointer, int flags) {
+        return delegate.virInterfaceDestroy(virDevicePointer, flags);
+    }
+
+    @Override
+    public int virInterfaceFree(InterfacePointer virDevicePointer) {
+        return delegate.virInterfaceFree(virDevicePointer);
+    }
+
+    @Override
+    public String virInterfaceGetName(InterfacePointer virInterfacePtr) {
+        return delegate.virInterfaceGetName(virInterfacePtr);
+    }
+
+    @Override
+    public String virInterfaceGetMACString(InterfacePointer virInterfacePtr) {
+        return delegate.virInterfaceGetMACString(virInterfacePtr);
+    }
+
+    @Override
+    public CString virInterfaceGetXMLDesc(InterfacePointer virInterfacePtr, int flags) {
+        return delegate.virInterfaceGetXMLDesc(virInterfacePtr, flags);
+    }
+
+    @Override
+    public int virInterfaceIsActive(InterfacePointer virDevicePointer) {
+        return delegate.virInterfaceIsActive(virDevicePointer);
+    }
+
+    @Override
+    public InterfacePointer virInterfaceLookupByMACString(ConnectionPointer virConnectPtr, String mac) {
+        return delegate.virInterfaceLookupByMACString(virConnectPtr, mac);
+    }
+
+    @Override
+    public InterfacePointer virInterfaceLookupByName(ConnectionPointer virConnectPtr, String name) {
+        return delegate.virInterfaceLookupByName(virConnectPtr, name);
+    }
+
+    @Override
+    public int virInterfaceUndefine(InterfacePointer virDevicePointer) {
+        return delegate.virInterfaceUndefine(virDevicePointer);
+    }
+
+    @Override
+    public int virSecretFree(SecretPointer virSecretPtr) {
+        return delegate.virSecretFree(virSecretPtr);
+    }
+
+    @Override
+    public SecretPointer virSecretDefineXML(ConnectionPointer virConnectPtr, String xml, int flags) {
+        return delegate.virSecretDefineXML(virConnectPtr, xml, flags);
+    }
+
+    @Override
+    public int virSecretGetUUID(SecretPointer virSecretPtr, byte[] uuidString) {
+        return delegate.virSecretGetUUID(virSecretPtr, uuidString);
+    }
+
+    @Override
+    public int virSecretGetUUIDString(SecretPointer virSecretPtr, byte[] uuidString) {
+        return delegate.virSecretGetUUIDString(virSecretPtr, uuidString);
+    }
+
+    @Override
+    public String virSecretGetUsageID(SecretPointer virSecretPtr) {
+        return delegate.virSecretGetUsageID(virSecretPtr);
+    }
+
+    @Override
+    public int virSecretGetUsageType(SecretPointer virSecretPtr) {
+        return delegate.virSecretGetUsageType(virSecretPtr);
+    }
+
+    @Override
+    public Pointer virSecretGetValue(SecretPointer virSecretPtr, SizeTByReference value_size, int flags) {
+        return delegate.virSecretGetValue(virSecretPtr, value_size, flags);
+    }
+
+    @Override
+    public CString virSecretGetXMLDesc(SecretPointer virSecretPtr, int flags) {
+        return delegate.virSecretGetXMLDesc(virSecretPtr, flags);
+    }
+
+    @Override
+    public SecretPointer virSecretLookupByUsage(ConnectionPointer virConnectPtr, int usageType, String usageID) {
+        return delegate.virSecretLookupByUsage(virConnectPtr, usageType, usageID);
+    }
+
+    @Override
+    public SecretPointer virSecretLookupByUUID(ConnectionPointer virConnectPtr, byte[] uuidBytes) {
+        return delegate.virSecretLookupByUUID(virConnectPtr, uuidBytes);
+    }
+
+    @Override
+    public SecretPointer virSecretLookupByUUIDString(ConnectionPointer virConnectPtr, String uuidstr) {
+        return delegate.virSecretLookupByUUIDString(virConnectPtr, uuidstr);
+    }
+
+    @Override
+    public int virSecretSetValue(SecretPointer virSecretPtr, String value, SizeT value_size, int flags) {
+        return delegate.virSecretSetValue(virSecretPtr, value, value_size, flags);
+    }
+
+    @Override
+    public int virSecretSetValue(SecretPointer virSecretPtr, byte[] value, SizeT value_size, int flags) {
+        return delegate.virSecretSetValue(virSecretPtr, value, value_size, flags);
+    }
+
+    @Override
+    public int virSecretUndefine(SecretPointer virSecretPtr) {
+        return delegate.virSecretUndefine(virSecretPtr);
+    }
+
+    @Override
+    public int virStreamAbort(StreamPointer virStreamPtr) {
+        return delegate.virStreamAbort(virStreamPtr);
+    }
+
+    @Override
+    public int virStreamEventAddCallback(StreamPointer virStreamPtr, int events, Libvirt.VirStreamEventCallback cb, Pointer opaque, Libvirt.VirFreeCallback ff) {
+        return delegate.virStreamEventAddCallback(virStreamPtr, events, cb, opaque, ff);
+    }
+
+    @Override
+    public int virStreamEventUpdateCallback(StreamPointer virStreamPtr, int events) {
+        return delegate.virStreamEventUpdateCallback(virStreamPtr, events);
+    }
+
+    @Override
+    public int virStreamEventRemoveCallback(StreamPointer virStreamPtr) {
+        return delegate.virStreamEventRemoveCallback(virStreamPtr);
+    }
+
+    @Override
+    public int virStreamFinish(StreamPointer virStreamPtr) {
+        return delegate.virStreamFinish(virStreamPtr);
+    }
+
+    @Override
+    public int virStreamFree(StreamPointer virStreamPtr) {
+        return delegate.virStreamFree(virStreamPtr);
+    }
+
+    @Override
+    public StreamPointer virStreamNew(ConnectionPointer virConnectPtr, int flags) {
+        return delegate.virStreamNew(virConnectPtr, flags);
+    }
+
+    @Override
+    public int virStreamSend(StreamPointer virStreamPtr, ByteBuffer data, SizeT size) {
+        return delegate.virStreamSend(virStreamPtr, data, size);
+    }
+
+    @Override
+    public int virStreamSendAll(StreamPointer virStreamPtr, Libvirt.VirStreamSourceFunc handler, Pointer opaque) {
+        return delegate.virStreamSendAll(virStreamPtr, handler, opaque);
+    }
+
+    @Override
+    public int virStreamRecv(StreamPointer virStreamPtr, ByteBuffer data, SizeT length) {
+        return delegate.virStreamRecv(virStreamPtr, data, length);
+    }
+
+    @Override
+    public int virStreamRecvAll(StreamPointer virStreamPtr, Libvirt.VirStreamSinkFunc handler, Pointer opaque) {
+        return delegate.virStreamRecvAll(virStreamPtr, handler, opaque);
+    }
+
+    @Override
+    public DomainSnapshotPointer virDomainSnapshotCreateXML(DomainPointer virDomainPtr, String xmlDesc, int flags) {
+        return delegate.virDomainSnapshotCreateXML(virDomainPtr, xmlDesc, flags);
+    }
+
+    @Override
+    public DomainSnapshotPointer virDomainSnapshotCurrent(DomainPointer virDomainPtr, int flags) {
+        return delegate.virDomainSnapshotCurrent(virDomainPtr, flags);
+    }
+
+    @Override
+    public int virDomainSnapshotDelete(DomainSnapshotPointer virDomainSnapshotPtr, int flags) {
+        return delegate.virDomainSnapshotDelete(virDomainSnapshotPtr, flags);
+    }
+
+    @Override
+    public CString virDomainSnapshotGetXMLDesc(DomainSnapshotPointer virDomainSnapshotPtr, int flags) {
+        return delegate.virDomainSnapshotGetXMLDesc(virDomainSnapshotPtr, flags);
+    }
+
+    @Override
+    public int virDomainSnapshotFree(DomainSnapshotPointer virDomainSnapshotPtr) {
+        return delegate.virDomainSnapshotFree(virDomainSnapshotPtr);
+    }
+
+    @Override
+    public int virDomainSnapshotListNames(DomainPointer virDomainPtr, CString[] names, int nameslen, int flags) {
+        return delegate.virDomainSnapshotListNames(virDomainPtr, names, nameslen, flags);
+    }
+
+    @Override
+    public int virDomainSnapshotListNames(DomainPointer virDomainPtr, Pointer names, int nameslen, int flags) {
+        return delegate.virDomainSnapshotListNames(virDomainPtr, names, nameslen, flags);
+    }
+
+    @Override
+    public DomainSnapshotPointer virDomainSnapshotLookupByName(DomainPointer virDomainPtr, String name, int flags) {
+        return delegate.virDomainSnapshotLookupByName(virDomainPtr, name, flags);
+    }
+
+    @Override
+    public int virDomainSnapshotNum(DomainPointer virDomainPtr, int flags) {
+        return delegate.virDomainSnapshotNum(virDomainPtr, flags);
+    }
+
+    @Override
+    public CString virNWFilterGetXMLDesc(NetworkFilterPointer virNWFilterPtr, int flags) {
+        return delegate.virNWFilterGetXMLDesc(virNWFilterPtr, flags);
+    }
+
+    @Override
+    public NetworkFilterPointer virNWFilterDefineXML(ConnectionPointer virConnectPtr, String xml) {
+        return delegate.virNWFilterDefineXML(virConnectPtr, xml);
+    }
+
+    @Override
+    public int virNWFilterFree(NetworkFilterPointer virNWFilterPtr) {
+        return delegate.virNWFilterFree(virNWFilterPtr);
+    }
+
+    @Override
+    public NetworkFilterPointer virNWFilterLookupByName(ConnectionPointer virConnectPtr, String name) {
+        return delegate.virNWFilterLookupByName(virConnectPtr, name);
+    }
+
+    @Override
+    public NetworkFilterPointer virNWFilterLookupByUUID(ConnectionPointer virConnectPtr, byte[] uuidBytes) {
+        return delegate.virNWFilterLookupByUUID(virConnectPtr, uuidBytes);
+    }
+
+    @Override
+    public NetworkFilterPointer virNWFilterLookupByUUIDString(ConnectionPointer virConnectPtr, String uuidstr) {
+        return delegate.virNWFilterLookupByUUIDString(virConnectPtr, uuidstr);
+    }
+
+    @Override
+    public String virNWFilterGetName(NetworkFilterPointer virNWFilterPtr) {
+        return delegate.virNWFilterGetName(virNWFilterPtr);
+    }
+
+    @Override
+    public int virNWFilterGetUUID(NetworkFilterPointer virNWFilterPtr, byte[] uuidString) {
+        return delegate.virNWFilterGetUUID(virNWFilterPtr, uuidString);
+    }
+
+    @Override
+    public int virNWFilterGetUUIDString(NetworkFilterPointer virNWFilterPtr, byte[] uuidString) {
+        return delegate.virNWFilterGetUUIDString(virNWFilterPtr, uuidString);
+    }
+
+    @Override
+    public int virNWFilterUndefine(NetworkFilterPointer virNWFilterPtr) {
+        return delegate.virNWFilterUndefine(virNWFilterPtr);
+    }
+
+    @Override
+    public int virEventAddTimeout(int milliSeconds, VirEventTimeoutCallback cb, Pointer opaque, Pointer ff) {
+        return delegate.virEventAddTimeout(milliSeconds, cb, opaque, ff);
+    }
+
+    @Override
+    public int virEventRemoveTimeout(int timer) {
+        return delegate.virEventRemoveTimeout(timer);
+    }
+
+    @Override
+    public void virEventUpdateTimeout(int timer, int timeout) {
+        delegate.virEventUpdateTimeout(timer, timeout);
+    }
+}
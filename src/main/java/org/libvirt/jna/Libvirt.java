@@ -11,6 +11,7 @@ import com.sun.jna.Pointer;
 import com.sun.jna.Structure;
 import com.sun.jna.ptr.IntByReference;
 import com.sun.jna.ptr.LongByReference;
+import com.sun.jna.ptr.PointerByReference;
 
 import java.util.Arrays;
 import java.util.List;
@@ -26,7 +27,6 @@ import java.util.List;
  * virFreeError
  *
  * LIBVIRT_0_5.0
- * virEventRegisterImpl
  * virConnectDomainEventRegister
  * virConnectDomainEventDeregister
  *
@@ -108,6 +108,60 @@ public interface Libvirt extends Library {
                            int reason, Pointer opaque);
     }
 
+    interface VirConnectDomainEventRTCChangeCallback extends VirDomainEventCallback {
+        void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
+                           long utcoffset, Pointer opaque);
+    }
+
+    interface VirConnectDomainEventWatchdogCallback extends VirDomainEventCallback {
+        void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
+                           int action, Pointer opaque);
+    }
+
+    interface VirConnectDomainEventIOErrorReasonCallback extends VirDomainEventCallback {
+        void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
+                           String srcPath,
+                           String devAlias,
+                           int action,
+                           String reason,
+                           Pointer opaque);
+    }
+
+    interface VirConnectDomainEventGraphicsCallback extends VirDomainEventCallback {
+        void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
+                           int phase,
+                           virDomainEventGraphicsAddress.ByReference local,
+                           virDomainEventGraphicsAddress.ByReference remote,
+                           String authScheme,
+                           virDomainEventGraphicsSubject.ByReference subject,
+                           Pointer opaque);
+    }
+
+    // BLOCK_JOB and BLOCK_JOB_2 have the same callback interface.
+    interface VirConnectDomainEventBlockJobCallback extends VirDomainEventCallback {
+        void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
+                           String disk,
+                           int type,
+                           int status,
+                           Pointer opaque);
+    }
+
+    interface VirConnectDomainEventDiskChangeCallback extends VirDomainEventCallback {
+        void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
+                           String oldSrcPath,
+                           String newSrcPath,
+                           String devAlias,
+                           int reason,
+                           Pointer opaque);
+    }
+
+    interface VirConnectDomainEventTrayChangeCallback extends VirDomainEventCallback {
+        void eventCallback(ConnectionPointer virConnectPtr, DomainPointer virDomainPointer,
+                           String devAlias,
+                           int reason,
+                           Pointer opaque);
+    }
+
     /**
      * Error callback
      */
@@ -144,12 +198,55 @@ public interface Libvirt extends Library {
         void tick(int timerID, Pointer opaque);
     }
 
-    Libvirt INSTANCE = (Libvirt) Native.loadLibrary(Platform.isWindows() ? "virt-0" : "virt", Libvirt.class);
+    /**
+     * Event loop implementation callbacks, see virEventRegisterImpl
+     */
+    interface VirEventHandleCallback extends Callback {
+        void eventCallback(int watch, int fd, int events, Pointer opaque);
+    }
+
+    interface VirEventAddHandleFunc extends Callback {
+        int addHandle(int fd, int events, VirEventHandleCallback cb, Pointer opaque, VirFreeCallback ff);
+    }
+
+    interface VirEventUpdateHandleFunc extends Callback {
+        void updateHandle(int watch, int events);
+    }
+
+    interface VirEventRemoveHandleFunc extends Callback {
+        int removeHandle(int watch);
+    }
+
+    interface VirEventAddTimeoutFunc extends Callback {
+        int addTimeout(int timeout, VirEventTimeoutCallback cb, Pointer opaque, VirFreeCallback ff);
+    }
+
+    interface VirEventUpdateTimeoutFunc extends Callback {
+        void updateTimeout(int timer, int timeout);
+    }
+
+    interface VirEventRemoveTimeoutFunc extends Callback {
+        int removeTimeout(int timer);
+    }
+
+    /**
+     * The name of the native libvirt library.
+     */
+    String LIBRARY_NAME = Platform.isWindows() ? "virt-0" : "virt";
+
+    Libvirt INSTANCE = (Libvirt) Native.loadLibrary(LIBRARY_NAME, Libvirt.class);
 
     // Constants we need
     public static int VIR_UUID_BUFLEN = 16;
     public static int VIR_UUID_STRING_BUFLEN = (36 + 1);
     public static int VIR_DOMAIN_SCHED_FIELD_LENGTH = 80;
+    public static int VIR_TYPED_PARAM_FIELD_LENGTH = 80;
+
+    // virEventHandleType
+    int VIR_EVENT_HANDLE_READABLE = 1 << 0;
+    int VIR_EVENT_HANDLE_WRITABLE = 1 << 1;
+    int VIR_EVENT_HANDLE_ERROR    = 1 << 2;
+    int VIR_EVENT_HANDLE_HANGUP   = 1 << 3;
 
     // Connection Functions
     CString virConnectBaselineCPU(ConnectionPointer virConnectPtr, String[] xmlCPUs, int ncpus, int flags);
@@ -218,16 +315,31 @@ public interface Libvirt extends Library {
     String virConnectGetType(ConnectionPointer virConnectPtr);
     CString virConnectGetURI(ConnectionPointer virConnectPtr);
     int virConnectGetVersion(ConnectionPointer virConnectPtr, LongByReference hvVer);
+    int virConnectGetAllDomainStats(ConnectionPointer virConnectPtr, int stats, PointerByReference retStats, int flags);
     int virConnectListDefinedDomains(ConnectionPointer virConnectPtr, CString[] name, int maxnames);
+    int virConnectListDefinedDomains(ConnectionPointer virConnectPtr, Pointer name, int maxnames);
     int virConnectListDefinedNetworks(ConnectionPointer virConnectPtr, CString[] name, int maxnames);
+    int virConnectListDefinedNetworks(ConnectionPointer virConnectPtr, Pointer name, int maxnames);
     int virConnectListDefinedStoragePools(ConnectionPointer virConnectPtr, CString[] names, int maxnames);
+    int virConnectListDefinedStoragePools(ConnectionPointer virConnectPtr, Pointer names, int maxnames);
     int virConnectListDefinedInterfaces(ConnectionPointer virConnectPtr, CString[] name, int maxNames);
+    int virConnectListDefinedInterfaces(ConnectionPointer virConnectPtr, Pointer name, int maxNames);
     int virConnectListDomains(ConnectionPointer virConnectPtr, int[] ids, int maxnames);
+    int virConnectListAllDomains(ConnectionPointer virConnectPtr, PointerByReference domains, int flags);
+    int virConnectListAllInterfaces(ConnectionPointer virConnectPtr, PointerByReference ifaces, int flags);
+    int virConnectListAllNetworks(ConnectionPointer virConnectPtr, PointerByReference nets, int flags);
+    int virConnectListAllNWFilters(ConnectionPointer virConnectPtr, PointerByReference filters, int flags);
+    int virConnectListAllSecrets(ConnectionPointer virConnectPtr, PointerByReference secrets, int flags);
     int virConnectListInterfaces(ConnectionPointer virConnectPtr, CString[] name, int maxNames);
+    int virConnectListInterfaces(ConnectionPointer virConnectPtr, Pointer name, int maxNames);
     int virConnectListNetworks(ConnectionPointer virConnectPtr, CString[] name, int maxnames);
+    int virConnectListNetworks(ConnectionPointer virConnectPtr, Pointer name, int maxnames);
     int virConnectListNWFilters(ConnectionPointer virConnectPtr, CString[] name, int maxnames);
+    int virConnectListNWFilters(ConnectionPointer virConnectPtr, Pointer name, int maxnames);
     int virConnectListSecrets(ConnectionPointer virConnectPtr, CString[] uids, int maxUids);
+    int virConnectListSecrets(ConnectionPointer virConnectPtr, Pointer uids, int maxUids);
     int virConnectListStoragePools(ConnectionPointer virConnectPtr, CString[] names, int maxnames);
+    int virConnectListStoragePools(ConnectionPointer virConnectPtr, Pointer names, int maxnames);
     int virConnectNumOfDefinedDomains(ConnectionPointer virConnectPtr);
     int virConnectNumOfDefinedNetworks(ConnectionPointer virConnectPtr);
     int virConnectNumOfDefinedInterfaces(ConnectionPointer virConnectPtr);
@@ -268,6 +380,12 @@ public interface Libvirt extends Library {
     // Event loop functions.
     int virEventRegisterDefaultImpl();
     int virEventRunDefaultImpl();
+    void virEventRegisterImpl(VirEventAddHandleFunc addHandle,
+                              VirEventUpdateHandleFunc updateHandle,
+                              VirEventRemoveHandleFunc removeHandle,
+                              VirEventAddTimeoutFunc addTimeout,
+                              VirEventUpdateTimeoutFunc updateTimeout,
+                              VirEventRemoveTimeoutFunc removeTimeout);
 
     // Domain functions
     int virDomainAbortJob(DomainPointer virDomainPtr);
@@ -276,6 +394,7 @@ public interface Libvirt extends Library {
     int virDomainBlockPeek(DomainPointer virDomainPtr, String disk, long offset, SizeT size,
                            ByteBuffer buffer, int flags);
     int virDomainBlockStats(DomainPointer virDomainPtr, String path, virDomainBlockStats stats, SizeT size);
+    int virDomainBlockStats(DomainPointer virDomainPtr, String path, Pointer stats, SizeT size);
     int virDomainBlockResize(DomainPointer virDomainPtr, String disk, long size, int flags);
 
     int virDomainBlockCopy(DomainPointer virDomainPtr, String disk, String xmlDesc,  ParameterPointer params,int nparams, int flags);
@@ -296,9 +415,11 @@ public interface Libvirt extends Library {
     int virDomainGetBlockInfo(DomainPointer virDomainPtr, String path, virDomainBlockInfo info, int flags);
     int virDomainGetID(DomainPointer virDomainPtr);
     int virDomainGetInfo(DomainPointer virDomainPtr, virDomainInfo vInfo);
+    int virDomainGetInfo(DomainPointer virDomainPtr, Pointer vInfo);
     int virDomainGetJobInfo(DomainPointer virDomainPtr, virDomainJobInfo vInfo);
     NativeLong virDomainGetMaxMemory(DomainPointer virDomainPtr);
     int virDomainGetMaxVcpus(DomainPointer virDomainPtr);
+    int virDomainGetMemoryParameters(DomainPointer virDomainPtr, Pointer params, IntByReference nparams, int flags);
     String virDomainGetName(DomainPointer virDomainPtr);
     CString virDomainGetOSType(DomainPointer virDomainPtr);
     int virDomainGetSchedulerParameters(DomainPointer virDomainPtr, virSchedParameter[] params,
@@ -312,14 +433,17 @@ public interface Libvirt extends Library {
     int virDomainHasCurrentSnapshot(DomainPointer virDomainPtr, int flags);
     int virDomainHasManagedSaveImage(DomainPointer virDomainPtr, int flags);
     int virDomainInterfaceStats(DomainPointer virDomainPtr, String path, virDomainInterfaceStats stats, SizeT size);
+    int virDomainInterfaceStats(DomainPointer virDomainPtr, String path, Pointer stats, SizeT size);
     int virDomainIsActive(DomainPointer virDomainPtr);
     int virDomainIsPersistent(DomainPointer virDomainPtr);
     int virDomainIsUpdated(DomainPointer virDomainPtr);
+    int virDomainListGetStats(Pointer[] doms, int stats, PointerByReference retStats, int flags);
     DomainPointer virDomainLookupByID(ConnectionPointer virConnectPtr, int id);
     DomainPointer virDomainLookupByName(ConnectionPointer virConnectPtr, String name);
     DomainPointer virDomainLookupByUUID(ConnectionPointer virConnectPtr, byte[] uuidBytes);
     DomainPointer virDomainLookupByUUIDString(ConnectionPointer virConnectPtr, String uuidstr);
     int virDomainManagedSave(DomainPointer virDomainPtr, int flags);
+    void virDomainStatsRecordListFree(Pointer stats);
     int virDomainManagedSaveRemove(DomainPointer virDomainPtr, int flags);
     int virDomainMemoryPeek(DomainPointer virDomainPtr, long start, SizeT size, ByteBuffer buffer, int flags);
     DomainPointer virDomainMigrate(DomainPointer virDomainPtr, ConnectionPointer virConnectPtr,
@@ -345,8 +469,10 @@ public interface Libvirt extends Library {
     int virDomainSendKey(DomainPointer virDomainPtr, int codeset, int holdtime, int[] keycodes, int nkeycodes, int flags);
     CString virDomainScreenshot(DomainPointer virDomainPtr, StreamPointer virStreamPtr, int screen, int flags);
     int virDomainSetAutostart(DomainPointer virDomainPtr, int autoStart);
+    int virDomainSetBlkioParameters(DomainPointer virDomainPtr, Pointer params, int nparams, int flags);
     int virDomainSetMaxMemory(DomainPointer virDomainPtr, NativeLong maxMemory);
     int virDomainSetMemory(DomainPointer virDomainPtr, NativeLong maxMemory);
+    int virDomainSetMemoryParameters(DomainPointer virDomainPtr, Pointer params, int nparams, int flags);
     int virDomainSetSchedulerParameters(DomainPointer virDomainPtr, virSchedParameter[] params, int nparams);
     int virDomainSetVcpus(DomainPointer virDomainPtr, int nvcpus);
     int virDomainShutdown(DomainPointer virDomainPtr);
@@ -386,11 +512,15 @@ public interface Libvirt extends Library {
     int virNodeNumOfDevices(ConnectionPointer virConnectPtr, String capabilityName, int flags);
     int virNodeListDevices(ConnectionPointer virConnectPtr, String capabilityName, CString[] names, int maxnames,
             int flags);
+    int virNodeListDevices(ConnectionPointer virConnectPtr, String capabilityName, Pointer names, int maxnames,
+            int flags);
+    int virConnectListAllNodeDevices(ConnectionPointer virConnectPtr, PointerByReference devices, int flags);
     DevicePointer virNodeDeviceLookupByName(ConnectionPointer virConnectPtr, String name);
     String virNodeDeviceGetName(DevicePointer virDevicePointer);
     String virNodeDeviceGetParent(DevicePointer virDevicePointer);
     int virNodeDeviceNumOfCaps(DevicePointer virDevicePointer);
     int virNodeDeviceListCaps(DevicePointer virDevicePointer, CString[] names, int maxNames);
+    int virNodeDeviceListCaps(DevicePointer virDevicePointer, Pointer names, int maxNames);
     CString virNodeDeviceGetXMLDesc(DevicePointer virDevicePointer, int flags);
     int virNodeDeviceFree(DevicePointer virDevicePointer);
     int virNodeDeviceDettach(DevicePointer virDevicePointer);
@@ -414,6 +544,8 @@ public interface Libvirt extends Library {
     int virStoragePoolGetUUIDString(StoragePoolPointer storagePoolPtr, byte[] uuidString);
     CString virStoragePoolGetXMLDesc(StoragePoolPointer storagePoolPtr, int flags);
     int virStoragePoolListVolumes(StoragePoolPointer storagePoolPtr, CString[] names, int maxnames);
+    int virStoragePoolListVolumes(StoragePoolPointer storagePoolPtr, Pointer names, int maxnames);
+    int virStoragePoolListAllVolumes(StoragePoolPointer storagePoolPtr, PointerByReference vols, int flags);
     int virStoragePoolIsActive(StoragePoolPointer storagePoolPtr);
     int virStoragePoolIsPersistent(StoragePoolPointer storagePoolPtr);
     StoragePoolPointer virStoragePoolLookupByName(ConnectionPointer virConnectPtr, String name);
@@ -492,6 +624,7 @@ public interface Libvirt extends Library {
     CString virDomainSnapshotGetXMLDesc(DomainSnapshotPointer virDomainSnapshotPtr, int flags);
     int virDomainSnapshotFree(DomainSnapshotPointer virDomainSnapshotPtr);
     int virDomainSnapshotListNames(DomainPointer virDomainPtr, CString[] names, int nameslen, int flags);
+    int virDomainSnapshotListNames(DomainPointer virDomainPtr, Pointer names, int nameslen, int flags);
     DomainSnapshotPointer virDomainSnapshotLookupByName(DomainPointer virDomainPtr, String name, int flags);
     int virDomainSnapshotNum(DomainPointer virDomainPtr, int flags);
 
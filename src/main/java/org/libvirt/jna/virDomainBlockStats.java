@@ -23,6 +23,12 @@ public class virDomainBlockStats extends Structure {
     private static final List<String> fields = Arrays.asList(
             "rd_req", "rd_bytes", "wr_req", "wr_bytes", "errs");
 
+    /**
+     * The native size of the structure. All fields are consecutive
+     * 8 byte integers.
+     */
+    public static final int SIZE = new virDomainBlockStats().size();
+
     @Override
     protected List<String> getFieldOrder() {
         return fields;
@@ -0,0 +1,25 @@
+package org.libvirt.jna;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.sun.jna.Structure;
+
+/**
+ * JNA mapping for the virDomainEventGraphicsAddress structure
+ */
+public class virDomainEventGraphicsAddress extends Structure {
+    public int family;
+    public String node;
+    public String service;
+
+    public static class ByReference extends virDomainEventGraphicsAddress implements Structure.ByReference {}
+
+    private static final List<String> fields = Arrays.asList(
+            "family", "node", "service");
+
+    @Override
+    protected List<String> getFieldOrder() {
+        return fields;
+    }
+}
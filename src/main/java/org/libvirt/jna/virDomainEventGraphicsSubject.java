@@ -0,0 +1,24 @@
+package org.libvirt.jna;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.sun.jna.Structure;
+
+/**
+ * JNA mapping for the virDomainEventGraphicsSubject structure
+ */
+public class virDomainEventGraphicsSubject extends Structure {
+    public int nidentity;
+    public virDomainEventGraphicsSubjectIdentity.ByReference identities;
+
+    public static class ByReference extends virDomainEventGraphicsSubject implements Structure.ByReference {}
+
+    private static final List<String> fields = Arrays.asList(
+            "nidentity", "identities");
+
+    @Override
+    protected List<String> getFieldOrder() {
+        return fields;
+    }
+}
@@ -0,0 +1,24 @@
+package org.libvirt.jna;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.sun.jna.Structure;
+
+/**
+ * JNA mapping for the virDomainEventGraphicsSubjectIdentity structure
+ */
+public class virDomainEventGraphicsSubjectIdentity extends Structure {
+    public String type;
+    public String name;
+
+    public static class ByReference extends virDomainEventGraphicsSubjectIdentity implements Structure.ByReference {}
+
+    private static final List<String> fields = Arrays.asList(
+            "type", "name");
+
+    @Override
+    protected List<String> getFieldOrder() {
+        return fields;
+    }
+}
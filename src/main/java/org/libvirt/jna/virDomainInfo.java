@@ -19,6 +19,27 @@ public class virDomainInfo extends Structure {
     private static final List<String> fields = Arrays.asList(
             "state", "maxMem", "memory", "nrVirtCpu", "cpuTime");
 
+    /**
+     * The native size of the structure and the offsets of its fields,
+     * for reading it directly from memory.
+     */
+    public static final int SIZE;
+    public static final int STATE_OFFSET;
+    public static final int MAXMEM_OFFSET;
+    public static final int MEMORY_OFFSET;
+    public static final int NRVIRTCPU_OFFSET;
+    public static final int CPUTIME_OFFSET;
+
+    static {
+        virDomainInfo prototype = new virDomainInfo();
+        SIZE = prototype.size();
+        STATE_OFFSET = prototype.fieldOffset("state");
+        MAXMEM_OFFSET = prototype.fieldOffset("maxMem");
+        MEMORY_OFFSET = prototype.fieldOffset("memory");
+        NRVIRTCPU_OFFSET = prototype.fieldOffset("nrVirtCpu");
+        CPUTIME_OFFSET = prototype.fieldOffset("cpuTime");
+    }
+
     @Override
     protected List<String> getFieldOrder() {
         return fields;
@@ -30,6 +30,12 @@ public class virDomainInterfaceStats extends Structure {
             "rx_bytes", "rx_packets", "rx_errs", "rx_drop",
             "tx_bytes", "tx_packets", "tx_errs", "tx_drop");
 
+    /**
+     * The native size of the structure. All fields are consecutive
+     * 8 byte integers.
+     */
+    public static final int SIZE = new virDomainInterfaceStats().size();
+
     @Override
     protected List<String> getFieldOrder() {
         return fields;
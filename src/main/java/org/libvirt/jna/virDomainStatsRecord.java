@@ -0,0 +1,39 @@
+package org.libvirt.jna;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.sun.jna.Pointer;
+import com.sun.jna.Structure;
+
+/**
+ * JNA mapping for the virDomainStatsRecord structure
+ */
+public class virDomainStatsRecord extends Structure {
+    public DomainPointer dom;
+    public Pointer params;
+    public int nparams;
+
+    private static final List<String> fields = Arrays.asList(
+            "dom", "params", "nparams");
+
+    /**
+     * The offsets of the fields, for reading the structure directly
+     * from memory.
+     */
+    public static final int DOM_OFFSET;
+    public static final int PARAMS_OFFSET;
+    public static final int NPARAMS_OFFSET;
+
+    static {
+        virDomainStatsRecord prototype = new virDomainStatsRecord();
+        DOM_OFFSET = prototype.fieldOffset("dom");
+        PARAMS_OFFSET = prototype.fieldOffset("params");
+        NPARAMS_OFFSET = prototype.fieldOffset("nparams");
+    }
+
+    @Override
+    protected List<String> getFieldOrder() {
+        return fields;
+    }
+}
@@ -26,6 +26,33 @@ public class virError extends Structure {
             "code", "domain", "message", "level", "conn", "dom",
             "str1", "str2", "str3", "int1", "int2", "net");
 
+    /**
+     * The offsets of the fields, for reading single fields of the
+     * structure directly from memory.
+     */
+    public static final int CODE_OFFSET;
+    public static final int DOMAIN_OFFSET;
+    public static final int MESSAGE_OFFSET;
+    public static final int LEVEL_OFFSET;
+    public static final int STR1_OFFSET;
+    public static final int STR2_OFFSET;
+    public static final int STR3_OFFSET;
+    public static final int INT1_OFFSET;
+    public static final int INT2_OFFSET;
+
+    static {
+        virError prototype = new virError();
+        CODE_OFFSET = prototype.fieldOffset("code");
+        DOMAIN_OFFSET = prototype.fieldOffset("domain");
+        MESSAGE_OFFSET = prototype.fieldOffset("message");
+        LEVEL_OFFSET = prototype.fieldOffset("level");
+        STR1_OFFSET = prototype.fieldOffset("str1");
+        STR2_OFFSET = prototype.fieldOffset("str2");
+        STR3_OFFSET = prototype.fieldOffset("str3");
+        INT1_OFFSET = prototype.fieldOffset("int1");
+        INT2_OFFSET = prototype.fieldOffset("int2");
+    }
+
     @Override
     protected List<String> getFieldOrder() {
         return fields;
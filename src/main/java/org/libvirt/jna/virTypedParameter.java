@@ -0,0 +1,51 @@
+package org.libvirt.jna;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.sun.jna.Structure;
+
+/**
+ * JNA mapping for the virTypedParameter structure
+ * <p>
+ * The value union is mapped as a single 8 byte field. Depending
+ * on {@code type}, it holds an int, unsigned int, long long,
+ * unsigned long long, double, char boolean or a char pointer.
+ */
+public class virTypedParameter extends Structure {
+    // virTypedParameterType
+    public static final int VIR_TYPED_PARAM_INT = 1;
+    public static final int VIR_TYPED_PARAM_UINT = 2;
+    public static final int VIR_TYPED_PARAM_LLONG = 3;
+    public static final int VIR_TYPED_PARAM_ULLONG = 4;
+    public static final int VIR_TYPED_PARAM_DOUBLE = 5;
+    public static final int VIR_TYPED_PARAM_BOOLEAN = 6;
+    public static final int VIR_TYPED_PARAM_STRING = 7;
+
+    public byte field[] = new byte[Libvirt.VIR_TYPED_PARAM_FIELD_LENGTH];
+    public int type;
+    public long value;
+
+    private static final List<String> fields = Arrays.asList(
+            "field", "type", "value");
+
+    /**
+     * The native size of the structure and the offsets of its fields,
+     * for reading arrays of it directly from memory.
+     */
+    public static final int SIZE;
+    public static final int TYPE_OFFSET;
+    public static final int VALUE_OFFSET;
+
+    static {
+        virTypedParameter prototype = new virTypedParameter();
+        SIZE = prototype.size();
+        TYPE_OFFSET = prototype.fieldOffset("type");
+        VALUE_OFFSET = prototype.fieldOffset("value");
+    }
+
+    @Override
+    protected List<String> getFieldOrder() {
+        return fields;
+    }
+}
@@ -0,0 +1,316 @@
+package org.libvirt;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.libvirt.jna.CString;
+import org.libvirt.jna.ConnectionPointer;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import com.sun.jna.PointerType;
+
+/**
+ * Micro benchmarks of the allocation sensitive code paths.
+ * <p>
+ * They take a while and their numbers only mean something on an
+ * otherwise idle machine, so they are skipped unless the
+ * {@code libvirt.benchmarks} system property is set:
+ * <pre>
+ * mvn test -Dtest=TestBenchmarks -Dlibvirt.benchmarks=true
+ * </pre>
+ */
+public final class TestBenchmarks {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue("set -Dlibvirt.benchmarks=true to run", Boolean.getBoolean("libvirt.benchmarks"));
+    }
+
+    /**
+     * Bytes allocated by the current thread so far.
+     */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Fills {@code array} with freshly malloc'ed copies of
+     * {@code names}, as a libvirt list function would.
+     */
+    private static void fillNameArray(Memory array, byte[][] names) {
+        final Pointer str = new Pointer(0);
+        for (int i = 0; i < names.length; i++) {
+            final long peer = Native.malloc(names[i].length + 1);
+            Pointer.nativeValue(str, peer);
+            str.write(0, names[i], 0, names[i].length);
+            str.setByte(names[i].length, (byte) 0);
+            array.setPointer((long) i * Pointer.SIZE, new Pointer(peer));
+        }
+    }
+
+    @Test
+    public void benchmarkCStringArray() throws Exception {
+        final int size = 1000;
+        final int rounds = 2000;
+        final byte[][] names = new byte[size][];
+        for (int i = 0; i < size; i++) {
+            names[i] = String.format("domain-%06d", i).getBytes(UTF8);
+        }
+        final Memory array = new Memory((long) size * Pointer.SIZE);
+
+        for (int pass = 0; pass < 2; pass++) { // the first pass warms up
+            long legacyBytes = 0, legacyNanos = 0, bytes = 0, nanos = 0;
+            for (int r = 0; r < rounds; r++) {
+                // the former path: a Pointer, a byte[] and a UTF-8
+                // decode per element, as done by CString.toString()
+                fillNameArray(array, names);
+                long a = allocatedBytes(), t = System.nanoTime();
+                final Pointer[] ptrs = array.getPointerArray(0, size);
+                final String[] legacy = new String[size];
+                for (int i = 0; i < size; i++) {
+                    final long len = ptrs[i].indexOf(0, (byte) 0);
+                    legacy[i] = new String(ptrs[i].getByteArray(0, (int) len), UTF8);
+                    Native.free(Pointer.nativeValue(ptrs[i]));
+                }
+                legacyNanos += System.nanoTime() - t;
+                legacyBytes += allocatedBytes() - a;
+
+                fillNameArray(array, names);
+                a = allocatedBytes();
+                t = System.nanoTime();
+                CString.toStringArray(array, size);
+                nanos += System.nanoTime() - t;
+                bytes += allocatedBytes() - a;
+            }
+            if (pass == 1) {
+                final long decoded = (long) size * rounds;
+                System.out.format("CString.toStringArray: %d bytes, %d ns per name (per element decoding: %d bytes, %d ns)%n",
+                                  bytes / decoded, nanos / decoded, legacyBytes / decoded, legacyNanos / decoded);
+            }
+        }
+    }
+
+    /**
+     * A create/free storm of handles, which are released by {@link #handle}
+     * in some way and counted in {@link #released}.
+     */
+    private abstract static class HandleStorm {
+        final AtomicLong released = new AtomicLong();
+
+        abstract void handle(PointerType ptr);
+
+        void run(String name, int handles) throws InterruptedException {
+            released.set(0);
+            final long[] gc = gcTotals();
+            final long start = System.nanoTime();
+            for (int i = 0; i < handles; i++) {
+                handle(new PointerType(new Pointer(i + 1)) {});
+            }
+            final long nanos = System.nanoTime() - start;
+            final long[] gcAfter = gcTotals();
+
+            // collect the remaining handles
+            final long drainStart = System.nanoTime();
+            while (released.get() < handles) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            final long drainMillis = (System.nanoTime() - drainStart) / 1000000;
+
+            final long collections = gcAfter[0] - gc[0];
+            final long gcMillis = gcAfter[1] - gc[1];
+            System.out.format("%-22s %,10d handles/s, %4d GCs, %5d ms GC time (%.1f ms per GC), %4d ms to drain%n",
+                              name, handles * 1000000000L / nanos, collections, gcMillis,
+                              collections == 0 ? 0.0 : (double) gcMillis / collections, drainMillis);
+        }
+    }
+
+    private static long[] gcTotals() {
+        long count = 0, millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[] { count, millis };
+    }
+
+    /**
+     * A handle freed by finalize(), the way the handle classes used to
+     * release their native reference.
+     */
+    private static final class FinalizedHandle {
+        private final PointerType ptr;
+        private final AtomicLong released;
+
+        FinalizedHandle(PointerType ptr, AtomicLong released) {
+            this.ptr = ptr;
+            this.released = released;
+        }
+
+        @Override
+        protected void finalize() {
+            if (ptr != null) released.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void benchmarkHandleStorm() throws Exception {
+        final int handles = 2000000;
+        final HandleRegistry.Release<PointerType> release =
+            new HandleRegistry.Release<PointerType>(HandleStats.Type.DOMAIN) {
+                @Override
+                public void release(PointerType ptr) {}
+            };
+
+        final HandleStorm finalized = new HandleStorm() {
+                @Override
+                void handle(PointerType ptr) {
+                    new FinalizedHandle(ptr, released);
+                }
+            };
+        final HandleStorm collected = new HandleStorm() {
+                final HandleRegistry.Release<PointerType> counting =
+                    new HandleRegistry.Release<PointerType>(HandleStats.Type.DOMAIN) {
+                        @Override
+                        public void release(PointerType ptr) {
+                            released.incrementAndGet();
+                        }
+                    };
+
+                @Override
+                void handle(PointerType ptr) {
+                    HandleRegistry.register(new Object(), ptr, counting);
+                }
+            };
+        final HandleStorm closed = new HandleStorm() {
+                @Override
+                void handle(PointerType ptr) {
+                    HandleRegistry.register(new Object(), ptr, release).cancel();
+                    released.incrementAndGet();
+                }
+            };
+
+        for (int pass = 0; pass < 2; pass++) { // the first pass warms up
+            final boolean report = pass == 1;
+            finalized.run(report ? "finalize()" : "warm up", handles);
+            collected.run(report ? "registry, collected" : "warm up", handles);
+            closed.run(report ? "registry, closed" : "warm up", handles);
+        }
+    }
+
+    @Test
+    public void benchmarkDomainHashSet() throws Exception {
+        final int size = 100000;
+        final int rounds = 50;
+        final Connect conn = new Connect((ConnectionPointer) null);
+        final Domain[] domains = new Domain[size];
+        final Domain[] probes = new Domain[size];
+        final Set<Domain> set = new HashSet<Domain>();
+        for (int i = 0; i < size; i++) {
+            final UUID uuid = UUID.randomUUID();
+            domains[i] = new Domain(conn, null, uuid);
+            // distinct objects, so that lookups have to call equals()
+            probes[i] = new Domain(conn, null, new UUID(uuid.getMostSignificantBits(),
+                                                        uuid.getLeastSignificantBits()));
+            set.add(domains[i]);
+        }
+
+        for (int pass = 0; pass < 2; pass++) { // the first pass warms up
+            int found = 0;
+            final long a = allocatedBytes(), t = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                for (int i = 0; i < size; i++) {
+                    if (set.contains(probes[i])) found++;
+                }
+            }
+            final long nanos = System.nanoTime() - t;
+            final long bytes = allocatedBytes() - a;
+            Assert.assertEquals(size * rounds, found);
+            if (pass == 1) {
+                final long lookups = (long) size * rounds;
+                System.out.format("HashSet<Domain>.contains: %d ns, %d bytes per lookup%n",
+                                  nanos / lookups, bytes / lookups);
+            }
+        }
+    }
+
+    /**
+     * Receives screenshots of the test driver's "test" domain into
+     * {@code buf} until {@code total} bytes have been transferred.
+     *
+     * @return the number of bytes received
+     */
+    private static long receiveScreenshots(Connect conn, Domain dom, ByteBuffer buf, long total)
+        throws Exception {
+        long received = 0;
+        while (received < total) {
+            final Stream str = conn.streamNew(0);
+            try {
+                dom.screenshot(str, 0);
+                buf.clear();
+                int n;
+                while ((n = str.read(buf)) != -1) {
+                    received += n;
+                    buf.clear();
+                }
+            } finally {
+                str.close();
+            }
+        }
+        return received;
+    }
+
+    /**
+     * Needs libvirt. virDomainScreenshot is the only stream source
+     * of the test driver, so the data is a small image sent over and
+     * over again.
+     */
+    @Test
+    public void benchmarkStreamThroughput() throws Exception {
+        Assume.assumeTrue("virDomainScreenshot works on test:// connections since libvirt 1.0.5",
+                          Library.getVersion() >= 1000005);
+        final long total = 1L << 30;
+        final DirectBufferPool pool = DirectBufferPool.getDefault();
+        final Connect conn = new Connect("test:///default", false);
+        try {
+            final Domain dom = conn.domainLookupByName("test");
+            final ByteBuffer heap = ByteBuffer.allocate(DirectBufferPool.DEFAULT_BUFFER_SIZE);
+            final ByteBuffer direct = pool.acquire();
+            try {
+                // warm up
+                receiveScreenshots(conn, dom, heap, total / 16);
+                receiveScreenshots(conn, dom, direct, total / 16);
+
+                for (ByteBuffer buf : new ByteBuffer[] { heap, direct }) {
+                    final long acquired = pool.getAcquired(), allocated = pool.getAllocated();
+                    final long a = allocatedBytes(), t = System.nanoTime();
+                    final long received = receiveScreenshots(conn, dom, buf, total);
+                    final long nanos = System.nanoTime() - t;
+                    final long bytes = allocatedBytes() - a;
+                    System.out.format("Stream.read, %s buffer: %.1f MB/s, %d bytes allocated per MB, %d pool buffers acquired, %d allocated%n",
+                                      buf.isDirect() ? "direct" : "heap",
+                                      received * 1e9 / nanos / (1 << 20), bytes / (received >> 20),
+                                      pool.getAcquired() - acquired, pool.getAllocated() - allocated);
+                }
+            } finally {
+                pool.release(direct);
+            }
+        } finally {
+            conn.close();
+        }
+    }
+}
@@ -68,6 +68,28 @@ public final class TestJavaBindings {
         Assert.assertTrue("conn.isSecure", conn.isSecure() == 1);
     }
 
+    @Test
+    public void testConnectionIdentity() throws Exception {
+        Connect other = new Connect("test:///default", true);
+        try {
+            Assert.assertEquals("connections to the same URI are equal", conn, other);
+            Assert.assertEquals("conn.hashCode()", conn.hashCode(), other.hashCode());
+
+            final int hash = other.hashCode();
+            other.close();
+            Assert.assertEquals("hashCode() stable after close", hash, other.hashCode());
+        } finally {
+            other.close();
+        }
+
+        // the URI is captured when opening, not by the first hashCode()
+        Connect closed = new Connect("test:///default", true);
+        closed.close();
+        Assert.assertEquals("closed before hashing", conn.hashCode(), closed.hashCode());
+        Assert.assertEquals("closed before comparing", conn, closed);
+        Assert.assertEquals("closed before comparing", closed, conn);
+    }
+
     /*
      * Excercise the listCapabilities method of the Device class.
      */
@@ -116,6 +138,11 @@ public final class TestJavaBindings {
         Assert.assertEquals("Number of listed networks", 2, conn.listNetworks().length);
         Assert.assertEquals("Number of defined networks", 1, conn.numOfDefinedNetworks());
         Assert.assertEquals("Number of listed defined networks", 1, conn.listDefinedNetworks().length);
+        Assert.assertEquals("Number of all networks",
+                            conn.numOfNetworks() + conn.numOfDefinedNetworks(),
+                            conn.listAllNetworks().length);
+        Assert.assertEquals("Number of active networks", conn.numOfNetworks(),
+                            conn.listAllNetworks(Connect.ListAllNetworksFlags.ACTIVE).length);
         Assert.assertTrue("Network1 should not be persistent", network1.isPersistent() == 0);
         Assert.assertTrue("Network1 should not be active", network1.isActive() == 1);
         Assert.assertTrue("Network2 should be active", network2.isActive() == 0);
@@ -175,6 +202,10 @@ public final class TestJavaBindings {
         Assert.assertEquals("Domain is not equal to Domain retrieved by lookup",
                 dom2,
                 conn.domainLookupByUUID(dom2.getUUID()));
+        Assert.assertEquals("Domain hash codes should match",
+                dom2.hashCode(),
+                conn.domainLookupByName("createst").hashCode());
+        Assert.assertFalse("Distinct domains should not be equal", dom1.equals(dom2));
     }
 
     private void validateDomainData(Domain dom) throws Exception {
@@ -206,11 +237,92 @@ public final class TestJavaBindings {
         dom.getSchedulerParameters() ;        
     }
 
+    @Test
+    public void testListAllDomains() throws Exception {
+        Domain[] all = conn.listAllDomains();
+        Assert.assertEquals("Number of all domains",
+                            conn.numOfDomains() + conn.numOfDefinedDomains(), all.length);
+
+        Domain[] active = conn.listAllDomains(Connect.ListAllDomainsFlags.ACTIVE);
+        Assert.assertEquals("Number of active domains", conn.numOfDomains(), active.length);
+        for (Domain dom : active) {
+            Assert.assertEquals("dom.isActive()", 1, dom.isActive());
+        }
+
+        Domain[] inactive = conn.listAllDomains(Connect.ListAllDomainsFlags.INACTIVE,
+                                                Connect.ListAllDomainsFlags.PERSISTENT);
+        Assert.assertEquals("Number of inactive domains", conn.numOfDefinedDomains(), inactive.length);
+    }
+
+    @Test
+    public void testHandleScope() throws Exception {
+        Domain outside = conn.domainLookupByName("test");
+        Domain inside;
+        Network net;
+        try (HandleScope scope = conn.openScope()) {
+            inside = conn.domainLookupByName("test");
+            net = conn.networkLookupByName("default");
+            try (HandleScope inner = conn.openScope()) {
+                conn.domainLookupByName("test");
+                Assert.assertEquals("inner scope size", 1, inner.size());
+            }
+            Assert.assertEquals("scope size", 2, scope.size());
+        }
+        Assert.assertNull("domain freed", inside.VDP);
+        Assert.assertNull("network freed", net.VNP);
+        Assert.assertNotNull("domain outside scope", outside.VDP);
+    }
+
+    @Test
+    public void testDomainInterning() throws Exception {
+        Assert.assertFalse("interning is disabled by default", conn.isDomainInterning());
+
+        DomainInterner interner = new DomainInterner(conn);
+        Domain dom = conn.domainLookupByName("test");
+        Domain canonical = interner.intern(dom.VDP);
+        Assert.assertEquals("canonical domain", dom, canonical);
+        Assert.assertSame("same domain instance", canonical,
+                          interner.intern(conn.domainLookupByName("test").VDP));
+
+        canonical.free();
+        Assert.assertNotSame("freed domains are replaced", canonical, interner.intern(dom.VDP));
+        Assert.assertEquals("interned domains", 1, interner.size());
+    }
+
+    @Test
+    public void testGetAllDomainStats() throws Exception {
+        DomainStats[] stats = conn.getAllDomainStats(new DomainStats.Type[] { DomainStats.Type.STATE },
+                                                     Connect.GetAllDomainStatsFlags.ACTIVE);
+        Assert.assertEquals("Number of domain stats", conn.numOfDomains(), stats.length);
+        for (DomainStats s : stats) {
+            Assert.assertEquals("stats.state", s.domain.getInfo().state.ordinal(), s.state);
+        }
+    }
+
+    @Test
+    public void testDomainGetInfoInto() throws Exception {
+        Domain dom = conn.domainLookupByName("test");
+        DomainInfo expected = dom.getInfo();
+        DomainInfo info = new DomainInfo();
+
+        Assert.assertSame("dom.getInfo(info)", info, dom.getInfo(info));
+        Assert.assertEquals("info.state", expected.state, info.state);
+        Assert.assertEquals("info.maxMem", expected.maxMem, info.maxMem);
+        Assert.assertEquals("info.memory", expected.memory, info.memory);
+        Assert.assertEquals("info.nrVirtCpu", expected.nrVirtCpu, info.nrVirtCpu);
+
+        // reusing the same object must work as well
+        Assert.assertSame("dom.getInfo(info)", info, dom.getInfo(info));
+        Assert.assertEquals("info.state", expected.state, info.state);
+    }
+
     @Test
     public void testInterfaces() throws Exception {
         Assert.assertEquals("numOfInterfaces:", 1, conn.numOfInterfaces());
         Assert.assertEquals("numOfInterfaces:", 0, conn.numOfDefinedInterfaces());
         Assert.assertEquals("listDefinedInterfaces:", "eth1", conn.listInterfaces()[0]);
+        Assert.assertEquals("listAllInterfaces:", "eth1",
+                            conn.listAllInterfaces(Connect.ListAllInterfacesFlags.ACTIVE)[0].getName());
         Interface virtInt = conn.interfaceLookupByName("eth1");
         Assert.assertNotNull(virtInt);
         Assert.assertEquals("virtInterfaceGetName", "eth1", virtInt.getName());
@@ -238,6 +350,21 @@ public final class TestJavaBindings {
 
     }
 
+    @Test
+    public void testStacklessException() throws Exception {
+        LibvirtException.setStackless(Error.ErrorNumber.VIR_ERR_NO_DOMAIN, true);
+        try {
+            conn.domainLookupByName("no-such-domain");
+            Assert.fail("LibvirtException expected");
+        } catch (LibvirtException e) {
+            Assert.assertEquals("error code", Error.ErrorNumber.VIR_ERR_NO_DOMAIN, e.getError().getCode());
+            Assert.assertNotNull("message", e.getMessage());
+            Assert.assertEquals("stack trace length", 0, e.getStackTrace().length);
+        } finally {
+            LibvirtException.setStackless(Error.ErrorNumber.VIR_ERR_NO_DOMAIN, false);
+        }
+    }
+
     @Test
     public void testAccessAfterClose() throws Exception {
         conn.close();
@@ -272,6 +399,31 @@ public final class TestJavaBindings {
         Assert.assertTrue("Domain2 should be active", defaultPool.isActive() == 1);
     }
 
+    @Test
+    public void testListAllVolumes() throws Exception {
+        StoragePool defaultPool = conn.storagePoolLookupByName("default-pool");
+        StorageVol vol = defaultPool.storageVolCreateXML("<volume>"
+                + "  <name>vol1.img</name>"
+                + "  <capacity>1048576</capacity>"
+                + "</volume>", 0);
+        try {
+            Assert.assertEquals("Number of volumes", defaultPool.numOfVolumes(),
+                                defaultPool.listAllVolumes().length);
+
+            boolean found = false;
+            for (StorageVolEntry e : defaultPool.listAllVolumesWithInfo()) {
+                if (e.volume.getName().equals("vol1.img")) {
+                    found = true;
+                    Assert.assertEquals("path", vol.getPath(), e.path);
+                    Assert.assertEquals("capacity", 1048576, e.info.capacity);
+                }
+            }
+            Assert.assertTrue("vol1.img should be listed", found);
+        } finally {
+            vol.delete(0);
+        }
+    }
+
     @Test
     public void testDomainEvents() throws Exception {
         final List<DomainEventType> events = new ArrayList<DomainEventType>();
@@ -328,6 +480,37 @@ public final class TestJavaBindings {
         }
     }
 
+    @Test
+    public void testDomainEventListenerRegistration() throws Exception {
+        final BlockJobListener blockJob = new BlockJobListener() {
+                @Override
+                public void onBlockJob(Domain d, String disk, BlockJobType type, BlockJobStatus status) {}
+            };
+        final WatchdogListener watchdog = new WatchdogListener() {
+                @Override
+                public void onWatchdog(Domain d, WatchdogAction action) {}
+            };
+        final TrayChangeListener tray = new TrayChangeListener() {
+                @Override
+                public void onTrayChange(Domain d, String devAlias, TrayChangeReason reason) {}
+            };
+
+        conn.addBlockJobListener(blockJob);
+        conn.addBlockJob2Listener(blockJob);
+        conn.addWatchdogListener(watchdog);
+        conn.domainLookupByName("test").addTrayChangeListener(tray);
+
+        conn.removeBlockJobListener(blockJob);
+        conn.removeWatchdogListener(watchdog);
+        conn.removeTrayChangeListener(tray);
+
+        final DomainEventRing ring = new DomainEventRing(16);
+        conn.addLifecycleEventRing(ring);
+        conn.addBlockJobEventRing(ring);
+        conn.removeBlockJobEventRing(ring);
+        conn.removeLifecycleEventRing(ring);
+    }
+
     @Test
     @Ignore
     public void testDomainScreenshot() throws Exception {
@@ -1,6 +1,50 @@
 package org.libvirt;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.libvirt.event.CoalescingLifecycleListener;
+import org.libvirt.event.DomainEvent;
+import org.libvirt.event.DomainEventJournal;
+import org.libvirt.event.DomainEventPublisher;
+import org.libvirt.event.DomainEventRing;
+import org.libvirt.event.DomainEventSubscription;
+import org.libvirt.event.DomainEventType;
+import org.libvirt.event.DomainNotification;
+import org.libvirt.event.EventDispatcher;
+import org.libvirt.event.EventFlow;
+import org.libvirt.event.EventListener;
+import org.libvirt.event.LifecycleSummary;
+import org.libvirt.event.LifecycleSummaryListener;
+import org.libvirt.event.OverflowStrategy;
+import org.libvirt.jna.CLibrary;
+import org.libvirt.jna.ConnectionPointer;
+import org.libvirt.jna.CString;
+import org.libvirt.jna.Libvirt;
+import org.libvirt.jna.SizeT;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import com.sun.jna.PointerType;
 
 import junit.framework.TestCase;
 
@@ -19,6 +63,701 @@ public class TestLibvirtGlobals extends TestCase {
         assertTrue("We should have caught an error", cb.error);
     }
 
+    public void testTypedParameters() throws Exception {
+        TypedParameters.Builder b = new TypedParameters.Builder(1);
+        b.addInt("int", -1)
+         .addUInt("uint", -1)
+         .addULong("ullong", 1L << 40)
+         .addDouble("double", 0.5)
+         .addBoolean("boolean", true)
+         .addString("string", "value");
+
+        TypedParameters params = new TypedParameters(2).read(b.getPointer(), b.size());
+        assertEquals(6, params.size());
+        assertEquals("int", params.name(0));
+        assertEquals(TypedParameters.Type.INT, params.type(0));
+        assertEquals(-1, params.getLong(0));
+        assertEquals(0xffffffffL, params.getLong("uint", 0));
+        assertEquals(1L << 40, params.getLong("ullong", 0));
+        assertEquals(0.5, params.getDouble(params.indexOf("double")));
+        assertTrue(params.getBoolean(params.indexOf("boolean")));
+        assertEquals("value", params.getString("string"));
+        assertEquals(-1, params.indexOf("missing"));
+
+        // reading a shorter list reuses the instance
+        b.clear().addLong("llong", 42);
+        params.read(b.getPointer(), b.size());
+        assertEquals(1, params.size());
+        assertEquals(42, params.getLong("llong", 0));
+
+        // names are UTF-8, whatever the platform charset
+        b.clear().addInt("gr\u00f6\u00dfe", 1);
+        params.read(b.getPointer(), b.size());
+        assertEquals("gr\u00f6\u00dfe", params.name(0));
+    }
+
+    public void testCStringArray() throws Exception {
+        final String[] expected = { "ascii", "", "gr\u00fc\u00dfe" };
+        final Memory array = new Memory(expected.length * Pointer.SIZE);
+        for (int i = 0; i < expected.length; i++) {
+            final byte[] bytes = expected[i].getBytes("UTF-8");
+            final Pointer str = new Pointer(Native.malloc(bytes.length + 1));
+            str.write(0, bytes, 0, bytes.length);
+            str.setByte(bytes.length, (byte) 0);
+            array.setPointer(i * Pointer.SIZE, str);
+        }
+        assertTrue(Arrays.equals(expected, CString.toStringArray(array, expected.length)));
+    }
+
+    public void testUUIDConversion() throws Exception {
+        final UUID uuid = UUID.fromString("004b96e1-2d78-c30f-5aa5-f03c87d21e67");
+        final byte[] bytes = Connect.toUUIDBytes(uuid);
+        assertEquals(0x00, bytes[0]);
+        assertEquals((byte) 0x67, bytes[15]);
+        assertEquals(uuid, Connect.toUUID(bytes));
+        assertTrue(Arrays.equals(bytes, Connect.createUUIDBytes(Connect.convertUUIDBytes(bytes))));
+    }
+
+    public void testHandleRegistry() throws Exception {
+        final CountDownLatch released = new CountDownLatch(1);
+        final HandleRegistry.Release<PointerType> release =
+            new HandleRegistry.Release<PointerType>(HandleStats.Type.DOMAIN) {
+                @Override
+                public void release(PointerType ptr) {
+                    released.countDown();
+                }
+            };
+        final PointerType ptr = new PointerType(new Pointer(1)) {};
+
+        Object owner = new Object();
+        HandleRegistry.register(owner, ptr, release).cancel();
+        HandleRegistry.register(owner, ptr, release);
+        owner = null;
+
+        for (int i = 0; i < 100 && released.getCount() > 0; i++) {
+            System.gc();
+            released.await(100, TimeUnit.MILLISECONDS);
+        }
+        assertEquals("handle released exactly once", 0, released.getCount());
+    }
+
+    public void testHandleStats() throws Exception {
+        final HandleStats stats = HandleStats.getInstance();
+        final HandleRegistry.Release<PointerType> release =
+            new HandleRegistry.Release<PointerType>(HandleStats.Type.SECRET) {
+                @Override
+                public void release(PointerType ptr) {}
+            };
+        final PointerType ptr = new PointerType(new Pointer(1)) {};
+        final Object owner = new Object();
+
+        stats.setEnabled(true);
+        stats.setAllocationSiteCapture(true);
+        try {
+            stats.reset();
+            final long live = stats.getLive(HandleStats.Type.SECRET);
+            HandleRegistry.Registration<PointerType> r = HandleRegistry.register(owner, ptr, release);
+            assertEquals(1, stats.getCreated(HandleStats.Type.SECRET));
+            assertEquals(live + 1, stats.getLive(HandleStats.Type.SECRET));
+
+            List<String> sites = stats.liveAllocationSites(HandleStats.Type.SECRET, 10);
+            assertEquals(1, sites.size());
+            assertTrue(sites.get(0), sites.get(0).contains("testHandleStats"));
+
+            r.cancel();
+            assertEquals(1, stats.getFreed(HandleStats.Type.SECRET));
+            assertEquals(live, stats.getLive(HandleStats.Type.SECRET));
+
+            HandleStats.registerMBean();
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(Boolean.TRUE, server.getAttribute(new ObjectName(HandleStats.OBJECT_NAME), "Enabled"));
+        } finally {
+            stats.setEnabled(false);
+            stats.setAllocationSiteCapture(false);
+        }
+    }
+
+    public void testEventDispatcher() throws Exception {
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        final EventDispatcher d = new EventDispatcher(new Executor() {
+                @Override
+                public void execute(Runnable r) {
+                    tasks.add(r);
+                }
+            }, 3);
+        final StringBuilder delivered = new StringBuilder();
+
+        for (final String e : new String[] { "a1", "b1", "a2", "a3" }) {
+            assertEquals(!e.equals("a3"), d.dispatch(e.charAt(0), new Runnable() {
+                    @Override
+                    public void run() {
+                        delivered.append(e);
+                    }
+                }));
+        }
+        assertEquals("one task per domain", 2, tasks.size());
+        assertEquals(3, d.getQueueDepth());
+        assertEquals(1, d.getDropped());
+
+        for (Runnable r : tasks) r.run();
+        assertEquals("a1a2b1", delivered.toString());
+        assertEquals(0, d.getQueueDepth());
+        assertEquals(3, d.getDispatched());
+    }
+
+    public void testDomainEventRing() throws Exception {
+        final DomainEventRing ring = new DomainEventRing(3);
+        assertEquals(4, ring.getCapacity());
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i < 4, ring.publish(1, i, DomainEventRing.LIFECYCLE, i, 0, i));
+        }
+        assertEquals(4, ring.size());
+        assertEquals(1, ring.getDropped());
+
+        final List<Long> seen = new ArrayList<Long>();
+        final DomainEventRing.BatchHandler handler = new DomainEventRing.BatchHandler() {
+                @Override
+                public void onBatch(DomainEventRing.Batch b) {
+                    for (int i = 0; i < b.size(); i++) {
+                        assertEquals(new UUID(1, b.type(i)), b.uuid(i));
+                        seen.add(b.timestamp(i));
+                    }
+                }
+            };
+        assertEquals(3, ring.drain(handler, 3));
+        assertTrue(ring.publish(1, 4, DomainEventRing.LIFECYCLE, 4, 0, 4));
+        assertEquals(2, ring.drain(handler, 10, 1, TimeUnit.MILLISECONDS));
+        assertEquals(0, ring.drain(handler, 10, 1, TimeUnit.MILLISECONDS));
+        assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L), seen);
+    }
+
+    public void testCoalescingLifecycleListener() throws Exception {
+        final Connect conn = new Connect((ConnectionPointer) null);
+        final Domain d1 = new Domain(conn, null, new UUID(0, 1));
+        final Domain d2 = new Domain(conn, null, new UUID(0, 2));
+        final Map<Domain, LifecycleSummary> summaries = new ConcurrentHashMap<Domain, LifecycleSummary>();
+        // three summaries by flush(), one by the scheduler
+        final CountDownLatch delivered = new CountDownLatch(4);
+        final LifecycleSummaryListener target = new LifecycleSummaryListener() {
+                @Override
+                public void onLifecycleSummary(Domain domain, LifecycleSummary summary) {
+                    summaries.put(domain, summary);
+                    delivered.countDown();
+                }
+            };
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            CoalescingLifecycleListener l =
+                new CoalescingLifecycleListener(scheduler, 1, TimeUnit.HOURS, target);
+            l.onLifecycleChange(d1, new DomainEvent(DomainEventType.SUSPENDED, 0));
+            l.onLifecycleChange(d2, new DomainEvent(DomainEventType.STARTED, 0));
+            l.onLifecycleChange(new Domain(conn, null, new UUID(0, 1)),
+                                new DomainEvent(DomainEventType.STOPPED, 0));
+            assertEquals(2, l.getPendingCount());
+
+            l.flush();
+            assertEquals(0, l.getPendingCount());
+            assertEquals(2, summaries.get(d1).getCount());
+            assertEquals(DomainEventType.SUSPENDED, summaries.get(d1).getFirst().getType());
+            assertEquals(DomainEventType.STOPPED, summaries.get(d1).getLast().getType());
+            assertEquals(1, summaries.get(d2).getCount());
+
+            // flush() cancels the windows it closes, so they do not close
+            // the windows opened afterwards early
+            final ScheduledThreadPoolExecutor manual = new ScheduledThreadPoolExecutor(1);
+            manual.setRemoveOnCancelPolicy(true);
+            try {
+                final CoalescingLifecycleListener m =
+                    new CoalescingLifecycleListener(manual, 1, TimeUnit.HOURS, target);
+                m.onLifecycleChange(d2, new DomainEvent(DomainEventType.STARTED, 0));
+                assertEquals(1, manual.getQueue().size());
+                m.flush();
+                assertEquals(0, manual.getQueue().size());
+                m.onLifecycleChange(d2, new DomainEvent(DomainEventType.STOPPED, 0));
+                assertEquals(1, manual.getQueue().size());
+                assertEquals(1, m.getPendingCount());
+            } finally {
+                manual.shutdownNow();
+            }
+
+            summaries.clear();
+            l = new CoalescingLifecycleListener(scheduler, 1, TimeUnit.MILLISECONDS, target);
+            l.onLifecycleChange(d1, new DomainEvent(DomainEventType.RESUMED, 0));
+            assertTrue(delivered.await(10, TimeUnit.SECONDS));
+            assertEquals(DomainEventType.RESUMED, summaries.get(d1).getLast().getType());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    public void testDomainEventTable() throws Exception {
+        final DomainEventTable t = new DomainEventTable();
+        final UUID u1 = new UUID(0, 1);
+        final UUID u2 = new UUID(0, 2);
+        final EventListener a = new EventListener() {};
+        final EventListener b = new EventListener() {};
+
+        assertTrue(t.isEmpty());
+        assertTrue(t.add(u1, a));
+        assertTrue(t.add(u2, a));
+        assertFalse(t.add(u1, a));
+        assertTrue(t.add(null, b));
+        assertFalse("already added for all domains", t.add(u1, b));
+        assertEquals(Arrays.asList(a), Arrays.asList(t.forDomain(u1)));
+        assertEquals(Arrays.asList(b), Arrays.asList(t.forAll()));
+        assertTrue(t.hasDomainListeners());
+
+        // adding for all domains replaces the single domains
+        assertTrue(t.add(null, a));
+        assertEquals(0, t.forDomain(u1).length);
+        assertEquals(0, t.forDomain(u2).length);
+        assertFalse(t.hasDomainListeners());
+        assertEquals(Arrays.asList(b, a), Arrays.asList(t.forAll()));
+
+        assertFalse(t.isOnly(a));
+        assertTrue(t.remove(a));
+        assertFalse(t.remove(a));
+        assertTrue(t.isOnly(b));
+        assertTrue(t.remove(b));
+        assertTrue(t.isEmpty());
+        assertEquals(0, t.forAll().length);
+    }
+
+    public void testTimerWheel() throws Exception {
+        final TimerWheel wheel = new TimerWheel(8, 100);
+        final TimerWheel.Timer a = new TimerWheel.Timer();
+        final TimerWheel.Timer b = new TimerWheel.Timer();
+        final TimerWheel.Timer c = new TimerWheel.Timer();
+        assertEquals(-1, wheel.nextTimeout(100));
+
+        wheel.schedule(a, 105);
+        // more than one round away
+        wheel.schedule(b, 120);
+        wheel.schedule(c, 103);
+        wheel.cancel(c);
+        assertEquals(2, wheel.size());
+        assertEquals(5, wheel.nextTimeout(100));
+
+        final List<TimerWheel.Timer> expired = new ArrayList<TimerWheel.Timer>();
+        wheel.expire(110, expired);
+        assertEquals(Arrays.asList(a), expired);
+        assertFalse(a.isScheduled());
+        assertEquals(8, wheel.nextTimeout(110));
+
+        expired.clear();
+        wheel.expire(125, expired);
+        assertEquals(Arrays.asList(b), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    public void testEventLoop() throws Exception {
+        final EventLoop loop = new EventLoop();
+        final int[] fds = new int[2];
+        assertEquals(0, CLibrary.INSTANCE.pipe(fds));
+
+        final List<Integer> events = new ArrayList<Integer>();
+        final List<Integer> ticks = new ArrayList<Integer>();
+        final CountDownLatch freed = new CountDownLatch(1);
+        final int watch = loop.addHandle(fds[0], Libvirt.VIR_EVENT_HANDLE_READABLE,
+                                         new Libvirt.VirEventHandleCallback() {
+                                             @Override
+                                             public void eventCallback(int watch, int fd, int e, Pointer opaque) {
+                                                 events.add(e);
+                                                 CLibrary.INSTANCE.read(fd, new byte[1], new SizeT(1));
+                                             }
+                                         }, null,
+                                         new Libvirt.VirFreeCallback() {
+                                             @Override
+                                             public void freeCallback(Pointer opaque) {
+                                                 freed.countDown();
+                                             }
+                                         });
+        final int timer = loop.addTimeout(5, new Libvirt.VirEventTimeoutCallback() {
+                @Override
+                public void tick(int id, Pointer opaque) {
+                    ticks.add(id);
+                }
+            }, null, null);
+        assertEquals(1, loop.getHandleCount());
+        assertEquals(1, loop.getTimeoutCount());
+
+        CLibrary.INSTANCE.write(fds[1], new byte[1], new SizeT(1));
+        assertEquals(1, loop.runOnce(1000));
+        assertEquals(Arrays.asList(Libvirt.VIR_EVENT_HANDLE_READABLE), events);
+
+        // the timeout is periodic
+        for (int i = 0; i < 100 && ticks.size() < 2; i++) {
+            loop.runOnce(1000);
+        }
+        assertEquals(Arrays.asList(timer, timer), ticks);
+        loop.updateTimeout(timer, -1);
+
+        assertEquals(0, loop.removeHandle(watch));
+        assertEquals(1, freed.getCount());
+        assertEquals(0, loop.runOnce(0));
+        assertEquals("freed by the loop", 0, freed.getCount());
+
+        // stop() interrupts poll() on the looping thread
+        final Thread t = new Thread(loop);
+        t.start();
+        Thread.sleep(50);
+        loop.stop();
+        t.join(10000);
+        assertFalse(t.isAlive());
+
+        CLibrary.INSTANCE.close(fds[0]);
+        CLibrary.INSTANCE.close(fds[1]);
+    }
+
+    public void testEventLoopConcurrentWakeup() throws Exception {
+        final EventLoop loop = new EventLoop();
+        final int threads = 4;
+        final int perThread = 500;
+        final Map<Integer, Boolean> ticked = new ConcurrentHashMap<Integer, Boolean>();
+        final CountDownLatch done = new CountDownLatch(threads * perThread);
+        final Libvirt.VirEventTimeoutCallback cb = new Libvirt.VirEventTimeoutCallback() {
+                @Override
+                public void tick(int id, Pointer opaque) {
+                    loop.updateTimeout(id, -1);
+                    if (ticked.put(id, Boolean.TRUE) == null) done.countDown();
+                }
+            };
+
+        final Thread looping = new Thread(loop);
+        looping.start();
+
+        // every timeout expires immediately, but only if adding it woke
+        // up the loop blocked in poll()
+        final Thread[] adders = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            adders[i] = new Thread() {
+                    @Override
+                    public void run() {
+                        for (int j = 0; j < perThread; j++) {
+                            loop.addTimeout(0, cb, null, null);
+                            if (j % 16 == 0) Thread.yield();
+                        }
+                    }
+                };
+            adders[i].start();
+        }
+        for (Thread a : adders) {
+            a.join();
+        }
+
+        assertTrue("lost wakeup, " + done.getCount() + " timeouts pending",
+                   done.await(10, TimeUnit.SECONDS));
+        loop.stop();
+        looping.join(10000);
+        assertFalse(looping.isAlive());
+    }
+
+    public void testLatencyHistogram() throws Exception {
+        for (long v : new long[] { 0, 3, 4, 7, 8, 1000, 123456789, Long.MAX_VALUE }) {
+            final int b = LatencyHistogram.bucket(v);
+            assertTrue(v + " <= upper bound", v <= LatencyHistogram.upperBound(b));
+            assertTrue(v + " > previous upper bound", b == 0 || v > LatencyHistogram.upperBound(b - 1));
+        }
+
+        final LatencyHistogram h = new LatencyHistogram();
+        assertEquals(0, h.getPercentile(99));
+        for (int i = 1; i <= 100; i++) {
+            h.record(i * 1000);
+        }
+        assertEquals(100, h.getCount());
+        assertEquals(100000, h.getMax());
+        final long median = h.getPercentile(50);
+        assertTrue(String.valueOf(median), median >= 50000 && median <= 50000 * 5 / 4);
+        assertEquals(100000, h.getPercentile(100));
+    }
+
+    public void testEventLoopStats() throws Exception {
+        final EventLoopStats stats = EventLoopStats.getInstance();
+        final List<Long> lags = new ArrayList<Long>();
+        final EventLoopStats.LagListener l = new EventLoopStats.LagListener() {
+                @Override
+                public void onLag(long lag, long budget) {
+                    lags.add(lag);
+                }
+            };
+        stats.addLagListener(l);
+        stats.setLagBudget(1, TimeUnit.MILLISECONDS);
+        try {
+            stats.reset();
+            final long start = stats.beginIteration();
+            stats.waiting();
+            assertEquals(0, stats.getLag());
+
+            // a slow callback from within the native event loop
+            final long cb = stats.beginCallback();
+            Thread.sleep(10);
+            assertTrue(stats.checkLag() > 0);
+            stats.endCallback(EventLoopStats.CallbackType.BLOCK_JOB, cb);
+            assertEquals("reported once per stall", 1, lags.size());
+            assertTrue(lags.get(0) >= TimeUnit.MILLISECONDS.toNanos(1));
+            assertEquals(0, stats.getLag());
+
+            stats.woken();
+            stats.endIteration(start);
+            assertEquals(1, stats.getIterations());
+            assertEquals(1, stats.callbackTime(EventLoopStats.CallbackType.BLOCK_JOB).getCount());
+            assertEquals(Long.valueOf(1), stats.getCallbackCount().get("BLOCK_JOB"));
+            assertEquals(1, stats.getLagExceededCount());
+
+            stats.stopped();
+            assertEquals(0, stats.getLag());
+        } finally {
+            stats.removeLagListener(l);
+            stats.setLagBudget(-1, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void testDomainEventPublisher() throws Exception {
+        final Connect conn = new Connect((ConnectionPointer) null);
+        final Domain d1 = new Domain(conn, null, new UUID(0, 1));
+        final Domain d2 = new Domain(conn, null, new UUID(0, 2));
+        final int[] registered = new int[1];
+
+        class TestPublisher extends DomainEventPublisher<String> {
+            TestPublisher(OverflowStrategy strategy, int capacity) {
+                super(strategy, capacity);
+            }
+
+            @Override
+            protected void register() {
+                registered[0]++;
+            }
+
+            @Override
+            protected void deregister() {
+                registered[0]--;
+            }
+
+            void fire(Domain d, String detail) {
+                publish(d, detail);
+            }
+        }
+
+        class TestSubscriber implements EventFlow.Subscriber<DomainNotification<String>> {
+            final List<String> received = new ArrayList<String>();
+            EventFlow.Subscription subscription;
+            boolean completed;
+
+            @Override
+            public void onSubscribe(EventFlow.Subscription s) {
+                subscription = s;
+            }
+
+            @Override
+            public void onNext(DomainNotification<String> n) {
+                received.add(n.getDetail() + n.getCount());
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fail(t.toString());
+            }
+
+            @Override
+            public void onComplete() {
+                completed = true;
+            }
+        }
+
+        // the oldest event is dropped
+        TestPublisher p = new TestPublisher(OverflowStrategy.DROP_OLDEST, 2);
+        TestSubscriber s = new TestSubscriber();
+        p.subscribe(s);
+        assertEquals(1, registered[0]);
+        p.fire(d1, "a");
+        p.fire(d1, "b");
+        p.fire(d1, "c");
+        final DomainEventSubscription<String> sub = p.getSubscriptions().get(0);
+        assertEquals(2, sub.getPending());
+        assertEquals(1, sub.getDropped());
+        assertTrue(sub.getLag() > 0);
+        s.subscription.request(1);
+        assertEquals(Arrays.asList("b1"), s.received);
+        s.subscription.request(5);
+        assertEquals(Arrays.asList("b1", "c1"), s.received);
+        assertEquals(4, sub.getDemand());
+        s.subscription.cancel();
+        assertEquals(0, registered[0]);
+
+        // an invalid request in onSubscribe fails the subscription
+        p = new TestPublisher(OverflowStrategy.DROP_OLDEST, 2);
+        final List<Throwable> errors = new ArrayList<Throwable>();
+        p.subscribe(new EventFlow.Subscriber<DomainNotification<String>>() {
+                @Override
+                public void onSubscribe(EventFlow.Subscription s) {
+                    s.request(0);
+                }
+
+                @Override
+                public void onNext(DomainNotification<String> n) {
+                    fail("onNext");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    errors.add(t);
+                }
+
+                @Override
+                public void onComplete() {
+                    fail("onComplete");
+                }
+            });
+        assertEquals(1, errors.size());
+        assertTrue(p.getSubscriptions().isEmpty());
+        assertEquals("not registered", 0, registered[0]);
+
+        // events of the same domain are merged
+        p = new TestPublisher(OverflowStrategy.COALESCE, 10);
+        s = new TestSubscriber();
+        p.subscribe(s);
+        p.fire(d1, "a");
+        p.fire(d2, "b");
+        p.fire(d1, "c");
+        assertEquals(1, p.getSubscriptions().get(0).getMerged());
+        s.subscription.request(Long.MAX_VALUE);
+        assertEquals(Arrays.asList("c2", "b1"), s.received);
+        p.close();
+        assertTrue(s.completed);
+        assertEquals(0, registered[0]);
+
+        // the publishing thread waits for demand
+        final TestPublisher blocking = new TestPublisher(OverflowStrategy.BLOCK, 1);
+        final TestSubscriber bs = new TestSubscriber();
+        blocking.subscribe(bs);
+        final Thread t = new Thread() {
+                @Override
+                public void run() {
+                    blocking.fire(d1, "a");
+                    blocking.fire(d1, "b");
+                }
+            };
+        t.start();
+        t.join(200);
+        assertTrue("blocked", t.isAlive());
+        bs.subscription.request(2);
+        t.join(10000);
+        assertFalse(t.isAlive());
+        assertEquals(Arrays.asList("a1", "b1"), bs.received);
+        bs.subscription.cancel();
+    }
+
+    public void testDirectBufferPool() throws Exception {
+        final DirectBufferPool pool = new DirectBufferPool(64, 1);
+        final ByteBuffer a = pool.acquire();
+        final ByteBuffer b = pool.acquire();
+        assertTrue(a.isDirect());
+        assertEquals(64, a.capacity());
+        assertEquals(2, pool.getAllocated());
+
+        a.put((byte) 1);
+        pool.release(a);
+        // the pool is full
+        pool.release(b);
+        assertEquals(1, pool.getPooled());
+
+        final ByteBuffer c = pool.acquire();
+        assertSame(a, c);
+        assertEquals(0, c.position());
+        assertEquals(64, c.limit());
+        assertEquals(3, pool.getAcquired());
+        assertEquals(2, pool.getAllocated());
+
+        try {
+            pool.release(ByteBuffer.allocate(64));
+            fail("released a heap buffer");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals(DirectBufferPool.DEFAULT_BUFFER_SIZE, DirectBufferPool.getDefault().getBufferSize());
+    }
+
+    public void testDomainEventJournal() throws Exception {
+        final File f = File.createTempFile("libvirt-journal", null);
+        f.delete();
+        try {
+            final List<Long> seqs = new ArrayList<Long>();
+            final DomainEventJournal.RecordHandler h = new DomainEventJournal.RecordHandler() {
+                    @Override
+                    public void onRecord(DomainEventJournal.Record r) {
+                        seqs.add(r.sequence());
+                        assertEquals(r.sequence(), r.uuidLeastSignificantBits());
+                        assertEquals(DomainEventJournal.LIFECYCLE, r.eventId());
+                        assertEquals(-r.sequence(), r.detail());
+                    }
+                };
+
+            DomainEventJournal j = DomainEventJournal.open(f, 4);
+            assertEquals(64 + 4 * DomainEventJournal.RECORD_SIZE, f.length());
+            for (long i = 0; i < 3; i++) {
+                assertEquals(i, j.append(0, i, DomainEventJournal.LIFECYCLE, 2, -i));
+            }
+            assertEquals(3, j.read(0, h, 10));
+            assertEquals(Arrays.asList(0L, 1L, 2L), seqs);
+            j.close();
+            assertEquals(-1, j.append(0, 3, DomainEventJournal.LIFECYCLE, 2, -3));
+
+            // continues after reopening and keeps the last 4 records
+            j = DomainEventJournal.open(f, 4);
+            assertEquals(3, j.getNextSequence());
+            for (long i = 3; i < 6; i++) {
+                assertEquals(i, j.append(0, i, DomainEventJournal.LIFECYCLE, 2, -i));
+            }
+            assertEquals(2, j.getFirstSequence());
+
+            final DomainEventJournal r = DomainEventJournal.openReadOnly(f);
+            assertEquals(4, r.getCapacity());
+            seqs.clear();
+            assertEquals(4, r.read(1, h, 2));
+            assertEquals(Arrays.asList(2L, 3L), seqs);
+            j.append(0, 6, DomainEventJournal.LIFECYCLE, 2, -6);
+            seqs.clear();
+            assertEquals(7, r.read(4, h, 10));
+            assertEquals(Arrays.asList(4L, 5L, 6L), seqs);
+
+            // a torn record fails the checksum: the newest one is retried
+            // by the next read, older ones are skipped
+            final RandomAccessFile raf = new RandomAccessFile(f, "rw");
+            try {
+                raf.seek(64 + 2 * DomainEventJournal.RECORD_SIZE + 40); // detail of record 6
+                raf.write(0x55);
+                seqs.clear();
+                assertEquals(6, r.read(4, h, 10));
+                assertEquals(Arrays.asList(4L, 5L), seqs);
+                raf.seek(64 + 1 * DomainEventJournal.RECORD_SIZE + 40); // detail of record 5
+                raf.write(0x55);
+                seqs.clear();
+                assertEquals(6, r.read(4, h, 10));
+                assertEquals(Arrays.asList(4L), seqs);
+            } finally {
+                raf.close();
+            }
+            try {
+                r.append(0, 0, 0, 0, 0);
+                fail("appended to a read-only journal");
+            } catch (IllegalStateException e) {
+                // expected
+            }
+            r.close();
+            j.close();
+
+            try {
+                DomainEventJournal.open(f, 8);
+                fail("opened with a different capacity");
+            } catch (IOException e) {
+                // expected
+            }
+        } finally {
+            f.delete();
+        }
+    }
+
     public void testLibrary() throws Exception {
         assertTrue("Library.getVersion() > 6000", Library.getVersion() > 6000);
     }